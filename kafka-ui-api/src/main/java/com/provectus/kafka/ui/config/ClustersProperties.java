@@ -8,6 +8,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import javax.annotation.Nullable;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -50,6 +52,8 @@ public class ClustersProperties {
     String defaultValueSerde;
     List<Masking> masking;
     Long pollingThrottleRate;
+    Integer maxParallelPollingConsumers;
+    String customPartitionerTopicsPattern; // key lookup scans all partitions of matching topics
     TruststoreConfig ssl;
     AuditProperties audit;
   }
@@ -59,6 +63,15 @@ public class ClustersProperties {
     Integer pollTimeoutMs;
     Integer maxPageSize;
     Integer defaultPageSize;
+    Integer consumerPoolMaxSize;
+    Integer consumerPoolIdleTimeoutMs;
+    Integer consumerPoolBorrowTimeoutMs;
+    Integer deserializationParallelism;
+    Integer messagesCacheMaxSizeMb; // 0 to disable deserialized messages cache
+    String cursorSigningKey; // should be same for all app instances behind load balancer
+    Integer pagePrefetchMaxBytes; // next page prefetch is disabled if not set
+    Integer messagePreviewMaxChars; // polled messages keys & contents are not truncated if not set
+    Integer serdeDetectionTtlSec; // serdes are not auto-detected by topics content if not set
   }
 
   @Data
@@ -163,6 +176,7 @@ public class ClustersProperties {
   public void validateAndSetDefaults() {
     if (clusters != null) {
       validateClusterNames();
+      validateCustomPartitionerTopicsPatterns();
       flattenClusterProperties();
       setMetricsDefaults();
     }
@@ -198,6 +212,20 @@ public class ClustersProperties {
     return flattened;
   }
 
+  private void validateCustomPartitionerTopicsPatterns() {
+    for (Cluster cluster : clusters) {
+      if (cluster.getCustomPartitionerTopicsPattern() != null) {
+        try {
+          Pattern.compile(cluster.getCustomPartitionerTopicsPattern());
+        } catch (PatternSyntaxException e) {
+          throw new IllegalStateException(
+              "Application config isn't valid. Invalid customPartitionerTopicsPattern for cluster "
+                  + cluster.getName() + ": " + e.getMessage());
+        }
+      }
+    }
+  }
+
   private void validateClusterNames() {
     // if only one cluster provided it is ok not to set name
     if (clusters.size() == 1 && !StringUtils.hasText(clusters.get(0).getName())) {
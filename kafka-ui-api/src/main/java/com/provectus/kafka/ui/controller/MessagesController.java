@@ -12,18 +12,26 @@ import com.provectus.kafka.ui.exception.ValidationException;
 import com.provectus.kafka.ui.model.ConsumerPosition;
 import com.provectus.kafka.ui.model.CreateTopicMessageDTO;
 import com.provectus.kafka.ui.model.MessageFilterTypeDTO;
+import com.provectus.kafka.ui.model.MessagesRequest;
+import com.provectus.kafka.ui.model.MessagesSearchDTO;
+import com.provectus.kafka.ui.model.MessagesSearchRequestDTO;
 import com.provectus.kafka.ui.model.SeekDirectionDTO;
 import com.provectus.kafka.ui.model.SeekTypeDTO;
 import com.provectus.kafka.ui.model.SerdeUsageDTO;
 import com.provectus.kafka.ui.model.SmartFilterTestExecutionDTO;
 import com.provectus.kafka.ui.model.SmartFilterTestExecutionResultDTO;
+import com.provectus.kafka.ui.model.TopicLatestValuesDTO;
+import com.provectus.kafka.ui.model.TopicMessageDTO;
 import com.provectus.kafka.ui.model.TopicMessageEventDTO;
 import com.provectus.kafka.ui.model.TopicSerdeSuggestionDTO;
 import com.provectus.kafka.ui.model.rbac.AccessContext;
 import com.provectus.kafka.ui.model.rbac.permission.AuditAction;
 import com.provectus.kafka.ui.model.rbac.permission.TopicAction;
+import com.provectus.kafka.ui.serdes.DeserializedTopicMessage;
 import com.provectus.kafka.ui.service.DeserializationService;
 import com.provectus.kafka.ui.service.MessagesService;
+import com.provectus.kafka.ui.service.compacted.CompactedTopicViewService;
+import com.provectus.kafka.ui.service.search.MessagesSearchService;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -47,6 +55,8 @@ public class MessagesController extends AbstractController implements MessagesAp
 
   private final MessagesService messagesService;
   private final DeserializationService deserializationService;
+  private final MessagesSearchService messagesSearchService;
+  private final CompactedTopicViewService compactedTopicViewService;
 
   @Override
   public Mono<ResponseEntity<Void>> deleteTopicMessages(
@@ -87,6 +97,12 @@ public class MessagesController extends AbstractController implements MessagesAp
                                                                            SeekDirectionDTO seekDirection,
                                                                            String keySerde,
                                                                            String valueSerde,
+                                                                           Integer pollingConsumers,
+                                                                           Boolean batchMessages,
+                                                                           String cursor,
+                                                                           String keyLookup,
+                                                                           Long maxBytes,
+                                                                           Boolean rawJsonContent,
                                                                            ServerWebExchange exchange) {
     var contextBuilder = AccessContext.builder()
         .cluster(clusterName)
@@ -107,13 +123,25 @@ public class MessagesController extends AbstractController implements MessagesAp
         topicName,
         parseSeekTo(topicName, seekType, seekTo)
     );
-    Mono<ResponseEntity<Flux<TopicMessageEventDTO>>> job = Mono.just(
-        ResponseEntity.ok(
-            messagesService.loadMessages(
-                getCluster(clusterName), topicName, positions, q, filterQueryType,
-                limit, seekDirection, keySerde, valueSerde)
-        )
-    );
+    var request = MessagesRequest.builder()
+        .consumerPosition(positions)
+        .query(q)
+        .filterQueryType(filterQueryType)
+        .pageSize(limit)
+        .seekDirection(seekDirection)
+        .keySerde(keySerde)
+        .valueSerde(valueSerde)
+        .pollingConsumers(pollingConsumers)
+        .batchMessages(Boolean.TRUE.equals(batchMessages))
+        .cursor(cursor)
+        .keyLookup(keyLookup)
+        .maxBytes(maxBytes)
+        .build();
+    Flux<TopicMessageEventDTO> messages = messagesService.loadMessages(getCluster(clusterName), topicName, request);
+    if (Boolean.TRUE.equals(rawJsonContent)) {
+      messages = messages.map(DeserializedTopicMessage::withRawJsonContent);
+    }
+    Mono<ResponseEntity<Flux<TopicMessageEventDTO>>> job = Mono.just(ResponseEntity.ok(messages));
 
     var context = contextBuilder.build();
     return validateAccess(context)
@@ -121,6 +149,97 @@ public class MessagesController extends AbstractController implements MessagesAp
         .doOnEach(sig -> audit(context, sig));
   }
 
+  @Override
+  public Mono<ResponseEntity<MessagesSearchDTO>> startMessagesSearch(
+      String clusterName, String topicName, @Valid Mono<MessagesSearchRequestDTO> messagesSearchRequest,
+      ServerWebExchange exchange) {
+    var context = messagesReadContext(clusterName, topicName, "startMessagesSearch");
+
+    return validateAccess(context).then(
+        messagesSearchRequest
+            .flatMap(request -> messagesSearchService.startSearch(getCluster(clusterName), topicName, request))
+            .map(ResponseEntity::ok)
+    ).doOnEach(sig -> audit(context, sig));
+  }
+
+  @Override
+  public Mono<ResponseEntity<MessagesSearchDTO>> getMessagesSearch(String clusterName,
+                                                                   String topicName,
+                                                                   String searchId,
+                                                                   Integer page,
+                                                                   Integer perPage,
+                                                                   ServerWebExchange exchange) {
+    var context = messagesReadContext(clusterName, topicName, "getMessagesSearch");
+
+    return validateAccess(context)
+        .then(Mono.fromSupplier(() ->
+            messagesSearchService.getSearch(getCluster(clusterName), topicName, searchId, page, perPage)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build())))
+        .doOnEach(sig -> audit(context, sig));
+  }
+
+  @Override
+  public Mono<ResponseEntity<Void>> cancelMessagesSearch(String clusterName,
+                                                         String topicName,
+                                                         String searchId,
+                                                         ServerWebExchange exchange) {
+    var context = messagesReadContext(clusterName, topicName, "cancelMessagesSearch");
+
+    return validateAccess(context)
+        .then(Mono.fromSupplier(() ->
+            messagesSearchService.cancelSearch(getCluster(clusterName), topicName, searchId)
+                ? ResponseEntity.ok().<Void>build()
+                : ResponseEntity.notFound().<Void>build()))
+        .doOnEach(sig -> audit(context, sig));
+  }
+
+  @Override
+  public Mono<ResponseEntity<TopicMessageDTO>> getTopicMessage(String clusterName,
+                                                               String topicName,
+                                                               Integer partition,
+                                                               Long offset,
+                                                               String keySerde,
+                                                               String valueSerde,
+                                                               ServerWebExchange exchange) {
+    var contextBuilder = AccessContext.builder()
+        .cluster(clusterName)
+        .topic(topicName)
+        .topicActions(MESSAGES_READ)
+        .operationName("getTopicMessage");
+
+    if (auditService.isAuditTopic(getCluster(clusterName), topicName)) {
+      contextBuilder.auditActions(AuditAction.VIEW);
+    }
+
+    var context = contextBuilder.build();
+    return validateAccess(context)
+        .then(messagesService.loadMessage(getCluster(clusterName), topicName, partition, offset, keySerde, valueSerde))
+        .map(ResponseEntity::ok)
+        .doOnEach(sig -> audit(context, sig));
+  }
+
+  @Override
+  public Mono<ResponseEntity<TopicLatestValuesDTO>> getTopicLatestValues(String clusterName,
+                                                                         String topicName,
+                                                                         Integer position,
+                                                                         Integer limit,
+                                                                         String q,
+                                                                         MessageFilterTypeDTO filterQueryType,
+                                                                         String keySerde,
+                                                                         String valueSerde,
+                                                                         Boolean refresh,
+                                                                         ServerWebExchange exchange) {
+    var context = messagesReadContext(clusterName, topicName, "getTopicLatestValues");
+
+    return validateAccess(context)
+        .then(compactedTopicViewService.getLatestValues(
+            getCluster(clusterName), topicName, position, limit, q, filterQueryType, keySerde, valueSerde,
+            Boolean.TRUE.equals(refresh)))
+        .map(ResponseEntity::ok)
+        .doOnEach(sig -> audit(context, sig));
+  }
+
   @Override
   public Mono<ResponseEntity<Void>> sendTopicMessages(
       String clusterName, String topicName, @Valid Mono<CreateTopicMessageDTO> createTopicMessage,
@@ -140,6 +259,19 @@ public class MessagesController extends AbstractController implements MessagesAp
     ).doOnEach(sig -> audit(context, sig));
   }
 
+  // audit topic messages (including search results previews) are only readable with audit view permission
+  private AccessContext messagesReadContext(String clusterName, String topicName, String operationName) {
+    var contextBuilder = AccessContext.builder()
+        .cluster(clusterName)
+        .topic(topicName)
+        .topicActions(MESSAGES_READ)
+        .operationName(operationName);
+    if (auditService.isAuditTopic(getCluster(clusterName), topicName)) {
+      contextBuilder.auditActions(AuditAction.VIEW);
+    }
+    return contextBuilder.build();
+  }
+
   /**
    * The format is [partition]::[offset] for specifying offsets
    * or [partition]::[timestamp in millis] for specifying timestamps.
@@ -180,16 +312,15 @@ public class MessagesController extends AbstractController implements MessagesAp
         .operationName("getSerdes")
         .build();
 
-    TopicSerdeSuggestionDTO dto = new TopicSerdeSuggestionDTO()
-        .key(use == SerdeUsageDTO.SERIALIZE
-            ? deserializationService.getSerdesForSerialize(getCluster(clusterName), topicName, KEY)
-            : deserializationService.getSerdesForDeserialize(getCluster(clusterName), topicName, KEY))
-        .value(use == SerdeUsageDTO.SERIALIZE
-            ? deserializationService.getSerdesForSerialize(getCluster(clusterName), topicName, VALUE)
-            : deserializationService.getSerdesForDeserialize(getCluster(clusterName), topicName, VALUE));
-
+    // serdes suggestion can sample topic's records (see SerdeDetectionService), so it is done in boundedElastic
     return validateAccess(context).then(
-        Mono.just(dto)
+        Mono.fromCallable(() -> new TopicSerdeSuggestionDTO()
+                .key(use == SerdeUsageDTO.SERIALIZE
+                    ? deserializationService.getSerdesForSerialize(getCluster(clusterName), topicName, KEY)
+                    : deserializationService.getSerdesForDeserialize(getCluster(clusterName), topicName, KEY))
+                .value(use == SerdeUsageDTO.SERIALIZE
+                    ? deserializationService.getSerdesForSerialize(getCluster(clusterName), topicName, VALUE)
+                    : deserializationService.getSerdesForDeserialize(getCluster(clusterName), topicName, VALUE)))
             .subscribeOn(Schedulers.boundedElastic())
             .map(ResponseEntity::ok)
     );
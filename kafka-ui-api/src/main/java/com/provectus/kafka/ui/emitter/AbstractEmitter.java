@@ -1,9 +1,16 @@
 package com.provectus.kafka.ui.emitter;
 
 import com.provectus.kafka.ui.model.TopicMessageEventDTO;
+import com.provectus.kafka.ui.util.ApplicationMetrics;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.utils.Bytes;
 import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
 
 abstract class AbstractEmitter implements java.util.function.Consumer<FluxSink<TopicMessageEventDTO>> {
 
@@ -16,11 +23,42 @@ abstract class AbstractEmitter implements java.util.function.Consumer<FluxSink<T
   }
 
   protected PolledRecords poll(FluxSink<TopicMessageEventDTO> sink, EnhancedConsumer consumer) {
-    var records = consumer.pollEnhanced(pollingSettings.getPollTimeout());
+    var records = pollAndIndex(consumer);
     sendConsuming(sink, records);
     return records;
   }
 
+  // can be called from non-emitter threads, so it should not touch sink
+  protected PolledRecords pollAndIndex(EnhancedConsumer consumer) {
+    var records = consumer.pollEnhanced(pollingSettings.getPollTimeout());
+    pollingSettings.getTimestampIndex().recordPolled(records);
+    return records;
+  }
+
+  protected TimestampIndex getTimestampIndex() {
+    return pollingSettings.getTimestampIndex();
+  }
+
+  protected int getPagePrefetchMaxBytes() {
+    return pollingSettings.getPagePrefetchMaxBytes();
+  }
+
+  protected PrefetchStore getPrefetchStore() {
+    return pollingSettings.getPrefetchStore();
+  }
+
+  protected Scheduler getPollingScheduler() {
+    return pollingSettings.getPollingScheduler();
+  }
+
+  protected ApplicationMetrics getMetrics() {
+    return pollingSettings.getMetrics();
+  }
+
+  protected long sentMessages() {
+    return messagesProcessing.sentMessages();
+  }
+
   protected boolean sendLimitReached() {
     return messagesProcessing.limitReached();
   }
@@ -29,6 +67,11 @@ abstract class AbstractEmitter implements java.util.function.Consumer<FluxSink<T
     messagesProcessing.send(sink, records);
   }
 
+  @Nullable
+  protected List<ConsumerRecord<Bytes, Bytes>> cachedRange(TopicPartition tp, long from, long to) {
+    return messagesProcessing.cachedRange(tp, from, to);
+  }
+
   protected void sendPhase(FluxSink<TopicMessageEventDTO> sink, String name) {
     messagesProcessing.sendPhase(sink, name);
   }
@@ -38,7 +81,23 @@ abstract class AbstractEmitter implements java.util.function.Consumer<FluxSink<T
   }
 
   protected void sendFinishStatsAndCompleteSink(FluxSink<TopicMessageEventDTO> sink) {
-    messagesProcessing.sendFinishEvent(sink);
+    sendFinishStatsAndCompleteSink(sink, null);
+  }
+
+  protected void sendFinishStatsAndCompleteSink(FluxSink<TopicMessageEventDTO> sink, @Nullable String nextCursor) {
+    messagesProcessing.sendFinishEvent(sink, nextCursor);
     sink.complete();
   }
+
+  protected void sendSorted(FluxSink<TopicMessageEventDTO> sink, Iterator<ConsumerRecord<Bytes, Bytes>> records) {
+    messagesProcessing.sendSorted(sink, records);
+  }
+
+  protected Map<Integer, Long> processedPositions() {
+    return messagesProcessing.processedPositions();
+  }
+
+  protected boolean isAscending() {
+    return messagesProcessing.isAscending();
+  }
 }
@@ -1,24 +1,38 @@
 package com.provectus.kafka.ui.emitter;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.provectus.kafka.ui.model.ConsumerPosition;
 import com.provectus.kafka.ui.model.TopicMessageDTO;
 import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
 
 public class BackwardEmitter extends RangePollingEmitter {
 
+  // max number of offsets per partition to poll in single round
+  private static final long MAX_WINDOW = 10_000;
+
+  // previous round stats, used for adaptive windows sizing
+  private long lastRoundSent;
+  private long lastRoundPolled;
+  private final Map<TopicPartition, long[]> lastRoundTimestamps = new HashMap<>(); // tp -> [min ts, max ts]
+
   public BackwardEmitter(Supplier<EnhancedConsumer> consumerSupplier,
                          ConsumerPosition consumerPosition,
                          int messagesPerPage,
                          ConsumerRecordDeserializer deserializer,
                          Predicate<TopicMessageDTO> filter,
-                         PollingSettings pollingSettings) {
+                         PollingSettings pollingSettings,
+                         RangePollingOptions options) {
     super(
         consumerSupplier,
         consumerPosition,
@@ -27,9 +41,15 @@ public class BackwardEmitter extends RangePollingEmitter {
             deserializer,
             filter,
             false,
-            messagesPerPage
+            messagesPerPage,
+            pollingSettings.getDeserializationScheduler(),
+            pollingSettings.getDeserializationParallelism(),
+            pollingSettings.getMessagesCache(),
+            options.getPageMaxBytes(),
+            pollingSettings.getMessagePreviewMaxChars()
         ),
-        pollingSettings
+        pollingSettings,
+        options
     );
   }
 
@@ -48,13 +68,66 @@ public class BackwardEmitter extends RangePollingEmitter {
     }
 
     int msgsToPollPerPartition = (int) Math.ceil((double) messagesPerPage / readToOffsets.size());
+    Map<TopicPartition, Long> windows = prevRange.isEmpty()
+        ? Map.of()
+        : adaptiveWindows(prevRange, messagesPerPage - sentMessages());
+
     TreeMap<TopicPartition, FromToOffset> result = new TreeMap<>(Comparator.comparingInt(TopicPartition::partition));
     readToOffsets.forEach((tp, toOffset) -> {
       long tpStartOffset = seekOperations.getBeginOffsets().get(tp);
       if (toOffset > tpStartOffset) {
-        result.put(tp, new FromToOffset(Math.max(tpStartOffset, toOffset - msgsToPollPerPartition), toOffset));
+        long window = windows.getOrDefault(tp, (long) msgsToPollPerPartition);
+        result.put(tp, new FromToOffset(Math.max(tpStartOffset, toOffset - window), toOffset));
       }
     });
     return result;
   }
+
+  @Override
+  protected void onRoundFinished(TreeMap<TopicPartition, FromToOffset> range,
+                                 List<ConsumerRecord<Bytes, Bytes>> polled,
+                                 long sentInRound) {
+    lastRoundSent = sentInRound;
+    lastRoundPolled = polled.size();
+    lastRoundTimestamps.clear();
+    for (var rec : polled) {
+      var tp = new TopicPartition(rec.topic(), rec.partition());
+      long ts = rec.timestamp();
+      lastRoundTimestamps.merge(tp, new long[] {ts, ts},
+          (prev, cur) -> new long[] {Math.min(prev[0], ts), Math.max(prev[1], ts)});
+    }
+  }
+
+  /**
+   * Sizes next round's windows so that all partitions are read back to the same point in time, and
+   * expected number of filter-passing records reaches messages left to send.
+   * Partition's rate (offsets per ms) is estimated from previous round's range size and records timestamps span.
+   * Partitions which rate can't be estimated (no records or same timestamps) are getting even share.
+   */
+  @VisibleForTesting
+  Map<TopicPartition, Long> adaptiveWindows(TreeMap<TopicPartition, FromToOffset> prevRange,
+                                            long messagesLeft) {
+    // using (+1) smoothing to not get zero pass ratio when no records matched filter in previous round
+    double passRatio = (lastRoundSent + 1.0) / (lastRoundPolled + 1.0);
+    double offsetsToPoll = Math.min(messagesLeft / passRatio, (double) MAX_WINDOW * prevRange.size());
+
+    Map<TopicPartition, Double> rates = new HashMap<>();
+    prevRange.forEach((tp, fromTo) -> {
+      long[] minMaxTs = lastRoundTimestamps.get(tp);
+      if (minMaxTs != null && minMaxTs[1] > minMaxTs[0]) {
+        rates.put(tp, (double) (fromTo.to() - fromTo.from()) / (minMaxTs[1] - minMaxTs[0]));
+      }
+    });
+    double evenShare = offsetsToPoll / prevRange.size();
+    double ratesSum = rates.values().stream().mapToDouble(d -> d).sum();
+    // time span (ms) that should be covered by partitions with known rates
+    double timeSpan = ratesSum > 0 ? (offsetsToPoll - evenShare * (prevRange.size() - rates.size())) / ratesSum : 0;
+
+    Map<TopicPartition, Long> windows = new HashMap<>();
+    prevRange.keySet().forEach(tp -> {
+      double window = rates.containsKey(tp) ? rates.get(tp) * timeSpan : evenShare;
+      windows.put(tp, Math.max(1, Math.min(MAX_WINDOW, (long) Math.ceil(window))));
+    });
+    return windows;
+  }
 }
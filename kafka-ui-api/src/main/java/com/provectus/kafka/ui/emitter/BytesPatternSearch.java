@@ -0,0 +1,46 @@
+package com.provectus.kafka.ui.emitter;
+
+import java.util.Arrays;
+
+/**
+ * Boyer–Moore–Horspool substring search over byte arrays. Bad-character shift table is
+ * precomputed once per pattern, so single instance can be reused to scan many records.
+ */
+final class BytesPatternSearch {
+
+  private final byte[] pattern;
+  private final int[] shifts = new int[256];
+
+  BytesPatternSearch(byte[] pattern) {
+    this.pattern = pattern;
+    Arrays.fill(shifts, pattern.length);
+    for (int i = 0; i < pattern.length - 1; i++) {
+      shifts[pattern[i] & 0xFF] = pattern.length - 1 - i;
+    }
+  }
+
+  boolean containedIn(byte[] data) {
+    return containedIn(data, 0, data.length);
+  }
+
+  boolean containedIn(byte[] data, int offset, int length) {
+    int patternLength = pattern.length;
+    if (patternLength == 0) {
+      return true;
+    }
+    int last = patternLength - 1;
+    int pos = offset;
+    int end = offset + length - patternLength;
+    while (pos <= end) {
+      int i = last;
+      while (data[pos + i] == pattern[i]) {
+        if (i == 0) {
+          return true;
+        }
+        i--;
+      }
+      pos += shifts[data[pos + last] & 0xFF];
+    }
+    return false;
+  }
+}
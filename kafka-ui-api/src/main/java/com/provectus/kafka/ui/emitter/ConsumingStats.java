@@ -2,6 +2,8 @@ package com.provectus.kafka.ui.emitter;
 
 import com.provectus.kafka.ui.model.TopicMessageConsumingDTO;
 import com.provectus.kafka.ui.model.TopicMessageEventDTO;
+import com.provectus.kafka.ui.model.TopicMessageNextPageCursorDTO;
+import javax.annotation.Nullable;
 import reactor.core.publisher.FluxSink;
 
 class ConsumingStats {
@@ -10,26 +12,39 @@ class ConsumingStats {
   private int records = 0;
   private long elapsed = 0;
   private int filterApplyErrors = 0;
+  private long skippedBeforeDeserialization = 0;
+  private long messagesSkipped = 0;
 
   void sendConsumingEvt(FluxSink<TopicMessageEventDTO> sink, PolledRecords polledRecords) {
+    sink.next(createConsumingEvt(polledRecords));
+  }
+
+  TopicMessageEventDTO createConsumingEvt(PolledRecords polledRecords) {
     bytes += polledRecords.bytes();
     records += polledRecords.count();
     elapsed += polledRecords.elapsed().toMillis();
-    sink.next(
-        new TopicMessageEventDTO()
-            .type(TopicMessageEventDTO.TypeEnum.CONSUMING)
-            .consuming(createConsumingStats())
-    );
+    return new TopicMessageEventDTO()
+        .type(TopicMessageEventDTO.TypeEnum.CONSUMING)
+        .consuming(createConsumingStats());
   }
 
   void incFilterApplyError() {
     filterApplyErrors++;
   }
 
-  void sendFinishEvent(FluxSink<TopicMessageEventDTO> sink) {
+  void incSkippedBeforeDeserialization() {
+    skippedBeforeDeserialization++;
+  }
+
+  void incMessagesSkipped(long count) {
+    messagesSkipped += count;
+  }
+
+  void sendFinishEvent(FluxSink<TopicMessageEventDTO> sink, @Nullable String nextCursor) {
     sink.next(
         new TopicMessageEventDTO()
             .type(TopicMessageEventDTO.TypeEnum.DONE)
+            .cursor(nextCursor != null ? new TopicMessageNextPageCursorDTO().id(nextCursor) : null)
             .consuming(createConsumingStats())
     );
   }
@@ -40,6 +55,8 @@ class ConsumingStats {
         .elapsedMs(elapsed)
         .isCancelled(false)
         .filterApplyErrors(filterApplyErrors)
+        .skippedBeforeDeserialization(skippedBeforeDeserialization)
+        .messagesSkipped(messagesSkipped)
         .messagesConsumed(records);
   }
 }
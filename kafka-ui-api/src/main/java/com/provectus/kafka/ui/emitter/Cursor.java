@@ -0,0 +1,67 @@
+package com.provectus.kafka.ui.emitter;
+
+import com.provectus.kafka.ui.model.MessageFilterTypeDTO;
+import com.provectus.kafka.ui.model.SeekDirectionDTO;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Polling state that is needed to continue polling from where previous page ended.
+ * Offsets are per-partition positions to continue from: for FORWARD polling - first offset to read,
+ * for BACKWARD polling - exclusive upper bound offset (same as OFFSET seek semantic for these modes).
+ */
+public record Cursor(String cluster,
+                     String topic,
+                     SeekDirectionDTO direction,
+                     Map<Integer, Long> offsets,
+                     @Nullable String filterQuery,
+                     MessageFilterTypeDTO filterType,
+                     @Nullable String keySerde,
+                     @Nullable String valueSerde,
+                     int limit,
+                     @Nullable String keyLookup,
+                     @Nullable Long maxBytes) {
+
+  public Map<TopicPartition, Long> topicPartitionOffsets() {
+    Map<TopicPartition, Long> result = new HashMap<>();
+    offsets.forEach((p, o) -> result.put(new TopicPartition(topic, p), o));
+    return result;
+  }
+
+  /**
+   * Passed to emitter to create next page's cursor when polling stopped because page limit was reached.
+   */
+  public static class Tracking {
+
+    private final Cursor template;
+    private final Function<Cursor, String> encoder;
+
+    // template's offsets are ignored
+    public Tracking(Cursor template, Function<Cursor, String> encoder) {
+      this.template = template;
+      this.encoder = encoder;
+    }
+
+    String createNextCursor(Map<Integer, Long> positions) {
+      return encoder.apply(
+          new Cursor(
+              template.cluster(),
+              template.topic(),
+              template.direction(),
+              new TreeMap<>(positions),
+              template.filterQuery(),
+              template.filterType(),
+              template.keySerde(),
+              template.valueSerde(),
+              template.limit(),
+              template.keyLookup(),
+              template.maxBytes()
+          )
+      );
+    }
+  }
+}
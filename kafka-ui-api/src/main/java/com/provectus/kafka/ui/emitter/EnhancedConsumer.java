@@ -10,9 +10,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
-import lombok.experimental.Delegate;
-import org.apache.kafka.clients.consumer.Consumer;
+import javax.annotation.Nullable;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
@@ -23,10 +21,17 @@ import org.apache.kafka.common.utils.Bytes;
 
 public class EnhancedConsumer extends KafkaConsumer<Bytes, Bytes> {
 
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
   private final PollingThrottler throttler;
   private final ApplicationMetrics metrics;
   private String pollingTopic;
 
+  // set when consumer leased from pool, consumer will be returned to it on close
+  @Nullable
+  private volatile EnhancedConsumerPool pool;
+  private volatile boolean wakeupRequested;
+
   public EnhancedConsumer(Properties properties,
                           PollingThrottler throttler,
                           ApplicationMetrics metrics) {
@@ -73,8 +78,45 @@ public class EnhancedConsumer extends KafkaConsumer<Bytes, Bytes> {
     throw new UnsupportedOperationException();
   }
 
+  void leasedFrom(EnhancedConsumerPool pool) {
+    this.pool = pool;
+  }
+
+  // resetting state before returning to pool, returns false if consumer can't be reused
+  boolean resetForReuse() {
+    if (wakeupRequested || Thread.currentThread().isInterrupted()) {
+      return false;
+    }
+    resume(paused());
+    unassign();
+    pollingTopic = null;
+    return true;
+  }
+
+  @Override
+  public void wakeup() {
+    // pending wakeup can't be cleared without polling, so consumer should not be returned to pool after it
+    wakeupRequested = true;
+    super.wakeup();
+  }
+
   @Override
   public void close(Duration timeout) {
+    var leasedFrom = pool;
+    if (leasedFrom != null) {
+      pool = null;
+      if (leasedFrom.release(this)) {
+        return;
+      }
+    }
+    closeUnpooled(timeout);
+  }
+
+  void closeUnpooled() {
+    closeUnpooled(CLOSE_TIMEOUT);
+  }
+
+  private void closeUnpooled(Duration timeout) {
     metrics.activeConsumers().decrementAndGet();
     super.close(timeout);
   }
@@ -0,0 +1,142 @@
+package com.provectus.kafka.ui.emitter;
+
+import com.provectus.kafka.ui.exception.IllegalEntityStateException;
+import com.provectus.kafka.ui.util.ApplicationMetrics;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pool of pre-connected consumers. Creating a consumer is expensive (metadata bootstrap, TLS/SASL handshakes),
+ * so instead of closing consumers after each polling session we keep them idle for a while and lease them to
+ * the next requests. Leased consumer is returned to the pool on {@link EnhancedConsumer#close()}.
+ */
+@Slf4j
+public class EnhancedConsumerPool implements Closeable {
+
+  private final Supplier<EnhancedConsumer> consumerFactory;
+  private final Duration idleTimeout;
+  private final Duration borrowTimeout;
+  private final ApplicationMetrics metrics;
+
+  // limits number of consumers (both leased and idle) created by pool
+  private final Semaphore permits;
+  private final Deque<IdleConsumer> idle = new ArrayDeque<>();
+  private volatile boolean closed = false;
+
+  private record IdleConsumer(EnhancedConsumer consumer, long returnedAtMs) {
+  }
+
+  public EnhancedConsumerPool(Supplier<EnhancedConsumer> consumerFactory,
+                              int maxSize,
+                              Duration idleTimeout,
+                              Duration borrowTimeout,
+                              ApplicationMetrics metrics) {
+    this.consumerFactory = consumerFactory;
+    this.idleTimeout = idleTimeout;
+    this.borrowTimeout = borrowTimeout;
+    this.metrics = metrics;
+    this.permits = new Semaphore(maxSize, true);
+  }
+
+  public EnhancedConsumer lease() {
+    acquirePermit();
+    return leaseWithAcquiredPermit();
+  }
+
+  // returns null if all consumers are leased, instead of waiting for free one
+  @Nullable
+  public EnhancedConsumer tryLease() {
+    if (!permits.tryAcquire()) {
+      return null;
+    }
+    return leaseWithAcquiredPermit();
+  }
+
+  private EnhancedConsumer leaseWithAcquiredPermit() {
+    try {
+      EnhancedConsumer consumer = pollIdle();
+      if (consumer == null) {
+        consumer = consumerFactory.get();
+      }
+      consumer.leasedFrom(this);
+      return consumer;
+    } catch (Exception e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void acquirePermit() {
+    try {
+      if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new IllegalEntityStateException(
+            "No free consumers available, try again later (waited %d ms)".formatted(borrowTimeout.toMillis()));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for consumer", e);
+    }
+  }
+
+  private synchronized EnhancedConsumer pollIdle() {
+    IdleConsumer idleConsumer = idle.pollFirst();
+    if (idleConsumer == null) {
+      return null;
+    }
+    metrics.idleConsumers().decrementAndGet();
+    return idleConsumer.consumer();
+  }
+
+  // returns false if consumer can't be reused and should be closed
+  boolean release(EnhancedConsumer consumer) {
+    try {
+      if (closed || !consumer.resetForReuse()) {
+        return false;
+      }
+      synchronized (this) {
+        idle.addFirst(new IdleConsumer(consumer, System.currentTimeMillis()));
+        metrics.idleConsumers().incrementAndGet();
+      }
+      return true;
+    } catch (Exception e) {
+      log.debug("Error resetting consumer state, consumer will be closed", e);
+      return false;
+    } finally {
+      permits.release();
+    }
+  }
+
+  public void evictIdle() {
+    long evictBefore = System.currentTimeMillis() - idleTimeout.toMillis();
+    List<EnhancedConsumer> toClose = new ArrayList<>();
+    synchronized (this) {
+      // idle consumers are ordered by return time, most recently returned first
+      while (!idle.isEmpty() && idle.peekLast().returnedAtMs() <= evictBefore) {
+        toClose.add(idle.pollLast().consumer());
+        metrics.idleConsumers().decrementAndGet();
+      }
+    }
+    toClose.forEach(EnhancedConsumer::closeUnpooled);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    List<EnhancedConsumer> toClose = new ArrayList<>();
+    synchronized (this) {
+      idle.forEach(ic -> toClose.add(ic.consumer()));
+      metrics.idleConsumers().addAndGet(-idle.size());
+      idle.clear();
+    }
+    toClose.forEach(EnhancedConsumer::closeUnpooled);
+  }
+}
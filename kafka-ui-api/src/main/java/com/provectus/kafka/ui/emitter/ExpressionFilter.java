@@ -0,0 +1,576 @@
+package com.provectus.kafka.ui.emitter;
+
+import static com.provectus.kafka.ui.emitter.JsonFieldsExtractor.MISSING;
+
+import com.provectus.kafka.ui.exception.ValidationException;
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.annotation.Nullable;
+
+/**
+ * Compiles filter expressions into predicates tree, without using scripting engines. Grammar:
+ * <pre>
+ *   expr       := and (('||' | 'or') and)*
+ *   and        := unary (('&amp;&amp;' | 'and') unary)*
+ *   unary      := ('!' | 'not') unary | '(' expr ')' | comparison
+ *   comparison := operand [ ('==' | '!=' | '&lt;' | '&lt;=' | '&gt;' | '&gt;=') operand
+ *                          | '=~' string
+ *                          | 'in' '[' literal (',' literal)* ']' ]
+ *   operand    := literal | 'partition' | 'offset' | 'timestampMs' | 'keyAsText' | 'valueAsText'
+ *                 | ('key' | 'value') path | 'headers' ('.' ident | '[' string ']')
+ *   path       := ('.' ident | '[' number ']' | '[' string ']')*
+ *   literal    := string | number | 'true' | 'false' | 'null'
+ * </pre>
+ * Examples: {@code value.user.age >= 18 && headers.source in ['web', 'mobile']},
+ * {@code partition == 0 and key =~ '^user-\d+$'}.
+ * Key and value paths are extracted with streaming json parser, only for fields referenced in expression.
+ */
+final class ExpressionFilter {
+
+  private ExpressionFilter() {
+  }
+
+  static Predicate<TopicMessageDTO> compile(String expression) {
+    var parser = new Parser(tokenize(expression));
+    Node root = parser.parseExpression();
+    parser.expectEnd();
+    Boolean constant = root.constantValue();
+    if (constant != null) {
+      return msg -> constant;
+    }
+    var keyExtractor = parser.keyPaths.isEmpty() ? null : new JsonFieldsExtractor(parser.keyPaths);
+    var valueExtractor = parser.valuePaths.isEmpty() ? null : new JsonFieldsExtractor(parser.valuePaths);
+    return msg -> root.test(new EvalContext(msg, keyExtractor, valueExtractor));
+  }
+
+  // ---------------------------- evaluation ----------------------------
+
+  private static final class EvalContext {
+    private final TopicMessageDTO msg;
+    private final @Nullable JsonFieldsExtractor keyExtractor;
+    private final @Nullable JsonFieldsExtractor valueExtractor;
+    private Object[] keyFields;
+    private Object[] valueFields;
+
+    EvalContext(TopicMessageDTO msg,
+                @Nullable JsonFieldsExtractor keyExtractor,
+                @Nullable JsonFieldsExtractor valueExtractor) {
+      this.msg = msg;
+      this.keyExtractor = keyExtractor;
+      this.valueExtractor = valueExtractor;
+    }
+
+    Object keyField(int idx) {
+      if (keyFields == null) {
+        keyFields = keyExtractor.extract(msg.getKey());
+      }
+      return keyFields[idx];
+    }
+
+    Object valueField(int idx) {
+      if (valueFields == null) {
+        valueFields = valueExtractor.extract(msg.getContent());
+      }
+      return valueFields[idx];
+    }
+  }
+
+  private interface Operand {
+    @Nullable
+    Object get(EvalContext ctx);
+
+    // not-null only for literals
+    default Object constant() {
+      return null;
+    }
+  }
+
+  private record Literal(Object value) implements Operand {
+    @Override
+    public Object get(EvalContext ctx) {
+      return value;
+    }
+
+    @Override
+    public Object constant() {
+      return value == null ? NULL_LITERAL : value;
+    }
+  }
+
+  // used to distinguish null literal from non-constant operand
+  private static final Object NULL_LITERAL = new Object();
+
+  private static Object unwrapConstant(Object constant) {
+    return constant == NULL_LITERAL ? null : constant;
+  }
+
+  private interface Node {
+    boolean test(EvalContext ctx);
+
+    // returns not-null if node's result does not depend on message
+    @Nullable
+    default Boolean constantValue() {
+      return null;
+    }
+  }
+
+  private record ConstNode(boolean value) implements Node {
+    @Override
+    public boolean test(EvalContext ctx) {
+      return value;
+    }
+
+    @Override
+    public Boolean constantValue() {
+      return value;
+    }
+  }
+
+  private static Node constantFolded(Node node, Operand... operands) {
+    for (Operand operand : operands) {
+      if (operand.constant() == null) {
+        return node;
+      }
+    }
+    // all operands are literals - evaluating at compile time
+    return new ConstNode(node.test(null));
+  }
+
+  private static Node and(List<Node> nodes) {
+    List<Node> nonConst = new ArrayList<>();
+    for (Node n : nodes) {
+      if (Boolean.FALSE.equals(n.constantValue())) {
+        return new ConstNode(false);
+      }
+      if (n.constantValue() == null) {
+        nonConst.add(n);
+      }
+    }
+    if (nonConst.isEmpty()) {
+      return new ConstNode(true);
+    }
+    if (nonConst.size() == 1) {
+      return nonConst.get(0);
+    }
+    Node[] arr = nonConst.toArray(Node[]::new);
+    return ctx -> {
+      for (Node n : arr) {
+        if (!n.test(ctx)) {
+          return false;
+        }
+      }
+      return true;
+    };
+  }
+
+  private static Node or(List<Node> nodes) {
+    List<Node> nonConst = new ArrayList<>();
+    for (Node n : nodes) {
+      if (Boolean.TRUE.equals(n.constantValue())) {
+        return new ConstNode(true);
+      }
+      if (n.constantValue() == null) {
+        nonConst.add(n);
+      }
+    }
+    if (nonConst.isEmpty()) {
+      return new ConstNode(false);
+    }
+    if (nonConst.size() == 1) {
+      return nonConst.get(0);
+    }
+    Node[] arr = nonConst.toArray(Node[]::new);
+    return ctx -> {
+      for (Node n : arr) {
+        if (n.test(ctx)) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
+  private static Node not(Node node) {
+    Boolean constant = node.constantValue();
+    if (constant != null) {
+      return new ConstNode(!constant);
+    }
+    return ctx -> !node.test(ctx);
+  }
+
+  private static boolean valuesEqual(@Nullable Object a, @Nullable Object b) {
+    a = a == MISSING ? null : a;
+    b = b == MISSING ? null : b;
+    if (a instanceof Number na && b instanceof Number nb) {
+      return compareNumbers(na, nb) == 0;
+    }
+    return Objects.equals(a, b);
+  }
+
+  // returns null if values are not comparable
+  @Nullable
+  private static Integer compareValues(@Nullable Object a, @Nullable Object b) {
+    if (a instanceof Number na && b instanceof Number nb) {
+      return compareNumbers(na, nb);
+    }
+    if (a instanceof String sa && b instanceof String sb) {
+      return sa.compareTo(sb);
+    }
+    return null;
+  }
+
+  private static int compareNumbers(Number a, Number b) {
+    if (a instanceof Long la && b instanceof Long lb) {
+      return Long.compare(la, lb);
+    }
+    return toBigDecimal(a).compareTo(toBigDecimal(b));
+  }
+
+  private static BigDecimal toBigDecimal(Number n) {
+    return n instanceof BigDecimal bd ? bd : BigDecimal.valueOf(n.longValue());
+  }
+
+  // ---------------------------- parsing ----------------------------
+
+  private enum TokenType { IDENT, STRING, NUMBER, OP, END }
+
+  private record Token(TokenType type, String text, int pos) {
+    boolean is(String op) {
+      return (type == TokenType.OP || type == TokenType.IDENT) && text.equals(op);
+    }
+  }
+
+  private static final List<String> OPERATORS =
+      List.of("==", "!=", "<=", ">=", "=~", "&&", "||", "<", ">", "!", "(", ")", "[", "]", ",", ".");
+
+  private static List<Token> tokenize(String expr) {
+    List<Token> tokens = new ArrayList<>();
+    int i = 0;
+    while (i < expr.length()) {
+      char c = expr.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (Character.isLetter(c) || c == '_') {
+        int start = i;
+        while (i < expr.length() && (Character.isLetterOrDigit(expr.charAt(i)) || expr.charAt(i) == '_')) {
+          i++;
+        }
+        tokens.add(new Token(TokenType.IDENT, expr.substring(start, i), start));
+      } else if (Character.isDigit(c)
+          || (c == '-' && i + 1 < expr.length() && Character.isDigit(expr.charAt(i + 1)))) {
+        int start = i++;
+        while (i < expr.length() && (Character.isDigit(expr.charAt(i)) || expr.charAt(i) == '.')) {
+          i++;
+        }
+        tokens.add(new Token(TokenType.NUMBER, expr.substring(start, i), start));
+      } else if (c == '\'' || c == '"') {
+        int start = i++;
+        StringBuilder sb = new StringBuilder();
+        while (i < expr.length() && expr.charAt(i) != c) {
+          // only quote char can be escaped, other backslashes are kept as-is (to simplify regex writing)
+          if (expr.charAt(i) == '\\' && i + 1 < expr.length() && expr.charAt(i + 1) == c) {
+            i++;
+          }
+          sb.append(expr.charAt(i++));
+        }
+        if (i >= expr.length()) {
+          throw syntaxError("unterminated string", start);
+        }
+        i++;
+        tokens.add(new Token(TokenType.STRING, sb.toString(), start));
+      } else {
+        int pos = i;
+        String op = OPERATORS.stream()
+            .filter(o -> expr.startsWith(o, pos))
+            .findFirst()
+            .orElseThrow(() -> syntaxError("unexpected character '" + c + "'", pos));
+        tokens.add(new Token(TokenType.OP, op, pos));
+        i += op.length();
+      }
+    }
+    tokens.add(new Token(TokenType.END, "", expr.length()));
+    return tokens;
+  }
+
+  private static ValidationException syntaxError(String msg, int pos) {
+    return new ValidationException("Filter expression syntax error at position %d: %s".formatted(pos, msg));
+  }
+
+  private static final class Parser {
+    private final List<Token> tokens;
+    private int pos = 0;
+
+    // json paths referenced in expression, index in list is used to get field value from EvalContext
+    final List<List<Object>> keyPaths = new ArrayList<>();
+    final List<List<Object>> valuePaths = new ArrayList<>();
+
+    Parser(List<Token> tokens) {
+      this.tokens = tokens;
+    }
+
+    private Token peek() {
+      return tokens.get(pos);
+    }
+
+    private Token next() {
+      return tokens.get(pos++);
+    }
+
+    private boolean accept(String op) {
+      if (peek().is(op)) {
+        pos++;
+        return true;
+      }
+      return false;
+    }
+
+    private Token expect(TokenType type, String what) {
+      Token t = next();
+      if (t.type() != type) {
+        throw syntaxError(what + " expected", t.pos());
+      }
+      return t;
+    }
+
+    private void expectOp(String op) {
+      Token t = next();
+      if (!t.is(op)) {
+        throw syntaxError("'" + op + "' expected", t.pos());
+      }
+    }
+
+    void expectEnd() {
+      if (peek().type() != TokenType.END) {
+        throw syntaxError("unexpected '" + peek().text() + "'", peek().pos());
+      }
+    }
+
+    Node parseExpression() {
+      List<Node> nodes = new ArrayList<>();
+      nodes.add(parseAnd());
+      while (accept("||") || accept("or")) {
+        nodes.add(parseAnd());
+      }
+      return nodes.size() == 1 ? nodes.get(0) : or(nodes);
+    }
+
+    private Node parseAnd() {
+      List<Node> nodes = new ArrayList<>();
+      nodes.add(parseUnary());
+      while (accept("&&") || accept("and")) {
+        nodes.add(parseUnary());
+      }
+      return nodes.size() == 1 ? nodes.get(0) : and(nodes);
+    }
+
+    private Node parseUnary() {
+      if (accept("!") || accept("not")) {
+        return not(parseUnary());
+      }
+      if (accept("(")) {
+        Node node = parseExpression();
+        expectOp(")");
+        return node;
+      }
+      return parseComparison();
+    }
+
+    private Node parseComparison() {
+      Operand left = parseOperand();
+      Token op = peek();
+      if (op.is("==") || op.is("!=") || op.is("<") || op.is("<=") || op.is(">") || op.is(">=")) {
+        pos++;
+        Operand right = parseOperand();
+        return comparison(op.text(), left, right);
+      }
+      if (accept("=~")) {
+        Token regexTkn = expect(TokenType.STRING, "regex string");
+        Pattern pattern;
+        try {
+          pattern = Pattern.compile(regexTkn.text());
+        } catch (PatternSyntaxException e) {
+          throw syntaxError("invalid regex: " + e.getDescription(), regexTkn.pos());
+        }
+        return constantFolded(ctx -> {
+          Object val = left.get(ctx);
+          return val != null && val != MISSING && pattern.matcher(String.valueOf(val)).find();
+        }, left);
+      }
+      if (accept("in")) {
+        expectOp("[");
+        List<Object> values = new ArrayList<>();
+        do {
+          values.add(unwrapConstant(parseLiteral().constant()));
+        } while (accept(","));
+        expectOp("]");
+        Object[] arr = values.toArray();
+        return constantFolded(ctx -> {
+          Object val = left.get(ctx);
+          for (Object v : arr) {
+            if (valuesEqual(val, v)) {
+              return true;
+            }
+          }
+          return false;
+        }, left);
+      }
+      // operand used as boolean predicate
+      return constantFolded(ctx -> Boolean.TRUE.equals(left.get(ctx)), left);
+    }
+
+    private Node comparison(String op, Operand left, Operand right) {
+      Node node = switch (op) {
+        case "==" -> ctx -> valuesEqual(left.get(ctx), right.get(ctx));
+        case "!=" -> ctx -> !valuesEqual(left.get(ctx), right.get(ctx));
+        case "<" -> ctx -> {
+          Integer cmp = compareValues(left.get(ctx), right.get(ctx));
+          return cmp != null && cmp < 0;
+        };
+        case "<=" -> ctx -> {
+          Integer cmp = compareValues(left.get(ctx), right.get(ctx));
+          return cmp != null && cmp <= 0;
+        };
+        case ">" -> ctx -> {
+          Integer cmp = compareValues(left.get(ctx), right.get(ctx));
+          return cmp != null && cmp > 0;
+        };
+        case ">=" -> ctx -> {
+          Integer cmp = compareValues(left.get(ctx), right.get(ctx));
+          return cmp != null && cmp >= 0;
+        };
+        default -> throw new IllegalStateException("Unknown operator " + op);
+      };
+      return constantFolded(node, left, right);
+    }
+
+    private Operand parseLiteral() {
+      Token t = next();
+      return switch (t.type()) {
+        case STRING -> new Literal(t.text());
+        case NUMBER -> new Literal(parseNumber(t));
+        case IDENT -> switch (t.text()) {
+          case "true" -> new Literal(Boolean.TRUE);
+          case "false" -> new Literal(Boolean.FALSE);
+          case "null" -> new Literal(null);
+          default -> throw syntaxError("literal expected", t.pos());
+        };
+        default -> throw syntaxError("literal expected", t.pos());
+      };
+    }
+
+    private Object parseNumber(Token t) {
+      BigDecimal number;
+      try {
+        number = new BigDecimal(t.text());
+      } catch (NumberFormatException e) {
+        throw syntaxError("invalid number " + t.text(), t.pos());
+      }
+      if (t.text().contains(".")) {
+        return number;
+      }
+      try {
+        return number.longValueExact();
+      } catch (ArithmeticException e) {
+        return number;
+      }
+    }
+
+    private Operand parseOperand() {
+      Token t = peek();
+      if (t.type() != TokenType.IDENT) {
+        return parseLiteral();
+      }
+      switch (t.text()) {
+        case "true", "false", "null":
+          return parseLiteral();
+        case "partition":
+          pos++;
+          return ctx -> ctx.msg.getPartition() == null ? null : ctx.msg.getPartition().longValue();
+        case "offset":
+          pos++;
+          return ctx -> ctx.msg.getOffset();
+        case "timestampMs":
+          pos++;
+          return ctx -> ctx.msg.getTimestamp() == null ? null : ctx.msg.getTimestamp().toInstant().toEpochMilli();
+        case "keyAsText":
+          pos++;
+          return ctx -> ctx.msg.getKey();
+        case "valueAsText":
+          pos++;
+          return ctx -> ctx.msg.getContent();
+        case "headers":
+          pos++;
+          return parseHeader();
+        case "key", "value":
+          pos++;
+          return parseJsonPath(t.text().equals("key"));
+        default:
+          throw syntaxError("unknown field '" + t.text() + "'", t.pos());
+      }
+    }
+
+    private Operand parseHeader() {
+      String name;
+      if (accept(".")) {
+        name = expect(TokenType.IDENT, "header name").text();
+      } else {
+        expectOp("[");
+        name = expect(TokenType.STRING, "header name").text();
+        expectOp("]");
+      }
+      return ctx -> ctx.msg.getHeaders() == null ? null : ctx.msg.getHeaders().get(name);
+    }
+
+    private Operand parseJsonPath(boolean key) {
+      List<Object> path = new ArrayList<>();
+      while (true) {
+        if (accept(".")) {
+          path.add(expect(TokenType.IDENT, "field name").text());
+        } else if (accept("[")) {
+          Token t = next();
+          if (t.type() == TokenType.NUMBER) {
+            path.add(parseIndex(t));
+          } else if (t.type() == TokenType.STRING) {
+            path.add(t.text());
+          } else {
+            throw syntaxError("field name or index expected", t.pos());
+          }
+          expectOp("]");
+        } else {
+          break;
+        }
+      }
+      if (path.isEmpty()) {
+        // no path specified - using whole key/value as text
+        return key ? ctx -> ctx.msg.getKey() : ctx -> ctx.msg.getContent();
+      }
+      List<List<Object>> paths = key ? keyPaths : valuePaths;
+      int idx = paths.indexOf(path);
+      if (idx < 0) {
+        idx = paths.size();
+        paths.add(path);
+      }
+      int fieldIdx = idx;
+      return key ? ctx -> ctx.keyField(fieldIdx) : ctx -> ctx.valueField(fieldIdx);
+    }
+
+    // number token can be fractional or too big to be an array index
+    private static int parseIndex(Token t) {
+      try {
+        int index = Integer.parseInt(t.text());
+        if (index >= 0) {
+          return index;
+        }
+      } catch (NumberFormatException e) {
+        // reported below
+      }
+      throw syntaxError("invalid array index '" + t.text() + "'", t.pos());
+    }
+  }
+}
@@ -18,7 +18,8 @@ public class ForwardEmitter extends RangePollingEmitter {
                         int messagesPerPage,
                         ConsumerRecordDeserializer deserializer,
                         Predicate<TopicMessageDTO> filter,
-                        PollingSettings pollingSettings) {
+                        PollingSettings pollingSettings,
+                        RangePollingOptions options) {
     super(
         consumerSupplier,
         consumerPosition,
@@ -27,9 +28,15 @@ public class ForwardEmitter extends RangePollingEmitter {
             deserializer,
             filter,
             true,
-            messagesPerPage
+            messagesPerPage,
+            pollingSettings.getDeserializationScheduler(),
+            pollingSettings.getDeserializationParallelism(),
+            pollingSettings.getMessagesCache(),
+            options.getPageMaxBytes(),
+            pollingSettings.getMessagePreviewMaxChars()
         ),
-        pollingSettings
+        pollingSettings,
+        options
     );
   }
 
@@ -0,0 +1,136 @@
+package com.provectus.kafka.ui.emitter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Extracts values of specified paths from json string using streaming parser. Sub-trees that do not
+ * contain requested paths are skipped and parsing is stopped as soon as all requested paths are found.
+ * Path elements are Strings (object field names) or Integers (array indexes).
+ */
+final class JsonFieldsExtractor {
+
+  // marker for paths that were not found in json (or if input is not a valid json)
+  static final Object MISSING = new Object() {
+    @Override
+    public String toString() {
+      return "<missing>";
+    }
+  };
+
+  // marker for paths that point to json object or array
+  static final Object CONTAINER = new Object() {
+    @Override
+    public String toString() {
+      return "<container>";
+    }
+  };
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final List<List<Object>> paths;
+
+  JsonFieldsExtractor(List<List<Object>> paths) {
+    this.paths = paths;
+  }
+
+  /**
+   * Returns array of extracted values (in order of paths passed to constructor). Values are String, Long,
+   * BigDecimal, Boolean, null, or {@link #MISSING}, {@link #CONTAINER} markers.
+   */
+  Object[] extract(@Nullable String json) {
+    Object[] result = new Object[paths.size()];
+    Arrays.fill(result, MISSING);
+    if (json == null) {
+      return result;
+    }
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      JsonToken token = parser.nextToken();
+      if (token != null) {
+        readValue(parser, token, new ArrayList<>(), result, new int[] {0});
+      }
+    } catch (IOException e) {
+      // not a valid json - considering all fields as missing
+      Arrays.fill(result, MISSING);
+    }
+    return result;
+  }
+
+  // returns true if all paths were found and parsing can be stopped
+  private boolean readValue(JsonParser parser,
+                            JsonToken token,
+                            List<Object> currentPath,
+                            Object[] result,
+                            int[] foundCnt) throws IOException {
+    boolean container = token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY;
+    for (int i = 0; i < paths.size(); i++) {
+      if (result[i] == MISSING && paths.get(i).equals(currentPath)) {
+        result[i] = container ? CONTAINER : scalarValue(parser, token);
+        foundCnt[0]++;
+      }
+    }
+    if (foundCnt[0] == paths.size()) {
+      return true;
+    }
+    if (!container) {
+      return false;
+    }
+    if (!hasNotFoundPathsUnder(currentPath, result)) {
+      parser.skipChildren();
+      return false;
+    }
+    if (token == JsonToken.START_OBJECT) {
+      while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+        currentPath.add(parser.getCurrentName());
+        boolean done = readValue(parser, parser.nextToken(), currentPath, result, foundCnt);
+        currentPath.remove(currentPath.size() - 1);
+        if (done) {
+          return true;
+        }
+      }
+    } else {
+      int idx = 0;
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+        currentPath.add(idx++);
+        boolean done = readValue(parser, token, currentPath, result, foundCnt);
+        currentPath.remove(currentPath.size() - 1);
+        if (done) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean hasNotFoundPathsUnder(List<Object> prefix, Object[] result) {
+    for (int i = 0; i < paths.size(); i++) {
+      var path = paths.get(i);
+      if (result[i] == MISSING
+          && path.size() > prefix.size()
+          && path.subList(0, prefix.size()).equals(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Object scalarValue(JsonParser parser, JsonToken token) throws IOException {
+    return switch (token) {
+      case VALUE_STRING -> parser.getText();
+      case VALUE_NUMBER_INT -> parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+          ? new BigDecimal(parser.getBigIntegerValue())
+          : parser.getLongValue();
+      case VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+      case VALUE_TRUE -> Boolean.TRUE;
+      case VALUE_FALSE -> Boolean.FALSE;
+      default -> null;
+    };
+  }
+}
@@ -1,23 +1,38 @@
 package com.provectus.kafka.ui.emitter;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.provectus.kafka.ui.exception.ValidationException;
 import com.provectus.kafka.ui.model.MessageFilterTypeDTO;
 import com.provectus.kafka.ui.model.TopicMessageDTO;
 import groovy.json.JsonSlurper;
+import groovy.lang.Binding;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
-import javax.script.CompiledScript;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.codehaus.groovy.jsr223.GroovyScriptEngineImpl;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.utils.Bytes;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.runtime.InvokerHelper;
 
 @Slf4j
 public class MessageFilters {
 
-  private static GroovyScriptEngineImpl GROOVY_ENGINE;
+  // U+FFFD, char that decoder puts into deserialized string in place of malformed UTF-8 input
+  static final char REPLACEMENT_CHAR = (char) 0xFFFD;
+
+  private static final Cache<String, Class<? extends Script>> COMPILED_SCRIPTS = CacheBuilder.newBuilder()
+      .maximumSize(500)
+      .build();
 
   private MessageFilters() {
   }
@@ -28,70 +43,171 @@ public class MessageFilters {
         return containsStringFilter(query);
       case GROOVY_SCRIPT:
         return groovyScriptFilter(query);
+      case EXPRESSION:
+        return ExpressionFilter.compile(query);
       default:
         throw new IllegalStateException("Unknown query type: " + type);
     }
   }
 
-  static Predicate<TopicMessageDTO> containsStringFilter(String string) {
-    return msg -> StringUtils.contains(msg.getKey(), string)
-        || StringUtils.contains(msg.getContent(), string);
+  static StringContainsFilter containsStringFilter(String string) {
+    return new StringContainsFilter(string);
+  }
+
+  /**
+   * Filter that passes messages which deserialized key equals to specified key and that pass delegate filter.
+   */
+  public static Predicate<TopicMessageDTO> keyLookupFilter(String key, Predicate<TopicMessageDTO> delegate) {
+    return new KeyLookupFilter(key, delegate);
+  }
+
+  /**
+   * Returns filter's part that can be applied on raw record's data, if filter supports it. Can only be used when
+   * key and value are deserialized into strings that exactly represent raw UTF-8 encoded bytes.
+   */
+  @Nullable
+  static Predicate<ConsumerRecord<Bytes, Bytes>> rawUtf8Prefilter(Predicate<TopicMessageDTO> filter) {
+    if (filter instanceof StringContainsFilter containsFilter) {
+      return containsFilter.rawUtf8Prefilter();
+    }
+    if (filter instanceof KeyLookupFilter keyLookupFilter) {
+      return keyLookupFilter.rawUtf8Prefilter();
+    }
+    return null;
+  }
+
+  static class KeyLookupFilter implements Predicate<TopicMessageDTO> {
+
+    private final String key;
+    private final Predicate<TopicMessageDTO> delegate;
+
+    private KeyLookupFilter(String key, Predicate<TopicMessageDTO> delegate) {
+      this.key = key;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean test(TopicMessageDTO msg) {
+      return key.equals(msg.getKey()) && delegate.test(msg);
+    }
+
+    @Nullable
+    Predicate<ConsumerRecord<Bytes, Bytes>> rawUtf8Prefilter() {
+      // same as for contains filter, malformed input can't be matched on raw bytes
+      if (key.indexOf(REPLACEMENT_CHAR) >= 0) {
+        return null;
+      }
+      byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+      Predicate<ConsumerRecord<Bytes, Bytes>> keyPrefilter =
+          rec -> rec.key() != null && Arrays.equals(rec.key().get(), keyBytes);
+      var delegatePrefilter = MessageFilters.rawUtf8Prefilter(delegate);
+      return delegatePrefilter != null ? keyPrefilter.and(delegatePrefilter) : keyPrefilter;
+    }
+  }
+
+  static class StringContainsFilter implements Predicate<TopicMessageDTO> {
+
+    private final String string;
+
+    private StringContainsFilter(String string) {
+      this.string = string;
+    }
+
+    @Override
+    public boolean test(TopicMessageDTO msg) {
+      return StringUtils.contains(msg.getKey(), string)
+          || StringUtils.contains(msg.getContent(), string);
+    }
+
+    /**
+     * Creates filter that can be applied on raw record's data before deserialization. Can only be used when
+     * key and value are deserialized into strings that exactly represent raw UTF-8 encoded bytes, since in
+     * this case string can only be contained in deserialized message if its UTF-8 bytes are contained in raw data.
+     */
+    @Nullable
+    Predicate<ConsumerRecord<Bytes, Bytes>> rawUtf8Prefilter() {
+      // replacement char can appear in deserialized string for malformed input, that we can't detect on raw bytes
+      if (string.indexOf(REPLACEMENT_CHAR) >= 0) {
+        return null;
+      }
+      var search = new BytesPatternSearch(string.getBytes(StandardCharsets.UTF_8));
+      return rec -> (rec.key() != null && search.containedIn(rec.key().get()))
+          || (rec.value() != null && search.containedIn(rec.value().get()));
+    }
   }
 
   static Predicate<TopicMessageDTO> groovyScriptFilter(String script) {
-    var engine = getGroovyEngine();
-    var compiledScript = compileScript(engine, script);
-    var jsonSlurper = new JsonSlurper();
-    return new Predicate<TopicMessageDTO>() {
-      @SneakyThrows
-      @Override
-      public boolean test(TopicMessageDTO msg) {
-        var bindings = engine.createBindings();
-        bindings.put("partition", msg.getPartition());
-        bindings.put("offset", msg.getOffset());
-        bindings.put("timestampMs", msg.getTimestamp().toInstant().toEpochMilli());
-        bindings.put("keyAsText", msg.getKey());
-        bindings.put("valueAsText", msg.getContent());
-        bindings.put("headers", msg.getHeaders());
-        bindings.put("key", parseToJsonOrReturnAsIs(jsonSlurper, msg.getKey()));
-        bindings.put("value", parseToJsonOrReturnAsIs(jsonSlurper, msg.getContent()));
-        var result = compiledScript.eval(bindings);
-        if (result instanceof Boolean) {
-          return (Boolean) result;
-        } else {
-          throw new ValidationException(
-              "Unexpected script result: %s, Boolean should be returned instead".formatted(result));
-        }
+    var scriptClass = compileScript(script);
+    return msg -> {
+      var result = InvokerHelper.createScript(scriptClass, new MessageBinding(msg)).run();
+      if (result instanceof Boolean) {
+        return (Boolean) result;
+      } else {
+        throw new ValidationException(
+            "Unexpected script result: %s, Boolean should be returned instead".formatted(result));
       }
     };
   }
 
+  /**
+   * Binding that parses key and value to json only if script reads them.
+   */
+  private static class MessageBinding extends Binding {
+
+    private final TopicMessageDTO msg;
+
+    MessageBinding(TopicMessageDTO msg) {
+      this.msg = msg;
+      setVariable("partition", msg.getPartition());
+      setVariable("offset", msg.getOffset());
+      setVariable("timestampMs", msg.getTimestamp().toInstant().toEpochMilli());
+      setVariable("keyAsText", msg.getKey());
+      setVariable("valueAsText", msg.getContent());
+      setVariable("headers", msg.getHeaders());
+    }
+
+    @Override
+    public Object getVariable(String name) {
+      if (!super.hasVariable(name)) {
+        if ("key".equals(name)) {
+          setVariable(name, parseToJsonOrReturnAsIs(msg.getKey()));
+        } else if ("value".equals(name)) {
+          setVariable(name, parseToJsonOrReturnAsIs(msg.getContent()));
+        }
+      }
+      return super.getVariable(name);
+    }
+
+    @Override
+    public boolean hasVariable(String name) {
+      return "key".equals(name) || "value".equals(name) || super.hasVariable(name);
+    }
+  }
+
   @Nullable
-  private static Object parseToJsonOrReturnAsIs(JsonSlurper parser, @Nullable String str) {
+  private static Object parseToJsonOrReturnAsIs(@Nullable String str) {
     if (str == null) {
       return null;
     }
     try {
-      return parser.parseText(str);
+      return new JsonSlurper().parseText(str);
     } catch (Exception e) {
       return str;
     }
   }
 
-  private static synchronized GroovyScriptEngineImpl getGroovyEngine() {
-    // it is pretty heavy object, so initializing it on-demand
-    if (GROOVY_ENGINE == null) {
-      GROOVY_ENGINE = (GroovyScriptEngineImpl)
-          new ScriptEngineManager().getEngineByName("groovy");
-    }
-    return GROOVY_ENGINE;
-  }
-
-  private static CompiledScript compileScript(GroovyScriptEngineImpl engine, String script) {
+  // compiled scripts are cached, so same filter can be re-used across requests without re-compilation
+  @SneakyThrows
+  private static Class<? extends Script> compileScript(String script) {
     try {
-      return engine.compile(script);
-    } catch (ScriptException e) {
-      throw new ValidationException("Script syntax error: " + e.getMessage());
+      var scriptHash = Hashing.sha256().hashString(script, StandardCharsets.UTF_8).toString();
+      // separate shell (and classloader) for each script, to make evicted classes unloadable
+      return COMPILED_SCRIPTS.get(scriptHash, () -> new GroovyShell().parse(script).getClass());
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof CompilationFailedException) {
+        throw new ValidationException("Script syntax error: " + e.getCause().getMessage());
+      }
+      throw e.getCause();
     }
   }
 
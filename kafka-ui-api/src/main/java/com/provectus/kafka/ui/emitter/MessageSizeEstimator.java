@@ -0,0 +1,29 @@
+package com.provectus.kafka.ui.emitter;
+
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Approximate size of message in SSE response. Used for both sent bytes budget and batches size limit,
+ * so they are consistent with each other.
+ */
+final class MessageSizeEstimator {
+
+  // rough estimation of message's json fields names, partition, offset, etc.
+  static final int MESSAGE_FIXED_SIZE_ESTIMATE = 200;
+
+  private MessageSizeEstimator() {
+  }
+
+  static long estimate(TopicMessageDTO msg) {
+    long size = MESSAGE_FIXED_SIZE_ESTIMATE;
+    size += StringUtils.length(msg.getKey()) + StringUtils.length(msg.getContent());
+    if (msg.getHeaders() != null) {
+      for (Map.Entry<String, String> header : msg.getHeaders().entrySet()) {
+        size += StringUtils.length(header.getKey()) + StringUtils.length(header.getValue());
+      }
+    }
+    return size;
+  }
+}
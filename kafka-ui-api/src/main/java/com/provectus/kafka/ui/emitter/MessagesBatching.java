@@ -0,0 +1,64 @@
+package com.provectus.kafka.ui.emitter;
+
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import com.provectus.kafka.ui.model.TopicMessageEventDTO;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import reactor.core.publisher.Flux;
+
+/**
+ * Coalesces consecutive MESSAGE events into MESSAGES_BATCH events to reduce per-event SSE framing overhead.
+ * Batch is flushed when it reaches max messages count or max size, or after linger time passed.
+ * Non-message events are passed as-is, preserving events order.
+ */
+public final class MessagesBatching {
+
+  private static final int MAX_BATCH_MESSAGES = 100;
+  private static final long MAX_BATCH_BYTES = 1024 * 1024;
+  private static final Duration LINGER = Duration.ofMillis(100);
+
+  private MessagesBatching() {
+  }
+
+  public static Flux<TopicMessageEventDTO> batch(Flux<TopicMessageEventDTO> events) {
+    return events
+        // fair backpressure: timer flushes are postponed until there is a demand, instead of overflow error
+        .bufferTimeout(MAX_BATCH_MESSAGES, LINGER, true)
+        .concatMapIterable(MessagesBatching::coalesce);
+  }
+
+  static List<TopicMessageEventDTO> coalesce(List<TopicMessageEventDTO> buffered) {
+    List<TopicMessageEventDTO> result = new ArrayList<>();
+    List<TopicMessageDTO> batch = new ArrayList<>();
+    long batchBytes = 0;
+    for (TopicMessageEventDTO event : buffered) {
+      if (event.getType() != TopicMessageEventDTO.TypeEnum.MESSAGE) {
+        flush(batch, result);
+        batchBytes = 0;
+        result.add(event);
+        continue;
+      }
+      long msgBytes = MessageSizeEstimator.estimate(event.getMessage());
+      if (!batch.isEmpty() && batchBytes + msgBytes > MAX_BATCH_BYTES) {
+        flush(batch, result);
+        batchBytes = 0;
+      }
+      batch.add(event.getMessage());
+      batchBytes += msgBytes;
+    }
+    flush(batch, result);
+    return result;
+  }
+
+  private static void flush(List<TopicMessageDTO> batch, List<TopicMessageEventDTO> result) {
+    if (!batch.isEmpty()) {
+      result.add(
+          new TopicMessageEventDTO()
+              .type(TopicMessageEventDTO.TypeEnum.MESSAGES_BATCH)
+              .messages(new ArrayList<>(batch))
+      );
+      batch.clear();
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package com.provectus.kafka.ui.emitter;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
+import com.provectus.kafka.ui.util.ApplicationMetrics;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.Uuid;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
+
+/**
+ * Cluster-level LRU cache of deserialized messages, bounded by estimated messages size in bytes.
+ * Messages are cached per (topic, partition, offset, key serde, value serde), so repeated browsing
+ * of same pages (paging back and forth, changing filters) doesn't require re-deserialization and, if
+ * whole partition range is cached, re-fetching from kafka.
+ */
+public class MessagesCache {
+
+  // rough per-entry overhead (dto object, cache key, cache internal structures)
+  private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+  record Key(String topic, int partition, long offset, String keySerde, String valueSerde) {
+  }
+
+  /**
+   * Stub record that is used instead of polled record when message is taken from cache.
+   * Keeps partition, offset and timestamp, so it can be sorted together with polled records.
+   */
+  static final class CachedRecord extends ConsumerRecord<Bytes, Bytes> {
+
+    private final TopicMessageDTO message;
+
+    private CachedRecord(String topic, TopicMessageDTO message) {
+      super(topic, message.getPartition(), message.getOffset(),
+          Optional.ofNullable(message.getTimestamp()).map(ts -> ts.toInstant().toEpochMilli()).orElse(-1L),
+          TimestampType.NO_TIMESTAMP_TYPE, -1, -1, null, null,
+          new RecordHeaders(), Optional.empty());
+      this.message = message;
+    }
+
+    TopicMessageDTO message() {
+      return message;
+    }
+  }
+
+  @Nullable
+  private final Cache<Key, TopicMessageDTO> cache;
+  private final ApplicationMetrics metrics;
+  // topic name -> id of topic that cached messages were polled from
+  private final Map<String, Uuid> topicIds = new ConcurrentHashMap<>();
+
+  public static MessagesCache create(String clusterName, @Nullable Integer maxSizeMb) {
+    return new MessagesCache(
+        maxSizeMb == null ? 0 : (long) maxSizeMb * 1024 * 1024,
+        ApplicationMetrics.forCluster(clusterName)
+    );
+  }
+
+  public static MessagesCache disabled() {
+    return new MessagesCache(0, ApplicationMetrics.noop());
+  }
+
+  MessagesCache(long maxSizeBytes, ApplicationMetrics metrics) {
+    this.metrics = metrics;
+    this.cache = maxSizeBytes <= 0
+        ? null
+        : CacheBuilder.newBuilder()
+        .maximumWeight(maxSizeBytes)
+        .weigher((Key k, TopicMessageDTO v) -> estimateSize(v))
+        .build();
+  }
+
+  boolean isEnabled() {
+    return cache != null;
+  }
+
+  @Nullable
+  TopicMessageDTO get(ConsumerRecord<Bytes, Bytes> rec, ConsumerRecordDeserializer deserializer) {
+    if (cache == null) {
+      return null;
+    }
+    var cached = cache.getIfPresent(key(rec.topic(), rec.partition(), rec.offset(), deserializer));
+    meterLookup(cached != null, 1);
+    return cached;
+  }
+
+  void put(ConsumerRecord<Bytes, Bytes> rec, ConsumerRecordDeserializer deserializer, TopicMessageDTO msg) {
+    if (cache != null) {
+      cache.put(key(rec.topic(), rec.partition(), rec.offset(), deserializer), msg);
+    }
+  }
+
+  /**
+   * Returns cached stub records for [from, to) range of partition if ALL offsets in range are cached,
+   * otherwise returns null (partition should be polled).
+   */
+  @Nullable
+  List<ConsumerRecord<Bytes, Bytes>> getRange(TopicPartition tp, long from, long to,
+                                             ConsumerRecordDeserializer deserializer) {
+    if (cache == null || to <= from) {
+      return null;
+    }
+    List<ConsumerRecord<Bytes, Bytes>> result = new ArrayList<>((int) Math.min(to - from, 1024));
+    for (long offset = from; offset < to; offset++) {
+      var cached = cache.getIfPresent(key(tp.topic(), tp.partition(), offset, deserializer));
+      if (cached == null) {
+        return null;
+      }
+      result.add(new CachedRecord(tp.topic(), cached));
+    }
+    meterLookup(true, result.size());
+    return result;
+  }
+
+  /**
+   * Remembers topic's current id. If topic was re-created under same name (outside kafka-ui), cached messages of
+   * previous topic are invalidated, since same offsets now point to other records.
+   * Returns true if topic id changed.
+   */
+  public boolean updateTopicId(String topic, Uuid topicId) {
+    var prevId = topicIds.put(topic, topicId);
+    if (prevId != null && !prevId.equals(topicId)) {
+      invalidateTopic(topic);
+      return true;
+    }
+    return false;
+  }
+
+  public void invalidateTopic(String topic) {
+    invalidatePartitions(topic, List.of());
+  }
+
+  // empty partitions collection means all topic's partitions
+  public void invalidatePartitions(String topic, Collection<Integer> partitions) {
+    if (cache != null) {
+      cache.asMap().keySet()
+          .removeIf(k -> k.topic().equals(topic) && (partitions.isEmpty() || partitions.contains(k.partition())));
+    }
+  }
+
+  private void meterLookup(boolean hit, int count) {
+    if (hit) {
+      metrics.messagesCacheHits().increment(count);
+    } else {
+      metrics.messagesCacheMisses().increment(count);
+    }
+  }
+
+  private static Key key(String topic, int partition, long offset, ConsumerRecordDeserializer deserializer) {
+    return new Key(topic, partition, offset, deserializer.getKeySerdeName(), deserializer.getValueSerdeName());
+  }
+
+  // java strings are stored as latin1/utf16 - using 2 bytes per char as upper bound
+  private static int estimateSize(TopicMessageDTO msg) {
+    long size = ENTRY_OVERHEAD_BYTES;
+    size += 2L * length(msg.getKey());
+    size += 2L * length(msg.getContent());
+    if (msg.getHeaders() != null) {
+      for (var header : msg.getHeaders().entrySet()) {
+        size += 2L * (length(header.getKey()) + length(header.getValue()));
+      }
+    }
+    return (int) Math.min(Integer.MAX_VALUE, size);
+  }
+
+  private static int length(@Nullable String str) {
+    return str == null ? 0 : str.length();
+  }
+}
@@ -11,54 +11,295 @@ import com.provectus.kafka.ui.model.TopicMessageDTO;
 import com.provectus.kafka.ui.model.TopicMessageEventDTO;
 import com.provectus.kafka.ui.model.TopicMessagePhaseDTO;
 import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
+import com.provectus.kafka.ui.serdes.DeserializedTopicMessage;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.utils.Bytes;
 import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
 
 @Slf4j
-@RequiredArgsConstructor
 class MessagesProcessing {
 
+  // max number of records that are taken for deserialization before being sent
+  private static final int MAX_WINDOW = 256;
+
   private final ConsumingStats consumingStats = new ConsumingStats();
   private long sentMessages = 0;
+  // estimated size of sent messages
+  private long sentBytes = 0;
+  // partition -> position after the last processed (sent or filtered out) record
+  private final Map<Integer, Long> processedPositions = new HashMap<>();
 
   private final ConsumerRecordDeserializer deserializer;
   private final Predicate<TopicMessageDTO> filter;
   private final boolean ascendingSortBeforeSend;
   private final @Nullable Integer limit;
+  // if not null, records will be deserialized & filtered in parallel, but sent in original order
+  private final @Nullable Scheduler deserializationScheduler;
+  private final int deserializationParallelism;
+  // filter applied on raw records to skip deserialization of records that will not pass main filter
+  private final @Nullable Predicate<ConsumerRecord<Bytes, Bytes>> rawPrefilter;
+  private final MessagesCache messagesCache;
+  // page's byte budget, polling is stopped when sent messages size exceeds it
+  private final @Nullable Long maxBytes;
+  // sent messages keys & contents are truncated to this length, if > 0
+  private final int previewMaxChars;
+
+  MessagesProcessing(ConsumerRecordDeserializer deserializer,
+                     Predicate<TopicMessageDTO> filter,
+                     boolean ascendingSortBeforeSend,
+                     @Nullable Integer limit) {
+    this(deserializer, filter, ascendingSortBeforeSend, limit, MessagesCache.disabled());
+  }
+
+  MessagesProcessing(ConsumerRecordDeserializer deserializer,
+                     Predicate<TopicMessageDTO> filter,
+                     boolean ascendingSortBeforeSend,
+                     @Nullable Integer limit,
+                     MessagesCache messagesCache) {
+    this(deserializer, filter, ascendingSortBeforeSend, limit, null, 1, messagesCache, null, 0);
+  }
+
+  MessagesProcessing(ConsumerRecordDeserializer deserializer,
+                     Predicate<TopicMessageDTO> filter,
+                     boolean ascendingSortBeforeSend,
+                     @Nullable Integer limit,
+                     @Nullable Scheduler deserializationScheduler,
+                     int deserializationParallelism,
+                     MessagesCache messagesCache,
+                     @Nullable Long maxBytes,
+                     int previewMaxChars) {
+    this.deserializer = deserializer;
+    this.filter = filter;
+    this.ascendingSortBeforeSend = ascendingSortBeforeSend;
+    this.limit = limit;
+    this.deserializationScheduler = deserializationScheduler;
+    this.deserializationParallelism = deserializationScheduler != null ? deserializationParallelism : 1;
+    this.messagesCache = messagesCache;
+    this.maxBytes = maxBytes;
+    this.previewMaxChars = previewMaxChars;
+    this.rawPrefilter = deserializer.isRawUtf8TextPreserving()
+        ? MessageFilters.rawUtf8Prefilter(filter)
+        : null;
+  }
+
+  // message is null for records that were skipped before deserialization
+  private record ProcessedRecord(int partition,
+                                 long offset,
+                                 @Nullable TopicMessageDTO message,
+                                 boolean filterPassed,
+                                 boolean filterError) {
+
+    static ProcessedRecord skipped(ConsumerRecord<Bytes, Bytes> rec) {
+      return new ProcessedRecord(rec.partition(), rec.offset(), null, false, false);
+    }
+  }
+
+  long sentMessages() {
+    return sentMessages;
+  }
 
   boolean limitReached() {
-    return limit != null && sentMessages >= limit;
+    return (limit != null && sentMessages >= limit) || (maxBytes != null && sentBytes >= maxBytes);
   }
 
   void send(FluxSink<TopicMessageEventDTO> sink, Iterable<ConsumerRecord<Bytes, Bytes>> polled) {
-    sortForSending(polled, ascendingSortBeforeSend)
-        .forEach(rec -> {
-          if (!limitReached() && !sink.isCancelled()) {
-            TopicMessageDTO topicMessage = deserializer.deserialize(rec);
-            try {
-              if (filter.test(topicMessage)) {
-                sink.next(
-                    new TopicMessageEventDTO()
-                        .type(TopicMessageEventDTO.TypeEnum.MESSAGE)
-                        .message(topicMessage)
-                );
-                sentMessages++;
-              }
-            } catch (Exception e) {
-              consumingStats.incFilterApplyError();
-              log.trace("Error applying filter for message {}", topicMessage);
-            }
-          }
-        });
+    sendSorted(sink, sortForSending(polled, ascendingSortBeforeSend).iterator());
+  }
+
+  /**
+   * Sends records that are already in sending order. Records are taken from iterator lazily, by windows that are
+   * bounded by number of messages left to send, so records that are left in iterator after page limit is reached
+   * are not consumed.
+   */
+  void sendSorted(FluxSink<TopicMessageEventDTO> sink, Iterator<ConsumerRecord<Bytes, Bytes>> sorted) {
+    while (sorted.hasNext() && !limitReached() && !sink.isCancelled()) {
+      int windowSize = windowSize();
+      List<ConsumerRecord<Bytes, Bytes>> window = new ArrayList<>(windowSize);
+      while (sorted.hasNext() && window.size() < windowSize) {
+        window.add(sorted.next());
+      }
+      sendWindow(sink, window);
+    }
+  }
+
+  /**
+   * Records that passed raw prefilter are deserialized in batches: one batch in current thread if
+   * deserialization scheduler is null, otherwise window is split into deserializationParallelism batches
+   * that are processed in parallel.
+   */
+  private void sendWindow(FluxSink<TopicMessageEventDTO> sink,
+                          List<ConsumerRecord<Bytes, Bytes>> window) {
+    boolean[] passed = new boolean[window.size()];
+    List<ConsumerRecord<Bytes, Bytes>> toProcess = new ArrayList<>(window.size());
+    for (int i = 0; i < window.size(); i++) {
+      passed[i] = passesRawPrefilter(window.get(i));
+      if (passed[i]) {
+        toProcess.add(window.get(i));
+      }
+    }
+    int batchSize = deserializationScheduler == null
+        ? Math.max(1, toProcess.size())
+        : Math.max(1, (toProcess.size() + deserializationParallelism - 1) / deserializationParallelism);
+    List<CompletableFuture<List<ProcessedRecord>>> batches = new ArrayList<>();
+    for (int from = 0; from < toProcess.size(); from += batchSize) {
+      var batch = toProcess.subList(from, Math.min(from + batchSize, toProcess.size()));
+      batches.add(deserializationScheduler == null
+          ? CompletableFuture.completedFuture(processBatch(batch))
+          : CompletableFuture.supplyAsync(() -> processBatch(batch), deserializationScheduler::schedule));
+    }
+    // re-sequencing: results are sent in the same order records were taken, skipped records are
+    // sent at their places too, to keep positions tracking in sending order
+    Iterator<ProcessedRecord> processed = Collections.emptyIterator();
+    int nextBatch = 0;
+    for (int i = 0; i < window.size(); i++) {
+      if (limitReached() || sink.isCancelled()) {
+        batches.forEach(f -> f.cancel(false));
+        return;
+      }
+      if (!passed[i]) {
+        sendProcessed(sink, ProcessedRecord.skipped(window.get(i)));
+        continue;
+      }
+      if (!processed.hasNext()) {
+        processed = joinUnwrapped(batches.get(nextBatch++)).iterator();
+      }
+      sendProcessed(sink, processed.next());
+    }
+  }
+
+  private boolean passesRawPrefilter(ConsumerRecord<Bytes, Bytes> rec) {
+    // cached records have no raw data, they will be checked by main filter
+    if (rawPrefilter == null || rec instanceof MessagesCache.CachedRecord || rawPrefilter.test(rec)) {
+      return true;
+    }
+    consumingStats.incSkippedBeforeDeserialization();
+    return false;
+  }
+
+  // we don't want to deserialize records that will not be sent because of page limit,
+  // so window size is bounded by number of messages left to send (but not less than parallelism)
+  private int windowSize() {
+    if (limit == null) {
+      return MAX_WINDOW;
+    }
+    long leftToSend = limit - sentMessages;
+    return (int) Math.min(MAX_WINDOW, Math.max(deserializationParallelism, leftToSend));
+  }
+
+  private static <T> T joinUnwrapped(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw e;
+    }
+  }
+
+  // records that are not cached are deserialized with a single batch call
+  private List<ProcessedRecord> processBatch(List<ConsumerRecord<Bytes, Bytes>> batch) {
+    var messages = new TopicMessageDTO[batch.size()];
+    List<ConsumerRecord<Bytes, Bytes>> toDeserialize = new ArrayList<>();
+    for (int i = 0; i < batch.size(); i++) {
+      messages[i] = cachedMessage(batch.get(i));
+      if (messages[i] == null) {
+        toDeserialize.add(batch.get(i));
+      }
+    }
+    var deserialized = deserializer.deserialize(toDeserialize).iterator();
+    List<ProcessedRecord> result = new ArrayList<>(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      var rec = batch.get(i);
+      if (messages[i] == null) {
+        messages[i] = deserialized.next();
+        messagesCache.put(rec, deserializer, messages[i]);
+      }
+      result.add(process(rec, messages[i]));
+    }
+    return result;
+  }
+
+  private ProcessedRecord process(ConsumerRecord<Bytes, Bytes> rec, TopicMessageDTO topicMessage) {
+    try {
+      return new ProcessedRecord(rec.partition(), rec.offset(), topicMessage, filter.test(topicMessage), false);
+    } catch (Exception e) {
+      return new ProcessedRecord(rec.partition(), rec.offset(), topicMessage, false, true);
+    }
+  }
+
+  @Nullable
+  private TopicMessageDTO cachedMessage(ConsumerRecord<Bytes, Bytes> rec) {
+    if (rec instanceof MessagesCache.CachedRecord cachedRecord) {
+      return cachedRecord.message();
+    }
+    return messagesCache.get(rec, deserializer);
+  }
+
+  /**
+   * Returns messages for [from, to) partition's range from cache if all of them are cached.
+   */
+  @Nullable
+  List<ConsumerRecord<Bytes, Bytes>> cachedRange(TopicPartition tp, long from, long to) {
+    return messagesCache.getRange(tp, from, to, deserializer);
+  }
+
+  private void sendProcessed(FluxSink<TopicMessageEventDTO> sink, ProcessedRecord processed) {
+    processedPositions.put(
+        processed.partition(),
+        ascendingSortBeforeSend ? processed.offset() + 1 : processed.offset()
+    );
+    if (processed.filterError()) {
+      consumingStats.incFilterApplyError();
+      log.trace("Error applying filter for message {}", processed.message());
+    } else if (processed.filterPassed()) {
+      var message = truncated(processed.message(), previewMaxChars);
+      sink.next(
+          new TopicMessageEventDTO()
+              .type(TopicMessageEventDTO.TypeEnum.MESSAGE)
+              .message(message)
+      );
+      sentMessages++;
+      sentBytes += MessageSizeEstimator.estimate(message);
+    }
+  }
+
+  /**
+   * Returns message copy with key & content truncated to maxChars, or message itself if truncation is not needed.
+   * Message is copied since same message instance can be stored in messages cache.
+   */
+  @VisibleForTesting
+  static TopicMessageDTO truncated(TopicMessageDTO msg, int maxChars) {
+    boolean truncateKey = maxChars > 0 && msg.getKey() != null && msg.getKey().length() > maxChars;
+    boolean truncateContent = maxChars > 0 && msg.getContent() != null && msg.getContent().length() > maxChars;
+    if (!truncateKey && !truncateContent) {
+      return msg;
+    }
+    return DeserializedTopicMessage.copy(msg, new TopicMessageDTO())
+        .key(truncateKey ? truncate(msg.getKey(), maxChars) : msg.getKey())
+        .content(truncateContent ? truncate(msg.getContent(), maxChars) : msg.getContent())
+        .truncated(true);
+  }
+
+  // cut position is moved back by one char if it splits surrogate pair, so preview does not end with broken char
+  private static String truncate(String str, int maxChars) {
+    int end = Character.isHighSurrogate(str.charAt(maxChars - 1)) ? maxChars - 1 : maxChars;
+    return str.substring(0, end);
   }
 
   void sentConsumingInfo(FluxSink<TopicMessageEventDTO> sink, PolledRecords polledRecords) {
@@ -67,9 +308,22 @@ class MessagesProcessing {
     }
   }
 
+  // for FORWARD - next offset after last processed, for BACKWARD - last processed offset (exclusive upper bound)
+  Map<Integer, Long> processedPositions() {
+    return processedPositions;
+  }
+
+  boolean isAscending() {
+    return ascendingSortBeforeSend;
+  }
+
   void sendFinishEvent(FluxSink<TopicMessageEventDTO> sink) {
+    sendFinishEvent(sink, null);
+  }
+
+  void sendFinishEvent(FluxSink<TopicMessageEventDTO> sink, @Nullable String nextCursor) {
     if (!sink.isCancelled()) {
-      consumingStats.sendFinishEvent(sink);
+      consumingStats.sendFinishEvent(sink, nextCursor);
     }
   }
 
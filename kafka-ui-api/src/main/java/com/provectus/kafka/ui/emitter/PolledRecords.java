@@ -3,6 +3,7 @@ package com.provectus.kafka.ui.emitter;
 import java.time.Duration;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.TopicPartition;
@@ -23,6 +24,10 @@ public record PolledRecords(int count,
     );
   }
 
+  public Set<TopicPartition> partitions() {
+    return records.partitions();
+  }
+
   public List<ConsumerRecord<Bytes, Bytes>> records(TopicPartition tp) {
     return records.records(tp);
   }
@@ -1,16 +1,41 @@
 package com.provectus.kafka.ui.emitter;
 
 import com.provectus.kafka.ui.config.ClustersProperties;
+import com.provectus.kafka.ui.util.ApplicationMetrics;
+import java.io.Closeable;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
-public class PollingSettings {
+public class PollingSettings implements Closeable {
 
   private static final Duration DEFAULT_POLL_TIMEOUT = Duration.ofMillis(1_000);
+  private static final int DEFAULT_CONSUMER_POOL_MAX_SIZE = 20;
+  private static final Duration DEFAULT_CONSUMER_POOL_IDLE_TIMEOUT = Duration.ofMinutes(2);
+  private static final Duration DEFAULT_CONSUMER_POOL_BORROW_TIMEOUT = Duration.ofSeconds(30);
+  private static final int DEFAULT_MAX_PARALLEL_POLLING_CONSUMERS = 4;
+  private static final int DEFAULT_MESSAGES_CACHE_MAX_SIZE_MB = 50;
 
   private final Duration pollTimeout;
   private final Supplier<PollingThrottler> throttlerSupplier;
+  private final int consumerPoolMaxSize;
+  private final Duration consumerPoolIdleTimeout;
+  private final Duration consumerPoolBorrowTimeout;
+  private final int deserializationParallelism;
+  private final int maxPollingConsumers;
+  private final MessagesCache messagesCache;
+  private final TimestampIndex timestampIndex = new TimestampIndex();
+  private final ApplicationMetrics metrics;
+  private final int pagePrefetchMaxBytes;
+  private final PrefetchStore prefetchStore;
+  private final int messagePreviewMaxChars;
+  // cluster's own deserialization threads, created on-demand since parallel deserialization is disabled by default
+  private Scheduler deserializationScheduler;
+  // cluster's own threads for parallel partitions polling
+  private Scheduler pollingScheduler;
 
   public static PollingSettings create(ClustersProperties.Cluster cluster,
                                        ClustersProperties clustersProperties) {
@@ -23,21 +48,70 @@ public class PollingSettings {
 
     return new PollingSettings(
         pollTimeout,
-        PollingThrottler.throttlerSupplier(cluster)
+        PollingThrottler.throttlerSupplier(cluster),
+        Optional.ofNullable(pollingProps.getConsumerPoolMaxSize())
+            .orElse(DEFAULT_CONSUMER_POOL_MAX_SIZE),
+        Optional.ofNullable(pollingProps.getConsumerPoolIdleTimeoutMs())
+            .map(Duration::ofMillis)
+            .orElse(DEFAULT_CONSUMER_POOL_IDLE_TIMEOUT),
+        Optional.ofNullable(pollingProps.getConsumerPoolBorrowTimeoutMs())
+            .map(Duration::ofMillis)
+            .orElse(DEFAULT_CONSUMER_POOL_BORROW_TIMEOUT),
+        Optional.ofNullable(pollingProps.getDeserializationParallelism())
+            .orElse(1),
+        Optional.ofNullable(cluster.getMaxParallelPollingConsumers())
+            .orElse(DEFAULT_MAX_PARALLEL_POLLING_CONSUMERS),
+        MessagesCache.create(
+            cluster.getName(),
+            Optional.ofNullable(pollingProps.getMessagesCacheMaxSizeMb())
+                .orElse(DEFAULT_MESSAGES_CACHE_MAX_SIZE_MB)),
+        ApplicationMetrics.forCluster(cluster.getName()),
+        Optional.ofNullable(pollingProps.getPagePrefetchMaxBytes())
+            .orElse(0),
+        Optional.ofNullable(pollingProps.getMessagePreviewMaxChars())
+            .orElse(0)
     );
   }
 
   public static PollingSettings createDefault() {
     return new PollingSettings(
         DEFAULT_POLL_TIMEOUT,
-        PollingThrottler::noop
+        PollingThrottler::noop,
+        DEFAULT_CONSUMER_POOL_MAX_SIZE,
+        DEFAULT_CONSUMER_POOL_IDLE_TIMEOUT,
+        DEFAULT_CONSUMER_POOL_BORROW_TIMEOUT,
+        1,
+        DEFAULT_MAX_PARALLEL_POLLING_CONSUMERS,
+        MessagesCache.disabled(),
+        ApplicationMetrics.noop(),
+        0,
+        0
     );
   }
 
   private PollingSettings(Duration pollTimeout,
-                          Supplier<PollingThrottler> throttlerSupplier) {
+                          Supplier<PollingThrottler> throttlerSupplier,
+                          int consumerPoolMaxSize,
+                          Duration consumerPoolIdleTimeout,
+                          Duration consumerPoolBorrowTimeout,
+                          int deserializationParallelism,
+                          int maxPollingConsumers,
+                          MessagesCache messagesCache,
+                          ApplicationMetrics metrics,
+                          int pagePrefetchMaxBytes,
+                          int messagePreviewMaxChars) {
     this.pollTimeout = pollTimeout;
     this.throttlerSupplier = throttlerSupplier;
+    this.consumerPoolMaxSize = consumerPoolMaxSize;
+    this.consumerPoolIdleTimeout = consumerPoolIdleTimeout;
+    this.consumerPoolBorrowTimeout = consumerPoolBorrowTimeout;
+    this.deserializationParallelism = deserializationParallelism;
+    this.maxPollingConsumers = maxPollingConsumers;
+    this.messagesCache = messagesCache;
+    this.metrics = metrics;
+    this.pagePrefetchMaxBytes = pagePrefetchMaxBytes;
+    this.prefetchStore = new PrefetchStore(metrics);
+    this.messagePreviewMaxChars = messagePreviewMaxChars;
   }
 
   public Duration getPollTimeout() {
@@ -47,4 +121,87 @@ public class PollingSettings {
   public PollingThrottler getPollingThrottler() {
     return throttlerSupplier.get();
   }
+
+  public int getConsumerPoolMaxSize() {
+    return consumerPoolMaxSize;
+  }
+
+  public Duration getConsumerPoolIdleTimeout() {
+    return consumerPoolIdleTimeout;
+  }
+
+  public Duration getConsumerPoolBorrowTimeout() {
+    return consumerPoolBorrowTimeout;
+  }
+
+  public int getDeserializationParallelism() {
+    return deserializationParallelism;
+  }
+
+  // null if parallel deserialization is disabled
+  @Nullable
+  public synchronized Scheduler getDeserializationScheduler() {
+    if (deserializationParallelism <= 1) {
+      return null;
+    }
+    if (deserializationScheduler == null) {
+      deserializationScheduler = Schedulers.newParallel("messages-deserialization", deserializationParallelism, true);
+    }
+    return deserializationScheduler;
+  }
+
+  // max number of consumers that can be used by single polling session to poll partitions in parallel
+  public int getMaxPollingConsumers() {
+    return maxPollingConsumers;
+  }
+
+  public synchronized Scheduler getPollingScheduler() {
+    if (pollingScheduler == null) {
+      pollingScheduler = Schedulers.newBoundedElastic(
+          Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+          Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+          "parallel-partitions-polling",
+          60, //ttl for idle threads (in sec)
+          true //daemon
+      );
+    }
+    return pollingScheduler;
+  }
+
+  public MessagesCache getMessagesCache() {
+    return messagesCache;
+  }
+
+  public TimestampIndex getTimestampIndex() {
+    return timestampIndex;
+  }
+
+  public ApplicationMetrics getMetrics() {
+    return metrics;
+  }
+
+  // max bytes to poll for next page speculative prefetch, 0 if prefetch is disabled
+  public int getPagePrefetchMaxBytes() {
+    return pagePrefetchMaxBytes;
+  }
+
+  public PrefetchStore getPrefetchStore() {
+    return prefetchStore;
+  }
+
+  // max length of polled messages keys & contents, 0 if messages should not be truncated
+  public int getMessagePreviewMaxChars() {
+    return messagePreviewMaxChars;
+  }
+
+  @Override
+  public synchronized void close() {
+    prefetchStore.cancelAllPrefetches();
+    if (deserializationScheduler != null) {
+      deserializationScheduler.dispose();
+    }
+    if (pollingScheduler != null) {
+      pollingScheduler.dispose();
+    }
+  }
 }
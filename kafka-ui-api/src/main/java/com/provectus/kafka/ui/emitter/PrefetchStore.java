@@ -0,0 +1,101 @@
+package com.provectus.kafka.ui.emitter;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.provectus.kafka.ui.util.ApplicationMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
+import reactor.core.Disposable;
+
+/**
+ * Cluster-level store of raw records that were speculatively polled for the next page after page
+ * polling finished. Keeps single continuous prefetched range per partition. Records are raw (not deserialized),
+ * so they can be used by next page's request with any serdes & filter.
+ * Also tracks in-flight prefetches, so they can be cancelled when new request for the same topic starts
+ * (it will poll the data itself) or when polling settings are closed.
+ */
+public class PrefetchStore {
+
+  private static final long MAX_STORED_BYTES = 64 * 1024 * 1024;
+  private static final Duration TTL = Duration.ofMinutes(1);
+
+  // [from, to) range that was fully polled
+  private record PrefetchedRange(long from,
+                                 long to,
+                                 List<ConsumerRecord<Bytes, Bytes>> records,
+                                 int bytes,
+                                 AtomicBoolean used) {
+  }
+
+  private final Cache<TopicPartition, PrefetchedRange> ranges = CacheBuilder.newBuilder()
+      .maximumWeight(MAX_STORED_BYTES)
+      .weigher((TopicPartition tp, PrefetchedRange r) -> r.bytes())
+      .expireAfterWrite(TTL)
+      .build();
+
+  // topic -> in-flight prefetch's cancellation
+  private final Map<String, Disposable> inFlight = new ConcurrentHashMap<>();
+
+  private final ApplicationMetrics metrics;
+
+  PrefetchStore(ApplicationMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  void put(TopicPartition tp, long from, long to, List<ConsumerRecord<Bytes, Bytes>> records, int bytes) {
+    ranges.put(tp, new PrefetchedRange(from, to, List.copyOf(records), bytes, new AtomicBoolean()));
+    metrics.messagesPrefetches().increment();
+  }
+
+  /**
+   * Returns prefetched records for [from, to) range if it is fully covered by prefetched range, null otherwise.
+   */
+  @Nullable
+  List<ConsumerRecord<Bytes, Bytes>> get(TopicPartition tp, long from, long to) {
+    var prefetched = ranges.getIfPresent(tp);
+    if (prefetched == null || prefetched.from() > from || prefetched.to() < to) {
+      return null;
+    }
+    // counting hit only once per prefetch, to get meaningful hits / prefetches ratio
+    if (prefetched.used().compareAndSet(false, true)) {
+      metrics.messagesPrefetchHits().increment();
+    }
+    return prefetched.records().stream()
+        .filter(r -> r.offset() >= from && r.offset() < to)
+        .toList();
+  }
+
+  // previous topic's prefetch is cancelled, only latest page's prefetch is useful
+  void prefetchStarted(String topic, Disposable cancellation) {
+    var previous = inFlight.put(topic, cancellation);
+    if (previous != null) {
+      previous.dispose();
+    }
+  }
+
+  void prefetchFinished(String topic, Disposable cancellation) {
+    inFlight.remove(topic, cancellation);
+  }
+
+  void cancelPrefetch(String topic) {
+    var cancellation = inFlight.remove(topic);
+    if (cancellation != null) {
+      cancellation.dispose();
+    }
+  }
+
+  void cancelAllPrefetches() {
+    inFlight.keySet().forEach(this::cancelPrefetch);
+  }
+
+  public void invalidateTopic(String topic) {
+    ranges.asMap().keySet().removeIf(tp -> tp.topic().equals(topic));
+  }
+}
@@ -1,63 +1,151 @@
 package com.provectus.kafka.ui.emitter;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.provectus.kafka.ui.model.ConsumerPosition;
 import com.provectus.kafka.ui.model.TopicMessageEventDTO;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.mutable.MutableLong;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.InterruptException;
 import org.apache.kafka.common.utils.Bytes;
+import reactor.core.Disposable;
 import reactor.core.publisher.FluxSink;
 
 @Slf4j
 abstract class RangePollingEmitter extends AbstractEmitter {
 
   private final Supplier<EnhancedConsumer> consumerSupplier;
+  // additional consumers for parallel polling, should not block if consumer is not available
+  private final Supplier<Optional<EnhancedConsumer>> additionalConsumerSupplier;
   protected final ConsumerPosition consumerPosition;
   protected final int messagesPerPage;
+  // number of consumers polling partitions in parallel, 1 means that all partitions polled by single consumer
+  private final int pollingConsumers;
+  @Nullable
+  private final Cursor.Tracking cursorTracking;
 
   protected RangePollingEmitter(Supplier<EnhancedConsumer> consumerSupplier,
                                 ConsumerPosition consumerPosition,
                                 int messagesPerPage,
                                 MessagesProcessing messagesProcessing,
-                                PollingSettings pollingSettings) {
+                                PollingSettings pollingSettings,
+                                RangePollingOptions options) {
     super(messagesProcessing, pollingSettings);
+    this.cursorTracking = options.getCursorTracking();
     this.consumerPosition = consumerPosition;
     this.messagesPerPage = messagesPerPage;
     this.consumerSupplier = consumerSupplier;
+    this.additionalConsumerSupplier = options.getAdditionalConsumerSupplier() != null
+        ? options.getAdditionalConsumerSupplier()
+        : () -> Optional.of(consumerSupplier.get());
+    this.pollingConsumers =
+        Math.max(1, Math.min(options.getPollingConsumers(), pollingSettings.getMaxPollingConsumers()));
   }
 
+
   protected record FromToOffset(/*inclusive*/ long from, /*exclusive*/ long to) {
   }
 
-  //should return empty map if polling should be stopped
+  //should return empty map if polling should be stopped,
+  //prevRange only contains partitions that were polled in previous round (partitions with full merger queues are not)
   protected abstract TreeMap<TopicPartition, FromToOffset> nextPollingRange(
       TreeMap<TopicPartition, FromToOffset> prevRange, //empty on start
       SeekOperations seekOperations
   );
 
+  // called after each polling round, before next range is requested
+  protected void onRoundFinished(TreeMap<TopicPartition, FromToOffset> range,
+                                 List<ConsumerRecord<Bytes, Bytes>> polled,
+                                 long sentInRound) {
+  }
+
   @Override
   public void accept(FluxSink<TopicMessageEventDTO> sink) {
     log.debug("Starting polling for {}", consumerPosition);
+    // new request polls topic itself, previous page's prefetch is not needed anymore
+    getPrefetchStore().cancelPrefetch(consumerPosition.getTopic());
+    TreeMap<TopicPartition, FromToOffset> prefetchRange = null;
     try (EnhancedConsumer consumer = consumerSupplier.get()) {
       sendPhase(sink, "Consumer created");
-      var seekOperations = SeekOperations.create(consumer, consumerPosition);
+      var seekOperations = SeekOperations.create(consumer, consumerPosition, getTimestampIndex());
       TreeMap<TopicPartition, FromToOffset> pollRange = nextPollingRange(new TreeMap<>(), seekOperations);
       log.debug("Starting from offsets {}", pollRange);
 
-      while (!sink.isCancelled() && !pollRange.isEmpty() && !sendLimitReached()) {
-        var polled = poll(consumer, sink, pollRange);
-        send(sink, polled);
-        pollRange = nextPollingRange(pollRange, seekOperations);
+      List<EnhancedConsumer> consumers = new ArrayList<>(List.of(consumer));
+      TreeMap<TopicPartition, FromToOffset> lastRange = pollRange;
+      // records are merged across rounds, so records polled in different rounds are sent in timestamps order
+      var merger = new RecordsMerger(isAscending());
+      merger.register(pollRange.keySet().stream().map(TopicPartition::partition).toList());
+      int rounds = 0;
+      try {
+        addParallelConsumers(consumers, pollRange.size());
+        while (!sink.isCancelled() && !pollRange.isEmpty() && !sendLimitReached()) {
+          // partitions with full merger queues are not polled until their queued records are sent,
+          // their ranges are kept for next rounds
+          var held = new TreeMap<TopicPartition, FromToOffset>(pollRange.comparator());
+          var roundRange = new TreeMap<TopicPartition, FromToOffset>(pollRange.comparator());
+          pollRange.forEach((tp, fromTo) -> (merger.isFull(tp.partition()) ? held : roundRange).put(tp, fromTo));
+
+          List<ConsumerRecord<Bytes, Bytes>> polled = new ArrayList<>();
+          var rangeToPoll = takeCachedPartitions(roundRange, polled);
+          if (!rangeToPoll.isEmpty()) {
+            polled.addAll(consumers.size() == 1
+                ? poll(consumer, sink, rangeToPoll)
+                : pollParallel(consumers, sink, rangeToPoll));
+          }
+          merger.add(polled);
+          roundRange.forEach((tp, fromTo) -> {
+            if (isLastRange(tp, fromTo, seekOperations)) {
+              merger.finish(tp.partition());
+            }
+          });
+          rounds++;
+          long sentBefore = sentMessages();
+          sendSorted(sink, merger.ready());
+          if (roundRange.isEmpty()) {
+            // all partitions were full, their queued records were released by this round
+            continue;
+          }
+          onRoundFinished(roundRange, polled, sentMessages() - sentBefore);
+          lastRange = roundRange;
+          pollRange = nextPollingRange(roundRange, seekOperations);
+          pollRange.putAll(held);
+        }
+      } finally {
+        consumers.subList(1, consumers.size()).forEach(EnhancedConsumer::close);
       }
       if (sink.isCancelled()) {
         log.debug("Polling finished due to sink cancellation");
+      } else {
+        getMetrics().pagePollingRounds(isAscending() ? "forward" : "backward").record(rounds);
+      }
+      Map<Integer, Long> continuation = !sink.isCancelled() && sendLimitReached()
+          ? continuationPositions(lastRange, merger, seekOperations)
+          : Map.of();
+      String nextCursor = cursorTracking != null && !continuation.isEmpty()
+          ? cursorTracking.createNextCursor(continuation)
+          : null;
+      if (!continuation.isEmpty() && getPagePrefetchMaxBytes() > 0) {
+        prefetchRange = nextPageFirstRange(continuation, seekOperations);
       }
-      sendFinishStatsAndCompleteSink(sink);
+      sendFinishStatsAndCompleteSink(sink, nextCursor);
       log.debug("Polling finished");
     } catch (InterruptException kafkaInterruptException) {
       log.debug("Polling finished due to thread interruption");
@@ -66,6 +154,179 @@ abstract class RangePollingEmitter extends AbstractEmitter {
       log.error("Error occurred while consuming records", e);
       sink.error(e);
     }
+    if (prefetchRange != null) {
+      schedulePrefetch(prefetchRange);
+    }
+  }
+
+  // stream is completed and page's consumer is released at this point, so prefetch does not delay the client
+  private void schedulePrefetch(TreeMap<TopicPartition, FromToOffset> range) {
+    String topic = consumerPosition.getTopic();
+    var cancelled = new AtomicBoolean();
+    // cancellation flag is checked between polls: scheduled task is not disposed, since interrupting
+    // polling thread would break consumer that is returned to pool
+    Disposable cancellation = () -> cancelled.set(true);
+    getPrefetchStore().prefetchStarted(topic, cancellation);
+    try {
+      getPollingScheduler().schedule(() -> {
+        try {
+          prefetchNextPage(range, cancelled::get);
+        } finally {
+          getPrefetchStore().prefetchFinished(topic, cancellation);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      getPrefetchStore().prefetchFinished(topic, cancellation);
+      log.debug("Next page prefetch rejected, polling scheduler is disposed");
+    }
+  }
+
+  // partitions with fully cached (or prefetched) ranges are not polled, their records are taken from cache
+  private TreeMap<TopicPartition, FromToOffset> takeCachedPartitions(TreeMap<TopicPartition, FromToOffset> range,
+                                                                     List<ConsumerRecord<Bytes, Bytes>> result) {
+    var rangeToPoll = new TreeMap<TopicPartition, FromToOffset>(range.comparator());
+    range.forEach((tp, fromTo) -> {
+      var cached = cachedRange(tp, fromTo.from, fromTo.to);
+      if (cached == null) {
+        cached = getPrefetchStore().get(tp, fromTo.from, fromTo.to);
+      }
+      if (cached != null) {
+        result.addAll(cached);
+      } else {
+        rangeToPoll.put(tp, fromTo);
+      }
+    });
+    return rangeToPoll;
+  }
+
+  // partition's range reaches end (for FORWARD) or beginning (for BACKWARD) of partition
+  private boolean isLastRange(TopicPartition tp, FromToOffset fromTo, SeekOperations seekOperations) {
+    return isAscending()
+        ? fromTo.to >= seekOperations.getEndOffsets().get(tp)
+        : fromTo.from <= seekOperations.getBeginOffsets().get(tp);
+  }
+
+  // partition -> position to continue polling from, only contains partitions that have more records to poll
+  private Map<Integer, Long> continuationPositions(TreeMap<TopicPartition, FromToOffset> lastRange,
+                                                   RecordsMerger merger,
+                                                   SeekOperations seekOperations) {
+    Map<Integer, Long> positions = new HashMap<>();
+    seekOperations.getOffsetsForSeek().forEach((tp, pageStart) -> {
+      Long position = nextPosition(tp, pageStart, lastRange.get(tp), merger);
+      if (position == null) {
+        return;
+      }
+      boolean hasMore = isAscending()
+          ? position < seekOperations.getEndOffsets().get(tp)
+          : position > seekOperations.getBeginOffsets().get(tp);
+      if (hasMore) {
+        positions.put(tp.partition(), position);
+      }
+    });
+    return positions;
+  }
+
+  // first range that next page's request will poll, see nextPollingRange() implementations
+  private TreeMap<TopicPartition, FromToOffset> nextPageFirstRange(Map<Integer, Long> continuation,
+                                                                   SeekOperations seekOperations) {
+    long window = (long) Math.ceil((double) messagesPerPage / continuation.size());
+    TreeMap<TopicPartition, FromToOffset> range = new TreeMap<>(Comparator.comparingInt(TopicPartition::partition));
+    continuation.forEach((partition, position) -> {
+      var tp = new TopicPartition(consumerPosition.getTopic(), partition);
+      range.put(tp, isAscending()
+          ? new FromToOffset(position, Math.min(seekOperations.getEndOffsets().get(tp), position + window))
+          : new FromToOffset(Math.max(seekOperations.getBeginOffsets().get(tp), position - window), position));
+    });
+    return range;
+  }
+
+  /**
+   * Polls first range of the next page with additional consumer and puts raw records to prefetch store.
+   * Skipped if additional consumer is not available. Stops when prefetch bytes budget is exhausted or when
+   * prefetch is cancelled, only fully polled partition ranges are stored.
+   */
+  @VisibleForTesting
+  void prefetchNextPage(TreeMap<TopicPartition, FromToOffset> range, BooleanSupplier cancelled) {
+    if (cancelled.getAsBoolean()) {
+      return;
+    }
+    try {
+      var leased = additionalConsumerSupplier.get();
+      if (leased.isEmpty()) {
+        log.debug("No free consumers to prefetch next page for {}", consumerPosition);
+        return;
+      }
+      try (EnhancedConsumer consumer = leased.get()) {
+        MutableLong bytesPolled = new MutableLong();
+        var records = pollRange(consumer, cancelled, range, c -> {
+          var polled = pollAndIndex(c);
+          bytesPolled.add(polled.bytes());
+          if (bytesPolled.longValue() >= getPagePrefetchMaxBytes()) {
+            c.pause(c.assignment());
+          }
+          return polled;
+        });
+        if (cancelled.getAsBoolean()) {
+          log.debug("Prefetching next page for {} cancelled", consumerPosition);
+          return;
+        }
+        var byPartition = records.stream().collect(Collectors.groupingBy(ConsumerRecord::partition));
+        range.forEach((tp, fromTo) -> {
+          if (consumer.position(tp) >= fromTo.to()) {
+            var tpRecords = byPartition.getOrDefault(tp.partition(), List.of());
+            int bytes = tpRecords.stream()
+                .mapToInt(r -> Math.max(0, r.serializedKeySize()) + Math.max(0, r.serializedValueSize()))
+                .sum();
+            getPrefetchStore().put(tp, fromTo.from(), fromTo.to(), tpRecords, bytes);
+          }
+        });
+      }
+    } catch (InterruptException e) {
+      log.debug("Prefetching next page for {} interrupted", consumerPosition);
+    } catch (Exception e) {
+      log.debug("Error prefetching next page for {}", consumerPosition, e);
+    }
+  }
+
+  /**
+   * Position after last processed (sent or filtered out) record, if there are polled but not processed records
+   * (left in merger or not sent because of page limit). Otherwise - last polled range's end,
+   * or null if partition was fully polled.
+   */
+  @Nullable
+  private Long nextPosition(TopicPartition tp,
+                            long pageStart,
+                            @Nullable FromToOffset lastRange,
+                            RecordsMerger merger) {
+    boolean asc = isAscending();
+    long processed = processedPositions().getOrDefault(tp.partition(), pageStart);
+    Long lastAdded = merger.lastAddedOffset(tp.partition());
+    boolean unprocessedLeft = lastAdded != null && (asc ? lastAdded >= processed : lastAdded < processed);
+    if (unprocessedLeft) {
+      return processed;
+    }
+    if (lastRange == null) {
+      return null;
+    }
+    return asc ? lastRange.to : lastRange.from;
+  }
+
+  private void addParallelConsumers(List<EnhancedConsumer> consumers, int partitionsToPoll) {
+    int additionalConsumers = Math.min(pollingConsumers, partitionsToPoll) - 1;
+    for (int i = 0; i < additionalConsumers; i++) {
+      try {
+        var consumer = additionalConsumerSupplier.get();
+        if (consumer.isEmpty()) {
+          log.debug("No free consumers for parallel polling, using {} consumers", consumers.size());
+          return;
+        }
+        consumers.add(consumer.get());
+      } catch (Exception e) {
+        // not failing polling, continuing with consumers that were already created
+        log.debug("Error creating additional consumer for parallel polling, using {} consumers", consumers.size(), e);
+        return;
+      }
+    }
   }
 
   private List<ConsumerRecord<Bytes, Bytes>> poll(EnhancedConsumer consumer,
@@ -74,13 +335,83 @@ abstract class RangePollingEmitter extends AbstractEmitter {
     log.trace("Polling range {}", range);
     sendPhase(sink,
         "Polling partitions: %s".formatted(range.keySet().stream().map(TopicPartition::partition).sorted().toList()));
+    return pollRange(consumer, sink::isCancelled, range, c -> poll(sink, c));
+  }
+
+  private record ParallelPollResult(List<ConsumerRecord<Bytes, Bytes>> records, List<PolledRecords> polls) {
+  }
+
+  /**
+   * Splits range's partitions between consumers, each consumer polls its partitions on separate thread.
+   * Sink is only accessed from the calling thread, polled records are merged into single list, that will be
+   * merged by {@link RecordsMerger} in the same way as for single-consumer polling.
+   * Note: all consumers share cluster's polling throttler rate, so parallel polling does not increase
+   * throttled cluster's load.
+   */
+  private List<ConsumerRecord<Bytes, Bytes>> pollParallel(List<EnhancedConsumer> consumers,
+                                                          FluxSink<TopicMessageEventDTO> sink,
+                                                          TreeMap<TopicPartition, FromToOffset> range) {
+    log.trace("Polling range {} with {} consumers", range, consumers.size());
+    sendPhase(sink,
+        "Polling partitions: %s".formatted(range.keySet().stream().map(TopicPartition::partition).sorted().toList()));
+
+    List<TreeMap<TopicPartition, FromToOffset>> splits = new ArrayList<>();
+    consumers.forEach(c -> splits.add(new TreeMap<>(range.comparator())));
+    int idx = 0;
+    for (var entry : range.entrySet()) {
+      splits.get(idx++ % splits.size()).put(entry.getKey(), entry.getValue());
+    }
+
+    List<CompletableFuture<ParallelPollResult>> futures = new ArrayList<>();
+    for (int i = 0; i < splits.size(); i++) {
+      var split = splits.get(i);
+      if (split.isEmpty()) {
+        continue;
+      }
+      var consumer = consumers.get(i);
+      futures.add(CompletableFuture.supplyAsync(
+          () -> {
+            List<PolledRecords> polls = new ArrayList<>();
+            var records = pollRange(consumer, sink::isCancelled, split, c -> {
+              var polled = pollAndIndex(c);
+              polls.add(polled);
+              return polled;
+            });
+            return new ParallelPollResult(records, polls);
+          },
+          getPollingScheduler()::schedule
+      ));
+    }
+
+    // waiting for all consumers to finish, since consumers can't be closed while polling in other thread
+    List<ConsumerRecord<Bytes, Bytes>> result = new ArrayList<>();
+    RuntimeException error = null;
+    for (var future : futures) {
+      try {
+        var pollResult = future.join();
+        pollResult.polls().forEach(polled -> sendConsuming(sink, polled));
+        result.addAll(pollResult.records());
+      } catch (CompletionException e) {
+        error = error != null ? error
+            : (e.getCause() instanceof RuntimeException re ? re : e);
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
+    return result;
+  }
 
+  private List<ConsumerRecord<Bytes, Bytes>> pollRange(EnhancedConsumer consumer,
+                                                       BooleanSupplier cancelled,
+                                                       TreeMap<TopicPartition, FromToOffset> range,
+                                                       Function<EnhancedConsumer, PolledRecords> poller) {
     consumer.assign(range.keySet());
     range.forEach((tp, fromTo) -> consumer.seek(tp, fromTo.from));
 
     List<ConsumerRecord<Bytes, Bytes>> result = new ArrayList<>();
-    while (!sink.isCancelled() && consumer.paused().size() < range.size()) {
-      var polledRecords = poll(sink, consumer);
+    while (!cancelled.getAsBoolean() && consumer.paused().size() < range.size()) {
+      var polledRecords = poller.apply(consumer);
       range.forEach((tp, fromTo) -> {
         polledRecords.records(tp).stream()
             .filter(r -> r.offset() < fromTo.to)
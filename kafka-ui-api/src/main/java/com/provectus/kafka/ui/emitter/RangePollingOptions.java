@@ -0,0 +1,33 @@
+package com.provectus.kafka.ui.emitter;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Optional parameters of forward & backward emitters. All of them have defaults, so {@link #defaults()} can be used
+ * when only page parameters are needed.
+ */
+@Value
+@Builder
+public class RangePollingOptions {
+
+  // additional consumers for parallel polling & next page prefetch, should not block if consumer is not available.
+  // if not set, consumers are taken from emitter's main consumer supplier
+  @Nullable
+  Supplier<Optional<EnhancedConsumer>> additionalConsumerSupplier;
+  // number of consumers polling partitions in parallel, 1 means that all partitions polled by single consumer
+  @Builder.Default
+  int pollingConsumers = 1;
+  @Nullable
+  Cursor.Tracking cursorTracking;
+  // page's byte budget, not limited if null
+  @Nullable
+  Long pageMaxBytes;
+
+  public static RangePollingOptions defaults() {
+    return builder().build();
+  }
+}
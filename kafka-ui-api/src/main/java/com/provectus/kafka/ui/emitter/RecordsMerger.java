@@ -0,0 +1,236 @@
+package com.provectus.kafka.ui.emitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.utils.Bytes;
+
+/**
+ * Streaming k-way merge of records polled from multiple partitions over multiple polling rounds.
+ * Records are released in timestamps order (ascending or descending), records within same partition are
+ * released in offsets order. Record is only released when no record polled later can precede it, i.e. when
+ * all registered partitions that are still polled and have no queued records have passed record's timestamp
+ * (partition's watermark is timestamp of the last record added for it). Like per-poll sorting, this assumes
+ * that timestamps are not decreasing (for ascending order) within partition.
+ * Partitions are kept in binary heap ordered by their queue heads, heap is backed by primitive arrays;
+ * heap keys are timestamps, negated for descending order.
+ * Number of queued records per partition is limited: emitter should not poll partitions that are full
+ * (see {@link #isFull(int)}), such partitions are always waiting for other (not full) partitions to be polled.
+ * Not thread-safe, should only be used from emitter's thread.
+ */
+class RecordsMerger {
+
+  // max number of records queued per partition, before partition's polling is paused
+  static final int DEFAULT_MAX_QUEUED_PER_PARTITION = 10_000;
+
+  private final boolean asc;
+  private final int maxQueuedPerPartition;
+
+  // per-partition state, indexed by partition number
+  private final List<ArrayDeque<ConsumerRecord<Bytes, Bytes>>> queues = new ArrayList<>();
+  private boolean[] registered = new boolean[0];
+  private boolean[] finished = new boolean[0];
+  private boolean[] hasWatermark = new boolean[0];
+  private long[] watermarks = new long[0];
+  private long[] lastAddedOffsets = new long[0];
+
+  // heap of partitions with non-empty queues
+  private int[] heap = new int[0];
+  private long[] heapKeys = new long[0];
+  private int heapSize = 0;
+
+  RecordsMerger(boolean asc) {
+    this(asc, DEFAULT_MAX_QUEUED_PER_PARTITION);
+  }
+
+  RecordsMerger(boolean asc, int maxQueuedPerPartition) {
+    this.asc = asc;
+    this.maxQueuedPerPartition = maxQueuedPerPartition;
+  }
+
+  void register(Collection<Integer> partitions) {
+    partitions.forEach(p -> {
+      ensureCapacity(p);
+      registered[p] = true;
+    });
+  }
+
+  // no more records will be added for partition
+  void finish(int partition) {
+    ensureCapacity(partition);
+    finished[partition] = true;
+  }
+
+  /**
+   * Adds polled records. Records of each partition should go after (in sending order) records
+   * that were added for this partition before.
+   */
+  void add(Iterable<ConsumerRecord<Bytes, Bytes>> records) {
+    var perPartition = new TreeMap<Integer, List<ConsumerRecord<Bytes, Bytes>>>();
+    records.forEach(r -> perPartition.computeIfAbsent(r.partition(), p -> new ArrayList<>()).add(r));
+    Comparator<ConsumerRecord<Bytes, Bytes>> offsetComparator = asc
+        ? Comparator.comparingLong(ConsumerRecord::offset)
+        : Comparator.<ConsumerRecord<Bytes, Bytes>>comparingLong(ConsumerRecord::offset).reversed();
+    perPartition.forEach((partition, partitionRecords) -> {
+      partitionRecords.sort(offsetComparator);
+      ensureCapacity(partition);
+      registered[partition] = true;
+      var last = partitionRecords.get(partitionRecords.size() - 1);
+      watermarks[partition] = key(last);
+      lastAddedOffsets[partition] = last.offset();
+      hasWatermark[partition] = true;
+      var queue = queues.get(partition);
+      boolean wasEmpty = queue.isEmpty();
+      queue.addAll(partitionRecords);
+      if (wasEmpty) {
+        heapInsert(partition, key(queue.peekFirst()));
+      }
+    });
+  }
+
+  /**
+   * True if partition's queue reached max queued records limit, partition should not be polled until
+   * its queued records are released. Limit is soft: records of the poll that crossed it are still queued.
+   */
+  boolean isFull(int partition) {
+    return partition < registered.length && queues.get(partition).size() >= maxQueuedPerPartition;
+  }
+
+  // offset of the last record that was added for partition, null if nothing was added
+  @Nullable
+  Long lastAddedOffset(int partition) {
+    return partition < hasWatermark.length && hasWatermark[partition] ? lastAddedOffsets[partition] : null;
+  }
+
+  /**
+   * Returns iterator over records that can be released now. Records are removed from merger when they are
+   * taken from iterator, so records that were not taken will be returned by next call.
+   */
+  Iterator<ConsumerRecord<Bytes, Bytes>> ready() {
+    return new Iterator<>() {
+
+      private long bound = releaseBound();
+
+      @Override
+      public boolean hasNext() {
+        return heapSize > 0 && heapKeys[0] <= bound;
+      }
+
+      @Override
+      public ConsumerRecord<Bytes, Bytes> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int partition = heap[0];
+        var queue = queues.get(partition);
+        var rec = queue.pollFirst();
+        if (queue.isEmpty()) {
+          heapRemoveTop();
+          if (!finished[partition]) {
+            // partition's next records can't precede its watermark
+            bound = Math.min(bound, watermarks[partition]);
+          }
+        } else {
+          heapKeys[0] = key(queue.peekFirst());
+          siftDown(0);
+        }
+        return rec;
+      }
+    };
+  }
+
+  // max key that can be released: min watermark of partitions that can still get records preceding queued ones
+  private long releaseBound() {
+    long bound = Long.MAX_VALUE;
+    for (int p = 0; p < registered.length; p++) {
+      if (registered[p] && !finished[p] && queues.get(p).isEmpty()) {
+        bound = Math.min(bound, hasWatermark[p] ? watermarks[p] : Long.MIN_VALUE);
+      }
+    }
+    return bound;
+  }
+
+  private long key(ConsumerRecord<Bytes, Bytes> rec) {
+    return asc ? rec.timestamp() : -rec.timestamp();
+  }
+
+  private void ensureCapacity(int partition) {
+    if (partition < registered.length) {
+      return;
+    }
+    int capacity = Math.max(partition + 1, registered.length * 2);
+    registered = Arrays.copyOf(registered, capacity);
+    finished = Arrays.copyOf(finished, capacity);
+    hasWatermark = Arrays.copyOf(hasWatermark, capacity);
+    watermarks = Arrays.copyOf(watermarks, capacity);
+    lastAddedOffsets = Arrays.copyOf(lastAddedOffsets, capacity);
+    heap = Arrays.copyOf(heap, capacity);
+    heapKeys = Arrays.copyOf(heapKeys, capacity);
+    while (queues.size() < capacity) {
+      queues.add(new ArrayDeque<>());
+    }
+  }
+
+  private void heapInsert(int partition, long key) {
+    heap[heapSize] = partition;
+    heapKeys[heapSize] = key;
+    siftUp(heapSize++);
+  }
+
+  private void heapRemoveTop() {
+    heapSize--;
+    if (heapSize > 0) {
+      heap[0] = heap[heapSize];
+      heapKeys[0] = heapKeys[heapSize];
+      siftDown(0);
+    }
+  }
+
+  // ties are resolved by partition number to make order deterministic
+  private boolean less(int i, int j) {
+    return heapKeys[i] < heapKeys[j] || (heapKeys[i] == heapKeys[j] && heap[i] < heap[j]);
+  }
+
+  private void siftUp(int idx) {
+    while (idx > 0) {
+      int parent = (idx - 1) / 2;
+      if (!less(idx, parent)) {
+        return;
+      }
+      swap(idx, parent);
+      idx = parent;
+    }
+  }
+
+  private void siftDown(int idx) {
+    while (true) {
+      int left = 2 * idx + 1;
+      if (left >= heapSize) {
+        return;
+      }
+      int smallest = left + 1 < heapSize && less(left + 1, left) ? left + 1 : left;
+      if (!less(smallest, idx)) {
+        return;
+      }
+      swap(idx, smallest);
+      idx = smallest;
+    }
+  }
+
+  private void swap(int i, int j) {
+    int p = heap[i];
+    heap[i] = heap[j];
+    heap[j] = p;
+    long k = heapKeys[i];
+    heapKeys[i] = heapKeys[j];
+    heapKeys[j] = k;
+  }
+}
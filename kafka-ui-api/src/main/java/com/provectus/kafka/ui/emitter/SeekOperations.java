@@ -6,7 +6,6 @@ import com.provectus.kafka.ui.model.ConsumerPosition;
 import com.provectus.kafka.ui.model.SeekTypeDTO;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +21,12 @@ public class SeekOperations {
   private final Map<TopicPartition, Long> offsetsForSeek; //only contains non-empty partitions!
 
   public static SeekOperations create(Consumer<?, ?> consumer, ConsumerPosition consumerPosition) {
+    return create(consumer, consumerPosition, null);
+  }
+
+  public static SeekOperations create(Consumer<?, ?> consumer,
+                                      ConsumerPosition consumerPosition,
+                                      @Nullable TimestampIndex timestampIndex) {
     OffsetsInfo offsetsInfo;
     if (consumerPosition.getSeekTo() == null) {
       offsetsInfo = new OffsetsInfo(consumer, consumerPosition.getTopic());
@@ -31,7 +36,8 @@ public class SeekOperations {
     return new SeekOperations(
         consumer,
         offsetsInfo,
-        getOffsetsForSeek(consumer, offsetsInfo, consumerPosition.getSeekType(), consumerPosition.getSeekTo())
+        getOffsetsForSeek(
+            consumer, offsetsInfo, consumerPosition.getSeekType(), consumerPosition.getSeekTo(), timestampIndex)
     );
   }
 
@@ -77,6 +83,15 @@ public class SeekOperations {
                                                      OffsetsInfo offsetsInfo,
                                                      SeekTypeDTO seekType,
                                                      @Nullable Map<TopicPartition, Long> seekTo) {
+    return getOffsetsForSeek(consumer, offsetsInfo, seekType, seekTo, null);
+  }
+
+  @VisibleForTesting
+  static Map<TopicPartition, Long> getOffsetsForSeek(Consumer<?, ?> consumer,
+                                                     OffsetsInfo offsetsInfo,
+                                                     SeekTypeDTO seekType,
+                                                     @Nullable Map<TopicPartition, Long> seekTo,
+                                                     @Nullable TimestampIndex timestampIndex) {
     switch (seekType) {
       case LATEST:
         return consumer.endOffsets(offsetsInfo.getNonEmptyPartitions());
@@ -87,7 +102,7 @@ public class SeekOperations {
         return fixOffsets(offsetsInfo, seekTo);
       case TIMESTAMP:
         Preconditions.checkNotNull(seekTo);
-        return offsetsForTimestamp(consumer, offsetsInfo, seekTo);
+        return offsetsForTimestamp(consumer, offsetsInfo, seekTo, timestampIndex);
       default:
         throw new IllegalStateException();
     }
@@ -112,13 +127,38 @@ public class SeekOperations {
     return result;
   }
 
-  private static Map<TopicPartition, Long> offsetsForTimestamp(Consumer<?, ?> consumer, OffsetsInfo offsetsInfo,
-                                                               Map<TopicPartition, Long> timestamps) {
+  private static Map<TopicPartition, Long> offsetsForTimestamp(Consumer<?, ?> consumer,
+                                                               OffsetsInfo offsetsInfo,
+                                                               Map<TopicPartition, Long> timestamps,
+                                                               @Nullable TimestampIndex timestampIndex) {
     timestamps = new HashMap<>(timestamps);
     timestamps.keySet().retainAll(offsetsInfo.getNonEmptyPartitions());
 
-    return consumer.offsetsForTimes(timestamps).entrySet().stream()
-        .filter(e -> e.getValue() != null)
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().offset()));
+    Map<TopicPartition, Long> result = new HashMap<>();
+    if (timestampIndex != null) {
+      // resolving from index where possible, requesting broker only for the rest of partitions
+      for (var it = timestamps.entrySet().iterator(); it.hasNext(); ) {
+        var e = it.next();
+        Long indexed = timestampIndex.lookup(e.getKey(), e.getValue(),
+            offsetsInfo.getBeginOffsets().get(e.getKey()), offsetsInfo.getEndOffsets().get(e.getKey()));
+        if (indexed != null) {
+          result.put(e.getKey(), indexed);
+          it.remove();
+        }
+      }
+    }
+    if (timestamps.isEmpty()) {
+      return result;
+    }
+    Map<TopicPartition, Long> requested = timestamps;
+    consumer.offsetsForTimes(requested).forEach((tp, offsetAndTs) -> {
+      if (offsetAndTs != null) {
+        result.put(tp, offsetAndTs.offset());
+        if (timestampIndex != null) {
+          timestampIndex.record(tp, requested.get(tp), offsetAndTs.offset());
+        }
+      }
+    });
+    return result;
   }
 }
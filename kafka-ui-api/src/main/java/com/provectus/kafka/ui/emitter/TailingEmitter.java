@@ -7,6 +7,7 @@ import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
 import java.util.HashMap;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.errors.InterruptException;
 import reactor.core.publisher.FluxSink;
@@ -21,8 +22,14 @@ public class TailingEmitter extends AbstractEmitter {
                         ConsumerPosition consumerPosition,
                         ConsumerRecordDeserializer deserializer,
                         Predicate<TopicMessageDTO> filter,
-                        PollingSettings pollingSettings) {
-    super(new MessagesProcessing(deserializer, filter, false, null), pollingSettings);
+                        PollingSettings pollingSettings,
+                        @Nullable Long maxBytes) {
+    super(
+        new MessagesProcessing(deserializer, filter, false, null, pollingSettings.getDeserializationScheduler(),
+            pollingSettings.getDeserializationParallelism(), MessagesCache.disabled(), maxBytes,
+            pollingSettings.getMessagePreviewMaxChars()),
+        pollingSettings
+    );
     this.consumerSupplier = consumerSupplier;
     this.consumerPosition = consumerPosition;
   }
@@ -31,8 +38,9 @@ public class TailingEmitter extends AbstractEmitter {
   public void accept(FluxSink<TopicMessageEventDTO> sink) {
     log.debug("Starting tailing polling for {}", consumerPosition);
     try (EnhancedConsumer consumer = consumerSupplier.get()) {
-      assignAndSeek(consumer);
-      while (!sink.isCancelled()) {
+      assignAndSeek(consumer, consumerPosition);
+      // tailing is stopped when session's byte budget is exceeded
+      while (!sink.isCancelled() && !sendLimitReached()) {
         sendPhase(sink, "Polling");
         var polled = poll(sink, consumer);
         send(sink, polled);
@@ -48,7 +56,7 @@ public class TailingEmitter extends AbstractEmitter {
     }
   }
 
-  private void assignAndSeek(EnhancedConsumer consumer) {
+  static void assignAndSeek(EnhancedConsumer consumer, ConsumerPosition consumerPosition) {
     var seekOperations = SeekOperations.create(consumer, consumerPosition);
     var seekOffsets = new HashMap<>(seekOperations.getEndOffsets()); // defaulting offsets to topic end
     seekOffsets.putAll(seekOperations.getOffsetsForSeek()); // this will only set non-empty partitions
@@ -0,0 +1,224 @@
+package com.provectus.kafka.ui.emitter;
+
+import com.google.common.collect.Lists;
+import com.provectus.kafka.ui.model.ConsumerPosition;
+import com.provectus.kafka.ui.model.SeekTypeDTO;
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import com.provectus.kafka.ui.model.TopicMessageEventDTO;
+import com.provectus.kafka.ui.model.TopicMessagePhaseDTO;
+import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.errors.InterruptException;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Shares single consumer between tailing sessions that consume same topic (from latest offsets) with same serdes.
+ * Polled records are deserialized once and multicast to all subscribers, each subscriber applies its own filter,
+ * truncation and byte budget, and is consuming events from its own buffer, so slow subscriber does not block others.
+ * Shared consumer is created on first subscription and closed when last subscriber cancels.
+ */
+@Slf4j
+public class TailingHub {
+
+  // max number of polled batches buffered for subscriber, oldest batches are dropped on overflow
+  private static final int SUBSCRIBER_BUFFER_SIZE = 1_000;
+
+  public record Key(String clusterName, String topic, String keySerde, String valueSerde) {
+  }
+
+  private record PolledBatch(PolledRecords polled, List<TopicMessageDTO> messages) {
+  }
+
+  /**
+   * Shared polling with its subscribers count. Subscribers count and polling connection are only changed inside
+   * map's compute for hub key, so joining, leaving and removing of shared polling are atomic. Removed shared polling
+   * is never re-connected, next subscriber creates new one.
+   */
+  private static final class SharedTailing {
+
+    private final ConnectableFlux<PolledBatch> batches;
+    private int subscribers = 0;
+    private Disposable connection;
+
+    SharedTailing(Flux<PolledBatch> polling) {
+      this.batches = polling.publish();
+    }
+  }
+
+  private final Map<Key, SharedTailing> shared = new ConcurrentHashMap<>();
+
+  public Flux<TopicMessageEventDTO> subscribe(Key key,
+                                             Supplier<EnhancedConsumer> consumerSupplier,
+                                             ConsumerRecordDeserializer deserializer,
+                                             Predicate<TopicMessageDTO> filter,
+                                             PollingSettings pollingSettings,
+                                             @Nullable Long maxBytes) {
+    return Flux.defer(() -> {
+      var tailing = join(key, consumerSupplier, deserializer, pollingSettings);
+      var subscriber = new Subscriber(filter, pollingSettings.getMessagePreviewMaxChars(), maxBytes);
+      return tailing.batches
+          .onBackpressureBuffer(
+              SUBSCRIBER_BUFFER_SIZE,
+              subscriber::onDropped,
+              BufferOverflowStrategy.DROP_OLDEST)
+          .publishOn(Schedulers.boundedElastic())
+          .concatMapIterable(subscriber::toEvents)
+          .takeUntil(subscriber::isLastEvent)
+          .doFinally(s -> leave(key, tailing));
+    });
+  }
+
+  private SharedTailing join(Key key,
+                             Supplier<EnhancedConsumer> consumerSupplier,
+                             ConsumerRecordDeserializer deserializer,
+                             PollingSettings pollingSettings) {
+    return shared.compute(key, (k, existing) -> {
+      var tailing = existing != null ? existing : createShared(k, consumerSupplier, deserializer, pollingSettings);
+      // published flux holds polled batches until subscriber is subscribed, so connecting before subscription
+      if (tailing.subscribers++ == 0) {
+        tailing.connection = tailing.batches.connect();
+      }
+      return tailing;
+    });
+  }
+
+  private void leave(Key key, SharedTailing tailing) {
+    shared.computeIfPresent(key, (k, current) -> {
+      if (current != tailing) {
+        // shared polling was already removed because of termination
+        return current;
+      }
+      if (--current.subscribers == 0) {
+        current.connection.dispose();
+        return null;
+      }
+      return current;
+    });
+  }
+
+  private SharedTailing createShared(Key key,
+                                     Supplier<EnhancedConsumer> consumerSupplier,
+                                     ConsumerRecordDeserializer deserializer,
+                                     PollingSettings pollingSettings) {
+    var holder = new SharedTailing[1];
+    Flux<PolledBatch> polling = Flux.<PolledBatch>create(sink -> poll(key, sink, consumerSupplier, deserializer,
+            pollingSettings))
+        // polling loop is blocking and should not occupy first subscriber's thread
+        .subscribeOn(Schedulers.boundedElastic())
+        // removing before termination is propagated, so new subscribers will not join terminated polling
+        .doOnTerminate(() -> shared.remove(key, holder[0]));
+    holder[0] = new SharedTailing(polling);
+    return holder[0];
+  }
+
+  private void poll(Key key,
+                    FluxSink<PolledBatch> sink,
+                    Supplier<EnhancedConsumer> consumerSupplier,
+                    ConsumerRecordDeserializer deserializer,
+                    PollingSettings pollingSettings) {
+    log.debug("Starting shared tailing for {}", key);
+    try (EnhancedConsumer consumer = consumerSupplier.get()) {
+      TailingEmitter.assignAndSeek(consumer, new ConsumerPosition(SeekTypeDTO.LATEST, key.topic(), null));
+      while (!sink.isCancelled()) {
+        var polled = consumer.pollEnhanced(pollingSettings.getPollTimeout());
+        // whole poll is deserialized with one batch call per serde
+        List<TopicMessageDTO> messages = deserializer.deserialize(
+            Lists.newArrayList(MessagesProcessing.sortForSending(polled, false)));
+        // raw records are not needed by subscribers, so they are not kept in subscribers buffers
+        var polledStats = new PolledRecords(polled.count(), polled.bytes(), polled.elapsed(), ConsumerRecords.empty());
+        sink.next(new PolledBatch(polledStats, messages));
+      }
+      sink.complete();
+      log.debug("Shared tailing finished for {}", key);
+    } catch (InterruptException kafkaInterruptException) {
+      log.debug("Shared tailing finished due to thread interruption");
+      sink.complete();
+    } catch (Exception e) {
+      log.error("Error consuming {}", key, e);
+      sink.error(e);
+    }
+  }
+
+  private static class Subscriber {
+
+    private final Predicate<TopicMessageDTO> filter;
+    private final int previewMaxChars;
+    @Nullable
+    private final Long maxBytes;
+    private final ConsumingStats consumingStats = new ConsumingStats();
+    // incremented on polling thread when buffer overflows, reported on subscriber's thread
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private long sentBytes = 0;
+    // event after which subscription is completed because of exceeded byte budget
+    @Nullable
+    private TopicMessageEventDTO lastEvent;
+
+    Subscriber(Predicate<TopicMessageDTO> filter, int previewMaxChars, @Nullable Long maxBytes) {
+      this.filter = filter;
+      this.previewMaxChars = previewMaxChars;
+      this.maxBytes = maxBytes;
+    }
+
+    void onDropped(PolledBatch batch) {
+      droppedMessages.addAndGet(batch.messages().size());
+    }
+
+    private boolean budgetExceeded() {
+      return maxBytes != null && sentBytes >= maxBytes;
+    }
+
+    boolean isLastEvent(TopicMessageEventDTO event) {
+      return event == lastEvent;
+    }
+
+    List<TopicMessageEventDTO> toEvents(PolledBatch batch) {
+      List<TopicMessageEventDTO> events = new ArrayList<>();
+      long dropped = droppedMessages.getAndSet(0);
+      if (dropped > 0) {
+        consumingStats.incMessagesSkipped(dropped);
+        events.add(phase("Consuming is slower than polling, %d messages skipped".formatted(dropped)));
+      }
+      events.add(phase("Polling"));
+      events.add(consumingStats.createConsumingEvt(batch.polled()));
+      for (TopicMessageDTO msg : batch.messages()) {
+        if (budgetExceeded()) {
+          break;
+        }
+        try {
+          if (filter.test(msg)) {
+            var truncated = MessagesProcessing.truncated(msg, previewMaxChars);
+            events.add(new TopicMessageEventDTO().type(TopicMessageEventDTO.TypeEnum.MESSAGE).message(truncated));
+            sentBytes += MessageSizeEstimator.estimate(truncated);
+          }
+        } catch (Exception e) {
+          consumingStats.incFilterApplyError();
+          log.trace("Error applying filter for message {}", msg);
+        }
+      }
+      if (budgetExceeded()) {
+        lastEvent = events.get(events.size() - 1);
+      }
+      return events;
+    }
+
+    private static TopicMessageEventDTO phase(String name) {
+      return new TopicMessageEventDTO()
+          .type(TopicMessageEventDTO.TypeEnum.PHASE)
+          .phase(new TopicMessagePhaseDTO().name(name));
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package com.provectus.kafka.ui.emitter;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import javax.annotation.Nullable;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.record.TimestampType;
+
+/**
+ * Cluster-level sparse index of timestamp -> offset lookups, used to answer TIMESTAMP seeks without
+ * calling broker's offsetsForTimes.
+ * Each point (ts, offset) means that offsetsForTimes(ts) == offset, i.e. offset is the earliest offset
+ * whose timestamp >= ts (from broker's time index perspective). Since this function is monotonic,
+ * if two neighbour points have same offset, all timestamps between them resolve to that offset too.
+ * Points are collected from offsetsForTimes responses and from polled records of topics with LogAppendTime
+ * timestamps (where timestamps grow monotonically with offsets).
+ */
+public class TimestampIndex {
+
+  private static final int MAX_PARTITIONS = 10_000;
+  private static final int MAX_POINTS_PER_PARTITION = 128;
+
+  private final Cache<TopicPartition, PartitionIndex> partitions = CacheBuilder.newBuilder()
+      .maximumSize(MAX_PARTITIONS)
+      .build();
+
+  /**
+   * Returns offset within [beginOffset, endOffset) for timestamp if it can be resolved locally, null otherwise.
+   * Points with offsets outside of partition's current range are dropped, since they were deleted by retention
+   * or left from truncated partition.
+   */
+  @Nullable
+  public Long lookup(TopicPartition tp, long timestamp, long beginOffset, long endOffset) {
+    var index = partitions.getIfPresent(tp);
+    return index == null ? null : index.lookup(timestamp, beginOffset, endOffset);
+  }
+
+  public void record(TopicPartition tp, long timestamp, long offset) {
+    partitionIndex(tp).add(timestamp, offset);
+  }
+
+  void recordPolled(PolledRecords polled) {
+    for (TopicPartition tp : polled.partitions()) {
+      ConsumerRecord<?, ?> prev = null;
+      for (ConsumerRecord<?, ?> rec : polled.records(tp)) {
+        if (rec.timestampType() != TimestampType.LOG_APPEND_TIME) {
+          break;
+        }
+        // records between prev and rec offsets can be removed by compaction or be transaction markers
+        if (prev != null && prev.offset() == rec.offset() - 1 && prev.timestamp() < rec.timestamp()) {
+          // all timestamps in (prev.ts, rec.ts] resolve to rec's offset, recording only one point per batch
+          var index = partitionIndex(tp);
+          index.add(prev.timestamp() + 1, rec.offset());
+          index.add(rec.timestamp(), rec.offset());
+          break;
+        }
+        prev = rec;
+      }
+    }
+  }
+
+  public void invalidateTopic(String topic) {
+    partitions.asMap().keySet().removeIf(tp -> tp.topic().equals(topic));
+  }
+
+  private PartitionIndex partitionIndex(TopicPartition tp) {
+    return partitions.asMap().computeIfAbsent(tp, t -> new PartitionIndex(MAX_POINTS_PER_PARTITION));
+  }
+
+  @VisibleForTesting
+  static class PartitionIndex {
+
+    // sorted by timestamps, offsets are non-decreasing
+    private final long[] timestamps;
+    private final long[] offsets;
+    private int size = 0;
+
+    PartitionIndex(int capacity) {
+      this.timestamps = new long[capacity];
+      this.offsets = new long[capacity];
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    synchronized void add(long timestamp, long offset) {
+      int idx = Arrays.binarySearch(timestamps, 0, size, timestamp);
+      if (idx < 0) {
+        if (size == timestamps.length) {
+          sparsify();
+          idx = Arrays.binarySearch(timestamps, 0, size, timestamp);
+        }
+        idx = -idx - 1;
+        System.arraycopy(timestamps, idx, timestamps, idx + 1, size - idx);
+        System.arraycopy(offsets, idx, offsets, idx + 1, size - idx);
+        timestamps[idx] = timestamp;
+        size++;
+      }
+      offsets[idx] = offset;
+      // newest point wins: points that contradict it (partition was truncated or re-created) are dropped,
+      // so offsets stay non-decreasing
+      final int added = idx;
+      retain(i -> i == added
+          || (i < added && offsets[i] <= offset)
+          || (i > added && offsets[i] >= offset));
+    }
+
+    @Nullable
+    synchronized Long lookup(long timestamp, long beginOffset, long endOffset) {
+      retain(i -> offsets[i] >= beginOffset && offsets[i] < endOffset);
+      if (size == 0) {
+        return null;
+      }
+      int idx = Arrays.binarySearch(timestamps, 0, size, timestamp);
+      Long resolved;
+      if (idx >= 0) {
+        resolved = offsets[idx];
+      } else {
+        int next = -idx - 1;
+        if (next == size) {
+          resolved = null;
+        } else if (next == 0) {
+          // all earlier timestamps resolve to begin offset, if first point resolves to it
+          resolved = offsets[0] == beginOffset ? beginOffset : null;
+        } else {
+          resolved = offsets[next - 1] == offsets[next] ? offsets[next] : null;
+        }
+      }
+      return resolved == null ? null : Math.max(beginOffset, Math.min(resolved, endOffset - 1));
+    }
+
+    // keeps points which indexes match condition, preserving their order
+    private void retain(IntPredicate condition) {
+      int newSize = 0;
+      for (int i = 0; i < size; i++) {
+        if (condition.test(i)) {
+          timestamps[newSize] = timestamps[i];
+          offsets[newSize] = offsets[i];
+          newSize++;
+        }
+      }
+      size = newSize;
+    }
+
+    // removing every second point, so remaining points still cover whole indexed range
+    private void sparsify() {
+      int newSize = 0;
+      for (int i = 0; i < size; i += 2) {
+        timestamps[newSize] = timestamps[i];
+        offsets[newSize] = offsets[i];
+        newSize++;
+      }
+      size = newSize;
+    }
+  }
+}
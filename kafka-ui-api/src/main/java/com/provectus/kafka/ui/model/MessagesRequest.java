@@ -0,0 +1,36 @@
+package com.provectus.kafka.ui.model;
+
+import javax.annotation.Nullable;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Parameters of topic messages polling. Only consumer position is required, other parameters
+ * fall back to service defaults when not set. If cursor is set, polling parameters are taken from it.
+ */
+@Value
+@Builder(toBuilder = true)
+public class MessagesRequest {
+  ConsumerPosition consumerPosition;
+  @Nullable
+  String query;
+  @Nullable
+  MessageFilterTypeDTO filterQueryType;
+  @Nullable
+  Integer pageSize;
+  @Nullable
+  SeekDirectionDTO seekDirection;
+  @Nullable
+  String keySerde;
+  @Nullable
+  String valueSerde;
+  @Nullable
+  Integer pollingConsumers;
+  boolean batchMessages;
+  @Nullable
+  String cursor;
+  @Nullable
+  String keyLookup;
+  @Nullable
+  Long maxBytes;
+}
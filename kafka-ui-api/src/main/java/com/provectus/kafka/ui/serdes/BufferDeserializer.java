@@ -0,0 +1,45 @@
+package com.provectus.kafka.ui.serdes;
+
+import com.provectus.kafka.ui.serde.api.DeserializeResult;
+import com.provectus.kafka.ui.serde.api.RecordHeaders;
+import com.provectus.kafka.ui.serde.api.Serde;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Deserializer that decodes data directly from ByteBuffer, array-based calls are delegated to it
+ * by wrapping the array (no copy).
+ */
+@FunctionalInterface
+public interface BufferDeserializer extends Serde.Deserializer {
+
+  @Override
+  DeserializeResult deserialize(RecordHeaders headers, ByteBuffer data);
+
+  @Override
+  default DeserializeResult deserialize(RecordHeaders headers, byte[] data) {
+    return deserialize(headers, ByteBuffer.wrap(data));
+  }
+
+  static String decode(ByteBuffer data, Charset charset) {
+    if (data.hasArray()) {
+      return new String(data.array(), data.arrayOffset() + data.position(), data.remaining(), charset);
+    }
+    return charset.decode(data.duplicate()).toString();
+  }
+
+  /**
+   * Returns buffer's backing array if buffer spans it entirely, otherwise copies remaining bytes.
+   */
+  static byte[] toArray(ByteBuffer data) {
+    if (data.hasArray()
+        && data.arrayOffset() == 0
+        && data.position() == 0
+        && data.remaining() == data.array().length) {
+      return data.array();
+    }
+    byte[] bytes = new byte[data.remaining()];
+    data.duplicate().get(bytes);
+    return bytes;
+  }
+}
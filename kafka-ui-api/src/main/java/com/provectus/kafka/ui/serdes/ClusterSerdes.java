@@ -6,6 +6,7 @@ import java.io.Closeable;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import lombok.Getter;
@@ -68,7 +69,18 @@ public class ClusterSerdes implements Closeable {
   }
 
   public SerdeInstance suggestSerdeForDeserialize(String topic, Serde.Target type) {
+    return suggestSerdeForDeserialize(topic, type, Optional::empty);
+  }
+
+  /**
+   * Same as {@link #suggestSerdeForDeserialize(String, Serde.Target)}, but detected serde is used
+   * (if any) when no serde matches topic by patterns or defaults.
+   */
+  public SerdeInstance suggestSerdeForDeserialize(String topic,
+                                                  Serde.Target type,
+                                                  Supplier<Optional<SerdeInstance>> detected) {
     return findSerdeByPatternsOrDefault(topic, type, s -> s.canDeserialize(topic, type))
+        .or(detected)
         .orElse(serdes.get(StringSerde.name()));
   }
 
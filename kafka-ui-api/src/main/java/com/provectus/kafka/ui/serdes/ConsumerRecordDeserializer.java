@@ -1,15 +1,25 @@
 package com.provectus.kafka.ui.serdes;
 
+import com.google.common.base.Preconditions;
 import com.provectus.kafka.ui.model.TopicMessageDTO;
 import com.provectus.kafka.ui.model.TopicMessageDTO.TimestampTypeEnum;
+import com.provectus.kafka.ui.serde.api.DeserializeInput;
+import com.provectus.kafka.ui.serde.api.DeserializeOutput;
+import com.provectus.kafka.ui.serde.api.DeserializeResult;
 import com.provectus.kafka.ui.serde.api.Serde;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -24,9 +34,11 @@ public class ConsumerRecordDeserializer {
 
   private static final ZoneId UTC_ZONE_ID = ZoneId.of("UTC");
 
+  @Getter
   private final String keySerdeName;
   private final Serde.Deserializer keyDeserializer;
 
+  @Getter
   private final String valueSerdeName;
   private final Serde.Deserializer valueDeserializer;
 
@@ -36,10 +48,54 @@ public class ConsumerRecordDeserializer {
 
   private final UnaryOperator<TopicMessageDTO> masker;
 
+  // true if both key and value are deserialized into strings that are equal to raw data decoded as UTF-8
+  // (and no masking applied on them), so string searches can be performed on raw bytes
+  @Getter
+  private final boolean rawUtf8TextPreserving;
+
+  // true if value serde is a built-in one, so its JSON results are not re-validated before raw embedding
+  private final boolean builtInValueSerde;
+
+  public ConsumerRecordDeserializer(String keySerdeName,
+                                    Serde.Deserializer keyDeserializer,
+                                    String valueSerdeName,
+                                    Serde.Deserializer valueDeserializer,
+                                    String fallbackSerdeName,
+                                    Serde.Deserializer fallbackKeyDeserializer,
+                                    Serde.Deserializer fallbackValueDeserializer,
+                                    UnaryOperator<TopicMessageDTO> masker) {
+    this(keySerdeName, keyDeserializer, valueSerdeName, valueDeserializer, fallbackSerdeName,
+        fallbackKeyDeserializer, fallbackValueDeserializer, masker, false, false);
+  }
+
   public TopicMessageDTO deserialize(ConsumerRecord<Bytes, Bytes> rec) {
-    var message = new TopicMessageDTO();
-    fillKey(message, rec);
-    fillValue(message, rec);
+    return deserialize(rec, null, null);
+  }
+
+  /**
+   * Deserializes records with one batch deserialization call per key/value serde.
+   * Keys/values that serde failed to deserialize within batch are deserialized with fallback serde.
+   * If serde's batch call fails, batch's keys/values are deserialized one by one (with fallback on errors).
+   */
+  public List<TopicMessageDTO> deserialize(List<ConsumerRecord<Bytes, Bytes>> records) {
+    if (records.isEmpty()) {
+      return List.of();
+    }
+    DeserializeOutput[] keys = deserializeBatch(keyDeserializer, keySerdeName, records, true);
+    DeserializeOutput[] values = deserializeBatch(valueDeserializer, valueSerdeName, records, false);
+    List<TopicMessageDTO> result = new ArrayList<>(records.size());
+    for (int i = 0; i < records.size(); i++) {
+      result.add(deserialize(records.get(i), keys != null ? keys[i] : null, values != null ? values[i] : null));
+    }
+    return result;
+  }
+
+  private TopicMessageDTO deserialize(ConsumerRecord<Bytes, Bytes> rec,
+                                      @Nullable DeserializeOutput keyOutput,
+                                      @Nullable DeserializeOutput valueOutput) {
+    var message = new DeserializedTopicMessage();
+    fillKey(message, rec, keyOutput);
+    fillValue(message, rec, valueOutput);
     fillHeaders(message, rec);
 
     message.setPartition(rec.partition());
@@ -51,7 +107,50 @@ public class ConsumerRecordDeserializer {
     message.setValueSize(getValueSize(rec));
     message.setHeadersSize(getHeadersSize(rec));
 
-    return masker.apply(message);
+    String content = message.getContent();
+    var masked = masker.apply(message);
+    if (!Objects.equals(message.getContent(), content)) {
+      // masking can turn JSON content into non-JSON string
+      message.setJsonContent(false);
+    }
+    return masked;
+  }
+
+  // returns outputs aligned with records (nulls for records without data) or null if batch deserialization failed
+  @Nullable
+  private DeserializeOutput[] deserializeBatch(Serde.Deserializer deserializer,
+                                               String serdeName,
+                                               List<ConsumerRecord<Bytes, Bytes>> records,
+                                               boolean keys) {
+    List<DeserializeInput> inputs = new ArrayList<>(records.size());
+    for (var rec : records) {
+      Bytes data = keys ? rec.key() : rec.value();
+      if (data != null) {
+        inputs.add(new DeserializeInput(keys ? new RecordHeadersImpl() : new RecordHeadersImpl(rec.headers()),
+            buffer(data)));
+      }
+    }
+    var aligned = new DeserializeOutput[records.size()];
+    if (inputs.isEmpty()) {
+      return aligned;
+    }
+    try {
+      List<DeserializeOutput> outputs = deserializer.deserializeBatch(inputs);
+      Preconditions.checkState(outputs.size() == inputs.size(),
+          "Batch outputs size %s doesn't match inputs size %s", outputs.size(), inputs.size());
+      var outputsIter = outputs.iterator();
+      for (int i = 0; i < records.size(); i++) {
+        var rec = records.get(i);
+        if ((keys ? rec.key() : rec.value()) != null) {
+          aligned[i] = Objects.requireNonNull(outputsIter.next(), "Batch output can't be null");
+        }
+      }
+      return aligned;
+    } catch (Exception e) {
+      log.trace("Error batch deserializing {} {}s with serde {}, deserializing them one by one",
+          inputs.size(), keys ? "key" : "value", serdeName, e);
+      return null;
+    }
   }
 
   private static TimestampTypeEnum mapToTimestampType(TimestampType timestampType) {
@@ -73,44 +172,69 @@ public class ConsumerRecordDeserializer {
     message.setHeaders(headers);
   }
 
-  private void fillKey(TopicMessageDTO message, ConsumerRecord<Bytes, Bytes> rec) {
+  // batchOutput is used if key was already deserialized within batch
+  private void fillKey(TopicMessageDTO message,
+                       ConsumerRecord<Bytes, Bytes> rec,
+                       @Nullable DeserializeOutput batchOutput) {
     if (rec.key() == null) {
       return;
     }
     try {
-      var deserResult = keyDeserializer.deserialize(new RecordHeadersImpl(), rec.key().get());
+      var deserResult = batchOutput != null
+          ? resultOrThrow(batchOutput)
+          : keyDeserializer.deserialize(new RecordHeadersImpl(), buffer(rec.key()));
       message.setKey(deserResult.getResult());
       message.setKeySerde(keySerdeName);
       message.setKeyDeserializeProperties(deserResult.getAdditionalProperties());
     } catch (Exception e) {
       log.trace("Error deserializing key for key topic: {}, partition {}, offset {}, with serde {}",
           rec.topic(), rec.partition(), rec.offset(), keySerdeName, e);
-      var deserResult = fallbackKeyDeserializer.deserialize(new RecordHeadersImpl(), rec.key().get());
+      var deserResult = fallbackKeyDeserializer.deserialize(new RecordHeadersImpl(), buffer(rec.key()));
       message.setKey(deserResult.getResult());
       message.setKeySerde(fallbackSerdeName);
     }
   }
 
-  private void fillValue(TopicMessageDTO message, ConsumerRecord<Bytes, Bytes> rec) {
+  // batchOutput is used if value was already deserialized within batch
+  private void fillValue(DeserializedTopicMessage message,
+                         ConsumerRecord<Bytes, Bytes> rec,
+                         @Nullable DeserializeOutput batchOutput) {
     if (rec.value() == null) {
       return;
     }
     try {
-      var deserResult = valueDeserializer.deserialize(
-          new RecordHeadersImpl(rec.headers()), rec.value().get());
+      var deserResult = batchOutput != null
+          ? resultOrThrow(batchOutput)
+          : valueDeserializer.deserialize(new RecordHeadersImpl(rec.headers()), buffer(rec.value()));
       message.setContent(deserResult.getResult());
+      message.setJsonContent(deserResult.getType() == DeserializeResult.Type.JSON);
+      message.setJsonContentTrusted(builtInValueSerde);
       message.setValueSerde(valueSerdeName);
       message.setValueDeserializeProperties(deserResult.getAdditionalProperties());
     } catch (Exception e) {
       log.trace("Error deserializing key for value topic: {}, partition {}, offset {}, with serde {}",
           rec.topic(), rec.partition(), rec.offset(), valueSerdeName, e);
       var deserResult = fallbackValueDeserializer.deserialize(
-          new RecordHeadersImpl(rec.headers()), rec.value().get());
+          new RecordHeadersImpl(rec.headers()), buffer(rec.value()));
       message.setContent(deserResult.getResult());
+      message.setJsonContent(deserResult.getType() == DeserializeResult.Type.JSON);
       message.setValueSerde(fallbackSerdeName);
     }
   }
 
+  // error of record's deserialization within batch is re-thrown, so record is deserialized with fallback serde
+  private static DeserializeResult resultOrThrow(DeserializeOutput output) throws Exception {
+    if (output.isFailure()) {
+      throw output.getError();
+    }
+    return output.getResult();
+  }
+
+  // wrapping polled bytes without copying, so serdes can decode data directly
+  private static ByteBuffer buffer(Bytes bytes) {
+    return ByteBuffer.wrap(bytes.get());
+  }
+
   private static Long getHeadersSize(ConsumerRecord<Bytes, Bytes> consumerRecord) {
     Headers headers = consumerRecord.headers();
     if (headers != null) {
@@ -0,0 +1,140 @@
+package com.provectus.kafka.ui.serdes;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import com.provectus.kafka.ui.model.TopicMessageEventDTO;
+import java.io.IOException;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Message created by {@link ConsumerRecordDeserializer}. Additionally keeps (not exposed in API) flag showing that
+ * content is a JSON text produced by serde with JSON result type, so it can be embedded into response as is.
+ * Built-in serdes' JSON results are embedded as is. Results of custom serdes are embedded only if they are
+ * valid JSON values, otherwise they are written as strings.
+ */
+public class DeserializedTopicMessage extends TopicMessageDTO {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  @JsonIgnore
+  @Getter
+  @Setter
+  private boolean jsonContent;
+
+  // true if content was produced by built-in serde, so it does not need to be validated
+  @JsonIgnore
+  @Setter
+  private boolean jsonContentTrusted;
+
+  // validated on first raw embedding and kept, since same message can be stored in messages cache
+  @JsonIgnore
+  @Nullable
+  private volatile Boolean validJsonContent;
+
+  /**
+   * Returns event with JSON contents written as raw JSON values instead of escaped strings.
+   * Messages are copied, since same message instances can be stored in messages cache.
+   */
+  public static TopicMessageEventDTO withRawJsonContent(TopicMessageEventDTO event) {
+    if (event.getMessage() == null && event.getMessages() == null) {
+      return event;
+    }
+    var result = copy(event);
+    if (event.getMessage() != null) {
+      result.message(withRawJsonContent(event.getMessage()));
+    }
+    if (event.getMessages() != null) {
+      result.messages(event.getMessages().stream().map(DeserializedTopicMessage::withRawJsonContent).toList());
+    }
+    return result;
+  }
+
+  static TopicMessageDTO withRawJsonContent(TopicMessageDTO msg) {
+    if (msg instanceof DeserializedTopicMessage deserialized
+        && deserialized.isJsonContent()
+        && deserialized.hasValidJsonContent()) {
+      return copy(msg, new RawJsonContentMessage());
+    }
+    return msg;
+  }
+
+  private boolean hasValidJsonContent() {
+    if (jsonContentTrusted) {
+      return true;
+    }
+    Boolean valid = validJsonContent;
+    if (valid == null) {
+      valid = isSingleJsonValue(getContent());
+      validJsonContent = valid;
+    }
+    return valid;
+  }
+
+  private static boolean isSingleJsonValue(@Nullable String content) {
+    if (content == null) {
+      return false;
+    }
+    try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+      if (parser.nextToken() == null) {
+        return false;
+      }
+      // nested tokens are still parsed when skipped, so malformed content fails here
+      parser.skipChildren();
+      return parser.nextToken() == null;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Copies all message's fields to target.
+   */
+  public static <T extends TopicMessageDTO> T copy(TopicMessageDTO msg, T target) {
+    target
+        .partition(msg.getPartition())
+        .offset(msg.getOffset())
+        .timestamp(msg.getTimestamp())
+        .timestampType(msg.getTimestampType())
+        .key(msg.getKey())
+        .headers(msg.getHeaders())
+        .content(msg.getContent())
+        .keyFormat(msg.getKeyFormat())
+        .valueFormat(msg.getValueFormat())
+        .keySize(msg.getKeySize())
+        .valueSize(msg.getValueSize())
+        .keySchemaId(msg.getKeySchemaId())
+        .valueSchemaId(msg.getValueSchemaId())
+        .headersSize(msg.getHeadersSize())
+        .keySerde(msg.getKeySerde())
+        .valueSerde(msg.getValueSerde())
+        .keyDeserializeProperties(msg.getKeyDeserializeProperties())
+        .valueDeserializeProperties(msg.getValueDeserializeProperties())
+        .truncated(msg.getTruncated());
+    return target;
+  }
+
+  private static TopicMessageEventDTO copy(TopicMessageEventDTO event) {
+    return new TopicMessageEventDTO()
+        .type(event.getType())
+        .message(event.getMessage())
+        .messages(event.getMessages())
+        .phase(event.getPhase())
+        .consuming(event.getConsuming())
+        .cursor(event.getCursor());
+  }
+
+  // content is written with JsonGenerator.writeRawValue(), without escaping
+  private static class RawJsonContentMessage extends TopicMessageDTO {
+
+    @Override
+    @JsonRawValue
+    public String getContent() {
+      return super.getContent();
+    }
+  }
+}
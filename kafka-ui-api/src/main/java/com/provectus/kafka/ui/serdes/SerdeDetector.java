@@ -0,0 +1,179 @@
+package com.provectus.kafka.ui.serdes;
+
+import com.provectus.kafka.ui.serde.api.Serde;
+import com.provectus.kafka.ui.serdes.builtin.AvroEmbeddedSerde;
+import com.provectus.kafka.ui.serdes.builtin.ProtobufFileSerde;
+import com.provectus.kafka.ui.serdes.builtin.ProtobufRawSerde;
+import com.provectus.kafka.ui.serdes.builtin.StringSerde;
+import com.provectus.kafka.ui.serdes.builtin.sr.SchemaRegistrySerde;
+import java.nio.ByteBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.utils.Bytes;
+
+/**
+ * Detects serde for topic's keys/values by content of sampled records.
+ * Candidates are checked from the most to the least specific data format. Candidate is chosen if its format
+ * check passes and its serde successfully deserializes at least MIN_MATCH_RATIO of non-empty samples
+ * (so, for example, Schema Registry serde is only chosen if schema ids from samples are known to registry).
+ */
+@Slf4j
+public final class SerdeDetector {
+
+  static final double MIN_MATCH_RATIO = 0.9;
+
+  private static final byte SR_MAGIC_BYTE = 0;
+  private static final int SR_HEADER_LENGTH = 5;
+  private static final byte[] AVRO_CONTAINER_MAGIC = {'O', 'b', 'j', 1};
+  private static final long MAX_PROTOBUF_FIELD_NUMBER = (1 << 29) - 1;
+
+  private record Candidate(String serdeName, Predicate<byte[]> formatCheck) {
+  }
+
+  private static final List<Candidate> CANDIDATES = List.of(
+      new Candidate(SchemaRegistrySerde.name(), SerdeDetector::hasSchemaRegistryHeader),
+      new Candidate(AvroEmbeddedSerde.name(), SerdeDetector::isAvroContainer),
+      // JSON and plain text - checked before protobuf, since most of texts are also valid protobuf wire data
+      new Candidate(StringSerde.name(), SerdeDetector::isUtf8Text),
+      new Candidate(ProtobufFileSerde.name(), SerdeDetector::isProtobufWireData),
+      new Candidate(ProtobufRawSerde.name(), SerdeDetector::isProtobufWireData)
+  );
+
+  private SerdeDetector() {
+  }
+
+  /**
+   * Detects first candidate serde that matches and deserializes required share of non-empty samples.
+   *
+   * @return name of detected serde or empty if none of candidates matches samples
+   */
+  public static Optional<String> detect(ClusterSerdes serdes,
+                                        String topic,
+                                        Serde.Target type,
+                                        List<ConsumerRecord<Bytes, Bytes>> sample) {
+    List<ConsumerRecord<Bytes, Bytes>> nonEmpty = sample.stream()
+        .filter(rec -> data(rec, type) != null && data(rec, type).length > 0)
+        .toList();
+    if (nonEmpty.isEmpty()) {
+      return Optional.empty();
+    }
+    int required = (int) Math.ceil(nonEmpty.size() * MIN_MATCH_RATIO);
+    for (Candidate candidate : CANDIDATES) {
+      var serde = serdes.serdeForName(candidate.serdeName())
+          .filter(s -> s.canDeserialize(topic, type));
+      if (serde.isEmpty()) {
+        continue;
+      }
+      List<ConsumerRecord<Bytes, Bytes>> matched = nonEmpty.stream()
+          .filter(rec -> candidate.formatCheck().test(data(rec, type)))
+          .toList();
+      if (matched.size() >= required && deserializedCount(serde.get(), topic, type, matched) >= required) {
+        return Optional.of(candidate.serdeName());
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static int deserializedCount(SerdeInstance serde,
+                                       String topic,
+                                       Serde.Target type,
+                                       List<ConsumerRecord<Bytes, Bytes>> records) {
+    var deserializer = serde.deserializer(topic, type);
+    int deserialized = 0;
+    for (var rec : records) {
+      var headers = type == Serde.Target.KEY ? new RecordHeadersImpl() : new RecordHeadersImpl(rec.headers());
+      try {
+        deserializer.deserialize(headers, ByteBuffer.wrap(data(rec, type)));
+        deserialized++;
+      } catch (Exception e) {
+        log.trace("Sampled record can't be deserialized with serde {}", serde.getName(), e);
+      }
+    }
+    return deserialized;
+  }
+
+  private static byte[] data(ConsumerRecord<Bytes, Bytes> rec, Serde.Target type) {
+    Bytes bytes = type == Serde.Target.KEY ? rec.key() : rec.value();
+    return bytes != null ? bytes.get() : null;
+  }
+
+  // magic byte followed by schema id
+  static boolean hasSchemaRegistryHeader(byte[] data) {
+    return data.length >= SR_HEADER_LENGTH && data[0] == SR_MAGIC_BYTE;
+  }
+
+  static boolean isAvroContainer(byte[] data) {
+    if (data.length < AVRO_CONTAINER_MAGIC.length) {
+      return false;
+    }
+    for (int i = 0; i < AVRO_CONTAINER_MAGIC.length; i++) {
+      if (data[i] != AVRO_CONTAINER_MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // valid UTF-8 without control characters (except whitespaces)
+  static boolean isUtf8Text(byte[] data) {
+    String text;
+    try {
+      text = StandardCharsets.UTF_8.newDecoder()
+          .onMalformedInput(CodingErrorAction.REPORT)
+          .onUnmappableCharacter(CodingErrorAction.REPORT)
+          .decode(ByteBuffer.wrap(data))
+          .toString();
+    } catch (Exception e) {
+      return false;
+    }
+    return text.chars().noneMatch(c -> Character.isISOControl(c) && c != '\t' && c != '\n' && c != '\r');
+  }
+
+  // data is a sequence of fields with valid tags and wire types, that ends exactly at the end of data
+  static boolean isProtobufWireData(byte[] data) {
+    var buf = ByteBuffer.wrap(data);
+    try {
+      while (buf.hasRemaining()) {
+        long tag = readVarint(buf);
+        if (tag <= 0 || (tag >>> 3) == 0 || (tag >>> 3) > MAX_PROTOBUF_FIELD_NUMBER) {
+          return false;
+        }
+        long skip = switch ((int) (tag & 7)) {
+          case 0 -> {
+            readVarint(buf);
+            yield 0;
+          }
+          case 1 -> 8;
+          case 2 -> readVarint(buf);
+          case 5 -> 4;
+          // groups are deprecated, treating them as invalid data
+          default -> -1;
+        };
+        if (skip < 0 || skip > buf.remaining()) {
+          return false;
+        }
+        buf.position(buf.position() + (int) skip);
+      }
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static long readVarint(ByteBuffer buf) {
+    long result = 0;
+    for (int shift = 0; shift < 64 && buf.hasRemaining(); shift += 7) {
+      byte b = buf.get();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint");
+  }
+}
@@ -1,8 +1,15 @@
 package com.provectus.kafka.ui.serdes;
 
+import com.provectus.kafka.ui.serde.api.DeserializeInput;
+import com.provectus.kafka.ui.serde.api.DeserializeOutput;
+import com.provectus.kafka.ui.serde.api.DeserializeResult;
+import com.provectus.kafka.ui.serde.api.RecordHeaders;
 import com.provectus.kafka.ui.serde.api.SchemaDescription;
 import com.provectus.kafka.ui.serde.api.Serde;
+import com.provectus.kafka.ui.serdes.builtin.StringSerde;
 import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
@@ -77,6 +84,16 @@ public class SerdeInstance implements Closeable {
     }
   }
 
+  // true if serde deserializes data into string that is exactly equal to raw bytes decoded as UTF-8
+  public boolean deserializesToRawUtf8Text() {
+    return serde instanceof StringSerde stringSerde && stringSerde.isUtf8Encoding();
+  }
+
+  // built-in serdes are part of kafka-ui, so their results can be trusted (e.g. JSON results are valid JSON values)
+  public boolean isBuiltIn() {
+    return serde instanceof BuiltInSerde;
+  }
+
   public Serde.Serializer serializer(String topic, Serde.Target type) {
     return wrapWithClassloader(() -> {
       var serializer = serde.serializer(topic, type);
@@ -87,7 +104,23 @@ public class SerdeInstance implements Closeable {
   public Serde.Deserializer deserializer(String topic, Serde.Target type) {
     return wrapWithClassloader(() -> {
       var deserializer = serde.deserializer(topic, type);
-      return (headers, data) -> wrapWithClassloader(() -> deserializer.deserialize(headers, data));
+      return new Serde.Deserializer() {
+        @Override
+        public DeserializeResult deserialize(RecordHeaders headers, byte[] data) {
+          return wrapWithClassloader(() -> deserializer.deserialize(headers, data));
+        }
+
+        @Override
+        public DeserializeResult deserialize(RecordHeaders headers, ByteBuffer data) {
+          return wrapWithClassloader(() -> deserializer.deserialize(headers, data));
+        }
+
+        // classloader is switched once for the whole batch
+        @Override
+        public List<DeserializeOutput> deserializeBatch(List<DeserializeInput> batch) {
+          return wrapWithClassloader(() -> deserializer.deserializeBatch(batch));
+        }
+      };
     });
   }
 
@@ -2,7 +2,9 @@ package com.provectus.kafka.ui.serdes.builtin;
 
 import com.provectus.kafka.ui.serde.api.DeserializeResult;
 import com.provectus.kafka.ui.serde.api.SchemaDescription;
+import com.provectus.kafka.ui.serdes.BufferDeserializer;
 import com.provectus.kafka.ui.serdes.BuiltInSerde;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Map;
 import java.util.Optional;
@@ -49,9 +51,10 @@ public class Base64Serde implements BuiltInSerde {
   @Override
   public Deserializer deserializer(String topic, Target type) {
     var encoder = Base64.getEncoder();
-    return (headers, data) ->
+    return (BufferDeserializer) (headers, data) ->
         new DeserializeResult(
-            encoder.encodeToString(data),
+            // encoder returns array-backed buffer that spans whole array
+            new String(encoder.encode(data.duplicate()).array(), StandardCharsets.ISO_8859_1),
             DeserializeResult.Type.STRING,
             Map.of()
         );
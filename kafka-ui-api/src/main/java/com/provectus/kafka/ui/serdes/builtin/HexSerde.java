@@ -3,7 +3,9 @@ package com.provectus.kafka.ui.serdes.builtin;
 import com.provectus.kafka.ui.serde.api.DeserializeResult;
 import com.provectus.kafka.ui.serde.api.PropertyResolver;
 import com.provectus.kafka.ui.serde.api.SchemaDescription;
+import com.provectus.kafka.ui.serdes.BufferDeserializer;
 import com.provectus.kafka.ui.serdes.BuiltInSerde;
+import java.nio.ByteBuffer;
 import java.util.HexFormat;
 import java.util.Map;
 import java.util.Optional;
@@ -79,11 +81,19 @@ public class HexSerde implements BuiltInSerde {
 
   @Override
   public Deserializer deserializer(String topic, Target type) {
-    return (headers, data) ->
+    return (BufferDeserializer) (headers, data) ->
         new DeserializeResult(
-            deserializeHexFormat.formatHex(data),
+            formatHex(data),
             DeserializeResult.Type.STRING,
             Map.of()
         );
   }
+
+  private String formatHex(ByteBuffer data) {
+    if (data.hasArray()) {
+      int from = data.arrayOffset() + data.position();
+      return deserializeHexFormat.formatHex(data.array(), from, from + data.remaining());
+    }
+    return deserializeHexFormat.formatHex(BufferDeserializer.toArray(data));
+  }
 }
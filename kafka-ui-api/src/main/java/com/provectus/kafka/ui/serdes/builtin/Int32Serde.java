@@ -1,9 +1,13 @@
 package com.provectus.kafka.ui.serdes.builtin;
 
+import com.google.common.base.Preconditions;
 import com.google.common.primitives.Ints;
 import com.provectus.kafka.ui.serde.api.DeserializeResult;
 import com.provectus.kafka.ui.serde.api.SchemaDescription;
+import com.provectus.kafka.ui.serdes.BufferDeserializer;
 import com.provectus.kafka.ui.serdes.BuiltInSerde;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Map;
 import java.util.Optional;
 
@@ -53,11 +57,18 @@ public class Int32Serde implements BuiltInSerde {
 
   @Override
   public Deserializer deserializer(String topic, Target type) {
-    return (headers, data) ->
+    return (BufferDeserializer) (headers, data) ->
         new DeserializeResult(
-            String.valueOf(Ints.fromByteArray(data)),
+            String.valueOf(read(data)),
             DeserializeResult.Type.JSON,
             Map.of()
         );
   }
+
+  // same semantics as Ints.fromByteArray(): reads first 4 bytes (big-endian), fails if data is shorter
+  private static int read(ByteBuffer data) {
+    Preconditions.checkArgument(
+        data.remaining() >= Integer.BYTES, "array too small: %s < %s", data.remaining(), Integer.BYTES);
+    return data.duplicate().order(ByteOrder.BIG_ENDIAN).getInt();
+  }
 }
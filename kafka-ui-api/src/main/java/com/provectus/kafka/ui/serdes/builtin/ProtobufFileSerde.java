@@ -2,6 +2,8 @@ package com.provectus.kafka.ui.serdes.builtin;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.protobuf.AnyProto;
 import com.google.protobuf.ApiProto;
 import com.google.protobuf.DescriptorProtos;
@@ -38,6 +40,7 @@ import com.provectus.kafka.ui.serde.api.RecordHeaders;
 import com.provectus.kafka.ui.serde.api.SchemaDescription;
 import com.provectus.kafka.ui.serdes.BuiltInSerde;
 import com.provectus.kafka.ui.util.jsonschema.ProtobufSchemaConverter;
+import com.provectus.kafka.ui.util.jsonschema.ProtobufToJsonStreamingDecoder;
 import com.squareup.wire.schema.ErrorCollector;
 import com.squareup.wire.schema.Linker;
 import com.squareup.wire.schema.Loader;
@@ -48,6 +51,8 @@ import com.squareup.wire.schema.internal.parser.ProtoParser;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaUtils;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
@@ -55,6 +60,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -77,6 +83,9 @@ public class ProtobufFileSerde implements BuiltInSerde {
 
   private Map<Descriptor, Path> descriptorPaths = new HashMap<>();
 
+  // descriptor -> streaming decoder, empty if descriptor is not supported by streaming decoder
+  private final Map<Descriptor, Optional<ProtobufToJsonStreamingDecoder>> streamingDecoders = new ConcurrentHashMap<>();
+
   @Nullable
   private Descriptor defaultMessageDescriptor;
 
@@ -163,11 +172,8 @@ public class ProtobufFileSerde implements BuiltInSerde {
       @SneakyThrows
       @Override
       public DeserializeResult deserialize(RecordHeaders headers, byte[] data) {
-        var protoMsg = DynamicMessage.parseFrom(descriptor, new ByteArrayInputStream(data));
-        byte[] jsonFromProto = ProtobufSchemaUtils.toJson(protoMsg);
-        var result = new String(jsonFromProto);
         return new DeserializeResult(
-            result,
+            toJson(descriptor, data),
             DeserializeResult.Type.JSON,
             Map.of()
         );
@@ -175,6 +181,22 @@ public class ProtobufFileSerde implements BuiltInSerde {
     };
   }
 
+  private String toJson(Descriptor descriptor, byte[] data) throws IOException {
+    var streamingDecoder = streamingDecoders.computeIfAbsent(descriptor, ProtobufToJsonStreamingDecoder::forDescriptor);
+    if (streamingDecoder.isPresent()) {
+      try {
+        return streamingDecoder.get().decode(data, 0, data.length);
+      } catch (Exception e) {
+        // DynamicMessage parsing will either produce the same result or throw a descriptive error
+        log.debug("Streaming decoding of {} failed, falling back to DynamicMessage parsing",
+            descriptor.getFullName(), e);
+      }
+    }
+    var protoMsg = DynamicMessage.parseFrom(descriptor, new ByteArrayInputStream(data));
+    byte[] jsonFromProto = ProtobufSchemaUtils.toJson(protoMsg);
+    return new String(jsonFromProto);
+  }
+
   @Override
   public Optional<SchemaDescription> getSchema(String topic, Target type) {
     return descriptorFor(topic, type).map(this::toSchemaDescription);
@@ -209,30 +231,27 @@ public class ProtobufFileSerde implements BuiltInSerde {
     }
 
     static Configuration create(PropertyResolver properties) {
-      var protobufSchemas = loadSchemas(
-          properties.getListProperty("protobufFiles", String.class),
-          properties.getProperty("protobufFilesDir", String.class)
-      );
+      var descriptorLookup = descriptorLookup(properties);
 
       // Load all referenced message schemas and store their source proto file with the descriptors
       Map<Descriptor, Path> descriptorPaths = new HashMap<>();
       Optional<String> protobufMessageName = properties.getProperty("protobufMessageName", String.class);
-      protobufMessageName.ifPresent(messageName -> addProtobufSchema(descriptorPaths, protobufSchemas, messageName));
+      protobufMessageName.ifPresent(messageName -> addProtobufSchema(descriptorPaths, descriptorLookup, messageName));
 
       Optional<String> protobufMessageNameForKey =
           properties.getProperty("protobufMessageNameForKey", String.class);
       protobufMessageNameForKey
-          .ifPresent(messageName -> addProtobufSchema(descriptorPaths, protobufSchemas, messageName));
+          .ifPresent(messageName -> addProtobufSchema(descriptorPaths, descriptorLookup, messageName));
 
       Optional<Map<String, String>> protobufMessageNameByTopic =
           properties.getMapProperty("protobufMessageNameByTopic", String.class, String.class);
       protobufMessageNameByTopic
-          .ifPresent(messageNamesByTopic -> addProtobufSchemas(descriptorPaths, protobufSchemas, messageNamesByTopic));
+          .ifPresent(messageNamesByTopic -> addProtobufSchemas(descriptorPaths, descriptorLookup, messageNamesByTopic));
 
       Optional<Map<String, String>> protobufMessageNameForKeyByTopic =
           properties.getMapProperty("protobufMessageNameForKeyByTopic", String.class, String.class);
       protobufMessageNameForKeyByTopic
-          .ifPresent(messageNamesByTopic -> addProtobufSchemas(descriptorPaths, protobufSchemas, messageNamesByTopic));
+          .ifPresent(messageNamesByTopic -> addProtobufSchemas(descriptorPaths, descriptorLookup, messageNamesByTopic));
 
       // Fill dictionary for descriptor lookup by full message name
       Map<String, Descriptor> descriptorMap = descriptorPaths.keySet().stream()
@@ -247,6 +266,24 @@ public class ProtobufFileSerde implements BuiltInSerde {
       );
     }
 
+    // returns descriptor and its source file path by message name
+    private static Function<String, Map.Entry<Descriptor, Path>> descriptorLookup(PropertyResolver properties) {
+      Optional<List<String>> protobufFiles = properties.getListProperty("protobufFiles", String.class);
+      Optional<String> protobufFilesDir = properties.getProperty("protobufFilesDir", String.class);
+      if (protobufFilesDir.isPresent()) {
+        if (protobufFiles.isPresent()) {
+          log.warn("protobufFiles properties will be ignored, since protobufFilesDir provided");
+        }
+        var descriptors = ProtobufFilesDescriptors.load(
+            protobufFilesDir.get(),
+            properties.getProperty("protobufDescriptorsCacheDir", String.class)
+        );
+        return descriptors::find;
+      }
+      var protobufSchemas = loadSchemas(protobufFiles, Optional.empty());
+      return msgName -> getDescriptorAndPath(protobufSchemas, msgName);
+    }
+
     private static Map.Entry<Descriptor, Path> getDescriptorAndPath(Map<Path, ProtobufSchema> protobufSchemas,
                                                                     String msgName) {
       return protobufSchemas.entrySet().stream()
@@ -290,17 +327,17 @@ public class ProtobufFileSerde implements BuiltInSerde {
     }
 
     private static void addProtobufSchema(Map<Descriptor, Path> descriptorPaths,
-                                          Map<Path, ProtobufSchema> protobufSchemas,
+                                          Function<String, Map.Entry<Descriptor, Path>> descriptorLookup,
                                           String messageName) {
-      var descriptorAndPath = getDescriptorAndPath(protobufSchemas, messageName);
+      var descriptorAndPath = descriptorLookup.apply(messageName);
       descriptorPaths.put(descriptorAndPath.getKey(), descriptorAndPath.getValue());
     }
 
     private static void addProtobufSchemas(Map<Descriptor, Path> descriptorPaths,
-                                           Map<Path, ProtobufSchema> protobufSchemas,
+                                           Function<String, Map.Entry<Descriptor, Path>> descriptorLookup,
                                            Map<String, String> messageNamesByTopic) {
       messageNamesByTopic.values().stream()
-          .map(msgName -> getDescriptorAndPath(protobufSchemas, msgName))
+          .map(descriptorLookup)
           .forEach(entry -> descriptorPaths.put(entry.getKey(), entry.getValue()));
     }
   }
@@ -395,22 +432,43 @@ public class ProtobufFileSerde implements BuiltInSerde {
       };
     }
 
-    @SneakyThrows
     private Map<String, ProtoFile> loadFilesWithLocations() {
-      Map<String, ProtoFile> filesByLocations = new HashMap<>();
-      try (var files = Files.walk(baseLocation)) {
-        files.filter(p -> !Files.isDirectory(p) && p.toString().endsWith(".proto"))
-            .forEach(path -> {
+      // files are parsed in parallel, since parsing takes most of the time for big directories
+      return protoFiles().parallelStream()
+          .collect(Collectors.toMap(
               // relative path will be used as "import" statement
-              String relativePath = baseLocation.relativize(path).toString();
-              var protoFileElement = ProtoParser.Companion.parse(
-                  Location.get(baseLocation.toString(), relativePath),
-                  readFileAsString(path)
-              );
-              filesByLocations.put(relativePath, ProtoFile.Companion.get(protoFileElement));
-            });
+              path -> baseLocation.relativize(path).toString(),
+              path -> ProtoFile.Companion.get(
+                  ProtoParser.Companion.parse(
+                      Location.get(baseLocation.toString(), baseLocation.relativize(path).toString()),
+                      readFileAsString(path)
+                  )
+              )
+          ));
+    }
+
+    /**
+     * Returns hash of all proto files paths and contents.
+     */
+    @SneakyThrows
+    String contentHash() {
+      Hasher hasher = Hashing.sha256().newHasher();
+      for (Path path : protoFiles()) {
+        byte[] content = Files.readAllBytes(path);
+        hasher.putString(baseLocation.relativize(path).toString(), StandardCharsets.UTF_8)
+            .putInt(content.length)
+            .putBytes(content);
+      }
+      return hasher.hash().toString();
+    }
+
+    @SneakyThrows
+    private List<Path> protoFiles() {
+      try (var files = Files.walk(baseLocation)) {
+        return files.filter(p -> !Files.isDirectory(p) && p.toString().endsWith(".proto"))
+            .sorted()
+            .toList();
       }
-      return filesByLocations;
     }
   }
 
@@ -0,0 +1,216 @@
+package com.provectus.kafka.ui.serdes.builtin;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.squareup.wire.schema.ProtoFile;
+import com.squareup.wire.schema.internal.parser.MessageElement;
+import com.squareup.wire.schema.internal.parser.ProtoFileElement;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Linked descriptors of all proto files from protobufFilesDir, indexed by message full name.
+ * Loaded descriptors are shared between serde instances (clusters) that use same directory content.
+ * Linked files are also persisted to the local cache directory as FileDescriptorSet keyed by
+ * directory content hash, so proto files are not parsed again after restart. Cache files are only read if they
+ * are owned by the current user and not writable by others, since descriptors from foreign files can't be trusted.
+ */
+@Slf4j
+class ProtobufFilesDescriptors {
+
+  // should be changed when descriptors building logic changes, to invalidate previously persisted files
+  private static final String CACHE_VERSION = "v1";
+
+  // app-owned dir: shared (world-writable) java.io.tmpdir would let other users plant descriptor files
+  private static final Path DEFAULT_CACHE_DIR =
+      Path.of(System.getProperty("user.home"), ".kafka-ui", "protobuf-descriptors");
+
+  private static final Set<PosixFilePermission> OWNER_ONLY_DIR_PERMISSIONS =
+      PosixFilePermissions.fromString("rwx------");
+
+  // proto files dir -> descriptors of its latest content
+  private static final Map<String, LoadedDescriptors> LOADED = new ConcurrentHashMap<>();
+
+  private record LoadedDescriptors(String contentHash, ProtobufFilesDescriptors descriptors) {
+  }
+
+  private final Map<String, Map.Entry<Descriptor, Path>> messages;
+
+  private ProtobufFilesDescriptors(Map<String, Map.Entry<Descriptor, Path>> messages) {
+    this.messages = messages;
+  }
+
+  static ProtobufFilesDescriptors load(String protobufFilesDir, Optional<String> cacheDir) {
+    var loader = new ProtobufFileSerde.ProtoSchemaLoader(protobufFilesDir);
+    String hash = CACHE_VERSION + "-" + loader.contentHash();
+    Path cacheFile = cacheDir.map(Path::of).orElse(DEFAULT_CACHE_DIR).resolve(hash + ".desc");
+    // descriptors of previous dir content are replaced, so only one version per dir is kept in memory
+    return LOADED.compute(
+        protobufFilesDir,
+        (dir, loaded) -> loaded != null && loaded.contentHash().equals(hash)
+            ? loaded
+            : new LoadedDescriptors(hash, loadOrParse(loader, protobufFilesDir, cacheFile))
+    ).descriptors();
+  }
+
+  @VisibleForTesting
+  static ProtobufFilesDescriptors loadOrParse(ProtobufFileSerde.ProtoSchemaLoader loader,
+                                              String protobufFilesDir,
+                                              Path cacheFile) {
+    if (Files.exists(cacheFile) && isTrustedCacheFile(cacheFile)) {
+      try {
+        var descriptorSet = FileDescriptorSet.parseFrom(Files.readAllBytes(cacheFile));
+        log.info("Protobuf descriptors for {} loaded from cache file {}", protobufFilesDir, cacheFile);
+        return fromDescriptorSet(protobufFilesDir, descriptorSet);
+      } catch (Exception e) {
+        log.warn("Error reading protobuf descriptors cache file {}, proto files will be parsed", cacheFile, e);
+      }
+    }
+    var descriptorSet = toDescriptorSet(loader);
+    persist(descriptorSet, cacheFile);
+    return fromDescriptorSet(protobufFilesDir, descriptorSet);
+  }
+
+  // file should be owned by current user and should not be writable by group or others
+  private static boolean isTrustedCacheFile(Path cacheFile) {
+    try {
+      var currentUser = cacheFile.getFileSystem().getUserPrincipalLookupService()
+          .lookupPrincipalByName(System.getProperty("user.name"));
+      if (!Files.getOwner(cacheFile).equals(currentUser)) {
+        log.warn("Protobuf descriptors cache file {} is not owned by current user, it will be ignored", cacheFile);
+        return false;
+      }
+      if (Files.getFileStore(cacheFile).supportsFileAttributeView(PosixFileAttributeView.class)) {
+        var permissions = Files.getPosixFilePermissions(cacheFile);
+        if (permissions.contains(PosixFilePermission.GROUP_WRITE)
+            || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+          log.warn("Protobuf descriptors cache file {} is writable by other users, it will be ignored", cacheFile);
+          return false;
+        }
+      }
+      return true;
+    } catch (Exception e) {
+      log.warn("Error checking protobuf descriptors cache file {} ownership, it will be ignored", cacheFile, e);
+      return false;
+    }
+  }
+
+  Map.Entry<Descriptor, Path> find(String messageName) {
+    var descriptorAndPath = messages.get(messageName);
+    if (descriptorAndPath == null) {
+      throw new NullPointerException("The given message type not found in protobuf definition: " + messageName);
+    }
+    return descriptorAndPath;
+  }
+
+  // files are stored with paths relative to protobufFilesDir as names (same as used in imports)
+  private static FileDescriptorSet toDescriptorSet(ProtobufFileSerde.ProtoSchemaLoader loader) {
+    List<ProtoFile> loadedFiles = loader.load();
+    Map<String, ProtoFileElement> allPaths = loadedFiles.stream()
+        .collect(Collectors.toMap(f -> f.getLocation().getPath(), ProtoFile::toElement));
+    Map<String, FileDescriptor> rootFiles = loadedFiles.parallelStream()
+        .map(f -> new ProtobufSchema(f.toElement(), List.of(), allPaths))
+        .flatMap(schema -> firstMessageName(schema.rawSchema())
+            .map(name -> Map.entry(schema.rawSchema().getLocation().getPath(), schema.toDescriptor(name).getFile()))
+            .stream())
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+    Map<String, FileDescriptorProto> files = new LinkedHashMap<>();
+    var sortedRootFiles = new TreeMap<>(rootFiles);
+    sortedRootFiles.forEach((path, file) -> files.put(path, file.toProto().toBuilder().setName(path).build()));
+    // files without message types and known types are added as dependencies
+    sortedRootFiles.values().forEach(file -> addDependencies(file, files));
+    return FileDescriptorSet.newBuilder().addAllFile(files.values()).build();
+  }
+
+  private static Optional<String> firstMessageName(ProtoFileElement file) {
+    return file.getTypes().stream()
+        .filter(MessageElement.class::isInstance)
+        .findFirst()
+        .map(t -> file.getPackageName() == null ? t.getName() : file.getPackageName() + "." + t.getName());
+  }
+
+  private static void addDependencies(FileDescriptor file, Map<String, FileDescriptorProto> files) {
+    for (FileDescriptor dependency : file.getDependencies()) {
+      if (!files.containsKey(dependency.getName())) {
+        files.put(dependency.getName(), dependency.toProto());
+        addDependencies(dependency, files);
+      }
+    }
+  }
+
+  private static void persist(FileDescriptorSet descriptorSet, Path cacheFile) {
+    try {
+      Path dir = cacheFile.getParent();
+      if (!Files.exists(dir) && dir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+        Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIR_PERMISSIONS));
+      } else {
+        Files.createDirectories(dir);
+      }
+      // temp file is created with owner-only permissions
+      Path tmpFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+      Files.write(tmpFile, descriptorSet.toByteArray());
+      Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (Exception e) {
+      log.warn("Error writing protobuf descriptors cache file {}", cacheFile, e);
+    }
+  }
+
+  private static ProtobufFilesDescriptors fromDescriptorSet(String protobufFilesDir, FileDescriptorSet descriptorSet) {
+    Map<String, FileDescriptorProto> protos = new HashMap<>();
+    descriptorSet.getFileList().forEach(f -> protos.put(f.getName(), f));
+    Map<String, FileDescriptor> built = new HashMap<>();
+    Map<String, Map.Entry<Descriptor, Path>> messages = new HashMap<>();
+    for (String name : protos.keySet()) {
+      FileDescriptor file = build(name, protos, built);
+      Path path = Path.of(protobufFilesDir, name);
+      indexMessages(file.getMessageTypes(), path, messages);
+    }
+    return new ProtobufFilesDescriptors(messages);
+  }
+
+  @SneakyThrows
+  private static FileDescriptor build(String name,
+                                      Map<String, FileDescriptorProto> protos,
+                                      Map<String, FileDescriptor> built) {
+    FileDescriptor file = built.get(name);
+    if (file == null) {
+      FileDescriptorProto proto = Preconditions.checkNotNull(protos.get(name), "Dependency '%s' not found", name);
+      FileDescriptor[] dependencies = proto.getDependencyList().stream()
+          .map(dep -> build(dep, protos, built))
+          .toArray(FileDescriptor[]::new);
+      file = FileDescriptor.buildFrom(proto, dependencies);
+      built.put(name, file);
+    }
+    return file;
+  }
+
+  private static void indexMessages(List<Descriptor> descriptors,
+                                    Path path,
+                                    Map<String, Map.Entry<Descriptor, Path>> messages) {
+    for (Descriptor descriptor : descriptors) {
+      messages.put(descriptor.getFullName(), Map.entry(descriptor, path));
+      indexMessages(descriptor.getNestedTypes(), path, messages);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.provectus.kafka.ui.serdes.builtin;
 import com.provectus.kafka.ui.serde.api.DeserializeResult;
 import com.provectus.kafka.ui.serde.api.PropertyResolver;
 import com.provectus.kafka.ui.serde.api.SchemaDescription;
+import com.provectus.kafka.ui.serdes.BufferDeserializer;
 import com.provectus.kafka.ui.serdes.BuiltInSerde;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -26,6 +27,10 @@ public class StringSerde implements BuiltInSerde {
         .ifPresent(e -> StringSerde.this.encoding = e);
   }
 
+  public boolean isUtf8Encoding() {
+    return StandardCharsets.UTF_8.equals(encoding);
+  }
+
   @Override
   public Optional<String> getDescription() {
     return Optional.empty();
@@ -53,9 +58,9 @@ public class StringSerde implements BuiltInSerde {
 
   @Override
   public Deserializer deserializer(String topic, Target type) {
-    return (headers, data) ->
+    return (BufferDeserializer) (headers, data) ->
         new DeserializeResult(
-            new String(data, encoding),
+            BufferDeserializer.decode(data, encoding),
             DeserializeResult.Type.STRING,
             Map.of()
         );
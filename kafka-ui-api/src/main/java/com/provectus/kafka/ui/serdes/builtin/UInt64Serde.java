@@ -1,10 +1,14 @@
 package com.provectus.kafka.ui.serdes.builtin;
 
+import com.google.common.base.Preconditions;
 import com.google.common.primitives.Longs;
 import com.google.common.primitives.UnsignedLong;
 import com.provectus.kafka.ui.serde.api.DeserializeResult;
 import com.provectus.kafka.ui.serde.api.SchemaDescription;
+import com.provectus.kafka.ui.serdes.BufferDeserializer;
 import com.provectus.kafka.ui.serdes.BuiltInSerde;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Map;
 import java.util.Optional;
 
@@ -54,11 +58,18 @@ public class UInt64Serde implements BuiltInSerde {
 
   @Override
   public Deserializer deserializer(String topic, Target type) {
-    return (headers, data) ->
+    return (BufferDeserializer) (headers, data) ->
         new DeserializeResult(
-            UnsignedLong.fromLongBits(Longs.fromByteArray(data)).toString(),
+            UnsignedLong.fromLongBits(read(data)).toString(),
             DeserializeResult.Type.JSON,
             Map.of()
         );
   }
+
+  // same semantics as Longs.fromByteArray(): reads first 8 bytes (big-endian), fails if data is shorter
+  private static long read(ByteBuffer data) {
+    Preconditions.checkArgument(
+        data.remaining() >= Long.BYTES, "array too small: %s < %s", data.remaining(), Long.BYTES);
+    return data.duplicate().order(ByteOrder.BIG_ENDIAN).getLong();
+  }
 }
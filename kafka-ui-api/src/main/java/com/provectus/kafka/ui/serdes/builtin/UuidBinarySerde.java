@@ -5,8 +5,10 @@ import com.provectus.kafka.ui.serde.api.DeserializeResult;
 import com.provectus.kafka.ui.serde.api.PropertyResolver;
 import com.provectus.kafka.ui.serde.api.RecordHeaders;
 import com.provectus.kafka.ui.serde.api.SchemaDescription;
+import com.provectus.kafka.ui.serdes.BufferDeserializer;
 import com.provectus.kafka.ui.serdes.BuiltInSerde;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -66,11 +68,11 @@ public class UuidBinarySerde implements BuiltInSerde {
 
   @Override
   public Deserializer deserializer(String topic, Target type) {
-    return (headers, data) -> {
-      if (data.length != 16) {
-        throw new ValidationException("UUID data should be 16 bytes, but it is " + data.length);
+    return (BufferDeserializer) (headers, data) -> {
+      if (data.remaining() != 16) {
+        throw new ValidationException("UUID data should be 16 bytes, but it is " + data.remaining());
       }
-      ByteBuffer bb = ByteBuffer.wrap(data);
+      ByteBuffer bb = data.duplicate().order(ByteOrder.BIG_ENDIAN);
       long msb = bb.getLong();
       long lsb = bb.getLong();
       UUID uuid = mostSignificantBitsFirst ? new UUID(msb, lsb) : new UUID(lsb, msb);
@@ -3,16 +3,26 @@ package com.provectus.kafka.ui.serdes.builtin.sr;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.protobuf.Message;
 import com.google.protobuf.util.JsonFormat;
+import com.provectus.kafka.ui.util.jsonschema.AvroToJsonStreamingDecoder;
 import com.provectus.kafka.ui.util.jsonschema.JsonAvroConversion;
+import com.provectus.kafka.ui.util.jsonschema.ProtobufToJsonStreamingDecoder;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.protobuf.MessageIndexes;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 import io.confluent.kafka.serializers.KafkaAvroDeserializerConfig;
 import io.confluent.kafka.serializers.json.KafkaJsonSchemaDeserializer;
 import io.confluent.kafka.serializers.protobuf.KafkaProtobufDeserializer;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 
 interface MessageFormatter {
 
@@ -27,9 +37,16 @@ interface MessageFormatter {
   }
 
   class AvroMessageFormatter implements MessageFormatter {
+    // magic byte + schema id
+    private static final int PAYLOAD_PREFIX_LENGTH = 5;
+
     private final KafkaAvroDeserializer avroDeserializer;
+    private final SchemaRegistryClient client;
+    // schema id -> streaming decoder, empty if schema is not supported by streaming decoder
+    private final Map<Integer, Optional<AvroToJsonStreamingDecoder>> streamingDecoders = new ConcurrentHashMap<>();
 
     AvroMessageFormatter(SchemaRegistryClient client) {
+      this.client = client;
       this.avroDeserializer = new KafkaAvroDeserializer(client);
       this.avroDeserializer.configure(
           Map.of(
@@ -44,22 +61,77 @@ interface MessageFormatter {
 
     @Override
     public String format(String topic, byte[] value) {
+      var streamingDecoder = streamingDecoder(value);
+      if (streamingDecoder.isPresent()) {
+        try {
+          return streamingDecoder.get()
+              .decode(value, PAYLOAD_PREFIX_LENGTH, value.length - PAYLOAD_PREFIX_LENGTH);
+        } catch (Exception e) {
+          // regular deserialization will either produce the same result or throw a descriptive error
+        }
+      }
       Object deserialized = avroDeserializer.deserialize(topic, value);
       var schema = AvroSchemaUtils.getSchema(deserialized);
       return JsonAvroConversion.convertAvroToJson(deserialized, schema).toString();
     }
+
+    private Optional<AvroToJsonStreamingDecoder> streamingDecoder(byte[] value) {
+      if (value.length < PAYLOAD_PREFIX_LENGTH || value[0] != 0) {
+        return Optional.empty();
+      }
+      int schemaId = ByteBuffer.wrap(value, 1, Integer.BYTES).getInt();
+      var decoder = streamingDecoders.get(schemaId);
+      if (decoder == null) {
+        try {
+          decoder = client.getSchemaById(schemaId) instanceof AvroSchema avroSchema
+              ? AvroToJsonStreamingDecoder.forSchema(avroSchema.rawSchema())
+              : Optional.empty();
+        } catch (Exception e) {
+          // not caching, schema will be requested again by deserializer
+          return Optional.empty();
+        }
+        streamingDecoders.put(schemaId, decoder);
+      }
+      return decoder;
+    }
   }
 
+  @Slf4j
   class ProtobufMessageFormatter implements MessageFormatter {
+    // magic byte + schema id
+    private static final int SCHEMA_ID_PREFIX_LENGTH = 5;
+
     private final KafkaProtobufDeserializer<?> protobufDeserializer;
+    private final SchemaRegistryClient client;
+    // empty if message type is not supported by streaming decoder
+    private final Map<DecoderKey, Optional<ProtobufToJsonStreamingDecoder>> streamingDecoders =
+        new ConcurrentHashMap<>();
+
+    private record DecoderKey(int schemaId, List<Integer> messageIndexes) {
+    }
 
     ProtobufMessageFormatter(SchemaRegistryClient client) {
+      this.client = client;
       this.protobufDeserializer = new KafkaProtobufDeserializer<>(client);
     }
 
     @Override
     @SneakyThrows
     public String format(String topic, byte[] value) {
+      if (value.length > SCHEMA_ID_PREFIX_LENGTH && value[0] == 0) {
+        try {
+          var buffer = ByteBuffer.wrap(value, 1, value.length - 1);
+          int schemaId = buffer.getInt();
+          var indexes = MessageIndexes.readFrom(buffer);
+          var streamingDecoder = streamingDecoder(schemaId, indexes);
+          if (streamingDecoder.isPresent()) {
+            return streamingDecoder.get().decode(value, buffer.position(), buffer.remaining());
+          }
+        } catch (Exception e) {
+          // regular deserialization will either produce the same result or throw a descriptive error
+          log.debug("Streaming protobuf decoding failed for topic {}, falling back to deserializer", topic, e);
+        }
+      }
       final Message message = protobufDeserializer.deserialize(topic, value);
       return JsonFormat.printer()
           .includingDefaultValueFields()
@@ -67,6 +139,24 @@ interface MessageFormatter {
           .preservingProtoFieldNames()
           .print(message);
     }
+
+    private Optional<ProtobufToJsonStreamingDecoder> streamingDecoder(int schemaId, MessageIndexes indexes) {
+      var key = new DecoderKey(schemaId, indexes.indexes());
+      var decoder = streamingDecoders.get(key);
+      if (decoder == null) {
+        try {
+          decoder = client.getSchemaById(schemaId) instanceof ProtobufSchema protobufSchema
+              ? ProtobufToJsonStreamingDecoder.forDescriptor(
+                  protobufSchema.toDescriptor(protobufSchema.toMessageName(indexes)))
+              : Optional.empty();
+        } catch (Exception e) {
+          // not caching, schema will be requested again by deserializer
+          return Optional.empty();
+        }
+        streamingDecoders.put(key, decoder);
+      }
+      return decoder;
+    }
   }
 
   class JsonSchemaMessageFormatter implements MessageFormatter {
@@ -11,6 +11,7 @@ import com.provectus.kafka.ui.exception.ValidationException;
 import com.provectus.kafka.ui.serde.api.DeserializeResult;
 import com.provectus.kafka.ui.serde.api.PropertyResolver;
 import com.provectus.kafka.ui.serde.api.SchemaDescription;
+import com.provectus.kafka.ui.serdes.BufferDeserializer;
 import com.provectus.kafka.ui.serdes.BuiltInSerde;
 import com.provectus.kafka.ui.util.jsonschema.AvroJsonSchemaConverter;
 import com.provectus.kafka.ui.util.jsonschema.ProtobufSchemaConverter;
@@ -28,6 +29,7 @@ import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -278,12 +280,13 @@ public class SchemaRegistrySerde implements BuiltInSerde {
 
   @Override
   public Deserializer deserializer(String topic, Target type) {
-    return (headers, data) -> {
+    return (BufferDeserializer) (headers, data) -> {
       var schemaId = extractSchemaIdFromMsg(data);
       SchemaType format = getMessageFormatBySchemaId(schemaId);
       MessageFormatter formatter = schemaRegistryFormatters.get(format);
       return new DeserializeResult(
-          formatter.format(topic, data),
+          // formatters expect payload with magic byte and schema id prefix, so passing whole buffer
+          formatter.format(topic, BufferDeserializer.toArray(data)),
           DeserializeResult.Type.JSON,
           Map.of(
               "schemaId", schemaId,
@@ -300,8 +303,8 @@ public class SchemaRegistrySerde implements BuiltInSerde {
         .orElseThrow(() -> new ValidationException(String.format("Schema for id '%d' not found ", schemaId)));
   }
 
-  private int extractSchemaIdFromMsg(byte[] data) {
-    ByteBuffer buffer = ByteBuffer.wrap(data);
+  private int extractSchemaIdFromMsg(ByteBuffer data) {
+    ByteBuffer buffer = data.duplicate().order(ByteOrder.BIG_ENDIAN);
     if (buffer.remaining() >= SR_PAYLOAD_PREFIX_LENGTH && buffer.get() == SR_PAYLOAD_MAGIC_BYTE) {
       return buffer.getInt();
     }
@@ -3,6 +3,7 @@ package com.provectus.kafka.ui.service;
 import com.google.common.collect.Streams;
 import com.google.common.collect.Table;
 import com.provectus.kafka.ui.emitter.EnhancedConsumer;
+import com.provectus.kafka.ui.emitter.EnhancedConsumerPool;
 import com.provectus.kafka.ui.model.ConsumerGroupOrderingDTO;
 import com.provectus.kafka.ui.model.InternalConsumerGroup;
 import com.provectus.kafka.ui.model.InternalTopicConsumerGroup;
@@ -11,18 +12,22 @@ import com.provectus.kafka.ui.model.SortOrderDTO;
 import com.provectus.kafka.ui.service.rbac.AccessControlService;
 import com.provectus.kafka.ui.util.ApplicationMetrics;
 import com.provectus.kafka.ui.util.SslPropertiesUtil;
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.clients.admin.ConsumerGroupDescription;
 import org.apache.kafka.clients.admin.ConsumerGroupListing;
@@ -30,16 +35,25 @@ import org.apache.kafka.clients.admin.OffsetSpec;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.ConsumerGroupState;
 import org.apache.kafka.common.TopicPartition;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class ConsumerGroupService {
+public class ConsumerGroupService implements Closeable {
 
   private final AdminClientService adminClientService;
   private final AccessControlService accessControlService;
 
+  // cluster name -> pool, consumers with non-default properties are not pooled, so pool max size is cluster-wide
+  private final Map<String, ClusterConsumerPool> consumerPools = new ConcurrentHashMap<>();
+
+  // pool is bound to cluster instance it was created for, since cluster config can be reloaded under same name
+  private record ClusterConsumerPool(KafkaCluster cluster, EnhancedConsumerPool pool) {
+  }
+
   private Mono<List<InternalConsumerGroup>> getConsumerGroups(
       ReactiveAdminClient ac,
       List<ConsumerGroupDescription> descriptions) {
@@ -270,4 +284,63 @@ public class ConsumerGroupService {
     );
   }
 
+  /**
+   * Leases pre-connected consumer from cluster's pool. Consumer should be closed after usage
+   * to be returned to pool. Pool is intended for short reads (like messages pages), long-running
+   * sessions should use dedicated consumers created by {@link #createConsumer(KafkaCluster, Map)}.
+   */
+  public EnhancedConsumer leaseConsumer(KafkaCluster cluster) {
+    if (cluster.getPollingSettings().getConsumerPoolMaxSize() <= 0) {
+      return createConsumer(cluster);
+    }
+    return pool(cluster).lease();
+  }
+
+  /**
+   * Leases consumer only if pool has free one, without waiting for other consumers to be returned.
+   */
+  public Optional<EnhancedConsumer> tryLeaseConsumer(KafkaCluster cluster) {
+    if (cluster.getPollingSettings().getConsumerPoolMaxSize() <= 0) {
+      return Optional.of(createConsumer(cluster));
+    }
+    return Optional.ofNullable(pool(cluster).tryLease());
+  }
+
+  private EnhancedConsumerPool pool(KafkaCluster cluster) {
+    var pollingSettings = cluster.getPollingSettings();
+    return consumerPools.compute(
+        cluster.getName(),
+        (k, existing) -> {
+          if (existing != null && existing.cluster() == cluster) {
+            return existing;
+          }
+          if (existing != null) {
+            // cluster config was reloaded, consumers created with old config should not be reused
+            log.info("Cluster '{}' config changed, recreating consumers pool", cluster.getName());
+            existing.pool().close();
+          }
+          return new ClusterConsumerPool(
+              cluster,
+              new EnhancedConsumerPool(
+                  () -> createConsumer(cluster),
+                  pollingSettings.getConsumerPoolMaxSize(),
+                  pollingSettings.getConsumerPoolIdleTimeout(),
+                  pollingSettings.getConsumerPoolBorrowTimeout(),
+                  ApplicationMetrics.forCluster(cluster)
+              )
+          );
+        }
+    ).pool();
+  }
+
+  @Scheduled(fixedRateString = "${kafka.consumer-pool-eviction-check-ms:10000}")
+  public void evictIdleConsumers() {
+    consumerPools.values().forEach(p -> p.pool().evictIdle());
+  }
+
+  @Override
+  public void close() {
+    consumerPools.values().forEach(p -> p.pool().close());
+  }
+
 }
@@ -0,0 +1,84 @@
+package com.provectus.kafka.ui.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.provectus.kafka.ui.emitter.Cursor;
+import com.provectus.kafka.ui.exception.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.annotation.Nullable;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encodes polling cursors into opaque "[base64 json payload].[base64 HMAC signature]" tokens, so
+ * cursors can be passed to client without storing them on server side, and can't be forged by client.
+ * If signing key is not configured, random key is generated on startup - in this case tokens are only valid
+ * for the application instance that issued them.
+ */
+class CursorsCodec {
+
+  private static final JsonMapper MAPPER = new JsonMapper();
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+  private final SecretKeySpec signingKey;
+
+  CursorsCodec(@Nullable String signingKey) {
+    this.signingKey = new SecretKeySpec(
+        signingKey != null ? signingKey.getBytes(StandardCharsets.UTF_8) : randomKey(),
+        HMAC_ALGORITHM
+    );
+  }
+
+  private static byte[] randomKey() {
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    return key;
+  }
+
+  String encode(Cursor cursor) {
+    try {
+      byte[] payload = MAPPER.writeValueAsBytes(cursor);
+      var encoder = Base64.getUrlEncoder().withoutPadding();
+      return encoder.encodeToString(payload) + "." + encoder.encodeToString(sign(payload));
+    } catch (Exception e) {
+      throw new IllegalStateException("Error encoding cursor", e);
+    }
+  }
+
+  Cursor decode(String token) {
+    int separatorIdx = token.indexOf('.');
+    if (separatorIdx < 0) {
+      throw new ValidationException("Invalid cursor");
+    }
+    byte[] payload;
+    byte[] signature;
+    try {
+      var decoder = Base64.getUrlDecoder();
+      payload = decoder.decode(token.substring(0, separatorIdx));
+      signature = decoder.decode(token.substring(separatorIdx + 1));
+    } catch (IllegalArgumentException e) {
+      throw new ValidationException("Invalid cursor");
+    }
+    if (!MessageDigest.isEqual(sign(payload), signature)) {
+      throw new ValidationException("Invalid cursor signature");
+    }
+    try {
+      return MAPPER.readValue(payload, Cursor.class);
+    } catch (Exception e) {
+      throw new ValidationException("Invalid cursor");
+    }
+  }
+
+  private byte[] sign(byte[] payload) {
+    try {
+      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(signingKey);
+      return mac.doFinal(payload);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
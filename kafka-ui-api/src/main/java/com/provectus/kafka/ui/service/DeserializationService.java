@@ -29,10 +29,13 @@ import org.springframework.stereotype.Component;
 public class DeserializationService implements Closeable {
 
   private final Map<String, ClusterSerdes> clusterSerdes = new ConcurrentHashMap<>();
+  private final SerdeDetectionService serdeDetectionService;
 
   public DeserializationService(Environment env,
                                 ClustersStorage clustersStorage,
-                                ClustersProperties clustersProperties) {
+                                ClustersProperties clustersProperties,
+                                SerdeDetectionService serdeDetectionService) {
+    this.serdeDetectionService = serdeDetectionService;
     var serdesInitializer = new SerdesInitializer();
     for (int i = 0; i < clustersProperties.getClusters().size(); i++) {
       var clusterProperties = clustersProperties.getClusters().get(i);
@@ -74,10 +77,18 @@ public class DeserializationService implements Closeable {
       }
       return serde;
     } else {
-      return serdes.suggestSerdeForDeserialize(topic, type);
+      return suggestSerdeForDeserialize(cluster, serdes, topic, type);
     }
   }
 
+  private SerdeInstance suggestSerdeForDeserialize(KafkaCluster cluster,
+                                                   ClusterSerdes serdes,
+                                                   String topic,
+                                                   Serde.Target type) {
+    return serdes.suggestSerdeForDeserialize(
+        topic, type, () -> serdeDetectionService.detect(cluster, serdes, topic, type));
+  }
+
   public ProducerRecordCreator producerRecordCreator(KafkaCluster cluster,
                                                      String topic,
                                                      String keySerdeName,
@@ -88,6 +99,12 @@ public class DeserializationService implements Closeable {
     );
   }
 
+  public boolean canSerialize(KafkaCluster cluster, String topic, Serde.Target type, String serdeName) {
+    return getSerdesFor(cluster).serdeForName(serdeName)
+        .map(serde -> serde.canSerialize(topic, type))
+        .orElse(false);
+  }
+
   public ConsumerRecordDeserializer deserializerFor(KafkaCluster cluster,
                                                     String topic,
                                                     @Nullable String keySerdeName,
@@ -103,7 +120,12 @@ public class DeserializationService implements Closeable {
         fallbackSerde.getName(),
         fallbackSerde.deserializer(topic, Serde.Target.KEY),
         fallbackSerde.deserializer(topic, Serde.Target.VALUE),
-        cluster.getMasking().getMaskerForTopic(topic)
+        cluster.getMasking().getMaskerForTopic(topic),
+        keySerde.deserializesToRawUtf8Text()
+            && valueSerde.deserializesToRawUtf8Text()
+            && !cluster.getMasking().maskingApplied(topic, Serde.Target.KEY)
+            && !cluster.getMasking().maskingApplied(topic, Serde.Target.VALUE),
+        valueSerde.isBuiltIn()
     );
   }
 
@@ -125,7 +147,7 @@ public class DeserializationService implements Closeable {
                                                            String topic,
                                                            Serde.Target serdeType) {
     var serdes = getSerdesFor(cluster);
-    var preferred = serdes.suggestSerdeForDeserialize(topic, serdeType);
+    var preferred = suggestSerdeForDeserialize(cluster, serdes, topic, serdeType);
     var result = new ArrayList<SerdeDescriptionDTO>();
     result.add(toDto(preferred, topic, serdeType, true));
     serdes.all()
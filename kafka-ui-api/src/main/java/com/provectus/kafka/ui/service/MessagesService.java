@@ -3,44 +3,61 @@ package com.provectus.kafka.ui.service;
 import com.google.common.util.concurrent.RateLimiter;
 import com.provectus.kafka.ui.config.ClustersProperties;
 import com.provectus.kafka.ui.emitter.BackwardEmitter;
+import com.provectus.kafka.ui.emitter.Cursor;
+import com.provectus.kafka.ui.emitter.EnhancedConsumer;
 import com.provectus.kafka.ui.emitter.ForwardEmitter;
 import com.provectus.kafka.ui.emitter.MessageFilters;
+import com.provectus.kafka.ui.emitter.MessagesBatching;
+import com.provectus.kafka.ui.emitter.RangePollingOptions;
 import com.provectus.kafka.ui.emitter.TailingEmitter;
+import com.provectus.kafka.ui.emitter.TailingHub;
+import com.provectus.kafka.ui.exception.NotFoundException;
 import com.provectus.kafka.ui.exception.TopicNotFoundException;
 import com.provectus.kafka.ui.exception.ValidationException;
 import com.provectus.kafka.ui.model.ConsumerPosition;
 import com.provectus.kafka.ui.model.CreateTopicMessageDTO;
 import com.provectus.kafka.ui.model.KafkaCluster;
 import com.provectus.kafka.ui.model.MessageFilterTypeDTO;
+import com.provectus.kafka.ui.model.MessagesRequest;
 import com.provectus.kafka.ui.model.SeekDirectionDTO;
+import com.provectus.kafka.ui.model.SeekTypeDTO;
 import com.provectus.kafka.ui.model.SmartFilterTestExecutionDTO;
 import com.provectus.kafka.ui.model.SmartFilterTestExecutionResultDTO;
 import com.provectus.kafka.ui.model.TopicMessageDTO;
 import com.provectus.kafka.ui.model.TopicMessageEventDTO;
+import com.provectus.kafka.ui.serde.api.Serde;
 import com.provectus.kafka.ui.serdes.ProducerRecordCreator;
+import com.provectus.kafka.ui.serdes.builtin.StringSerde;
 import com.provectus.kafka.ui.util.SslPropertiesUtil;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.clients.admin.OffsetSpec;
 import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.common.utils.Utils;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -54,10 +71,14 @@ public class MessagesService {
   private static final int DEFAULT_PAGE_SIZE = 100;
   // limiting UI messages rate to 20/sec in tailing mode
   private static final int TAILING_UI_MESSAGE_THROTTLE_RATE = 20;
+  // single record lookup is stopped if record is not polled within this number of poll timeouts
+  private static final int RECORD_LOOKUP_POLL_TIMEOUTS = 5;
 
   private final AdminClientService adminClientService;
   private final DeserializationService deserializationService;
   private final ConsumerGroupService consumerGroupService;
+  private final TailingHub tailingHub = new TailingHub();
+  private final CursorsCodec cursorsCodec;
   private final int maxPageSize;
   private final int defaultPageSize;
 
@@ -75,6 +96,7 @@ public class MessagesService {
         .orElse(DEFAULT_MAX_PAGE_SIZE);
     this.defaultPageSize = Optional.ofNullable(pollingProps.getDefaultPageSize())
         .orElse(DEFAULT_PAGE_SIZE);
+    this.cursorsCodec = new CursorsCodec(pollingProps.getCursorSigningKey());
   }
 
   private Mono<TopicDescription> withExistingTopic(KafkaCluster cluster, String topicName) {
@@ -123,7 +145,11 @@ public class MessagesService {
         .flatMap(td ->
             offsetsForDeletion(cluster, topicName, partitionsToInclude)
                 .flatMap(offsets ->
-                    adminClientService.get(cluster).flatMap(ac -> ac.deleteRecords(offsets))));
+                    adminClientService.get(cluster).flatMap(ac -> ac.deleteRecords(offsets))))
+        .doOnSuccess(v -> {
+          cluster.getPollingSettings().getMessagesCache().invalidatePartitions(topicName, partitionsToInclude);
+          cluster.getPollingSettings().getPrefetchStore().invalidateTopic(topicName);
+        });
   }
 
   private Mono<Map<TopicPartition, Long>> offsetsForDeletion(KafkaCluster cluster, String topicName,
@@ -185,6 +211,55 @@ public class MessagesService {
     }
   }
 
+  /**
+   * Loads single full (not truncated) message by its partition & offset.
+   */
+  public Mono<TopicMessageDTO> loadMessage(KafkaCluster cluster,
+                                           String topic,
+                                           int partition,
+                                           long offset,
+                                           @Nullable String keySerde,
+                                           @Nullable String valueSerde) {
+    return withExistingTopic(cluster, topic)
+        .publishOn(Schedulers.boundedElastic())
+        .map(td -> {
+          if (partition < 0 || partition >= td.partitions().size()) {
+            throw new ValidationException("Invalid partition");
+          }
+          var deserializer = deserializationService.deserializerFor(cluster, topic, keySerde, valueSerde);
+          try (EnhancedConsumer consumer = consumerGroupService.leaseConsumer(cluster)) {
+            var rec = pollRecord(
+                consumer, new TopicPartition(topic, partition), offset, cluster.getPollingSettings().getPollTimeout());
+            return deserializer.deserialize(rec);
+          }
+        });
+  }
+
+  private static ConsumerRecord<Bytes, Bytes> pollRecord(EnhancedConsumer consumer,
+                                                        TopicPartition tp,
+                                                        long offset,
+                                                        Duration pollTimeout) {
+    if (offset < consumer.beginningOffsets(List.of(tp)).get(tp) || offset >= consumer.endOffsets(List.of(tp)).get(tp)) {
+      throw new NotFoundException("Offset is out of partition's offsets range");
+    }
+    consumer.assign(List.of(tp));
+    consumer.seek(tp, offset);
+    Instant deadline = Instant.now().plus(pollTimeout.multipliedBy(RECORD_LOOKUP_POLL_TIMEOUTS));
+    // offset is less than end offset, so position will pass it even if there is no record at offset
+    while (consumer.position(tp) <= offset) {
+      if (Instant.now().isAfter(deadline)) {
+        throw new NotFoundException("Message not found: polling timed out");
+      }
+      for (ConsumerRecord<Bytes, Bytes> rec : consumer.pollEnhanced(pollTimeout)) {
+        if (rec.offset() == offset) {
+          return rec;
+        }
+      }
+    }
+    // offset can be a transaction marker or removed by compaction
+    throw new NotFoundException("Message not found");
+  }
+
   public static KafkaProducer<byte[], byte[]> createProducer(KafkaCluster cluster,
                                                              Map<String, Object> additionalProps) {
     Properties properties = new Properties();
@@ -197,19 +272,39 @@ public class MessagesService {
     return new KafkaProducer<>(properties);
   }
 
-  public Flux<TopicMessageEventDTO> loadMessages(KafkaCluster cluster, String topic,
-                                                 ConsumerPosition consumerPosition,
-                                                 @Nullable String query,
-                                                 MessageFilterTypeDTO filterQueryType,
-                                                 @Nullable Integer pageSize,
-                                                 SeekDirectionDTO seekDirection,
-                                                 @Nullable String keySerde,
-                                                 @Nullable String valueSerde) {
+  public Flux<TopicMessageEventDTO> loadMessages(KafkaCluster cluster, String topic, MessagesRequest request) {
+    if (request.getCursor() != null) {
+      // decoding is deferred to subscription, so invalid cursor is reported after access validation and audit
+      return Flux.defer(() -> {
+        var decoded = cursorsCodec.decode(request.getCursor());
+        // cluster and topic are part of signed payload, so cursor can't be replayed for another cluster or topic
+        if (!decoded.cluster().equals(cluster.getName()) || !decoded.topic().equals(topic)) {
+          return Flux.error(new ValidationException("Cursor was issued for another cluster or topic"));
+        }
+        return loadMessages(cluster, topic,
+            MessagesRequest.builder()
+                .consumerPosition(new ConsumerPosition(SeekTypeDTO.OFFSET, topic, decoded.topicPartitionOffsets()))
+                .query(decoded.filterQuery())
+                .filterQueryType(decoded.filterType())
+                .pageSize(decoded.limit())
+                .seekDirection(decoded.direction())
+                .keySerde(decoded.keySerde())
+                .valueSerde(decoded.valueSerde())
+                .pollingConsumers(request.getPollingConsumers())
+                .batchMessages(request.isBatchMessages())
+                .keyLookup(decoded.keyLookup())
+                .maxBytes(decoded.maxBytes())
+                .build());
+      });
+    }
     return withExistingTopic(cluster, topic)
         .flux()
         .publishOn(Schedulers.boundedElastic())
-        .flatMap(td -> loadMessagesImpl(cluster, topic, consumerPosition, query,
-            filterQueryType, fixPageSize(pageSize), seekDirection, keySerde, valueSerde));
+        .flatMap(td -> loadMessagesImpl(cluster, td, request.getConsumerPosition(), request.getQuery(),
+            request.getFilterQueryType(), fixPageSize(request.getPageSize()), request.getSeekDirection(),
+            request.getKeySerde(), request.getValueSerde(),
+            Optional.ofNullable(request.getPollingConsumers()).orElse(1), request.isBatchMessages(),
+            request.getKeyLookup(), request.getMaxBytes()));
   }
 
   private int fixPageSize(@Nullable Integer pageSize) {
@@ -219,33 +314,128 @@ public class MessagesService {
   }
 
   private Flux<TopicMessageEventDTO> loadMessagesImpl(KafkaCluster cluster,
-                                                      String topic,
+                                                      TopicDescription topicDescription,
                                                       ConsumerPosition consumerPosition,
                                                       @Nullable String query,
                                                       MessageFilterTypeDTO filterQueryType,
                                                       int limit,
                                                       SeekDirectionDTO seekDirection,
                                                       @Nullable String keySerde,
-                                                      @Nullable String valueSerde) {
-
+                                                      @Nullable String valueSerde,
+                                                      int pollingConsumers,
+                                                      boolean batchMessages,
+                                                      @Nullable String keyLookup,
+                                                      @Nullable Long maxBytes) {
+    String topic = topicDescription.name();
+    var pollingSettings = cluster.getPollingSettings();
+    if (pollingSettings.getMessagesCache().updateTopicId(topic, topicDescription.topicId())) {
+      // topic was re-created outside of kafka-ui, data polled from previous topic is not valid anymore
+      pollingSettings.getTimestampIndex().invalidateTopic(topic);
+      pollingSettings.getPrefetchStore().invalidateTopic(topic);
+    }
     var deserializer = deserializationService.deserializerFor(cluster, topic, keySerde, valueSerde);
     var filter = getMsgFilter(query, filterQueryType);
+    if (!StringUtils.isEmpty(keyLookup)) {
+      filter = MessageFilters.keyLookupFilter(keyLookup, filter);
+      if (!usesCustomPartitioner(cluster, topic)) {
+        // if key's partition can't be computed all partitions are scanned, key lookup filter is applied anyway
+        var partition = keyPartition(cluster, topicDescription, deserializer.getKeySerdeName(), keyLookup);
+        if (partition.isPresent()) {
+          consumerPosition = restrictToPartition(consumerPosition, new TopicPartition(topic, partition.getAsInt()));
+        }
+      }
+    }
+    if (seekDirection == SeekDirectionDTO.TAILING && consumerPosition.getSeekType() == SeekTypeDTO.LATEST) {
+      // live sessions started from latest offsets are sharing single consumer per topic & serdes
+      var hubKey = new TailingHub.Key(
+          cluster.getName(), topic, deserializer.getKeySerdeName(), deserializer.getValueSerdeName());
+      return publish(
+          tailingHub.subscribe(
+              hubKey, () -> consumerGroupService.createConsumer(cluster), deserializer, filter,
+              cluster.getPollingSettings(), maxBytes),
+          seekDirection,
+          batchMessages
+      );
+    }
+    var cursorTracking = new Cursor.Tracking(
+        new Cursor(cluster.getName(), topic, seekDirection, Map.of(), query, filterQueryType, keySerde, valueSerde,
+            limit, keyLookup, maxBytes),
+        cursorsCodec::encode
+    );
+    var options = RangePollingOptions.builder()
+        .additionalConsumerSupplier(() -> consumerGroupService.tryLeaseConsumer(cluster))
+        .pollingConsumers(pollingConsumers)
+        .cursorTracking(cursorTracking)
+        .pageMaxBytes(maxBytes)
+        .build();
     var emitter = switch (seekDirection) {
       case FORWARD -> new ForwardEmitter(
-          () -> consumerGroupService.createConsumer(cluster),
-          consumerPosition, limit, deserializer, filter, cluster.getPollingSettings()
+          () -> consumerGroupService.leaseConsumer(cluster),
+          consumerPosition, limit, deserializer, filter, cluster.getPollingSettings(), options
       );
       case BACKWARD -> new BackwardEmitter(
-          () -> consumerGroupService.createConsumer(cluster),
-          consumerPosition, limit, deserializer, filter, cluster.getPollingSettings()
+          () -> consumerGroupService.leaseConsumer(cluster),
+          consumerPosition, limit, deserializer, filter, cluster.getPollingSettings(), options
       );
+      // tailing sessions can last for hours, so dedicated consumer is created to not exhaust consumers pool
       case TAILING -> new TailingEmitter(
           () -> consumerGroupService.createConsumer(cluster),
-          consumerPosition, deserializer, filter, cluster.getPollingSettings()
+          consumerPosition, deserializer, filter, cluster.getPollingSettings(), maxBytes
       );
     };
-    return Flux.create(emitter)
-        .map(throttleUiPublish(seekDirection));
+    return publish(Flux.create(emitter), seekDirection, batchMessages);
+  }
+
+  private boolean usesCustomPartitioner(KafkaCluster cluster, String topic) {
+    Pattern pattern = cluster.getCustomPartitionerTopicsPattern();
+    return pattern != null && pattern.matcher(topic).matches();
+  }
+
+  // partition that default partitioner chooses for key, serialized with key serde that is used for polling.
+  // empty if key serde can't serialize the key (e.g. deserialize-only serde or key in unexpected format)
+  private OptionalInt keyPartition(KafkaCluster cluster,
+                                   TopicDescription topicDescription,
+                                   String keySerde,
+                                   String key) {
+    String topic = topicDescription.name();
+    if (!deserializationService.canSerialize(cluster, topic, Serde.Target.KEY, keySerde)) {
+      return OptionalInt.empty();
+    }
+    byte[] keyBytes;
+    try {
+      keyBytes = deserializationService
+          .producerRecordCreator(cluster, topic, keySerde, StringSerde.name())
+          .create(topic, null, key, null, null)
+          .key();
+    } catch (Exception e) {
+      log.debug("Key lookup value can't be serialized with {} serde, all partitions will be scanned", keySerde, e);
+      return OptionalInt.empty();
+    }
+    if (keyBytes == null) {
+      return OptionalInt.empty();
+    }
+    return OptionalInt.of(Utils.toPositive(Utils.murmur2(keyBytes)) % topicDescription.partitions().size());
+  }
+
+  private ConsumerPosition restrictToPartition(ConsumerPosition position, TopicPartition tp) {
+    Map<TopicPartition, Long> seekTo = new HashMap<>();
+    if (position.getSeekTo() == null) {
+      // offset is not used for BEGINNING & LATEST seeks
+      seekTo.put(tp, 0L);
+    } else if (position.getSeekTo().containsKey(tp)) {
+      seekTo.put(tp, position.getSeekTo().get(tp));
+    }
+    return new ConsumerPosition(position.getSeekType(), position.getTopic(), seekTo);
+  }
+
+  private Flux<TopicMessageEventDTO> publish(Flux<TopicMessageEventDTO> events,
+                                             SeekDirectionDTO seekDirection,
+                                             boolean batchMessages) {
+    if (batchMessages) {
+      // batches are flushed with linger, so there is no need for additional UI throttling in tailing mode
+      return MessagesBatching.batch(events);
+    }
+    return events.map(throttleUiPublish(seekDirection));
   }
 
   private Predicate<TopicMessageDTO> getMsgFilter(String query,
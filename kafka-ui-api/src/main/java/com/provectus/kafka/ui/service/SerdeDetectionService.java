@@ -0,0 +1,117 @@
+package com.provectus.kafka.ui.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.provectus.kafka.ui.config.ClustersProperties;
+import com.provectus.kafka.ui.emitter.EnhancedConsumer;
+import com.provectus.kafka.ui.model.KafkaCluster;
+import com.provectus.kafka.ui.serde.api.Serde;
+import com.provectus.kafka.ui.serdes.ClusterSerdes;
+import com.provectus.kafka.ui.serdes.SerdeDetector;
+import com.provectus.kafka.ui.serdes.SerdeInstance;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
+import org.springframework.stereotype.Component;
+
+/**
+ * Suggests serdes for topics that have no serde assigned by patterns or defaults. Topic's first records are
+ * sampled and scored by SerdeDetector, verdicts for keys and values are cached per (cluster, topic) for
+ * configured TTL, so topic is only sampled once per TTL. Detection is disabled if TTL is not set.
+ * NOTE: detection polls Kafka, so it should be called within boundedElastic thread pool.
+ */
+@Slf4j
+@Component
+public class SerdeDetectionService {
+
+  private static final int SAMPLE_SIZE = 20;
+  private static final int MAX_SAMPLE_POLLS = 3;
+  private static final int MAX_CACHED_TOPICS = 10_000;
+
+  private record TopicKey(String cluster, String topic) {
+  }
+
+  private final ConsumerGroupService consumerGroupService;
+
+  // target -> detected serde name (absent if nothing detected), null if detection is disabled
+  @Nullable
+  private final Cache<TopicKey, Map<Serde.Target, String>> verdicts;
+
+  public SerdeDetectionService(ConsumerGroupService consumerGroupService,
+                               ClustersProperties clustersProperties) {
+    this.consumerGroupService = consumerGroupService;
+    this.verdicts = Optional.ofNullable(clustersProperties.getPolling())
+        .map(ClustersProperties.PollingProperties::getSerdeDetectionTtlSec)
+        .filter(ttl -> ttl > 0)
+        .map(ttl -> CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_TOPICS)
+            .expireAfterWrite(Duration.ofSeconds(ttl))
+            .<TopicKey, Map<Serde.Target, String>>build())
+        .orElse(null);
+  }
+
+  public Optional<SerdeInstance> detect(KafkaCluster cluster,
+                                        ClusterSerdes serdes,
+                                        String topic,
+                                        Serde.Target type) {
+    if (verdicts == null) {
+      return Optional.empty();
+    }
+    try {
+      var topicVerdicts = verdicts.get(
+          new TopicKey(cluster.getName(), topic),
+          () -> detectForTopic(cluster, serdes, topic)
+      );
+      return Optional.ofNullable(topicVerdicts.get(type)).flatMap(serdes::serdeForName);
+    } catch (Exception e) {
+      log.warn("Error detecting serde for topic '{}' {}", topic, type, e);
+      return Optional.empty();
+    }
+  }
+
+  private Map<Serde.Target, String> detectForTopic(KafkaCluster cluster, ClusterSerdes serdes, String topic) {
+    var sample = sample(cluster, topic);
+    Map<Serde.Target, String> result = new EnumMap<>(Serde.Target.class);
+    for (Serde.Target target : Serde.Target.values()) {
+      SerdeDetector.detect(serdes, topic, target, sample).ifPresent(name -> result.put(target, name));
+    }
+    log.debug("Serdes detected for topic '{}' by {} sampled records: {}", topic, sample.size(), result);
+    return result;
+  }
+
+  private List<ConsumerRecord<Bytes, Bytes>> sample(KafkaCluster cluster, String topic) {
+    List<ConsumerRecord<Bytes, Bytes>> sample = new ArrayList<>();
+    try (EnhancedConsumer consumer = consumerGroupService.leaseConsumer(cluster)) {
+      var partitions = consumer.partitionsFor(topic).stream()
+          .map(p -> new TopicPartition(topic, p.partition()))
+          .toList();
+      var beginOffsets = consumer.beginningOffsets(partitions);
+      var endOffsets = consumer.endOffsets(partitions);
+      // empty partitions are not polled, to not wait for poll timeout
+      var nonEmpty = partitions.stream()
+          .filter(tp -> beginOffsets.get(tp) < endOffsets.get(tp))
+          .toList();
+      if (nonEmpty.isEmpty()) {
+        return sample;
+      }
+      consumer.assign(nonEmpty);
+      consumer.seekToBeginning(nonEmpty);
+      for (int i = 0; i < MAX_SAMPLE_POLLS && sample.size() < SAMPLE_SIZE; i++) {
+        for (var rec : consumer.pollEnhanced(cluster.getPollingSettings().getPollTimeout())) {
+          if (sample.size() < SAMPLE_SIZE) {
+            sample.add(rec);
+          }
+        }
+      }
+    }
+    return sample;
+  }
+}
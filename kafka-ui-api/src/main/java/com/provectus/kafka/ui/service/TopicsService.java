@@ -418,7 +418,12 @@ public class TopicsService {
   public Mono<Void> deleteTopic(KafkaCluster cluster, String topicName) {
     if (statisticsCache.get(cluster).getFeatures().contains(ClusterFeature.TOPIC_DELETION)) {
       return adminClientService.get(cluster).flatMap(c -> c.deleteTopic(topicName))
-          .doOnSuccess(t -> statisticsCache.onTopicDelete(cluster, topicName));
+          .doOnSuccess(t -> {
+            statisticsCache.onTopicDelete(cluster, topicName);
+            cluster.getPollingSettings().getMessagesCache().invalidateTopic(topicName);
+            cluster.getPollingSettings().getTimestampIndex().invalidateTopic(topicName);
+            cluster.getPollingSettings().getPrefetchStore().invalidateTopic(topicName);
+          });
     } else {
       return Mono.error(new ValidationException("Topic deletion restricted"));
     }
@@ -82,6 +82,7 @@ public class TopicAnalysisService {
 
     AnalysisTask(KafkaCluster cluster, TopicIdentity topicId) {
       this.topicId = topicId;
+      // analysis scans whole topic, so dedicated consumer is used to not hold pooled one for a long time
       this.consumer = consumerGroupService.createConsumer(
           cluster,
           // to improve polling throughput
@@ -0,0 +1,335 @@
+package com.provectus.kafka.ui.service.compacted;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.hash.Hashing;
+import com.provectus.kafka.ui.emitter.EnhancedConsumer;
+import com.provectus.kafka.ui.emitter.MessageFilters;
+import com.provectus.kafka.ui.exception.ValidationException;
+import com.provectus.kafka.ui.model.CleanupPolicy;
+import com.provectus.kafka.ui.model.KafkaCluster;
+import com.provectus.kafka.ui.model.MessageFilterTypeDTO;
+import com.provectus.kafka.ui.model.TopicLatestValuesDTO;
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
+import com.provectus.kafka.ui.service.ConsumerGroupService;
+import com.provectus.kafka.ui.service.DeserializationService;
+import com.provectus.kafka.ui.service.TopicsService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * "Latest value per key" view of compacted topics. Topic is scanned once to build key -> latest record's
+ * position table (tombstoned keys are removed), then current state is served page by page by reading
+ * records at stored positions. On refresh, view catches up from previously scanned offsets.
+ * Only positions are stored in memory (fixed size per key), records are re-read from Kafka for each page.
+ * Scans are done in background with dedicated consumers, concurrent requests to same view are waiting for
+ * single scan. Memory taken by all views is limited by shared budget.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompactedTopicViewService {
+
+  private static final int MAX_KEYS_PER_VIEW = 10_000_000;
+  private static final int MAX_VIEWS = 20;
+  // shared by all views, so multiple big views can't take MAX_VIEWS * MAX_KEYS_PER_VIEW positions
+  private static final long MAX_VIEWS_MEMORY_BYTES = 512L * 1024 * 1024;
+  private static final Duration VIEW_IDLE_TTL = Duration.ofMinutes(30);
+  private static final Duration POLL_TIMEOUT = Duration.ofSeconds(3);
+  private static final int DEFAULT_PAGE_SIZE = 100;
+  private static final int MAX_PAGE_SIZE = 500;
+  // number of positions that are read from Kafka at once when page is filled
+  private static final int READ_CHUNK_SIZE = 500;
+
+  private record ViewKey(String cluster, String topic) {
+  }
+
+  private final AtomicLong viewsMemoryBytes = new AtomicLong();
+
+  private final Cache<ViewKey, View> views = CacheBuilder.newBuilder()
+      .maximumSize(MAX_VIEWS)
+      .expireAfterAccess(VIEW_IDLE_TTL)
+      .removalListener((RemovalListener<ViewKey, View>) n -> n.getValue().release())
+      .build();
+
+  private final TopicsService topicsService;
+  private final ConsumerGroupService consumerGroupService;
+  private final DeserializationService deserializationService;
+
+  public Mono<TopicLatestValuesDTO> getLatestValues(KafkaCluster cluster,
+                                                    String topic,
+                                                    @Nullable Integer position,
+                                                    @Nullable Integer limit,
+                                                    @Nullable String query,
+                                                    @Nullable MessageFilterTypeDTO filterQueryType,
+                                                    @Nullable String keySerde,
+                                                    @Nullable String valueSerde,
+                                                    boolean refresh) {
+    return topicsService.getTopicDetails(cluster, topic)
+        .flatMap(t -> {
+          if (t.getCleanUpPolicy() != CleanupPolicy.COMPACT && t.getCleanUpPolicy() != CleanupPolicy.COMPACT_DELETE) {
+            return Mono.error(new ValidationException("Latest values view is only available for compacted topics"));
+          }
+          Predicate<TopicMessageDTO> filter = StringUtils.isEmpty(query)
+              ? m -> true
+              : MessageFilters.createMsgFilter(
+                  query, Optional.ofNullable(filterQueryType).orElse(MessageFilterTypeDTO.STRING_CONTAINS));
+          int pageSize = Optional.ofNullable(limit)
+              .filter(l -> l > 0 && l <= MAX_PAGE_SIZE)
+              .orElse(DEFAULT_PAGE_SIZE);
+          var viewKey = new ViewKey(cluster.getName(), topic);
+          var view = views.asMap().computeIfAbsent(viewKey, View::new);
+          // copy is passed to not cancel shared scan when request is cancelled
+          return Mono.fromFuture(() -> view.positions(cluster, refresh).copy())
+              .publishOn(Schedulers.boundedElastic())
+              .map(positions ->
+                  loadPage(cluster, topic, positions, Math.max(0, Optional.ofNullable(position).orElse(0)),
+                      pageSize, deserializationService.deserializerFor(cluster, topic, keySerde, valueSerde),
+                      filter));
+        });
+  }
+
+  private TopicLatestValuesDTO loadPage(KafkaCluster cluster,
+                                        String topic,
+                                        LatestOffsetsTable.Positions positions,
+                                        int startPosition,
+                                        int pageSize,
+                                        ConsumerRecordDeserializer deserializer,
+                                        Predicate<TopicMessageDTO> filter) {
+    try (EnhancedConsumer consumer = consumerGroupService.leaseConsumer(cluster)) {
+      List<TopicMessageDTO> messages = new ArrayList<>();
+      int idx = startPosition;
+      while (idx < positions.size() && messages.size() < pageSize) {
+        int chunkEnd = Math.min(positions.size(), idx + READ_CHUNK_SIZE);
+        var records = read(consumer, topic, positions, idx, chunkEnd);
+        for (; idx < chunkEnd && messages.size() < pageSize; idx++) {
+          var tp = new TopicPartition(topic, positions.partitionAt(idx));
+          // record can be missing if it was removed by retention after scan
+          var rec = records.getOrDefault(tp, Map.of()).get(positions.offsetAt(idx));
+          if (rec != null) {
+            var msg = deserializer.deserialize(rec);
+            if (passes(filter, msg)) {
+              messages.add(msg);
+            }
+          }
+        }
+      }
+      return new TopicLatestValuesDTO()
+          .keysCount((long) positions.size())
+          .messages(messages)
+          .nextPosition(idx < positions.size() ? idx : null);
+    }
+  }
+
+  private static boolean passes(Predicate<TopicMessageDTO> filter, TopicMessageDTO msg) {
+    try {
+      return filter.test(msg);
+    } catch (Exception e) {
+      log.trace("Error applying filter for message {}", msg, e);
+      return false;
+    }
+  }
+
+  // reads records at positions [from, to), positions within same partition are contiguous and sorted
+  private Map<TopicPartition, Map<Long, ConsumerRecord<Bytes, Bytes>>> read(EnhancedConsumer consumer,
+                                                                            String topic,
+                                                                            LatestOffsetsTable.Positions positions,
+                                                                            int from,
+                                                                            int to) {
+    // partition -> [first, last] offsets to read
+    Map<TopicPartition, long[]> ranges = new HashMap<>();
+    // only records at positions are kept, other records in ranges are overwritten or tombstoned keys
+    Map<TopicPartition, Set<Long>> wanted = new HashMap<>();
+    for (int i = from; i < to; i++) {
+      long offset = positions.offsetAt(i);
+      var tp = new TopicPartition(topic, positions.partitionAt(i));
+      ranges.merge(tp, new long[] {offset, offset},
+          (prev, cur) -> new long[] {Math.min(prev[0], offset), Math.max(prev[1], offset)});
+      wanted.computeIfAbsent(tp, t -> new HashSet<>()).add(offset);
+    }
+    var endOffsets = consumer.endOffsets(ranges.keySet());
+    Map<TopicPartition, Long> stopOffsets = new HashMap<>();
+    ranges.forEach((tp, range) -> stopOffsets.put(tp, Math.min(range[1] + 1, endOffsets.get(tp))));
+
+    consumer.assign(ranges.keySet());
+    ranges.forEach((tp, range) -> consumer.seek(tp, range[0]));
+    Map<TopicPartition, Map<Long, ConsumerRecord<Bytes, Bytes>>> result = new HashMap<>();
+    pauseFullyRead(consumer, stopOffsets);
+    while (consumer.paused().size() < ranges.size()) {
+      for (ConsumerRecord<Bytes, Bytes> rec : consumer.pollEnhanced(POLL_TIMEOUT)) {
+        var tp = new TopicPartition(rec.topic(), rec.partition());
+        if (rec.offset() < stopOffsets.get(tp) && wanted.get(tp).contains(rec.offset())) {
+          result.computeIfAbsent(tp, t -> new HashMap<>()).put(rec.offset(), rec);
+        }
+      }
+      pauseFullyRead(consumer, stopOffsets);
+    }
+    consumer.resume(consumer.paused());
+    return result;
+  }
+
+  private static void pauseFullyRead(EnhancedConsumer consumer, Map<TopicPartition, Long> stopOffsets) {
+    stopOffsets.forEach((tp, stopOffset) -> {
+      if (consumer.position(tp) >= stopOffset) {
+        consumer.pause(List.of(tp));
+      }
+    });
+  }
+
+  private class View {
+
+    private final ViewKey key;
+    private final String topic;
+    // table and scanned offsets are only accessed by scanning thread, one scan is running at a time
+    private LatestOffsetsTable table = new LatestOffsetsTable();
+    // partition -> next offset to scan
+    private Map<TopicPartition, Long> scannedOffsets = new HashMap<>();
+    // rebuilt after each scan
+    @Nullable
+    private LatestOffsetsTable.Positions positions;
+    @Nullable
+    private CompletableFuture<LatestOffsetsTable.Positions> scan;
+    // memory reserved from views budget, view is not usable after release
+    private long reservedBytes = 0;
+    private boolean released = false;
+
+    View(ViewKey key) {
+      this.key = key;
+      this.topic = key.topic();
+    }
+
+    synchronized CompletableFuture<LatestOffsetsTable.Positions> positions(KafkaCluster cluster, boolean refresh) {
+      if (scan == null && (refresh || positions == null)) {
+        scan = CompletableFuture.supplyAsync(() -> scan(cluster), Schedulers.boundedElastic()::schedule);
+      }
+      return scan != null ? scan : CompletableFuture.completedFuture(positions);
+    }
+
+    private LatestOffsetsTable.Positions scan(KafkaCluster cluster) {
+      try (EnhancedConsumer consumer = consumerGroupService.createConsumer(cluster)) {
+        catchUp(consumer);
+        var scanned = table.sortedPositions();
+        synchronized (this) {
+          reserve(table.memoryBytes() + (long) scanned.size() * Long.BYTES);
+          positions = scanned;
+          scan = null;
+        }
+        return scanned;
+      } catch (RuntimeException e) {
+        views.asMap().remove(key, this);
+        synchronized (this) {
+          scan = null;
+        }
+        throw e;
+      }
+    }
+
+    private void catchUp(EnhancedConsumer consumer) {
+      var tps = consumer.partitionsFor(topic).stream()
+          .map(pi -> new TopicPartition(topic, pi.partition()))
+          .toList();
+      var beginOffsets = consumer.beginningOffsets(tps);
+      var endOffsets = consumer.endOffsets(tps);
+      boolean rebuild = scannedOffsets.entrySet().stream().anyMatch(e ->
+          // records were deleted by retention or topic was re-created
+          !endOffsets.containsKey(e.getKey())
+              || beginOffsets.get(e.getKey()) > e.getValue()
+              || endOffsets.get(e.getKey()) < e.getValue());
+      if (rebuild) {
+        log.debug("Rebuilding latest values view of topic {}", topic);
+        table = new LatestOffsetsTable();
+        scannedOffsets = new HashMap<>();
+      }
+
+      Map<TopicPartition, Long> stopOffsets = new HashMap<>();
+      tps.forEach(tp -> {
+        long from = scannedOffsets.getOrDefault(tp, beginOffsets.get(tp));
+        if (from < endOffsets.get(tp)) {
+          stopOffsets.put(tp, endOffsets.get(tp));
+          scannedOffsets.put(tp, from);
+        }
+      });
+      consumer.assign(stopOffsets.keySet());
+      stopOffsets.keySet().forEach(tp -> consumer.seek(tp, scannedOffsets.get(tp)));
+      pauseFullyRead(consumer, stopOffsets);
+      while (consumer.paused().size() < stopOffsets.size()) {
+        for (ConsumerRecord<Bytes, Bytes> rec : consumer.pollEnhanced(POLL_TIMEOUT)) {
+          if (rec.offset() < stopOffsets.get(new TopicPartition(rec.topic(), rec.partition()))) {
+            apply(rec);
+          }
+        }
+        pauseFullyRead(consumer, stopOffsets);
+      }
+      consumer.resume(consumer.paused());
+      tps.forEach(tp -> scannedOffsets.put(tp, endOffsets.get(tp)));
+    }
+
+    private void apply(ConsumerRecord<Bytes, Bytes> rec) {
+      if (rec.key() == null) {
+        return;
+      }
+      long hash = Hashing.murmur3_128().hashBytes(rec.key().get()).asLong();
+      if (rec.value() == null) {
+        // tombstone
+        table.remove(hash);
+        return;
+      }
+      long tableBytes = table.memoryBytes();
+      table.put(hash, rec.partition(), rec.offset());
+      if (table.size() > MAX_KEYS_PER_VIEW) {
+        throw new ValidationException(
+            "Topic has more than %d keys, latest values view can't be built".formatted(MAX_KEYS_PER_VIEW));
+      }
+      if (table.memoryBytes() > tableBytes) {
+        // table was resized, current positions snapshot is still in use
+        synchronized (this) {
+          reserve(table.memoryBytes() + (positions == null ? 0 : (long) positions.size() * Long.BYTES));
+        }
+      }
+    }
+
+    // should be called under view's lock
+    private void reserve(long bytes) {
+      if (released) {
+        throw new IllegalStateException("Latest values view of topic %s was evicted".formatted(topic));
+      }
+      long delta = bytes - reservedBytes;
+      if (delta > 0 && viewsMemoryBytes.addAndGet(delta) > MAX_VIEWS_MEMORY_BYTES) {
+        viewsMemoryBytes.addAndGet(-delta);
+        throw new ValidationException(
+            "Latest values views memory limit reached, try again later or use messages view instead");
+      }
+      if (delta < 0) {
+        viewsMemoryBytes.addAndGet(delta);
+      }
+      reservedBytes = bytes;
+    }
+
+    synchronized void release() {
+      released = true;
+      viewsMemoryBytes.addAndGet(-reservedBytes);
+      reservedBytes = 0;
+    }
+  }
+}
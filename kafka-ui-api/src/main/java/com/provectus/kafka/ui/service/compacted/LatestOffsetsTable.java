@@ -0,0 +1,183 @@
+package com.provectus.kafka.ui.service.compacted;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing (linear probing) hash table of key hash -> (partition, offset) of key's latest record.
+ * Backed by primitive arrays, so each key takes fixed 20 bytes per slot regardless of keys & values sizes.
+ * Keys are 64-bit hashes of raw key bytes, collisions of such hashes are considered negligible.
+ * Not thread-safe.
+ */
+class LatestOffsetsTable {
+
+  private static final long EMPTY = 0;
+  private static final double MAX_LOAD_FACTOR = 0.7;
+  // hash + partition + offset
+  private static final int SLOT_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+  private long[] hashes;
+  private int[] partitions;
+  private long[] offsets;
+  private int size = 0;
+
+  LatestOffsetsTable() {
+    this(1024);
+  }
+
+  LatestOffsetsTable(int initialCapacity) {
+    int capacity = Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1;
+    this.hashes = new long[capacity];
+    this.partitions = new int[capacity];
+    this.offsets = new long[capacity];
+  }
+
+  int size() {
+    return size;
+  }
+
+  // memory taken by table's arrays
+  long memoryBytes() {
+    return (long) hashes.length * SLOT_BYTES;
+  }
+
+  void put(long hash, int partition, long offset) {
+    hash = nonEmpty(hash);
+    if (size + 1 > hashes.length * MAX_LOAD_FACTOR) {
+      resize(hashes.length * 2);
+    }
+    int mask = hashes.length - 1;
+    int idx = slot(hash, mask);
+    while (hashes[idx] != EMPTY && hashes[idx] != hash) {
+      idx = (idx + 1) & mask;
+    }
+    if (hashes[idx] == EMPTY) {
+      hashes[idx] = hash;
+      size++;
+    }
+    partitions[idx] = partition;
+    offsets[idx] = offset;
+  }
+
+  void remove(long hash) {
+    hash = nonEmpty(hash);
+    int mask = hashes.length - 1;
+    int gap = slot(hash, mask);
+    while (hashes[gap] != hash) {
+      if (hashes[gap] == EMPTY) {
+        return;
+      }
+      gap = (gap + 1) & mask;
+    }
+    // backward-shift deletion: moving following entries of the probe chain into the gap,
+    // if gap is between entry's home slot and its current slot
+    int idx = (gap + 1) & mask;
+    while (hashes[idx] != EMPTY) {
+      int home = slot(hashes[idx], mask);
+      if (((idx - home) & mask) >= ((idx - gap) & mask)) {
+        hashes[gap] = hashes[idx];
+        partitions[gap] = partitions[idx];
+        offsets[gap] = offsets[idx];
+        gap = idx;
+      }
+      idx = (idx + 1) & mask;
+    }
+    hashes[gap] = EMPTY;
+    size--;
+  }
+
+  /**
+   * Returns positions of all keys, sorted by partition, then by offset.
+   */
+  Positions sortedPositions() {
+    int maxPartition = -1;
+    for (int i = 0; i < hashes.length; i++) {
+      if (hashes[i] != EMPTY) {
+        maxPartition = Math.max(maxPartition, partitions[i]);
+      }
+    }
+    int[] counts = new int[maxPartition + 1];
+    for (int i = 0; i < hashes.length; i++) {
+      if (hashes[i] != EMPTY) {
+        counts[partitions[i]]++;
+      }
+    }
+    long[][] perPartition = new long[counts.length][];
+    for (int p = 0; p < counts.length; p++) {
+      perPartition[p] = new long[counts[p]];
+    }
+    int[] filled = new int[counts.length];
+    for (int i = 0; i < hashes.length; i++) {
+      if (hashes[i] != EMPTY) {
+        perPartition[partitions[i]][filled[partitions[i]]++] = offsets[i];
+      }
+    }
+    for (long[] partitionOffsets : perPartition) {
+      Arrays.sort(partitionOffsets);
+    }
+    return new Positions(perPartition);
+  }
+
+  private void resize(int newCapacity) {
+    var resized = new LatestOffsetsTable(newCapacity);
+    for (int i = 0; i < hashes.length; i++) {
+      if (hashes[i] != EMPTY) {
+        resized.put(hashes[i], partitions[i], offsets[i]);
+      }
+    }
+    hashes = resized.hashes;
+    partitions = resized.partitions;
+    offsets = resized.offsets;
+  }
+
+  private static long nonEmpty(long hash) {
+    return hash == EMPTY ? 1 : hash;
+  }
+
+  private static int slot(long hash, int mask) {
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  /**
+   * Immutable snapshot of keys positions, addressed by index in (partition, offset) order.
+   */
+  static class Positions {
+
+    // partition -> sorted offsets
+    private final long[][] offsets;
+    // index of partition's first position
+    private final int[] starts;
+    private final int size;
+
+    private Positions(long[][] offsets) {
+      this.offsets = offsets;
+      this.starts = new int[offsets.length];
+      int total = 0;
+      for (int p = 0; p < offsets.length; p++) {
+        starts[p] = total;
+        total += offsets[p].length;
+      }
+      this.size = total;
+    }
+
+    int size() {
+      return size;
+    }
+
+    int partitionAt(int idx) {
+      int p = Arrays.binarySearch(starts, idx);
+      if (p < 0) {
+        return -p - 2;
+      }
+      // skipping empty partitions that have same start index
+      while (offsets[p].length == 0) {
+        p++;
+      }
+      return p;
+    }
+
+    long offsetAt(int idx) {
+      int p = partitionAt(idx);
+      return offsets[p][idx - starts[p]];
+    }
+  }
+}
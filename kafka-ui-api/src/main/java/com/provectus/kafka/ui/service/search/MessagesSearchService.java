@@ -0,0 +1,322 @@
+package com.provectus.kafka.ui.service.search;
+
+import static com.provectus.kafka.ui.model.SeekTypeDTO.BEGINNING;
+import static com.provectus.kafka.ui.model.SeekTypeDTO.TIMESTAMP;
+
+import com.provectus.kafka.ui.emitter.EnhancedConsumer;
+import com.provectus.kafka.ui.emitter.MessageFilters;
+import com.provectus.kafka.ui.emitter.SeekOperations;
+import com.provectus.kafka.ui.exception.ValidationException;
+import com.provectus.kafka.ui.model.ConsumerPosition;
+import com.provectus.kafka.ui.model.KafkaCluster;
+import com.provectus.kafka.ui.model.MessageFilterTypeDTO;
+import com.provectus.kafka.ui.model.MessagesSearchDTO;
+import com.provectus.kafka.ui.model.MessagesSearchMatchDTO;
+import com.provectus.kafka.ui.model.MessagesSearchRequestDTO;
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
+import com.provectus.kafka.ui.service.ConsumerGroupService;
+import com.provectus.kafka.ui.service.DeserializationService;
+import com.provectus.kafka.ui.service.TopicsService;
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.utils.Bytes;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Server-side full topic (or time range) scans with message filter. Unlike messages polling via SSE,
+ * search is not bound to client's connection: matches are stored in memory and can be paged after completion.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessagesSearchService {
+
+  private static final Scheduler SCHEDULER = Schedulers.newBoundedElastic(
+      Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+      Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+      "messages-search-tasks",
+      10, //ttl for idle threads (in sec)
+      true //daemon
+  );
+
+  private static final Duration POLL_TIMEOUT = Duration.ofSeconds(3);
+  private static final int MAX_RUNNING_SEARCHES_PER_CLUSTER = 5;
+  private static final int MAX_MATCHES_PER_SEARCH = 10_000;
+  private static final long MAX_COMPLETED_MATCHES_BYTES = 64 * 1024 * 1024;
+  private static final Duration COMPLETED_SEARCH_TTL = Duration.ofHours(1);
+  private static final int PREVIEW_MAX_LENGTH = 256;
+  private static final int DEFAULT_PAGE_SIZE = 100;
+
+  private final SearchTasksStore searchTasksStore =
+      new SearchTasksStore(MAX_COMPLETED_MATCHES_BYTES, COMPLETED_SEARCH_TTL);
+
+  // cluster name -> permits for running searches
+  private final Map<String, Semaphore> runningSearchesPermits = new ConcurrentHashMap<>();
+
+  private final TopicsService topicsService;
+  private final ConsumerGroupService consumerGroupService;
+  private final DeserializationService deserializationService;
+
+  public Mono<MessagesSearchDTO> startSearch(KafkaCluster cluster,
+                                             String topicName,
+                                             MessagesSearchRequestDTO request) {
+    if (StringUtils.isEmpty(request.getQ())) {
+      return Mono.error(new ValidationException("Search query should not be empty"));
+    }
+    if (request.getFromTimestamp() != null && request.getToTimestamp() != null
+        && request.getFromTimestamp() > request.getToTimestamp()) {
+      return Mono.error(new ValidationException("fromTimestamp should be less or equal to toTimestamp"));
+    }
+    return topicsService.getTopicDetails(cluster, topicName)
+        .publishOn(Schedulers.boundedElastic())
+        .map(topic -> startSearchTask(cluster, topicName, request));
+  }
+
+  private MessagesSearchDTO startSearchTask(KafkaCluster cluster,
+                                            String topic,
+                                            MessagesSearchRequestDTO request) {
+    var filter = MessageFilters.createMsgFilter(
+        request.getQ(),
+        Optional.ofNullable(request.getFilterQueryType()).orElse(MessageFilterTypeDTO.STRING_CONTAINS)
+    );
+    var deserializer = deserializationService.deserializerFor(
+        cluster, topic, request.getKeySerde(), request.getValueSerde());
+    var searchId = new SearchIdentity(cluster, topic, UUID.randomUUID().toString());
+    var permits = runningSearchesPermits.computeIfAbsent(
+        cluster.getName(), c -> new Semaphore(MAX_RUNNING_SEARCHES_PER_CLUSTER));
+    if (!permits.tryAcquire()) {
+      throw new ValidationException(
+          "Too many messages searches are running on cluster (max %d), wait for them to finish or cancel them"
+              .formatted(MAX_RUNNING_SEARCHES_PER_CLUSTER));
+    }
+    SearchTask task;
+    try {
+      task = new SearchTask(cluster, searchId, request, deserializer, filter, permits);
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+    searchTasksStore.registerNewTask(searchId, task.matches, task);
+    SCHEDULER.schedule(task);
+    return searchTasksStore.getSearch(searchId, 1, 0).orElseThrow();
+  }
+
+  // returns false if search not found
+  public boolean cancelSearch(KafkaCluster cluster, String topicName, String searchId) {
+    return searchTasksStore.cancelSearch(new SearchIdentity(cluster, topicName, searchId));
+  }
+
+  public Optional<MessagesSearchDTO> getSearch(KafkaCluster cluster,
+                                               String topicName,
+                                               String searchId,
+                                               Integer page,
+                                               Integer perPage) {
+    return searchTasksStore.getSearch(
+        new SearchIdentity(cluster, topicName, searchId),
+        page != null && page > 0 ? page : 1,
+        perPage != null && perPage > 0 ? perPage : DEFAULT_PAGE_SIZE
+    );
+  }
+
+  class SearchTask implements Runnable, Closeable {
+
+    private final Instant startedAt = Instant.now();
+
+    private final SearchIdentity searchId;
+    private final MessagesSearchRequestDTO request;
+    private final ConsumerRecordDeserializer deserializer;
+    private final Predicate<TopicMessageDTO> filter;
+    private final SearchTasksStore.Matches matches = new SearchTasksStore.Matches(MAX_MATCHES_PER_SEARCH);
+
+    private final EnhancedConsumer consumer;
+    // released when task is finished
+    private final Semaphore permits;
+
+    private long msgsScanned = 0;
+
+    SearchTask(KafkaCluster cluster,
+               SearchIdentity searchId,
+               MessagesSearchRequestDTO request,
+               ConsumerRecordDeserializer deserializer,
+               Predicate<TopicMessageDTO> filter,
+               Semaphore permits) {
+      this.searchId = searchId;
+      this.request = request;
+      this.deserializer = deserializer;
+      this.filter = filter;
+      this.permits = permits;
+      // dedicated consumer, since search can take hours and should not hold pooled consumer
+      this.consumer = consumerGroupService.createConsumer(
+          cluster,
+          // to improve polling throughput
+          Map.of(
+              ConsumerConfig.RECEIVE_BUFFER_CONFIG, "-1", //let OS tune buffer size
+              ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "10000"
+          )
+      );
+    }
+
+    @Override
+    public void close() {
+      consumer.wakeup();
+    }
+
+    @Override
+    public void run() {
+      try {
+        log.info("Starting messages search {}", searchId);
+        boolean limitReached = scan();
+        searchTasksStore.setSearchResult(searchId, startedAt, msgsScanned, limitReached, false);
+        log.info("Messages search {} finished, {} messages scanned", searchId, msgsScanned);
+      } catch (WakeupException | InterruptException cancelException) {
+        log.info("Messages search {} cancelled", searchId);
+        searchTasksStore.setSearchResult(searchId, startedAt, msgsScanned, false, true);
+      } catch (Throwable th) {
+        log.error("Error executing messages search {}", searchId, th);
+        searchTasksStore.setSearchError(searchId, startedAt, msgsScanned, th);
+      } finally {
+        consumer.close();
+        permits.release();
+      }
+    }
+
+    // returns true if search was stopped because of matches limit
+    private boolean scan() {
+      var seekOperations = SeekOperations.create(consumer, startPosition());
+      Map<TopicPartition, Long> seekOffsets = seekOperations.getOffsetsForSeek();
+      Map<TopicPartition, Long> stopOffsets = stopOffsets(seekOperations.getEndOffsets(), seekOffsets);
+      long summaryOffsetsRange = stopOffsets.entrySet().stream()
+          .mapToLong(e -> Math.max(0, e.getValue() - seekOffsets.get(e.getKey())))
+          .sum();
+      seekOperations.assignAndSeekNonEmptyPartitions();
+
+      Map<TopicPartition, Long> remaining = new HashMap<>(stopOffsets);
+      pauseFullyPolled(remaining);
+      while (!remaining.isEmpty()) {
+        for (ConsumerRecord<Bytes, Bytes> rec : consumer.pollEnhanced(POLL_TIMEOUT)) {
+          var tp = new TopicPartition(rec.topic(), rec.partition());
+          if (rec.offset() >= stopOffsets.get(tp)) {
+            continue;
+          }
+          msgsScanned++;
+          TopicMessageDTO matched = matchesTimeRange(rec) ? deserializeIfMatches(rec) : null;
+          if (matched != null && !matches.add(toMatch(matched))) {
+            return true;
+          }
+        }
+        pauseFullyPolled(remaining);
+        updateProgress(seekOffsets, stopOffsets, summaryOffsetsRange);
+      }
+      return false;
+    }
+
+    private ConsumerPosition startPosition() {
+      if (request.getFromTimestamp() == null) {
+        return new ConsumerPosition(BEGINNING, searchId.topicName(), null);
+      }
+      return new ConsumerPosition(
+          TIMESTAMP,
+          searchId.topicName(),
+          consumer.partitionsFor(searchId.topicName()).stream()
+              .map(pi -> new TopicPartition(pi.topic(), pi.partition()))
+              .collect(Collectors.toMap(Function.identity(), tp -> request.getFromTimestamp()))
+      );
+    }
+
+    // offsets (exclusive) up to which partitions should be scanned
+    private Map<TopicPartition, Long> stopOffsets(Map<TopicPartition, Long> endOffsets,
+                                                  Map<TopicPartition, Long> seekOffsets) {
+      Map<TopicPartition, Long> stopOffsets = new HashMap<>();
+      seekOffsets.keySet().forEach(tp -> stopOffsets.put(tp, endOffsets.get(tp)));
+      if (request.getToTimestamp() != null) {
+        // same as for timestamp seeking, we assume that timestamps grow (mostly) monotonically within partition
+        Map<TopicPartition, Long> timestamps = new HashMap<>();
+        seekOffsets.keySet().forEach(tp -> timestamps.put(tp, request.getToTimestamp() + 1));
+        consumer.offsetsForTimes(timestamps).forEach((tp, offsetAndTs) -> {
+          if (offsetAndTs != null) {
+            stopOffsets.merge(tp, offsetAndTs.offset(), Math::min);
+          }
+        });
+      }
+      return stopOffsets;
+    }
+
+    private void pauseFullyPolled(Map<TopicPartition, Long> remaining) {
+      var fullyPolled = remaining.entrySet().stream()
+          .filter(e -> consumer.position(e.getKey()) >= e.getValue())
+          .map(Map.Entry::getKey)
+          .toList();
+      if (!fullyPolled.isEmpty()) {
+        consumer.pause(fullyPolled);
+        fullyPolled.forEach(remaining::remove);
+      }
+    }
+
+    private boolean matchesTimeRange(ConsumerRecord<Bytes, Bytes> rec) {
+      return (request.getFromTimestamp() == null || rec.timestamp() >= request.getFromTimestamp())
+          && (request.getToTimestamp() == null || rec.timestamp() <= request.getToTimestamp());
+    }
+
+    @Nullable
+    private TopicMessageDTO deserializeIfMatches(ConsumerRecord<Bytes, Bytes> rec) {
+      TopicMessageDTO msg = deserializer.deserialize(rec);
+      try {
+        return filter.test(msg) ? msg : null;
+      } catch (Exception e) {
+        log.trace("Error applying filter for message {}", msg, e);
+        return null;
+      }
+    }
+
+    // only previews are stored, since full messages can be fetched by partition/offset
+    private MessagesSearchMatchDTO toMatch(TopicMessageDTO msg) {
+      return new MessagesSearchMatchDTO()
+          .partition(msg.getPartition())
+          .offset(msg.getOffset())
+          .timestamp(msg.getTimestamp())
+          .keyPreview(StringUtils.abbreviate(msg.getKey(), PREVIEW_MAX_LENGTH))
+          .contentPreview(StringUtils.abbreviate(msg.getContent(), PREVIEW_MAX_LENGTH));
+    }
+
+    private void updateProgress(Map<TopicPartition, Long> seekOffsets,
+                                Map<TopicPartition, Long> stopOffsets,
+                                long summaryOffsetsRange) {
+      if (summaryOffsetsRange == 0) {
+        return;
+      }
+      long processed = 0;
+      for (var e : seekOffsets.entrySet()) {
+        long position = Math.min(consumer.position(e.getKey()), stopOffsets.get(e.getKey()));
+        processed += Math.max(0, position - e.getValue());
+      }
+      searchTasksStore.updateProgress(
+          searchId,
+          msgsScanned,
+          Math.min(100.0, (((double) processed) / summaryOffsetsRange) * 100)
+      );
+    }
+  }
+}
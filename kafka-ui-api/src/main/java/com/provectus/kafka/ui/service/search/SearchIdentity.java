@@ -0,0 +1,10 @@
+package com.provectus.kafka.ui.service.search;
+
+import com.provectus.kafka.ui.model.KafkaCluster;
+
+record SearchIdentity(String clusterName, String topicName, String searchId) {
+
+  SearchIdentity(KafkaCluster cluster, String topic, String searchId) {
+    this(cluster.getName(), topic, searchId);
+  }
+}
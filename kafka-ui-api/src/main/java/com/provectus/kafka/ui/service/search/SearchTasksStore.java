@@ -0,0 +1,180 @@
+package com.provectus.kafka.ui.service.search;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.provectus.kafka.ui.model.MessagesSearchDTO;
+import com.provectus.kafka.ui.model.MessagesSearchMatchDTO;
+import com.provectus.kafka.ui.model.MessagesSearchProgressDTO;
+import com.provectus.kafka.ui.model.MessagesSearchResultDTO;
+import java.io.Closeable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Builder;
+import lombok.SneakyThrows;
+import org.apache.commons.lang3.StringUtils;
+
+class SearchTasksStore {
+
+  private final Map<SearchIdentity, RunningSearch> running = new ConcurrentHashMap<>();
+  // completed searches are expired after ttl and evicted when their matches exceed memory budget
+  private final Cache<SearchIdentity, CompletedSearch> completed;
+
+  SearchTasksStore(long maxCompletedMatchesBytes, Duration completedTtl) {
+    this.completed = CacheBuilder.newBuilder()
+        .maximumWeight(maxCompletedMatchesBytes)
+        .weigher((SearchIdentity id, CompletedSearch search) -> search.matches().estimatedBytes())
+        .expireAfterWrite(completedTtl)
+        .build();
+  }
+
+  void registerNewTask(SearchIdentity id, Matches matches, Closeable task) {
+    running.put(id, new RunningSearch(Instant.now(), 0.0, 0, matches, task));
+  }
+
+  void updateProgress(SearchIdentity id, long msgsScanned, double completeness) {
+    running.computeIfPresent(id, (k, state) ->
+        state.toBuilder()
+            .msgsScanned(msgsScanned)
+            .completenessPercent(completeness)
+            .build());
+  }
+
+  void setSearchResult(SearchIdentity id,
+                       Instant startedAt,
+                       long msgsScanned,
+                       boolean matchesLimitReached,
+                       boolean cancelled) {
+    var state = running.remove(id);
+    if (state == null) {
+      return;
+    }
+    completed.put(id,
+        new CompletedSearch(
+            new MessagesSearchResultDTO()
+                .startedAt(startedAt.toEpochMilli())
+                .finishedAt(System.currentTimeMillis())
+                .msgsScanned(msgsScanned)
+                .matchesFound((long) state.matches().size())
+                .matchesLimitReached(matchesLimitReached)
+                .cancelled(cancelled),
+            state.matches()
+        ));
+  }
+
+  void setSearchError(SearchIdentity id, Instant startedAt, long msgsScanned, Throwable th) {
+    var state = running.remove(id);
+    if (state == null) {
+      return;
+    }
+    completed.put(id,
+        new CompletedSearch(
+            new MessagesSearchResultDTO()
+                .startedAt(startedAt.toEpochMilli())
+                .finishedAt(System.currentTimeMillis())
+                .msgsScanned(msgsScanned)
+                .matchesFound((long) state.matches().size())
+                .error(Throwables.getStackTraceAsString(th)),
+            state.matches()
+        ));
+  }
+
+  // stops running task, task itself is responsible for moving search to completed state
+  boolean cancelSearch(SearchIdentity id) {
+    var state = running.get(id);
+    if (state != null) {
+      state.stopTask();
+      return true;
+    }
+    return completed.getIfPresent(id) != null;
+  }
+
+  Optional<MessagesSearchDTO> getSearch(SearchIdentity id, int page, int perPage) {
+    var runningState = running.get(id);
+    var completedState = completed.getIfPresent(id);
+    if (runningState == null && completedState == null) {
+      return Optional.empty();
+    }
+    Matches matches = runningState != null ? runningState.matches() : completedState.matches();
+    return Optional.of(
+        new MessagesSearchDTO()
+            .id(id.searchId())
+            .progress(runningState != null ? runningState.toDto() : null)
+            .result(runningState == null ? completedState.result() : null)
+            .matches(matches.page((page - 1) * perPage, perPage))
+    );
+  }
+
+  /**
+   * Matches found by search, bounded by max size. Appended by search task and paged by readers concurrently.
+   */
+  static class Matches {
+
+    private static final int MATCH_OVERHEAD_BYTES = 128;
+
+    private final int limit;
+    private final List<MessagesSearchMatchDTO> list = new ArrayList<>();
+    private long estimatedBytes = 0;
+
+    Matches(int limit) {
+      this.limit = limit;
+    }
+
+    // returns false if limit reached and match was not added
+    synchronized boolean add(MessagesSearchMatchDTO match) {
+      if (list.size() >= limit) {
+        return false;
+      }
+      list.add(match);
+      // java strings are stored as latin1/utf16 - using 2 bytes per char as upper bound
+      estimatedBytes += MATCH_OVERHEAD_BYTES
+          + 2L * (StringUtils.length(match.getKeyPreview()) + StringUtils.length(match.getContentPreview()));
+      return true;
+    }
+
+    synchronized int size() {
+      return list.size();
+    }
+
+    synchronized int estimatedBytes() {
+      return (int) Math.min(Integer.MAX_VALUE, estimatedBytes);
+    }
+
+    synchronized List<MessagesSearchMatchDTO> page(int skip, int size) {
+      if (skip >= list.size()) {
+        return List.of();
+      }
+      return List.copyOf(list.subList(skip, Math.min(list.size(), skip + size)));
+    }
+  }
+
+  private record CompletedSearch(MessagesSearchResultDTO result, Matches matches) {
+  }
+
+  @Builder(toBuilder = true)
+  private record RunningSearch(Instant startedAt,
+                               double completenessPercent,
+                               long msgsScanned,
+                               Matches matches,
+                               Closeable task) {
+
+    MessagesSearchProgressDTO toDto() {
+      return new MessagesSearchProgressDTO()
+          .startedAt(startedAt.toEpochMilli())
+          .msgsScanned(msgsScanned)
+          .matchesFound((long) matches.size())
+          .completenessPercent(BigDecimal.valueOf(completenessPercent));
+    }
+
+    @SneakyThrows
+    void stopTask() {
+      task.close();
+    }
+  }
+}
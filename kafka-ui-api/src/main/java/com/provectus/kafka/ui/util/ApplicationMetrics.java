@@ -1,7 +1,5 @@
 package com.provectus.kafka.ui.util;
 
-import static lombok.AccessLevel.PRIVATE;
-
 import com.google.common.annotations.VisibleForTesting;
 import com.provectus.kafka.ui.emitter.PolledRecords;
 import com.provectus.kafka.ui.model.KafkaCluster;
@@ -12,21 +10,58 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor(access = PRIVATE)
 public class ApplicationMetrics {
 
   // kafka-ui specific metrics prefix. Added to make it easier to distinguish kui metrics from
   // other metrics, exposed by spring boot (like http stats, jvm, etc.)
   private static final String COMMON_PREFIX = "kui_";
 
+  // one instance per cluster for global registry, so gauges are backed by same state objects for all callers
+  private static final Map<String, ApplicationMetrics> CLUSTERS_METRICS = new ConcurrentHashMap<>();
+
   private final String clusterName;
   private final MeterRegistry registry;
+  // gauge name -> gauge's state
+  private final Map<String, AtomicInteger> gaugesState = new ConcurrentHashMap<>();
+
+  // meters that are used on hot paths are registered once
+  private final Counter messagesCacheHits;
+  private final Counter messagesCacheMisses;
+  private final Counter messagesPrefetches;
+  private final Counter messagesPrefetchHits;
+  private final Map<String, DistributionSummary> pagePollingRounds = new ConcurrentHashMap<>();
+
+  private ApplicationMetrics(String clusterName, MeterRegistry registry) {
+    this.clusterName = clusterName;
+    this.registry = registry;
+    this.messagesCacheHits = Counter.builder(COMMON_PREFIX + "messages_cache_hits")
+        .description("Number of deserialized messages taken from messages cache")
+        .tag("cluster", clusterName)
+        .register(registry);
+    this.messagesCacheMisses = Counter.builder(COMMON_PREFIX + "messages_cache_misses")
+        .description("Number of messages that were not found in messages cache")
+        .tag("cluster", clusterName)
+        .register(registry);
+    this.messagesPrefetches = Counter.builder(COMMON_PREFIX + "messages_prefetches")
+        .description("Number of partition ranges that were speculatively prefetched for next messages page")
+        .tag("cluster", clusterName)
+        .register(registry);
+    this.messagesPrefetchHits = Counter.builder(COMMON_PREFIX + "messages_prefetch_hits")
+        .description("Number of prefetched partition ranges that were used by next page requests")
+        .tag("cluster", clusterName)
+        .register(registry);
+  }
 
   public static ApplicationMetrics forCluster(KafkaCluster cluster) {
-    return new ApplicationMetrics(cluster.getName(), Metrics.globalRegistry);
+    return forCluster(cluster.getName());
+  }
+
+  public static ApplicationMetrics forCluster(String clusterName) {
+    return CLUSTERS_METRICS.computeIfAbsent(clusterName, n -> new ApplicationMetrics(n, Metrics.globalRegistry));
   }
 
   @VisibleForTesting
@@ -74,13 +109,48 @@ public class ApplicationMetrics {
         .register(registry);
   }
 
+  public DistributionSummary pagePollingRounds(String direction) {
+    return pagePollingRounds.computeIfAbsent(direction, d ->
+        DistributionSummary.builder(COMMON_PREFIX + "messages_page_polling_rounds")
+            .description("Number of polling rounds that were needed to load messages page")
+            .tag("cluster", clusterName)
+            .tag("direction", d)
+            .register(registry));
+  }
+
+  public Counter messagesPrefetches() {
+    return messagesPrefetches;
+  }
+
+  public Counter messagesPrefetchHits() {
+    return messagesPrefetchHits;
+  }
+
+  public Counter messagesCacheHits() {
+    return messagesCacheHits;
+  }
+
+  public Counter messagesCacheMisses() {
+    return messagesCacheMisses;
+  }
+
   public AtomicInteger activeConsumers() {
-    var count = new AtomicInteger();
-    Gauge.builder(COMMON_PREFIX + "active_consumers", () -> count)
-        .description("Number of active consumers")
-        .tag("cluster", clusterName)
-        .register(registry);
-    return count;
+    return gaugeState("active_consumers", "Number of active consumers");
+  }
+
+  public AtomicInteger idleConsumers() {
+    return gaugeState("idle_pooled_consumers", "Number of idle consumers kept in consumers pool");
+  }
+
+  private AtomicInteger gaugeState(String name, String description) {
+    return gaugesState.computeIfAbsent(name, k -> {
+      var count = new AtomicInteger();
+      Gauge.builder(COMMON_PREFIX + name, count, AtomicInteger::get)
+          .description(description)
+          .tag("cluster", clusterName)
+          .register(registry);
+      return count;
+    });
   }
 
 }
@@ -0,0 +1,288 @@
+package com.provectus.kafka.ui.util.jsonschema;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.confluent.kafka.serializers.AvroData;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.avro.Conversion;
+import org.apache.avro.Conversions;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+
+/**
+ * Decodes Avro binary data directly into json text, without materializing GenericRecord and JsonNode object graphs.
+ * Output is the same as {@link JsonAvroConversion#convertAvroToJson(Object, Schema)} result for the record, read
+ * with writer schema and logical types conversions enabled (as KafkaAvroDeserializer does).
+ * Decoding plan is compiled once per schema, decoder instances are thread-safe.
+ */
+public class AvroToJsonStreamingDecoder {
+
+  private static final JsonMapper MAPPER = new JsonMapper();
+  // same instance that is used by KafkaAvroDeserializer when logical type converters are enabled
+  private static final GenericData GENERIC_DATA = AvroData.getGenericData();
+  private static final Set<Schema.Type> LOGICAL_TYPES_BASE_TYPES =
+      Set.of(Schema.Type.STRING, Schema.Type.INT, Schema.Type.LONG, Schema.Type.BYTES, Schema.Type.FIXED);
+
+  private final Node root;
+
+  private AvroToJsonStreamingDecoder(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Returns decoder for record schemas. Other top-level types are not supported, since for them
+   * KafkaAvroDeserializer returns values that are converted to json differently.
+   */
+  public static Optional<AvroToJsonStreamingDecoder> forSchema(Schema schema) {
+    if (schema.getType() != Schema.Type.RECORD) {
+      return Optional.empty();
+    }
+    return Optional.of(new AvroToJsonStreamingDecoder(new Compiler().compile(schema)));
+  }
+
+  public String decode(byte[] data, int offset, int length) throws IOException {
+    BinaryDecoder in = DecoderFactory.get().binaryDecoder(data, offset, length, null);
+    var writer = new StringWriter(length * 2);
+    try (JsonGenerator gen = MAPPER.createGenerator(writer)) {
+      root.write(in, gen);
+    }
+    return writer.toString();
+  }
+
+  private interface Node {
+
+    void write(BinaryDecoder in, JsonGenerator gen) throws IOException;
+
+    // fields with null values are not written (see JsonAvroConversion.convertAvroToJson)
+    default void writeField(String name, BinaryDecoder in, JsonGenerator gen) throws IOException {
+      gen.writeFieldName(name);
+      write(in, gen);
+    }
+  }
+
+  private static class Compiler {
+
+    // compiled records, used to support recursive schemas
+    private final Map<Schema, RecordNode> records = new IdentityHashMap<>();
+
+    Node compile(Schema schema) {
+      if (schema.getLogicalType() != null) {
+        return logicalType(schema);
+      }
+      return switch (schema.getType()) {
+        case RECORD -> record(schema);
+        case ARRAY -> array(schema);
+        case UNION -> union(schema);
+        // map entries order in json is HashMap's iteration order, so it is simpler to reuse generic path for maps
+        case MAP -> new GenericNode(schema);
+        case ENUM -> {
+          List<String> symbols = schema.getEnumSymbols();
+          yield (in, gen) -> gen.writeString(symbols.get(in.readEnum()));
+        }
+        case FIXED -> {
+          int size = schema.getFixedSize();
+          yield (in, gen) -> {
+            byte[] bytes = new byte[size];
+            in.readFixed(bytes);
+            gen.writeString(new String(bytes, StandardCharsets.ISO_8859_1));
+          };
+        }
+        //see JsonEncoder::writeByteArray
+        case BYTES -> (in, gen) -> gen.writeString(new String(in.readBytes(null).array(), StandardCharsets.ISO_8859_1));
+        case STRING -> (in, gen) -> gen.writeString(in.readString());
+        case INT -> (in, gen) -> gen.writeNumber(in.readInt());
+        case LONG -> (in, gen) -> gen.writeNumber(in.readLong());
+        case FLOAT -> (in, gen) -> gen.writeNumber(in.readFloat());
+        case DOUBLE -> (in, gen) -> gen.writeNumber(in.readDouble());
+        case BOOLEAN -> (in, gen) -> gen.writeBoolean(in.readBoolean());
+        case NULL -> new NullNode();
+      };
+    }
+
+    private Node record(Schema schema) {
+      RecordNode node = records.get(schema);
+      if (node == null) {
+        node = new RecordNode(schema.getFields().size());
+        records.put(schema, node);
+        for (Schema.Field field : schema.getFields()) {
+          node.names[field.pos()] = field.name();
+          node.fields[field.pos()] = compile(field.schema());
+        }
+      }
+      return node;
+    }
+
+    private Node array(Schema schema) {
+      Node element = compile(schema.getElementType());
+      return (in, gen) -> {
+        gen.writeStartArray();
+        for (long count = in.readArrayStart(); count > 0; count = in.arrayNext()) {
+          for (long i = 0; i < count; i++) {
+            element.write(in, gen);
+          }
+        }
+        gen.writeEndArray();
+      };
+    }
+
+    private Node union(Schema schema) {
+      var types = schema.getTypes();
+      var node = new UnionNode(schema, types.size());
+      for (int i = 0; i < types.size(); i++) {
+        node.branches[i] = compile(types.get(i));
+        node.fieldNames[i] = JsonAvroConversion.selectUnionTypeFieldName(schema, types.get(i), i);
+      }
+      return node;
+    }
+
+    private Node logicalType(Schema schema) {
+      Conversion<?> conversion = GENERIC_DATA.getConversionFor(schema.getLogicalType());
+      if (conversion == null || !LOGICAL_TYPES_BASE_TYPES.contains(schema.getType())) {
+        return new GenericNode(schema);
+      }
+      return new LogicalTypeNode(schema, conversion);
+    }
+  }
+
+  private static class RecordNode implements Node {
+
+    private final String[] names;
+    private final Node[] fields;
+
+    RecordNode(int fieldsCount) {
+      this.names = new String[fieldsCount];
+      this.fields = new Node[fieldsCount];
+    }
+
+    @Override
+    public void write(BinaryDecoder in, JsonGenerator gen) throws IOException {
+      gen.writeStartObject();
+      for (int i = 0; i < fields.length; i++) {
+        fields[i].writeField(names[i], in, gen);
+      }
+      gen.writeEndObject();
+    }
+  }
+
+  private static class NullNode implements Node {
+
+    @Override
+    public void write(BinaryDecoder in, JsonGenerator gen) throws IOException {
+      in.readNull();
+      gen.writeNull();
+    }
+
+    @Override
+    public void writeField(String name, BinaryDecoder in, JsonGenerator gen) throws IOException {
+      in.readNull();
+    }
+  }
+
+  private static class UnionNode implements Node {
+
+    private final Schema schema;
+    private final Node[] branches;
+    private final String[] fieldNames;
+
+    UnionNode(Schema schema, int branchesCount) {
+      this.schema = schema;
+      this.branches = new Node[branchesCount];
+      this.fieldNames = new String[branchesCount];
+    }
+
+    @Override
+    public void write(BinaryDecoder in, JsonGenerator gen) throws IOException {
+      int idx = in.readIndex();
+      if (branches[idx] instanceof NullNode) {
+        gen.writeNull();
+      } else {
+        writeBranch(idx, in, gen);
+      }
+    }
+
+    @Override
+    public void writeField(String name, BinaryDecoder in, JsonGenerator gen) throws IOException {
+      int idx = in.readIndex();
+      if (!(branches[idx] instanceof NullNode)) {
+        gen.writeFieldName(name);
+        writeBranch(idx, in, gen);
+      }
+    }
+
+    private void writeBranch(int idx, BinaryDecoder in, JsonGenerator gen) throws IOException {
+      gen.writeStartObject();
+      if (branches[idx] instanceof LogicalTypeNode logicalTypeNode) {
+        // GenericData resolves union by converted value's class, so it can choose another branch
+        // with the same conversion (like time-millis for time-micros value)
+        Object value = logicalTypeNode.read(in);
+        int resolved = GENERIC_DATA.resolveUnion(schema, value);
+        gen.writeFieldName(fieldNames[resolved]);
+        gen.writeTree(JsonAvroConversion.processLogicalType(value, schema.getTypes().get(resolved)));
+      } else {
+        gen.writeFieldName(fieldNames[idx]);
+        branches[idx].write(in, gen);
+      }
+      gen.writeEndObject();
+    }
+  }
+
+  private static class LogicalTypeNode implements Node {
+
+    private final Schema schema;
+    private final Conversion<?> conversion;
+
+    LogicalTypeNode(Schema schema, Conversion<?> conversion) {
+      this.schema = schema;
+      this.conversion = conversion;
+    }
+
+    // reads value the same way as GenericDatumReader does, and converts it to logical type's class
+    Object read(BinaryDecoder in) throws IOException {
+      Object raw = switch (schema.getType()) {
+        case STRING -> in.readString(null);
+        case INT -> in.readInt();
+        case LONG -> in.readLong();
+        case BYTES -> in.readBytes(null);
+        case FIXED -> {
+          byte[] bytes = new byte[schema.getFixedSize()];
+          in.readFixed(bytes);
+          yield new GenericData.Fixed(schema, bytes);
+        }
+        default -> throw new IllegalStateException("Unexpected logical type's base type " + schema.getType());
+      };
+      return Conversions.convertToLogicalType(raw, schema, schema.getLogicalType(), conversion);
+    }
+
+    @Override
+    public void write(BinaryDecoder in, JsonGenerator gen) throws IOException {
+      gen.writeTree(JsonAvroConversion.processLogicalType(read(in), schema));
+    }
+  }
+
+  // reads value with GenericDatumReader and converts it with JsonAvroConversion
+  private static class GenericNode implements Node {
+
+    private final Schema schema;
+    private final GenericDatumReader<Object> reader;
+
+    GenericNode(Schema schema) {
+      this.schema = schema;
+      this.reader = new GenericDatumReader<>(schema, schema, GENERIC_DATA);
+    }
+
+    @Override
+    public void write(BinaryDecoder in, JsonGenerator gen) throws IOException {
+      gen.writeTree(JsonAvroConversion.convertAvroToJson(reader.read(null, in), schema));
+    }
+  }
+}
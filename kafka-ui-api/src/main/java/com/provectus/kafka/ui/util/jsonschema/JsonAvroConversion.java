@@ -276,9 +276,9 @@ public class JsonAvroConversion {
 
   // select name for a key field that represents type name of union.
   // For records selects short name, if it is possible.
-  private static String selectUnionTypeFieldName(Schema unionSchema,
-                                                 Schema chosenType,
-                                                 int chosenTypeIdx) {
+  static String selectUnionTypeFieldName(Schema unionSchema,
+                                         Schema chosenType,
+                                         int chosenTypeIdx) {
     var types = unionSchema.getTypes();
     if (types.size() == 2 && types.contains(NULL_SCHEMA)) {
       return chosenType.getName();
@@ -301,7 +301,7 @@ public class JsonAvroConversion {
                 .formatted(schema.getLogicalType().getName())));
   }
 
-  private static JsonNode processLogicalType(Object obj, Schema schema) {
+  static JsonNode processLogicalType(Object obj, Schema schema) {
     return findConversion(schema)
         .map(c -> c.avroToJsonConversion.apply(obj, schema))
         .orElseThrow(() ->
@@ -0,0 +1,537 @@
+package com.provectus.kafka.ui.util.jsonschema;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.WireFormat;
+import com.google.protobuf.util.JsonFormat;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Decodes protobuf binary data directly into json text, without building DynamicMessage.
+ * Output is the same as JsonFormat printer with default values included, proto field names and without
+ * insignificant whitespaces (see ProtobufSchemaUtils::toJson) produces for DynamicMessage parsed from same data.
+ * Field-number dispatch tables are compiled once per descriptor, decoder instances are thread-safe.
+ * Only canonically encoded data is supported (fields in field-number order, singular fields and oneofs set once,
+ * known enum values). Other data is rejected with exception, so caller can fall back to DynamicMessage parsing.
+ */
+public class ProtobufToJsonStreamingDecoder {
+
+  // same as ProtobufSchemaUtils::toJson uses
+  private static final JsonFormat.Printer PRINTER = JsonFormat.printer()
+      .includingDefaultValueFields()
+      .omittingInsignificantWhitespace()
+      .preservingProtoFieldNames();
+
+  // messages that are printed by JsonFormat in special way, see JsonFormat::buildWellKnownTypePrinters
+  private static final Set<String> WELL_KNOWN_TYPES = Set.of(
+      "google.protobuf.Any",
+      "google.protobuf.BoolValue",
+      "google.protobuf.Int32Value",
+      "google.protobuf.UInt32Value",
+      "google.protobuf.Int64Value",
+      "google.protobuf.UInt64Value",
+      "google.protobuf.StringValue",
+      "google.protobuf.BytesValue",
+      "google.protobuf.FloatValue",
+      "google.protobuf.DoubleValue",
+      "google.protobuf.Timestamp",
+      "google.protobuf.Duration",
+      "google.protobuf.FieldMask",
+      "google.protobuf.Struct",
+      "google.protobuf.Value",
+      "google.protobuf.ListValue"
+  );
+
+  // same as CodedInputStream's default recursion limit
+  private static final int RECURSION_LIMIT = 100;
+  // field numbers above this value are dispatched via hash map instead of array
+  private static final int MAX_DENSE_FIELD_NUMBER = 1024;
+  // length-prefixed empty message
+  private static final byte[] EMPTY_MESSAGE = {0};
+
+  // json string escapes, the same as Gson (used by JsonFormat) applies with html escaping enabled
+  private static final String[] STRING_ESCAPES = new String[128];
+
+  static {
+    for (int i = 0; i < 0x20; i++) {
+      STRING_ESCAPES[i] = String.format("\\u%04x", i);
+    }
+    STRING_ESCAPES['"'] = "\\\"";
+    STRING_ESCAPES['\\'] = "\\\\";
+    STRING_ESCAPES['\t'] = "\\t";
+    STRING_ESCAPES['\b'] = "\\b";
+    STRING_ESCAPES['\n'] = "\\n";
+    STRING_ESCAPES['\r'] = "\\r";
+    STRING_ESCAPES['\f'] = "\\f";
+    for (char c : "<>&='".toCharArray()) {
+      STRING_ESCAPES[c] = String.format("\\u%04x", (int) c);
+    }
+  }
+
+  private final MessageWriter root;
+
+  private ProtobufToJsonStreamingDecoder(MessageWriter root) {
+    this.root = root;
+  }
+
+  /**
+   * Returns decoder for descriptor. Well-known types, messages with required fields (DynamicMessage parsing
+   * checks that they are set) and groups are not supported.
+   */
+  public static Optional<ProtobufToJsonStreamingDecoder> forDescriptor(Descriptor descriptor) {
+    if (WELL_KNOWN_TYPES.contains(descriptor.getFullName()) || !isSupported(descriptor, new HashSet<>())) {
+      return Optional.empty();
+    }
+    return Optional.of(new ProtobufToJsonStreamingDecoder(new Compiler().message(descriptor)));
+  }
+
+  private static boolean isSupported(Descriptor descriptor, Set<Descriptor> visited) {
+    if (WELL_KNOWN_TYPES.contains(descriptor.getFullName()) || !visited.add(descriptor)) {
+      return true;
+    }
+    for (FieldDescriptor field : descriptor.getFields()) {
+      if (field.isRequired() || field.getType() == FieldDescriptor.Type.GROUP) {
+        return false;
+      }
+      if (field.getType() == FieldDescriptor.Type.MESSAGE && !isSupported(field.getMessageType(), visited)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public String decode(byte[] data, int offset, int length) throws IOException {
+    var out = new StringBuilder(length * 2);
+    root.write(CodedInputStream.newInstance(data, offset, length), out, 0);
+    return out.toString();
+  }
+
+  private static IllegalStateException nonCanonical(String message) {
+    return new IllegalStateException("Non-canonical protobuf encoding: " + message);
+  }
+
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(CodedInputStream in, StringBuilder out, int depth) throws IOException;
+  }
+
+  private static class Compiler {
+
+    // compiled messages, used to support recursive messages
+    private final Map<Descriptor, MessageWriter> messages = new HashMap<>();
+
+    MessageWriter message(Descriptor descriptor) {
+      MessageWriter writer = messages.get(descriptor);
+      if (writer == null) {
+        writer = new MessageWriter();
+        messages.put(descriptor, writer);
+        var sorted = descriptor.getFields().stream()
+            .sorted(Comparator.comparingInt(FieldDescriptor::getNumber))
+            .toList();
+        var fields = new FieldWriter[sorted.size()];
+        for (int i = 0; i < fields.length; i++) {
+          fields[i] = field(sorted.get(i), i);
+        }
+        writer.init(fields, descriptor.getOneofs().size());
+      }
+      return writer;
+    }
+
+    private FieldWriter field(FieldDescriptor field, int index) {
+      ValueWriter value;
+      String defaultJson;
+      if (field.isMapField()) {
+        value = mapEntry(field.getMessageType());
+        defaultJson = "{}";
+      } else {
+        value = value(field, false);
+        if (field.isRepeated()) {
+          defaultJson = "[]";
+        } else if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE || field.getContainingOneof() != null) {
+          // not set messages and oneof fields are not printed (see JsonFormat.PrinterImpl::print)
+          defaultJson = null;
+        } else {
+          defaultJson = defaultValue(field, false);
+        }
+      }
+      return new FieldWriter(field, index, value, defaultJson);
+    }
+
+    private ValueWriter mapEntry(Descriptor entryDescriptor) {
+      FieldDescriptor keyField = entryDescriptor.findFieldByNumber(1);
+      FieldDescriptor valueField = entryDescriptor.findFieldByNumber(2);
+      int keyTag = FieldWriter.tag(keyField);
+      int valueTag = FieldWriter.tag(valueField);
+      ValueWriter key = value(keyField, true);
+      ValueWriter value = value(valueField, false);
+      String keyDefault = defaultValue(keyField, true);
+      String valueDefault = valueField.getJavaType() == FieldDescriptor.JavaType.MESSAGE
+          ? null
+          : defaultValue(valueField, false);
+      return (in, out, depth) -> {
+        final int limit = in.pushLimit(in.readRawVarint32());
+        int tag = in.readTag();
+        if (tag == keyTag) {
+          key.write(in, out, depth);
+          tag = in.readTag();
+        } else {
+          out.append(keyDefault);
+        }
+        out.append(':');
+        if (tag == valueTag) {
+          value.write(in, out, depth);
+          tag = in.readTag();
+        } else if (valueDefault != null) {
+          out.append(valueDefault);
+        } else {
+          value.write(CodedInputStream.newInstance(EMPTY_MESSAGE), out, depth);
+        }
+        if (tag != 0) {
+          throw nonCanonical("unexpected map entry tag " + tag);
+        }
+        in.popLimit(limit);
+      };
+    }
+
+    private ValueWriter value(FieldDescriptor field, boolean mapKey) {
+      return switch (field.getType()) {
+        case INT32 -> (in, out, depth) -> int32(in.readInt32(), mapKey, out);
+        case SINT32 -> (in, out, depth) -> int32(in.readSInt32(), mapKey, out);
+        case SFIXED32 -> (in, out, depth) -> int32(in.readSFixed32(), mapKey, out);
+        case UINT32 -> (in, out, depth) -> uint32(in.readUInt32(), mapKey, out);
+        case FIXED32 -> (in, out, depth) -> uint32(in.readFixed32(), mapKey, out);
+        case INT64 -> (in, out, depth) -> int64(in.readInt64(), out);
+        case SINT64 -> (in, out, depth) -> int64(in.readSInt64(), out);
+        case SFIXED64 -> (in, out, depth) -> int64(in.readSFixed64(), out);
+        case UINT64 -> (in, out, depth) -> uint64(in.readUInt64(), out);
+        case FIXED64 -> (in, out, depth) -> uint64(in.readFixed64(), out);
+        case BOOL -> (in, out, depth) -> bool(in.readBool(), mapKey, out);
+        case FLOAT -> (in, out, depth) -> float32(in.readFloat(), out);
+        case DOUBLE -> (in, out, depth) -> float64(in.readDouble(), out);
+        // invalid utf8 is replaced by DynamicMessage for proto2, so we leave such cases to it
+        case STRING -> (in, out, depth) -> string(in.readStringRequireUtf8(), out);
+        case BYTES -> (in, out, depth) -> bytes(in.readByteArray(), out);
+        case ENUM -> enumValue(field.getEnumType());
+        case MESSAGE -> messageValue(field.getMessageType());
+        case GROUP -> throw new IllegalArgumentException("Groups are not supported");
+      };
+    }
+
+    private ValueWriter enumValue(EnumDescriptor enumType) {
+      if (enumType.getFullName().equals("google.protobuf.NullValue")) {
+        return (in, out, depth) -> {
+          in.readEnum();
+          out.append("null");
+        };
+      }
+      return (in, out, depth) -> {
+        int number = in.readEnum();
+        EnumValueDescriptor value = enumType.findValueByNumber(number);
+        if (value == null) {
+          // printed as number for open enums, but moved to unknown fields for closed ones
+          throw nonCanonical("unknown enum value " + number);
+        }
+        enumName(value, out);
+      };
+    }
+
+    private ValueWriter messageValue(Descriptor descriptor) {
+      if (WELL_KNOWN_TYPES.contains(descriptor.getFullName())) {
+        return (in, out, depth) -> PRINTER.appendTo(DynamicMessage.parseFrom(descriptor, in.readBytes()), out);
+      }
+      MessageWriter writer = message(descriptor);
+      return (in, out, depth) -> {
+        if (depth >= RECURSION_LIMIT) {
+          throw nonCanonical("recursion limit exceeded");
+        }
+        int limit = in.pushLimit(in.readRawVarint32());
+        writer.write(in, out, depth + 1);
+        in.popLimit(limit);
+      };
+    }
+
+    private static String defaultValue(FieldDescriptor field, boolean mapKey) {
+      Object value = field.getDefaultValue();
+      var out = new StringBuilder();
+      switch (field.getType()) {
+        case INT32, SINT32, SFIXED32 -> int32((Integer) value, mapKey, out);
+        case UINT32, FIXED32 -> uint32((Integer) value, mapKey, out);
+        case INT64, SINT64, SFIXED64 -> int64((Long) value, out);
+        case UINT64, FIXED64 -> uint64((Long) value, out);
+        case BOOL -> bool((Boolean) value, mapKey, out);
+        case FLOAT -> float32((Float) value, out);
+        case DOUBLE -> float64((Double) value, out);
+        case STRING -> string((String) value, out);
+        case BYTES -> bytes(((ByteString) value).toByteArray(), out);
+        case ENUM -> {
+          if (field.getEnumType().getFullName().equals("google.protobuf.NullValue")) {
+            out.append("null");
+          } else {
+            enumName((EnumValueDescriptor) value, out);
+          }
+        }
+        default -> throw new IllegalArgumentException("No default json value for " + field.getType());
+      }
+      return out.toString();
+    }
+  }
+
+  private static class FieldWriter {
+
+    private final int index;
+    // '"name":' prefix
+    private final String name;
+    private final boolean repeated;
+    private final boolean map;
+    private final int oneof;
+    private final int tag;
+    // tag of length-delimited packed elements, -1 if field is not packable
+    private final int packedTag;
+    private final ValueWriter value;
+    // json of value that is printed when field is not set, null if not set field is not printed
+    private final String defaultJson;
+
+    FieldWriter(FieldDescriptor field, int index, ValueWriter value, String defaultJson) {
+      this.index = index;
+      this.name = "\"" + field.getName() + "\":";
+      this.repeated = field.isRepeated();
+      this.map = field.isMapField();
+      this.oneof = field.getContainingOneof() == null ? -1 : field.getContainingOneof().getIndex();
+      this.tag = tag(field);
+      this.packedTag = field.isPackable()
+          ? (field.getNumber() << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED
+          : -1;
+      this.value = value;
+      this.defaultJson = defaultJson;
+    }
+
+    static int tag(FieldDescriptor field) {
+      return (field.getNumber() << 3) | field.getLiteType().getWireType();
+    }
+  }
+
+  private static class MessageWriter {
+
+    private FieldWriter[] fields;
+    private FieldWriter[] denseDispatch;
+    private Map<Integer, FieldWriter> sparseDispatch;
+    private int oneofsCount;
+
+    // called once by compiler, writer is not used before that
+    void init(FieldWriter[] fields, int oneofsCount) {
+      this.fields = fields;
+      this.oneofsCount = oneofsCount;
+      int maxNumber = fields.length == 0 ? 0 : WireFormat.getTagFieldNumber(fields[fields.length - 1].tag);
+      if (maxNumber <= MAX_DENSE_FIELD_NUMBER) {
+        denseDispatch = new FieldWriter[maxNumber + 1];
+        for (FieldWriter f : fields) {
+          denseDispatch[WireFormat.getTagFieldNumber(f.tag)] = f;
+        }
+      } else {
+        sparseDispatch = new HashMap<>();
+        for (FieldWriter f : fields) {
+          sparseDispatch.put(WireFormat.getTagFieldNumber(f.tag), f);
+        }
+      }
+    }
+
+    private FieldWriter dispatch(int number) {
+      if (denseDispatch != null) {
+        return number < denseDispatch.length ? denseDispatch[number] : null;
+      }
+      return sparseDispatch.get(number);
+    }
+
+    void write(CodedInputStream in, StringBuilder out, int depth) throws IOException {
+      out.append('{');
+      boolean printed = false;
+      int next = 0; // index of first field that was not written yet
+      FieldWriter open = null; // repeated field which elements are being written
+      boolean openIsEmpty = false;
+      boolean[] oneofsSet = oneofsCount == 0 ? null : new boolean[oneofsCount];
+      int tag;
+      while ((tag = in.readTag()) != 0) {
+        FieldWriter field = dispatch(WireFormat.getTagFieldNumber(tag));
+        if (field == null) {
+          // unknown fields are not printed
+          if (!in.skipField(tag)) {
+            throw nonCanonical("unexpected end group tag");
+          }
+          continue;
+        }
+        if (field != open) {
+          if (field.index < next) {
+            throw nonCanonical("field " + field.name + " is out of order or repeated");
+          }
+          closeRepeated(open, out);
+          open = null;
+          printed = writeDefaults(next, field.index, printed, out);
+          if (field.oneof >= 0) {
+            if (oneofsSet[field.oneof]) {
+              throw nonCanonical("several fields of same oneof are set");
+            }
+            oneofsSet[field.oneof] = true;
+          }
+          if (printed) {
+            out.append(',');
+          }
+          printed = true;
+          out.append(field.name);
+          next = field.index + 1;
+          if (!field.repeated) {
+            if (tag != field.tag) {
+              throw nonCanonical("unexpected wire type for " + field.name);
+            }
+            field.value.write(in, out, depth);
+            continue;
+          }
+          out.append(field.map ? '{' : '[');
+          open = field;
+          openIsEmpty = true;
+        }
+        if (tag == field.tag) {
+          if (!openIsEmpty) {
+            out.append(',');
+          }
+          openIsEmpty = false;
+          field.value.write(in, out, depth);
+        } else if (tag == field.packedTag) {
+          int limit = in.pushLimit(in.readRawVarint32());
+          while (in.getBytesUntilLimit() > 0) {
+            if (!openIsEmpty) {
+              out.append(',');
+            }
+            openIsEmpty = false;
+            field.value.write(in, out, depth);
+          }
+          in.popLimit(limit);
+        } else {
+          throw nonCanonical("unexpected wire type for " + field.name);
+        }
+      }
+      closeRepeated(open, out);
+      writeDefaults(next, fields.length, printed, out);
+      out.append('}');
+    }
+
+    private static void closeRepeated(FieldWriter open, StringBuilder out) {
+      if (open != null) {
+        out.append(open.map ? '}' : ']');
+      }
+    }
+
+    private boolean writeDefaults(int from, int to, boolean printed, StringBuilder out) {
+      for (int i = from; i < to; i++) {
+        FieldWriter field = fields[i];
+        if (field.defaultJson != null) {
+          if (printed) {
+            out.append(',');
+          }
+          printed = true;
+          out.append(field.name).append(field.defaultJson);
+        }
+      }
+      return printed;
+    }
+  }
+
+  //---------------------------------------------------------------------------------------------
+  // values formatting, see JsonFormat.PrinterImpl::printSingleFieldValue
+
+  private static void int32(int value, boolean quoted, StringBuilder out) {
+    if (quoted) {
+      out.append('"').append(value).append('"');
+    } else {
+      out.append(value);
+    }
+  }
+
+  private static void uint32(int value, boolean quoted, StringBuilder out) {
+    if (quoted) {
+      out.append('"').append(Integer.toUnsignedString(value)).append('"');
+    } else {
+      out.append(Integer.toUnsignedString(value));
+    }
+  }
+
+  private static void int64(long value, StringBuilder out) {
+    out.append('"').append(value).append('"');
+  }
+
+  private static void uint64(long value, StringBuilder out) {
+    out.append('"').append(Long.toUnsignedString(value)).append('"');
+  }
+
+  private static void bool(boolean value, boolean quoted, StringBuilder out) {
+    if (quoted) {
+      out.append('"').append(value).append('"');
+    } else {
+      out.append(value);
+    }
+  }
+
+  private static void float32(float value, StringBuilder out) {
+    if (Float.isNaN(value)) {
+      out.append("\"NaN\"");
+    } else if (Float.isInfinite(value)) {
+      out.append(value < 0 ? "\"-Infinity\"" : "\"Infinity\"");
+    } else {
+      out.append(Float.toString(value));
+    }
+  }
+
+  private static void float64(double value, StringBuilder out) {
+    if (Double.isNaN(value)) {
+      out.append("\"NaN\"");
+    } else if (Double.isInfinite(value)) {
+      out.append(value < 0 ? "\"-Infinity\"" : "\"Infinity\"");
+    } else {
+      out.append(Double.toString(value));
+    }
+  }
+
+  private static void bytes(byte[] value, StringBuilder out) {
+    out.append('"').append(Base64.getEncoder().encodeToString(value)).append('"');
+  }
+
+  private static void enumName(EnumValueDescriptor value, StringBuilder out) {
+    out.append('"').append(value.getName()).append('"');
+  }
+
+  private static void string(String value, StringBuilder out) {
+    out.append('"');
+    int last = 0;
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      String escape;
+      if (c < 128) {
+        escape = STRING_ESCAPES[c];
+        if (escape == null) {
+          continue;
+        }
+      } else if (c == '\u2028') {
+        escape = "\\u2028";
+      } else if (c == '\u2029') {
+        escape = "\\u2029";
+      } else {
+        continue;
+      }
+      out.append(value, last, i).append(escape);
+      last = i + 1;
+    }
+    out.append(value, last, length).append('"');
+  }
+}
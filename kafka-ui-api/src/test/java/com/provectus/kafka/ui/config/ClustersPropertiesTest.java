@@ -48,4 +48,16 @@ class ClustersPropertiesTest {
         .isEqualTo("Default");
   }
 
+  @Test
+  void invalidCustomPartitionerTopicsPatternFailsValidation() {
+    ClustersProperties properties = new ClustersProperties();
+    var cluster = new ClustersProperties.Cluster();
+    cluster.setCustomPartitionerTopicsPattern("orders-[");
+    properties.getClusters().add(cluster);
+
+    assertThatThrownBy(properties::validateAndSetDefaults)
+        .hasMessageContaining("Application config isn't valid")
+        .hasMessageContaining("customPartitionerTopicsPattern");
+  }
+
 }
@@ -0,0 +1,92 @@
+package com.provectus.kafka.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.provectus.kafka.ui.emitter.RangePollingEmitter.FromToOffset;
+import com.provectus.kafka.ui.model.ConsumerPosition;
+import com.provectus.kafka.ui.model.SeekTypeDTO;
+import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
+import org.junit.jupiter.api.Test;
+
+class BackwardEmitterTest {
+
+  private static final TopicPartition TP0 = new TopicPartition("topic", 0);
+  private static final TopicPartition TP1 = new TopicPartition("topic", 1);
+
+  private final BackwardEmitter emitter = new BackwardEmitter(
+      () -> null,
+      new ConsumerPosition(SeekTypeDTO.LATEST, "topic", null),
+      100,
+      mock(ConsumerRecordDeserializer.class),
+      m -> true,
+      PollingSettings.createDefault(),
+      RangePollingOptions.defaults()
+  );
+
+  @Test
+  void windowsAreSizedToReachSamePointInTime() {
+    var range = range(Map.of(TP0, new FromToOffset(0, 64), TP1, new FromToOffset(0, 64)));
+    // TP0 rate is 0.25 offsets/ms, TP1 rate is 1 offset/ms, all polled records were sent
+    var polled = List.of(record(TP0, 0, 0), record(TP0, 63, 256), record(TP1, 0, 0), record(TP1, 63, 64));
+    emitter.onRoundFinished(range, polled, polled.size());
+
+    // 80 offsets split by rates: both partitions are read back for 64ms
+    assertThat(emitter.adaptiveWindows(range, 80))
+        .containsEntry(TP0, 16L)
+        .containsEntry(TP1, 64L);
+  }
+
+  @Test
+  void partitionsWithUnknownRatesGetEvenShareScaledByFilterPassRatio() {
+    var range = range(Map.of(TP0, new FromToOffset(0, 50), TP1, new FromToOffset(0, 50)));
+    // same timestamps - rates can't be estimated, none of 99 polled records passed filter
+    var polled = IntStream.range(0, 99)
+        .mapToObj(i -> record(i % 2 == 0 ? TP0 : TP1, i, 1_000))
+        .toList();
+    emitter.onRoundFinished(range, polled, 0);
+
+    // pass ratio is (0 + 1) / (99 + 1), so 1000 offsets needed to send 10 messages
+    assertThat(emitter.adaptiveWindows(range, 10))
+        .containsEntry(TP0, 500L)
+        .containsEntry(TP1, 500L);
+  }
+
+  @Test
+  void windowsAreBoundedByMaxWindowAndOneOffset() {
+    var range = range(Map.of(TP0, new FromToOffset(0, 50), TP1, new FromToOffset(0, 50)));
+    emitter.onRoundFinished(range, List.of(), 0);
+
+    assertThat(emitter.adaptiveWindows(range, 1_000_000))
+        .containsEntry(TP0, 10_000L)
+        .containsEntry(TP1, 10_000L);
+    assertThat(emitter.adaptiveWindows(range, 0))
+        .containsEntry(TP0, 1L)
+        .containsEntry(TP1, 1L);
+  }
+
+  private static TreeMap<TopicPartition, FromToOffset> range(Map<TopicPartition, FromToOffset> offsets) {
+    var range = new TreeMap<TopicPartition, FromToOffset>(Comparator.comparingInt(TopicPartition::partition));
+    range.putAll(offsets);
+    return range;
+  }
+
+  private static ConsumerRecord<Bytes, Bytes> record(TopicPartition tp, long offset, long ts) {
+    return new ConsumerRecord<>(
+        tp.topic(), tp.partition(), offset, ts,
+        TimestampType.CREATE_TIME,
+        0, 0, null, null, new RecordHeaders(), Optional.empty()
+    );
+  }
+}
@@ -0,0 +1,93 @@
+package com.provectus.kafka.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.provectus.kafka.ui.exception.IllegalEntityStateException;
+import com.provectus.kafka.ui.util.ApplicationMetrics;
+import java.time.Duration;
+import java.util.Properties;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class EnhancedConsumerPoolTest {
+
+  private EnhancedConsumerPool pool;
+
+  @AfterEach
+  void closePool() {
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  @Test
+  void returnedConsumerIsReusedOnNextLease() {
+    pool = createPool(2, Duration.ofMinutes(1));
+    var leased = pool.lease();
+    leased.close();
+    try (var leasedAgain = pool.lease()) {
+      assertThat(leasedAgain).isSameAs(leased);
+    }
+  }
+
+  @Test
+  void leaseFailsWhenAllConsumersAreLeasedAndBorrowTimeoutPassed() {
+    pool = createPool(1, Duration.ofMinutes(1));
+    try (var leased = pool.lease()) {
+      assertThrows(IllegalEntityStateException.class, () -> pool.lease());
+    }
+  }
+
+  @Test
+  void tryLeaseReturnsNullWithoutWaitingWhenAllConsumersAreLeased() {
+    pool = createPool(1, Duration.ofMinutes(1));
+    try (var leased = pool.lease()) {
+      assertThat(pool.tryLease()).isNull();
+    }
+    try (var leasedAfterReturn = pool.tryLease()) {
+      assertThat(leasedAfterReturn).isNotNull();
+    }
+  }
+
+  @Test
+  void consumerAfterWakeupIsNotReturnedToPool() {
+    pool = createPool(1, Duration.ofMinutes(1));
+    var leased = pool.lease();
+    leased.wakeup();
+    leased.close();
+    try (var newConsumer = pool.lease()) {
+      assertThat(newConsumer).isNotSameAs(leased);
+    }
+  }
+
+  @Test
+  void idleConsumersAreEvictedAfterTimeout() {
+    pool = createPool(1, Duration.ZERO);
+    var leased = pool.lease();
+    leased.close();
+    pool.evictIdle();
+    try (var newConsumer = pool.lease()) {
+      assertThat(newConsumer).isNotSameAs(leased);
+    }
+  }
+
+  private EnhancedConsumerPool createPool(int maxSize, Duration idleTimeout) {
+    return new EnhancedConsumerPool(
+        this::createConsumer,
+        maxSize,
+        idleTimeout,
+        Duration.ofMillis(100),
+        ApplicationMetrics.noop()
+    );
+  }
+
+  private EnhancedConsumer createConsumer() {
+    Properties props = new Properties();
+    // consumer does not connect to broker until it is used for polling
+    props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+    return new EnhancedConsumer(props, PollingThrottler.noop(), ApplicationMetrics.noop());
+  }
+
+}
@@ -0,0 +1,133 @@
+package com.provectus.kafka.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.provectus.kafka.ui.exception.ValidationException;
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+class ExpressionFilterTest {
+
+  private static final String VALUE = """
+      {
+        "name": { "first": "John", "last": "Doe" },
+        "age": 30,
+        "score": 4.5,
+        "active": true,
+        "tags": ["a", "b"],
+        "nothing": null
+      }
+      """;
+
+  @Test
+  void jsonPathComparisons() {
+    assertMatches("value.name.first == 'John'");
+    assertMatches("value['name']['last'] == \"Doe\"");
+    assertMatches("value.age >= 18 && value.age < 31");
+    assertMatches("value.score > 4");
+    assertMatches("value.score == 4.50");
+    assertMatches("value.active");
+    assertMatches("value.tags[1] == 'b'");
+    assertMatches("value.nothing == null");
+    assertMatches("value.notExisting == null");
+    assertNotMatches("value.age > 30");
+    assertNotMatches("value.name > 1");
+    assertNotMatches("value.notExisting > 1");
+  }
+
+  @Test
+  void keyAndValueWithoutPathAreComparedAsText() {
+    assertMatches("key == 'user-1'");
+    assertMatches("keyAsText =~ '^user-\\d+$'");
+    assertMatches("valueAsText =~ 'Doe'");
+    assertNotMatches("key =~ '^\\d'");
+  }
+
+  @Test
+  void jsonKeyPaths() {
+    var filter = ExpressionFilter.compile("key.id == 5 and value.age == 30");
+    assertTrue(filter.test(msg().key("{\"id\": 5}")));
+    assertFalse(filter.test(msg().key("{\"id\": 6}")));
+    assertFalse(filter.test(msg().key("not a json")));
+  }
+
+  @Test
+  void metadataPredicates() {
+    assertMatches("partition == 1 and offset in [100, 200]");
+    assertMatches("timestampMs >= 1000 and timestampMs < 2000");
+    assertMatches("headers.source == 'web' || headers['trace-id'] == 'x'");
+    assertMatches("headers.notExisting == null");
+    assertNotMatches("headers.source in ['mobile', 'api']");
+    assertNotMatches("partition != 1");
+  }
+
+  @Test
+  void booleanComposition() {
+    assertMatches("!(value.age < 18) and (value.name.first == 'Jane' or value.name.last == 'Doe')");
+    assertMatches("not value.age == 1");
+    assertNotMatches("value.age == 30 && !value.active");
+  }
+
+  @Test
+  void constantSubExpressionsAreFolded() {
+    assertThat(ExpressionFilter.compile("1 == 1").test(null)).isTrue();
+    assertThat(ExpressionFilter.compile("'a' in ['b', 'c'] or 2 > 3").test(null)).isFalse();
+    // constant false short-circuits whole 'and' expression, so message is never evaluated
+    assertThat(ExpressionFilter.compile("value.age == 1 and false").test(null)).isFalse();
+    assertThat(ExpressionFilter.compile("value.age == 1 or true").test(null)).isTrue();
+  }
+
+  @Test
+  void syntaxErrorsReportedAsValidationExceptions() {
+    List.of(
+        "value.age ==",
+        "value.age = 1",
+        "(partition == 1",
+        "unknownField == 1",
+        "key =~ '['",
+        "headers.a in 1",
+        "value.name == 'unterminated",
+        "value.arr[1.5] == 1",
+        "value.arr[99999999999] == 1",
+        "value.arr[-1] == 1"
+    ).forEach(expr -> assertThrows(ValidationException.class, () -> ExpressionFilter.compile(expr), expr));
+  }
+
+  @Test
+  void invalidArrayIndexReportedWithToken() {
+    var e = assertThrows(ValidationException.class, () -> ExpressionFilter.compile("value.arr[1.5] == 1"));
+    assertThat(e.getMessage()).contains("'1.5'");
+  }
+
+  private void assertMatches(String expression) {
+    assertTrue(compile(expression).test(msg()), expression);
+  }
+
+  private void assertNotMatches(String expression) {
+    assertFalse(compile(expression).test(msg()), expression);
+  }
+
+  private Predicate<TopicMessageDTO> compile(String expression) {
+    return ExpressionFilter.compile(expression);
+  }
+
+  private TopicMessageDTO msg() {
+    return new TopicMessageDTO()
+        .partition(1)
+        .offset(100L)
+        .timestamp(OffsetDateTime.ofInstant(Instant.ofEpochMilli(1500), ZoneOffset.UTC))
+        .headers(Map.of("source", "web"))
+        .key("user-1")
+        .content(VALUE);
+  }
+
+}
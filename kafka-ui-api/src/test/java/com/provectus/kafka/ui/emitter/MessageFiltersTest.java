@@ -6,9 +6,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import com.provectus.kafka.ui.exception.ValidationException;
 import com.provectus.kafka.ui.model.TopicMessageDTO;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -16,6 +20,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.utils.Bytes;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -58,6 +64,42 @@ class MessageFiltersTest {
 
   }
 
+  @Nested
+  class StringContainsRawPrefilter {
+
+    @Test
+    void matchesWhenUtf8BytesContainedInKeyOrValue() {
+      var prefilter = containsStringFilter("абв€").rawUtf8Prefilter();
+      assertTrue(prefilter.test(rec("contains абв€!", null)));
+      assertTrue(prefilter.test(rec(null, "абв€")));
+      assertFalse(prefilter.test(rec("абв", "€")));
+      assertFalse(prefilter.test(rec(null, null)));
+    }
+
+    @Test
+    void resultIsConsistentWithStringContainsFilter() {
+      var needle = "aBa";
+      var filter = containsStringFilter(needle);
+      var prefilter = filter.rawUtf8Prefilter();
+      for (int i = 0; i < 1000; i++) {
+        String value = RandomStringUtils.random(20, "aAbB");
+        assertThat(prefilter.test(rec(null, value)))
+            .isEqualTo(filter.test(msg().content(value)));
+      }
+    }
+
+    @Test
+    void notCreatedForReplacementChar() {
+      assertThat(containsStringFilter("abc" + MessageFilters.REPLACEMENT_CHAR).rawUtf8Prefilter()).isNull();
+    }
+
+    private ConsumerRecord<Bytes, Bytes> rec(String key, String value) {
+      return new ConsumerRecord<>("topic", 1, 1L,
+          key == null ? null : Bytes.wrap(key.getBytes(StandardCharsets.UTF_8)),
+          value == null ? null : Bytes.wrap(value.getBytes(StandardCharsets.UTF_8)));
+    }
+  }
+
   @Nested
   class GroovyScriptFilter {
 
@@ -193,6 +235,18 @@ class MessageFiltersTest {
       assertThat(took).isLessThan(1000);
       assertThat(matched).isGreaterThan(0);
     }
+
+    @Test
+    void valueIsNotParsedIfScriptDoesNotUseIt() {
+      // content is read once to bind valueAsText, second read means that value was parsed
+      var msg = spy(msg().key("abc").content("{ \"name\" : \"user1\" }"));
+      assertTrue(groovyScriptFilter("keyAsText.startsWith('a')").test(msg));
+      verify(msg, times(1)).getContent();
+
+      var msgForValueScript = spy(msg().key("abc").content("{ \"name\" : \"user1\" }"));
+      assertTrue(groovyScriptFilter("value.name == 'user1'").test(msgForValueScript));
+      verify(msgForValueScript, times(2)).getContent();
+    }
   }
 
   private TopicMessageDTO msg() {
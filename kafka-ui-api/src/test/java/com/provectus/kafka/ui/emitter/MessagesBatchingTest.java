@@ -0,0 +1,85 @@
+package com.provectus.kafka.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import com.provectus.kafka.ui.model.TopicMessageEventDTO;
+import com.provectus.kafka.ui.model.TopicMessageEventDTO.TypeEnum;
+import com.provectus.kafka.ui.model.TopicMessagePhaseDTO;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class MessagesBatchingTest {
+
+  @Test
+  void consecutiveMessagesAreCoalescedAndOtherEventsKeepTheirOrder() {
+    var result = MessagesBatching.coalesce(
+        List.of(phase(), msg("1"), msg("2"), phase(), msg("3"), done()));
+
+    assertThat(result).extracting(TopicMessageEventDTO::getType)
+        .containsExactly(
+            TypeEnum.PHASE, TypeEnum.MESSAGES_BATCH, TypeEnum.PHASE, TypeEnum.MESSAGES_BATCH, TypeEnum.DONE);
+    assertThat(result.get(1).getMessages()).extracting(TopicMessageDTO::getContent).containsExactly("1", "2");
+    assertThat(result.get(3).getMessages()).extracting(TopicMessageDTO::getContent).containsExactly("3");
+  }
+
+  @Test
+  void batchIsSplitWhenMaxBytesExceeded() {
+    String bigContent = StringUtils.repeat('x', 400 * 1024);
+    var result = MessagesBatching.coalesce(
+        List.of(msg(bigContent), msg(bigContent), msg(bigContent), msg("small")));
+
+    assertThat(result).extracting(TopicMessageEventDTO::getType).containsOnly(TypeEnum.MESSAGES_BATCH);
+    assertThat(result).extracting(e -> e.getMessages().size()).containsExactly(2, 2);
+  }
+
+  @Test
+  void batchesAreFlushedByMessagesCount() {
+    var events = Flux.fromStream(IntStream.range(0, 250).mapToObj(i -> msg(i + "")));
+
+    StepVerifier.create(MessagesBatching.batch(events))
+        .expectNextMatches(e -> e.getMessages().size() == 100)
+        .expectNextMatches(e -> e.getMessages().size() == 100)
+        .expectNextMatches(e -> e.getMessages().size() == 50)
+        .verifyComplete();
+  }
+
+  @Test
+  void slowSubscriberReceivesAllMessagesWithoutOverflow() {
+    var received = new AtomicInteger();
+    // each message is delayed for more than linger time, so almost every message is flushed by timer
+    StepVerifier.withVirtualTime(() -> MessagesBatching.batch(
+                Flux.range(0, 1_000).delayElements(Duration.ofMillis(150)).map(i -> msg(i + ""))), 0)
+        .expectSubscription()
+        // no demand while all messages are polled
+        .thenAwait(Duration.ofMinutes(5))
+        .thenRequest(1)
+        .consumeNextWith(e -> received.addAndGet(e.getMessages().size()))
+        .thenRequest(Long.MAX_VALUE)
+        .thenAwait(Duration.ofMinutes(5))
+        .thenConsumeWhile(e -> true, e -> received.addAndGet(e.getMessages().size()))
+        .verifyComplete();
+
+    assertThat(received.get()).isEqualTo(1_000);
+  }
+
+  private static TopicMessageEventDTO msg(String content) {
+    return new TopicMessageEventDTO()
+        .type(TypeEnum.MESSAGE)
+        .message(new TopicMessageDTO().partition(0).offset(0L).content(content));
+  }
+
+  private static TopicMessageEventDTO phase() {
+    return new TopicMessageEventDTO().type(TypeEnum.PHASE).phase(new TopicMessagePhaseDTO().name("test"));
+  }
+
+  private static TopicMessageEventDTO done() {
+    return new TopicMessageEventDTO().type(TypeEnum.DONE);
+  }
+}
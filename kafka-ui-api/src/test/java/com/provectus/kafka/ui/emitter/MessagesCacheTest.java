@@ -0,0 +1,137 @@
+package com.provectus.kafka.ui.emitter;
+
+import static com.provectus.kafka.ui.serde.api.DeserializeResult.Type.STRING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.provectus.kafka.ui.serde.api.DeserializeResult;
+import com.provectus.kafka.ui.serde.api.Serde;
+import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
+import com.provectus.kafka.ui.util.ApplicationMetrics;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.Uuid;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.FluxSink;
+
+class MessagesCacheTest {
+
+  private final AtomicInteger deserialized = new AtomicInteger();
+  private final ConsumerRecordDeserializer deserializer = deserializer("String");
+  private final MessagesCache cache = new MessagesCache(10 * 1024 * 1024, ApplicationMetrics.noop());
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void cachedMessagesAreNotDeserializedAgain() {
+    var records = LongStream.range(0, 10).mapToObj(o -> consumerRecord(0, o)).toList();
+
+    new MessagesProcessing(deserializer, m -> true, true, null, cache)
+        .send(mock(FluxSink.class), records);
+    new MessagesProcessing(deserializer, m -> true, true, null, cache)
+        .send(mock(FluxSink.class), records);
+
+    assertThat(deserialized.get()).isEqualTo(10);
+  }
+
+  @Test
+  void rangeIsReturnedOnlyIfAllOffsetsAreCached() {
+    LongStream.range(0, 10).filter(o -> o != 5).forEach(o -> put(consumerRecord(0, o)));
+
+    var tp = new TopicPartition("topic", 0);
+    assertThat(cache.getRange(tp, 0, 5, deserializer))
+        .hasSize(5)
+        .allMatch(r -> r instanceof MessagesCache.CachedRecord)
+        .extracting(ConsumerRecord::offset)
+        .containsExactly(0L, 1L, 2L, 3L, 4L);
+    assertThat(cache.getRange(tp, 3, 8, deserializer)).isNull();
+    assertThat(cache.getRange(new TopicPartition("topic", 1), 0, 5, deserializer)).isNull();
+  }
+
+  @Test
+  void messagesAreCachedPerSerdesPair() {
+    put(consumerRecord(0, 0));
+
+    assertThat(cache.get(consumerRecord(0, 0), deserializer)).isNotNull();
+    assertThat(cache.get(consumerRecord(0, 0), deserializer("Int32"))).isNull();
+  }
+
+  @Test
+  void messagesAreInvalidatedWhenTopicIdChanged() {
+    var topicId = Uuid.randomUuid();
+    assertThat(cache.updateTopicId("topic", topicId)).isFalse();
+    put(consumerRecord(0, 0));
+
+    assertThat(cache.updateTopicId("topic", topicId)).isFalse();
+    assertThat(cache.get(consumerRecord(0, 0), deserializer)).isNotNull();
+
+    assertThat(cache.updateTopicId("topic", Uuid.randomUuid())).isTrue();
+    assertThat(cache.get(consumerRecord(0, 0), deserializer)).isNull();
+  }
+
+  @Test
+  void invalidationRemovesTopicPartitionsMessages() {
+    put(consumerRecord(0, 0));
+    put(consumerRecord(1, 0));
+    put(consumerRecord(2, 0));
+
+    cache.invalidatePartitions("topic", List.of(1));
+    assertThat(cache.get(consumerRecord(0, 0), deserializer)).isNotNull();
+    assertThat(cache.get(consumerRecord(1, 0), deserializer)).isNull();
+    assertThat(cache.get(consumerRecord(2, 0), deserializer)).isNotNull();
+
+    cache.invalidateTopic("topic");
+    assertThat(cache.get(consumerRecord(0, 0), deserializer)).isNull();
+    assertThat(cache.get(consumerRecord(2, 0), deserializer)).isNull();
+  }
+
+  @Test
+  void cacheSizeIsBoundedByMessagesWeight() {
+    var smallCache = new MessagesCache(100 * 1024, ApplicationMetrics.noop());
+    for (long offset = 0; offset < 1_000; offset++) {
+      var rec = consumerRecord(0, offset);
+      smallCache.put(rec, deserializer, deserializer.deserialize(rec));
+    }
+    long cached = LongStream.range(0, 1_000)
+        .filter(o -> smallCache.get(consumerRecord(0, o), deserializer) != null)
+        .count();
+    assertThat(cached).isPositive().isLessThan(1_000);
+  }
+
+  @Test
+  void disabledCacheDoesNotStoreMessages() {
+    var disabled = MessagesCache.disabled();
+    var rec = consumerRecord(0, 0);
+    disabled.put(rec, deserializer, deserializer.deserialize(rec));
+    assertThat(disabled.isEnabled()).isFalse();
+    assertThat(disabled.get(rec, deserializer)).isNull();
+  }
+
+  private void put(ConsumerRecord<Bytes, Bytes> rec) {
+    cache.put(rec, deserializer, deserializer.deserialize(rec));
+  }
+
+  private ConsumerRecordDeserializer deserializer(String serdeName) {
+    Serde.Deserializer deser = (headers, data) -> {
+      deserialized.incrementAndGet();
+      return new DeserializeResult(new String(data), STRING, Map.of());
+    };
+    return new ConsumerRecordDeserializer(serdeName, deser, serdeName, deser, "test", deser, deser, m -> m);
+  }
+
+  private static ConsumerRecord<Bytes, Bytes> consumerRecord(int partition, long offset) {
+    return new ConsumerRecord<>(
+        "topic", partition, offset, offset,
+        TimestampType.CREATE_TIME,
+        0, 0, null, Bytes.wrap(String.valueOf(offset).getBytes()), new RecordHeaders(), Optional.empty()
+    );
+  }
+
+}
@@ -1,20 +1,45 @@
 package com.provectus.kafka.ui.emitter;
 
+import static com.provectus.kafka.ui.serde.api.DeserializeResult.Type.STRING;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import com.provectus.kafka.ui.model.TopicMessageEventDTO;
+import com.provectus.kafka.ui.serde.api.DeserializeResult;
+import com.provectus.kafka.ui.serde.api.Serde;
+import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.record.TimestampType;
 import org.apache.kafka.common.utils.Bytes;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 class MessagesProcessingTest {
 
+  private static final Scheduler DESERIALIZATION_SCHEDULER = Schedulers.newParallel("test-deserialization", 4);
+
+  @AfterAll
+  static void disposeScheduler() {
+    DESERIALIZATION_SCHEDULER.dispose();
+  }
 
   @RepeatedTest(5)
   void testSortingAsc() {
@@ -58,6 +83,102 @@ class MessagesProcessingTest {
     assertThat(sortedList).containsExactlyElementsOf(messagesInOrder);
   }
 
+  @RepeatedTest(5)
+  void parallelProcessingKeepsSortingOrder() {
+    var records = IntStream.range(0, 1000)
+        .mapToObj(i -> consumerRecord(i % 3, i, 1000L + i))
+        .toList();
+
+    List<TopicMessageEventDTO> sent = new ArrayList<>();
+    FluxSink<TopicMessageEventDTO> sink = mock();
+    doAnswer(inv -> sent.add(inv.getArgument(0))).when(sink).next(any());
+
+    var processing = new MessagesProcessing(offsetDeserializer(new AtomicInteger()), m -> true, true, null,
+        DESERIALIZATION_SCHEDULER, 4, MessagesCache.disabled(), null, 0);
+    processing.send(sink, records);
+
+    assertThat(sent)
+        .extracting(e -> e.getMessage().getOffset())
+        .containsExactlyElementsOf(records.stream().map(ConsumerRecord::offset).toList());
+  }
+
+  @Test
+  void parallelProcessingStopsWhenLimitReached() {
+    var records = IntStream.range(0, 1000)
+        .mapToObj(i -> consumerRecord(0, i, 1000L + i))
+        .toList();
+
+    FluxSink<TopicMessageEventDTO> sink = mock();
+    var deserialized = new AtomicInteger();
+    var processing = new MessagesProcessing(offsetDeserializer(deserialized), m -> true, true, 10,
+        DESERIALIZATION_SCHEDULER, 4, MessagesCache.disabled(), null, 0);
+    processing.send(sink, records);
+
+    assertThat(processing.limitReached()).isTrue();
+    verify(sink, times(10)).next(any());
+    // only records within page limit should be deserialized
+    assertThat(deserialized.get()).isEqualTo(10);
+  }
+
+  @Test
+  void processingStopsWhenBytesBudgetExceeded() {
+    // contents are "100".."199" - 3 chars each, budget is exceeded by 4th message
+    var records = IntStream.range(100, 200)
+        .mapToObj(i -> consumerRecord(0, i, 1000L + i))
+        .toList();
+    long budget = 3 * (MessageSizeEstimator.MESSAGE_FIXED_SIZE_ESTIMATE + 3) + 1;
+
+    FluxSink<TopicMessageEventDTO> sink = mock();
+    var processing = new MessagesProcessing(
+        offsetDeserializer(new AtomicInteger()), m -> true, true, 100, null, 1, MessagesCache.disabled(), budget, 0);
+    processing.send(sink, records);
+
+    assertThat(processing.limitReached()).isTrue();
+    verify(sink, times(4)).next(any());
+  }
+
+  @Test
+  void longContentIsTruncated() {
+    var msg = new TopicMessageDTO().partition(1).offset(2L).key("k").content("0123456789");
+
+    var truncated = MessagesProcessing.truncated(msg, 4);
+    assertThat(truncated.getContent()).isEqualTo("0123");
+    assertThat(truncated.getKey()).isEqualTo("k");
+    assertThat(truncated.getTruncated()).isTrue();
+    assertThat(truncated.getOffset()).isEqualTo(2L);
+    // original message is not modified, since it can be stored in cache
+    assertThat(msg.getContent()).isEqualTo("0123456789");
+
+    assertThat(MessagesProcessing.truncated(msg, 10)).isSameAs(msg);
+    assertThat(MessagesProcessing.truncated(msg, 0)).isSameAs(msg);
+  }
+
+  @Test
+  void truncationDoesNotSplitSurrogatePair() {
+    String emoji = new String(Character.toChars(0x1F600));
+    var msg = new TopicMessageDTO().content("012" + emoji + "456");
+
+    // 4th char is high surrogate of emoji, so emoji is cut off completely
+    assertThat(MessagesProcessing.truncated(msg, 4).getContent()).isEqualTo("012");
+    assertThat(MessagesProcessing.truncated(msg, 5).getContent()).isEqualTo("012" + emoji);
+  }
+
+  private static ConsumerRecordDeserializer offsetDeserializer(AtomicInteger deserializedCounter) {
+    Serde.Deserializer deser = (headers, data) -> {
+      deserializedCounter.incrementAndGet();
+      return new DeserializeResult(new String(data), STRING, Map.of());
+    };
+    return new ConsumerRecordDeserializer("test", deser, "test", deser, "test", deser, deser, m -> m);
+  }
+
+  private ConsumerRecord<Bytes, Bytes> consumerRecord(int partition, long offset, long ts) {
+    return new ConsumerRecord<>(
+        "topic", partition, offset, ts,
+        TimestampType.CREATE_TIME,
+        0, 0, null, Bytes.wrap(String.valueOf(offset).getBytes()), new RecordHeaders(), Optional.empty()
+    );
+  }
+
   private ConsumerRecord<Bytes, Bytes> consumerRecord(int partition, long offset, String ts) {
     return new ConsumerRecord<>(
         "topic", partition, offset, OffsetDateTime.parse(ts).toInstant().toEpochMilli(),
@@ -0,0 +1,100 @@
+package com.provectus.kafka.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.provectus.kafka.ui.util.ApplicationMetrics;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+class PrefetchStoreTest {
+
+  private static final TopicPartition TP = new TopicPartition("topic", 0);
+
+  private final ApplicationMetrics metrics = ApplicationMetrics.noop();
+  private final PrefetchStore store = new PrefetchStore(metrics);
+
+  @Test
+  void returnsRecordsOnlyForRangesCoveredByPrefetchedRange() {
+    store.put(TP, 10, 20, records(10, 20), 100);
+
+    assertThat(store.get(TP, 10, 20))
+        .extracting(ConsumerRecord::offset)
+        .containsExactlyElementsOf(LongStream.range(10, 20).boxed().toList());
+    assertThat(store.get(TP, 12, 15))
+        .extracting(ConsumerRecord::offset)
+        .containsExactly(12L, 13L, 14L);
+
+    assertThat(store.get(TP, 5, 15)).isNull();
+    assertThat(store.get(TP, 15, 25)).isNull();
+    assertThat(store.get(new TopicPartition("topic", 1), 10, 20)).isNull();
+  }
+
+  @Test
+  void hitIsCountedOncePerPrefetch() {
+    store.put(TP, 10, 20, records(10, 20), 100);
+    store.get(TP, 10, 20);
+    store.get(TP, 10, 15);
+    store.get(TP, 0, 5);
+
+    assertThat(metrics.messagesPrefetches().count()).isEqualTo(1);
+    assertThat(metrics.messagesPrefetchHits().count()).isEqualTo(1);
+  }
+
+  @Test
+  void newPrefetchReplacesPartitionsPreviousRange() {
+    store.put(TP, 10, 20, records(10, 20), 100);
+    store.put(TP, 20, 30, records(20, 30), 100);
+
+    assertThat(store.get(TP, 10, 20)).isNull();
+    assertThat(store.get(TP, 20, 30)).hasSize(10);
+  }
+
+  @Test
+  void topicInvalidationRemovesItsRanges() {
+    var otherTopicTp = new TopicPartition("other", 0);
+    store.put(TP, 10, 20, records(10, 20), 100);
+    store.put(otherTopicTp, 10, 20, records(10, 20), 100);
+
+    store.invalidateTopic("topic");
+
+    assertThat(store.get(TP, 10, 20)).isNull();
+    assertThat(store.get(otherTopicTp, 10, 20)).hasSize(10);
+  }
+
+  @Test
+  void newPrefetchOfTopicCancelsPreviousOne() {
+    var firstCancelled = new AtomicBoolean();
+    var secondCancelled = new AtomicBoolean();
+    store.prefetchStarted("topic", () -> firstCancelled.set(true));
+    store.prefetchStarted("topic", () -> secondCancelled.set(true));
+
+    assertThat(firstCancelled).isTrue();
+    assertThat(secondCancelled).isFalse();
+
+    store.cancelAllPrefetches();
+    assertThat(secondCancelled).isTrue();
+  }
+
+  @Test
+  void finishedPrefetchIsNotCancelled() {
+    var cancelled = new AtomicBoolean();
+    Disposable cancellation = () -> cancelled.set(true);
+    store.prefetchStarted("topic", cancellation);
+    store.prefetchFinished("topic", cancellation);
+
+    store.cancelPrefetch("topic");
+    assertThat(cancelled).isFalse();
+  }
+
+  private static List<ConsumerRecord<Bytes, Bytes>> records(long from, long to) {
+    return LongStream.range(from, to)
+        .mapToObj(o -> new ConsumerRecord<Bytes, Bytes>("topic", 0, o, null, null))
+        .toList();
+  }
+}
@@ -0,0 +1,178 @@
+package com.provectus.kafka.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.provectus.kafka.ui.AbstractIntegrationTest;
+import com.provectus.kafka.ui.config.ClustersProperties;
+import com.provectus.kafka.ui.emitter.RangePollingEmitter.FromToOffset;
+import com.provectus.kafka.ui.model.ConsumerPosition;
+import com.provectus.kafka.ui.model.SeekTypeDTO;
+import com.provectus.kafka.ui.model.TopicMessageEventDTO;
+import com.provectus.kafka.ui.producer.KafkaTestProducer;
+import com.provectus.kafka.ui.serde.api.Serde;
+import com.provectus.kafka.ui.serdes.ConsumerRecordDeserializer;
+import com.provectus.kafka.ui.serdes.PropertyResolverImpl;
+import com.provectus.kafka.ui.serdes.builtin.StringSerde;
+import com.provectus.kafka.ui.util.ApplicationMetrics;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.shaded.org.awaitility.Awaitility;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class RangePollingEmitterTest extends AbstractIntegrationTest {
+
+  private static final int PAGE_SIZE = 20;
+
+  private final AtomicInteger createdConsumers = new AtomicInteger();
+  private final AtomicInteger closedConsumers = new AtomicInteger();
+
+  private String topic;
+  private PollingSettings pollingSettings;
+
+  @BeforeEach
+  void init() throws Exception {
+    topic = "RangePollingEmitterTest_" + UUID.randomUUID();
+    createTopic(new NewTopic(topic, 2, (short) 1));
+    long ts = System.currentTimeMillis();
+    try (var producer = KafkaTestProducer.forKafka(kafka)) {
+      // partitions records are interleaved by timestamps, so first page takes PAGE_SIZE / 2 records from each
+      for (int i = 0; i < 100; i++) {
+        producer.send(new ProducerRecord<>(topic, i % 2, ts + i, null, "msg_" + i)).get();
+      }
+    }
+    var cluster = new ClustersProperties.Cluster();
+    cluster.setName("prefetch-test");
+    var polling = new ClustersProperties.PollingProperties();
+    polling.setPagePrefetchMaxBytes(1024 * 1024);
+    var clustersProperties = new ClustersProperties();
+    clustersProperties.setPolling(polling);
+    pollingSettings = PollingSettings.create(cluster, clustersProperties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    deleteTopic(topic);
+    pollingSettings.close();
+  }
+
+  @Test
+  void nextPageIsPrefetchedAfterStreamCompletedAndConsumersAreReleased() {
+    var emitter = forwardEmitter(() -> Optional.of(createConsumer()));
+
+    StepVerifier.create(Flux.create(emitter))
+        .thenConsumeWhile(e -> e.getType() != TopicMessageEventDTO.TypeEnum.DONE)
+        .expectNextMatches(e -> e.getType() == TopicMessageEventDTO.TypeEnum.DONE)
+        .expectComplete()
+        .verify(Duration.ofSeconds(60));
+
+    Awaitility.await()
+        .atMost(Duration.ofSeconds(30))
+        .untilAsserted(() -> {
+          var store = pollingSettings.getPrefetchStore();
+          assertThat(store.get(new TopicPartition(topic, 0), 10, 20)).hasSize(10);
+          assertThat(store.get(new TopicPartition(topic, 1), 10, 20)).hasSize(10);
+          // page's and prefetch consumers
+          assertThat(createdConsumers.get()).isEqualTo(2);
+          assertThat(closedConsumers.get()).isEqualTo(2);
+        });
+  }
+
+  @Test
+  void prefetchIsSkippedIfAdditionalConsumerIsNotAvailable() {
+    var emitter = forwardEmitter(Optional::empty);
+    var range = new TreeMap<TopicPartition, FromToOffset>(Comparator.comparingInt(TopicPartition::partition));
+    range.put(new TopicPartition(topic, 0), new FromToOffset(10, 20));
+
+    emitter.prefetchNextPage(range, () -> false);
+
+    assertThat(pollingSettings.getPrefetchStore().get(new TopicPartition(topic, 0), 10, 20)).isNull();
+    assertThat(createdConsumers.get()).isZero();
+  }
+
+  @Test
+  void cancelledPrefetchStopsPollingAndReleasesConsumer() {
+    var emitter = forwardEmitter(() -> Optional.of(createConsumer()));
+    var range = new TreeMap<TopicPartition, FromToOffset>(Comparator.comparingInt(TopicPartition::partition));
+    range.put(new TopicPartition(topic, 0), new FromToOffset(10, 20));
+
+    // cancelled right after prefetch consumer is leased
+    emitter.prefetchNextPage(range, () -> createdConsumers.get() > 0);
+
+    assertThat(pollingSettings.getPrefetchStore().get(new TopicPartition(topic, 0), 10, 20)).isNull();
+    assertThat(createdConsumers.get()).isEqualTo(1);
+    assertThat(closedConsumers.get()).isEqualTo(1);
+  }
+
+  @Test
+  void newRequestForSameTopicCancelsInFlightPrefetch() {
+    var cancelled = new AtomicBoolean();
+    pollingSettings.getPrefetchStore().prefetchStarted(topic, () -> cancelled.set(true));
+
+    StepVerifier.create(Flux.create(forwardEmitter(Optional::empty)))
+        .thenConsumeWhile(e -> e.getType() != TopicMessageEventDTO.TypeEnum.DONE)
+        .expectNextMatches(e -> e.getType() == TopicMessageEventDTO.TypeEnum.DONE)
+        .expectComplete()
+        .verify(Duration.ofSeconds(60));
+
+    assertThat(cancelled).isTrue();
+  }
+
+  private ForwardEmitter forwardEmitter(Supplier<Optional<EnhancedConsumer>> additionalConsumerSupplier) {
+    return new ForwardEmitter(
+        this::createConsumer,
+        new ConsumerPosition(SeekTypeDTO.BEGINNING, topic, null),
+        PAGE_SIZE,
+        createDeserializer(),
+        m -> true,
+        pollingSettings,
+        RangePollingOptions.builder().additionalConsumerSupplier(additionalConsumerSupplier).build()
+    );
+  }
+
+  private EnhancedConsumer createConsumer() {
+    Properties props = new Properties();
+    props.putAll(Map.of(
+        ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers(),
+        ConsumerConfig.GROUP_ID_CONFIG, UUID.randomUUID().toString()
+    ));
+    createdConsumers.incrementAndGet();
+    return new EnhancedConsumer(props, PollingThrottler.noop(), ApplicationMetrics.noop()) {
+      @Override
+      public void close(Duration timeout) {
+        closedConsumers.incrementAndGet();
+        super.close(timeout);
+      }
+    };
+  }
+
+  private static ConsumerRecordDeserializer createDeserializer() {
+    Serde s = new StringSerde();
+    s.configure(PropertyResolverImpl.empty(), PropertyResolverImpl.empty(), PropertyResolverImpl.empty());
+    return new ConsumerRecordDeserializer(
+        StringSerde.name(),
+        s.deserializer(null, Serde.Target.KEY),
+        StringSerde.name(),
+        s.deserializer(null, Serde.Target.VALUE),
+        StringSerde.name(),
+        s.deserializer(null, Serde.Target.KEY),
+        s.deserializer(null, Serde.Target.VALUE),
+        msg -> msg
+    );
+  }
+}
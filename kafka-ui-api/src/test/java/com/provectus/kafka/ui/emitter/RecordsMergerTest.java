@@ -0,0 +1,94 @@
+package com.provectus.kafka.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Optional;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
+import org.junit.jupiter.api.Test;
+
+class RecordsMergerTest {
+
+  @Test
+  void recordsAreReleasedWhenAllPartitionsPassedTheirTimestamps() {
+    var merger = new RecordsMerger(true);
+    merger.register(List.of(0, 1));
+
+    merger.add(List.of(rec(0, 0, 10), rec(0, 1, 20), rec(0, 2, 30)));
+    // partition 1 has no records yet - nothing can be released
+    assertThat(offsets(merger)).isEmpty();
+
+    merger.add(List.of(rec(1, 1, 25), rec(1, 0, 15)));
+    assertThat(offsets(merger)).containsExactly("0-0", "1-0", "0-1", "1-1");
+
+    // partition 0's record with ts=30 is held until partition 1 passes it
+    merger.add(List.of(rec(1, 2, 35)));
+    assertThat(offsets(merger)).containsExactly("0-2");
+
+    merger.finish(0);
+    merger.finish(1);
+    assertThat(offsets(merger)).containsExactly("1-2");
+    assertThat(merger.lastAddedOffset(0)).isEqualTo(2L);
+    assertThat(merger.lastAddedOffset(1)).isEqualTo(2L);
+    assertThat(merger.lastAddedOffset(2)).isNull();
+  }
+
+  @Test
+  void descendingMergeKeepsPartitionsOffsetsOrder() {
+    var merger = new RecordsMerger(false);
+    merger.register(List.of(0, 1));
+
+    merger.add(List.of(rec(0, 8, 80), rec(0, 9, 90), rec(1, 4, 85), rec(1, 5, 95)));
+    assertThat(offsets(merger)).containsExactly("1-5", "0-9", "1-4");
+
+    merger.finish(1);
+    merger.add(List.of(rec(0, 7, 70)));
+    merger.finish(0);
+    assertThat(offsets(merger)).containsExactly("0-8", "0-7");
+  }
+
+  @Test
+  void partitionIsFullUntilItsQueuedRecordsAreReleased() {
+    var merger = new RecordsMerger(true, 3);
+    merger.register(List.of(0, 1));
+
+    merger.add(List.of(rec(0, 0, 10), rec(0, 1, 20), rec(0, 2, 30), rec(0, 3, 40)));
+    assertThat(merger.isFull(0)).isTrue();
+    assertThat(merger.isFull(1)).isFalse();
+    // partition 0 records are waiting for partition 1
+    assertThat(offsets(merger)).isEmpty();
+
+    merger.add(List.of(rec(1, 0, 25)));
+    assertThat(offsets(merger)).containsExactly("0-0", "0-1", "1-0");
+    assertThat(merger.isFull(0)).isFalse();
+  }
+
+  @Test
+  void notTakenRecordsAreReturnedByNextCall() {
+    var merger = new RecordsMerger(true);
+    merger.add(List.of(rec(0, 0, 1), rec(0, 1, 2), rec(0, 2, 3)));
+    merger.finish(0);
+
+    var it = merger.ready();
+    assertThat(it.next().offset()).isZero();
+    assertThat(offsets(merger)).containsExactly("0-1", "0-2");
+  }
+
+  private static List<String> offsets(RecordsMerger merger) {
+    return Lists.newArrayList(merger.ready()).stream()
+        .map(r -> r.partition() + "-" + r.offset())
+        .toList();
+  }
+
+  private static ConsumerRecord<Bytes, Bytes> rec(int partition, long offset, long timestamp) {
+    return new ConsumerRecord<>(
+        "topic", partition, offset, timestamp,
+        TimestampType.CREATE_TIME,
+        0, 0, null, null, new RecordHeaders(), Optional.empty()
+    );
+  }
+}
@@ -83,6 +83,24 @@ class SeekOperationsTest {
       );
       assertThat(offsets).containsExactlyInAnyOrderEntriesOf(Map.of(tp2, 20L, tp3, 25L));
     }
+
+    @Test
+    void timestampsResolvedFromIndexWithoutBrokerRequest() {
+      var index = new TimestampIndex();
+      index.record(tp2, 1_000L, 5L);
+      index.record(tp2, 2_000L, 5L);
+      index.record(tp3, 1_500L, 27L);
+
+      // MockConsumer does not support offsetsForTimes, so this will fail if broker is requested
+      var offsets = SeekOperations.getOffsetsForSeek(
+          consumer,
+          new OffsetsInfo(consumer, topic),
+          SeekTypeDTO.TIMESTAMP,
+          Map.of(tp1, 1_500L, tp2, 1_500L, tp3, 1_500L),
+          index
+      );
+      assertThat(offsets).containsExactlyInAnyOrderEntriesOf(Map.of(tp2, 5L, tp3, 27L));
+    }
   }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.provectus.kafka.ui.AbstractIntegrationTest;
 import com.provectus.kafka.ui.model.ConsumerPosition;
 import com.provectus.kafka.ui.model.MessageFilterTypeDTO;
+import com.provectus.kafka.ui.model.MessagesRequest;
 import com.provectus.kafka.ui.model.SeekDirectionDTO;
 import com.provectus.kafka.ui.model.SeekTypeDTO;
 import com.provectus.kafka.ui.model.TopicMessageEventDTO;
@@ -102,6 +103,63 @@ class TailingEmitterTest extends AbstractIntegrationTest {
         );
   }
 
+  @Test
+  void sessionsSharingConsumerReceiveMessagesMatchingTheirOwnFilters() throws Exception {
+    var goodOutput = startTailing("good");
+    List<TopicMessageEventDTO> badOutput = new CopyOnWriteArrayList<>();
+    Disposable secondSession = createTailingFlux(topic, "bad")
+        .doOnNext(badOutput::add)
+        .subscribe();
+    try {
+      waitUntilTailingInitialized(badOutput);
+
+      List<String> expectedGood = new ArrayList<>();
+      List<String> expectedBad = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        String value = i + (i % 2 == 0 ? "_good" : "_bad");
+        producer.send(new ProducerRecord<>(topic, i + "", value)).get();
+        (i % 2 == 0 ? expectedGood : expectedBad).add(value);
+      }
+
+      Awaitility.await()
+          .atMost(Duration.ofSeconds(60))
+          .pollInSameThread()
+          .untilAsserted(() -> {
+            assertThat(goodOutput)
+                .filteredOn(msg -> msg.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+                .extracting(msg -> msg.getMessage().getContent())
+                .hasSameElementsAs(expectedGood);
+            assertThat(badOutput)
+                .filteredOn(msg -> msg.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+                .extracting(msg -> msg.getMessage().getContent())
+                .hasSameElementsAs(expectedBad);
+          });
+    } finally {
+      secondSession.dispose();
+    }
+  }
+
+  @Test
+  void newSessionReceivesMessagesAfterPreviousSessionsLeft() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      // previous session is cancelled right after initialization, new one should start new shared polling
+      startTailing(null);
+      tailingFluxDispose.dispose();
+    }
+    var fluxOutput = startTailing(null);
+    producer.send(new ProducerRecord<>(topic, "key", "value")).get();
+
+    Awaitility.await()
+        .atMost(Duration.ofSeconds(60))
+        .pollInSameThread()
+        .untilAsserted(() ->
+            assertThat(fluxOutput)
+                .filteredOn(msg -> msg.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+                .extracting(msg -> msg.getMessage().getContent())
+                .containsExactly("value")
+        );
+  }
+
   private Flux<TopicMessageEventDTO> createTailingFlux(
       String topicName,
       String query) {
@@ -111,13 +169,15 @@ class TailingEmitterTest extends AbstractIntegrationTest {
 
     return applicationContext.getBean(MessagesService.class)
         .loadMessages(cluster, topicName,
-            new ConsumerPosition(SeekTypeDTO.LATEST, topic, null),
-            query,
-            MessageFilterTypeDTO.STRING_CONTAINS,
-            0,
-            SeekDirectionDTO.TAILING,
-            "String",
-            "String");
+            MessagesRequest.builder()
+                .consumerPosition(new ConsumerPosition(SeekTypeDTO.LATEST, topic, null))
+                .query(query)
+                .filterQueryType(MessageFilterTypeDTO.STRING_CONTAINS)
+                .pageSize(0)
+                .seekDirection(SeekDirectionDTO.TAILING)
+                .keySerde("String")
+                .valueSerde("String")
+                .build());
   }
 
   private List<TopicMessageEventDTO> startTailing(String filterQuery) {
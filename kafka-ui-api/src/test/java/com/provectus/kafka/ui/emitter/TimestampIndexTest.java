@@ -0,0 +1,79 @@
+package com.provectus.kafka.ui.emitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TimestampIndexTest {
+
+  @Test
+  void resolvesExactAndEnclosedTimestamps() {
+    var index = new TimestampIndex.PartitionIndex(16);
+    index.add(1_000, 10);
+    index.add(2_000, 10);
+    index.add(3_000, 20);
+
+    assertThat(index.lookup(1_000, 0, 1_000)).isEqualTo(10L);
+    assertThat(index.lookup(3_000, 0, 1_000)).isEqualTo(20L);
+    // between points with same offsets
+    assertThat(index.lookup(1_500, 0, 1_000)).isEqualTo(10L);
+    // between points with different offsets
+    assertThat(index.lookup(2_500, 0, 1_000)).isNull();
+    // after last point
+    assertThat(index.lookup(3_500, 0, 1_000)).isNull();
+    // before first point
+    assertThat(index.lookup(500, 0, 1_000)).isNull();
+    assertThat(index.lookup(500, 10, 1_000)).isEqualTo(10L);
+  }
+
+  @Test
+  void pointsBeforeBeginOffsetAreDropped() {
+    var index = new TimestampIndex.PartitionIndex(16);
+    index.add(1_000, 10);
+    index.add(2_000, 10);
+    index.add(3_000, 20);
+
+    assertThat(index.lookup(1_500, 15, 1_000)).isNull();
+    assertThat(index.size()).isEqualTo(1);
+    assertThat(index.lookup(3_000, 15, 1_000)).isEqualTo(20L);
+  }
+
+  @Test
+  void sizeIsBoundedByCapacity() {
+    var index = new TimestampIndex.PartitionIndex(8);
+    for (int i = 0; i < 100; i++) {
+      index.add(i * 1_000L, i);
+    }
+    assertThat(index.size()).isLessThanOrEqualTo(8);
+    assertThat(index.lookup(99_000, 0, 1_000)).isEqualTo(99L);
+  }
+
+  @Test
+  void pointsAfterEndOffsetAreDropped() {
+    var index = new TimestampIndex.PartitionIndex(16);
+    index.add(1_000, 10);
+    index.add(2_000, 10);
+    index.add(3_000, 20);
+
+    // partition was truncated
+    assertThat(index.lookup(3_000, 0, 15)).isNull();
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.lookup(1_500, 0, 15)).isEqualTo(10L);
+  }
+
+  @Test
+  void pointsContradictingNewPointAreDropped() {
+    var index = new TimestampIndex.PartitionIndex(16);
+    index.add(1_000, 100);
+    index.add(2_000, 100);
+    index.add(3_000, 200);
+    // partition was re-created, offsets started from scratch
+    index.add(2_500, 5);
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.lookup(2_500, 0, 10)).isEqualTo(5L);
+    assertThat(index.lookup(1_500, 0, 10)).isNull();
+    assertThat(index.size()).isEqualTo(1);
+  }
+
+}
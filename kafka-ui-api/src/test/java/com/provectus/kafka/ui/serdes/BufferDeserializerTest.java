@@ -0,0 +1,77 @@
+package com.provectus.kafka.ui.serdes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.provectus.kafka.ui.serde.api.DeserializeResult;
+import com.provectus.kafka.ui.serde.api.Serde;
+import com.provectus.kafka.ui.serdes.builtin.Base64Serde;
+import com.provectus.kafka.ui.serdes.builtin.HexSerde;
+import com.provectus.kafka.ui.serdes.builtin.Int32Serde;
+import com.provectus.kafka.ui.serdes.builtin.Int64Serde;
+import com.provectus.kafka.ui.serdes.builtin.StringSerde;
+import com.provectus.kafka.ui.serdes.builtin.UuidBinarySerde;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class BufferDeserializerTest {
+
+  @Test
+  void builtInSerdesDecodeSlicesSameWayAsArrays() {
+    assertDecodedSameWay(new StringSerde(), "hello world".getBytes());
+    assertDecodedSameWay(new Base64Serde(), "hello world".getBytes());
+    assertDecodedSameWay(new Int32Serde(), ByteBuffer.allocate(4).putInt(-1234).array());
+    assertDecodedSameWay(new Int64Serde(), ByteBuffer.allocate(8).putLong(Long.MAX_VALUE - 1).array());
+
+    var uuid = UUID.randomUUID();
+    var uuidBytes = ByteBuffer.allocate(16)
+        .putLong(uuid.getMostSignificantBits())
+        .putLong(uuid.getLeastSignificantBits())
+        .array();
+    assertDecodedSameWay(new UuidBinarySerde(), uuidBytes);
+
+    var hexSerde = new HexSerde();
+    hexSerde.autoConfigure(PropertyResolverImpl.empty(), PropertyResolverImpl.empty());
+    assertDecodedSameWay(hexSerde, "hello world".getBytes());
+  }
+
+  @Test
+  void defaultBufferDeserializationReusesArrayWrappedByBuffer() {
+    List<byte[]> passed = new ArrayList<>();
+    Serde.Deserializer deserializer = (headers, data) -> {
+      passed.add(data);
+      return new DeserializeResult("", DeserializeResult.Type.STRING, Map.of());
+    };
+    byte[] data = "hello world".getBytes();
+
+    deserializer.deserialize(new RecordHeadersImpl(), ByteBuffer.wrap(data));
+    deserializer.deserialize(new RecordHeadersImpl(), ByteBuffer.wrap(data, 1, 5));
+
+    assertThat(passed.get(0)).isSameAs(data);
+    assertThat(passed.get(1)).isNotSameAs(data).isEqualTo("ello ".getBytes());
+  }
+
+  private static void assertDecodedSameWay(Serde serde, byte[] data) {
+    var deserializer = serde.deserializer("topic", Serde.Target.VALUE);
+    var expected = deserializer.deserialize(new RecordHeadersImpl(), data).getResult();
+
+    // data placed in the middle of a bigger array, and buffer has non-default byte order
+    byte[] padded = new byte[data.length + 10];
+    Arrays.fill(padded, (byte) 0x7f);
+    System.arraycopy(data, 0, padded, 5, data.length);
+    var slice = ByteBuffer.wrap(padded, 5, data.length).slice().order(ByteOrder.LITTLE_ENDIAN);
+
+    assertThat(deserializer.deserialize(new RecordHeadersImpl(), slice).getResult()).isEqualTo(expected);
+    // buffer's state is not changed
+    assertThat(slice.position()).isZero();
+    assertThat(slice.remaining()).isEqualTo(data.length);
+
+    var direct = ByteBuffer.allocateDirect(data.length).put(data).flip();
+    assertThat(deserializer.deserialize(new RecordHeadersImpl(), direct).getResult()).isEqualTo(expected);
+  }
+}
@@ -1,14 +1,24 @@
 package com.provectus.kafka.ui.serdes;
 
+import static com.provectus.kafka.ui.serde.api.DeserializeResult.Type.JSON;
 import static com.provectus.kafka.ui.serde.api.DeserializeResult.Type.STRING;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.provectus.kafka.ui.model.TopicMessageDTO;
+import com.provectus.kafka.ui.model.TopicMessageEventDTO;
+import com.provectus.kafka.ui.serde.api.DeserializeInput;
+import com.provectus.kafka.ui.serde.api.DeserializeOutput;
 import com.provectus.kafka.ui.serde.api.DeserializeResult;
+import com.provectus.kafka.ui.serde.api.RecordHeaders;
 import com.provectus.kafka.ui.serde.api.Serde;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.UnaryOperator;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.utils.Bytes;
@@ -27,4 +37,145 @@ class ConsumerRecordDeserializerTest {
     verify(maskerMock).apply(any(TopicMessageDTO.class));
   }
 
+  @Test
+  void jsonContentIsWrittenAsRawValueWhenRequested() throws Exception {
+    Serde.Deserializer jsonDeser = (headers, data) -> new DeserializeResult(new String(data), JSON, Map.of());
+    Serde.Deserializer stringDeser = (headers, data) -> new DeserializeResult(new String(data), STRING, Map.of());
+    var mapper = new ObjectMapper().findAndRegisterModules();
+
+    var jsonMsg = new ConsumerRecordDeserializer(
+        "test", stringDeser, "test", jsonDeser, "test", stringDeser, stringDeser, UnaryOperator.identity())
+        .deserialize(new ConsumerRecord<>("t", 1, 1L, null, Bytes.wrap("{\"f\":1}".getBytes())));
+    var stringMsg = new ConsumerRecordDeserializer(
+        "test", stringDeser, "test", stringDeser, "test", stringDeser, stringDeser, UnaryOperator.identity())
+        .deserialize(new ConsumerRecord<>("t", 1, 1L, null, Bytes.wrap("{\"f\":1}".getBytes())));
+
+    var rawEvent = DeserializedTopicMessage.withRawJsonContent(
+        new TopicMessageEventDTO().type(TopicMessageEventDTO.TypeEnum.MESSAGE).message(jsonMsg));
+    assertThat(mapper.readTree(mapper.writeValueAsString(rawEvent)).at("/message/content").isObject()).isTrue();
+    // original message (that can be cached) is not changed
+    assertThat(mapper.readTree(mapper.writeValueAsString(jsonMsg)).get("content").isTextual()).isTrue();
+
+    var stringEvent = DeserializedTopicMessage.withRawJsonContent(
+        new TopicMessageEventDTO().type(TopicMessageEventDTO.TypeEnum.MESSAGE).message(stringMsg));
+    assertThat(mapper.readTree(mapper.writeValueAsString(stringEvent)).at("/message/content").isTextual()).isTrue();
+  }
+
+  @Test
+  void invalidJsonContentIsWrittenAsStringEvenIfSerdeReportsJsonType() throws Exception {
+    Serde.Deserializer jsonDeser = (headers, data) -> new DeserializeResult(new String(data), JSON, Map.of());
+    var mapper = new ObjectMapper().findAndRegisterModules();
+    var recordDeser = new ConsumerRecordDeserializer(
+        "test", jsonDeser, "test", jsonDeser, "test", jsonDeser, jsonDeser, UnaryOperator.identity());
+
+    for (String invalid : List.of("{\"f\":1", "{\"f\":1}, \"injected\": true", "not json", "1 2")) {
+      var msg = recordDeser.deserialize(new ConsumerRecord<>("t", 1, 1L, null, Bytes.wrap(invalid.getBytes())));
+      var event = DeserializedTopicMessage.withRawJsonContent(
+          new TopicMessageEventDTO().type(TopicMessageEventDTO.TypeEnum.MESSAGE).message(msg));
+      var content = mapper.readTree(mapper.writeValueAsString(event)).at("/message/content");
+      assertThat(content.isTextual()).isTrue();
+      assertThat(content.asText()).isEqualTo(invalid);
+    }
+  }
+
+  @Test
+  void jsonContentOfBuiltInSerdeIsEmbeddedWithoutValidation() throws Exception {
+    Serde.Deserializer jsonDeser = (headers, data) -> new DeserializeResult(new String(data), JSON, Map.of());
+    var recordDeser = new ConsumerRecordDeserializer(
+        "test", jsonDeser, "test", jsonDeser, "test", jsonDeser, jsonDeser, UnaryOperator.identity(), false, true);
+
+    // content is not parsed for built-in serde, so even malformed content is embedded as is
+    var msg = recordDeser.deserialize(new ConsumerRecord<>("t", 1, 1L, null, Bytes.wrap("{\"f\":1".getBytes())));
+    var event = DeserializedTopicMessage.withRawJsonContent(
+        new TopicMessageEventDTO().type(TopicMessageEventDTO.TypeEnum.MESSAGE).message(msg));
+    assertThat(new ObjectMapper().findAndRegisterModules().writeValueAsString(event))
+        .contains("\"content\":{\"f\":1");
+  }
+
+  @Test
+  void batchDeserializationCallsSerdeOnceForAllRecords() {
+    var batchCalls = new AtomicInteger();
+    Serde.Deserializer deser = new Serde.Deserializer() {
+      @Override
+      public DeserializeResult deserialize(RecordHeaders headers, byte[] data) {
+        throw new IllegalStateException("should not be called");
+      }
+
+      @Override
+      public List<DeserializeOutput> deserializeBatch(List<DeserializeInput> batch) {
+        batchCalls.incrementAndGet();
+        return batch.stream()
+            .map(in -> StandardCharsets.UTF_8.decode(in.getData().duplicate()).toString())
+            .map(data -> DeserializeOutput.success(new DeserializeResult("batch-" + data, STRING, Map.of())))
+            .toList();
+      }
+    };
+    var recordDeser = new ConsumerRecordDeserializer(
+        "test", deser, "test", deser, "fallback", deser, deser, UnaryOperator.identity());
+
+    var messages = recordDeser.deserialize(List.of(
+        new ConsumerRecord<>("t", 1, 1L, Bytes.wrap("k1".getBytes()), Bytes.wrap("v1".getBytes())),
+        new ConsumerRecord<>("t", 1, 2L, null, Bytes.wrap("v2".getBytes())),
+        new ConsumerRecord<>("t", 1, 3L, Bytes.wrap("k3".getBytes()), null)
+    ));
+
+    // one call for keys, one for values
+    assertThat(batchCalls.get()).isEqualTo(2);
+    assertThat(messages).extracting(TopicMessageDTO::getKey).containsExactly("batch-k1", null, "batch-k3");
+    assertThat(messages).extracting(TopicMessageDTO::getContent).containsExactly("batch-v1", "batch-v2", null);
+  }
+
+  @Test
+  void onlyRecordsFailedWithinBatchAreDeserializedWithFallbackSerde() {
+    Serde.Deserializer deser = new Serde.Deserializer() {
+      @Override
+      public DeserializeResult deserialize(RecordHeaders headers, byte[] data) {
+        throw new IllegalStateException("should not be called");
+      }
+
+      @Override
+      public List<DeserializeOutput> deserializeBatch(List<DeserializeInput> batch) {
+        return batch.stream()
+            .map(in -> StandardCharsets.UTF_8.decode(in.getData().duplicate()).toString())
+            .map(data -> data.equals("bad")
+                ? DeserializeOutput.failure(new IllegalArgumentException("bad data"))
+                : DeserializeOutput.success(new DeserializeResult("batch-" + data, STRING, Map.of())))
+            .toList();
+      }
+    };
+    Serde.Deserializer fallback = (headers, data) -> new DeserializeResult("fallback", STRING, Map.of());
+    var recordDeser = new ConsumerRecordDeserializer(
+        "test", deser, "test", deser, "fallback", fallback, fallback, UnaryOperator.identity());
+
+    var messages = recordDeser.deserialize(List.of(
+        new ConsumerRecord<>("t", 1, 1L, null, Bytes.wrap("1".getBytes())),
+        new ConsumerRecord<>("t", 1, 2L, null, Bytes.wrap("bad".getBytes())),
+        new ConsumerRecord<>("t", 1, 3L, null, Bytes.wrap("3".getBytes()))
+    ));
+
+    assertThat(messages).extracting(TopicMessageDTO::getContent).containsExactly("batch-1", "fallback", "batch-3");
+    assertThat(messages).extracting(TopicMessageDTO::getValueSerde).containsExactly("test", "fallback", "test");
+  }
+
+  @Test
+  void recordsAreDeserializedOneByOneWhenBatchDeserializationFails() {
+    Serde.Deserializer deser = (headers, data) -> {
+      if (new String(data).equals("bad")) {
+        throw new IllegalArgumentException("bad data");
+      }
+      return new DeserializeResult(new String(data), JSON, Map.of());
+    };
+    Serde.Deserializer fallback = (headers, data) -> new DeserializeResult("fallback", STRING, Map.of());
+    var recordDeser = new ConsumerRecordDeserializer(
+        "test", deser, "test", deser, "fallback", fallback, fallback, UnaryOperator.identity());
+
+    var messages = recordDeser.deserialize(List.of(
+        new ConsumerRecord<>("t", 1, 1L, null, Bytes.wrap("1".getBytes())),
+        new ConsumerRecord<>("t", 1, 2L, null, Bytes.wrap("bad".getBytes()))
+    ));
+
+    assertThat(messages).extracting(TopicMessageDTO::getContent).containsExactly("1", "fallback");
+    assertThat(messages).extracting(TopicMessageDTO::getValueSerde).containsExactly("test", "fallback");
+  }
+
 }
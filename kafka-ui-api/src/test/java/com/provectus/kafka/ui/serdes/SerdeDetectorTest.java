@@ -0,0 +1,125 @@
+package com.provectus.kafka.ui.serdes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.protobuf.CodedOutputStream;
+import com.provectus.kafka.ui.serde.api.Serde;
+import com.provectus.kafka.ui.serdes.builtin.AvroEmbeddedSerde;
+import com.provectus.kafka.ui.serdes.builtin.ProtobufRawSerde;
+import com.provectus.kafka.ui.serdes.builtin.StringSerde;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.utils.Bytes;
+import org.junit.jupiter.api.Test;
+
+class SerdeDetectorTest {
+
+  private final ClusterSerdes serdes = clusterSerdes();
+
+  @Test
+  void jsonAndTextDataIsDetectedAsString() {
+    var sample = sample(i -> ("{\"id\": " + i + ", \"name\": \"тест\"}").getBytes(StandardCharsets.UTF_8));
+    assertThat(SerdeDetector.detect(serdes, "topic", Serde.Target.VALUE, sample))
+        .contains(StringSerde.name());
+  }
+
+  @Test
+  void protobufDataIsDetectedAsRawProtobuf() {
+    var sample = sample(SerdeDetectorTest::protobuf);
+    assertThat(SerdeDetector.detect(serdes, "topic", Serde.Target.VALUE, sample))
+        .contains(ProtobufRawSerde.name());
+  }
+
+  @Test
+  void avroContainerDataIsDetectedAsAvroEmbedded() {
+    var sample = sample(SerdeDetectorTest::avroContainer);
+    assertThat(SerdeDetector.detect(serdes, "topic", Serde.Target.VALUE, sample))
+        .contains(AvroEmbeddedSerde.name());
+  }
+
+  @Test
+  void nothingDetectedWhenSamplesHaveDifferentFormatsOrNoData() {
+    var mixed = sample(i -> i % 2 == 0 ? protobuf(i) : avroContainer(i));
+    assertThat(SerdeDetector.detect(serdes, "topic", Serde.Target.VALUE, mixed)).isEmpty();
+    // keys are nulls in sample
+    assertThat(SerdeDetector.detect(serdes, "topic", Serde.Target.KEY, mixed)).isEmpty();
+  }
+
+  @Test
+  void formatChecks() {
+    assertThat(SerdeDetector.hasSchemaRegistryHeader(new byte[] {0, 0, 0, 0, 1, 2})).isTrue();
+    assertThat(SerdeDetector.hasSchemaRegistryHeader(new byte[] {0, 0, 1})).isFalse();
+
+    assertThat(SerdeDetector.isUtf8Text("plain text ☺\n".getBytes(StandardCharsets.UTF_8))).isTrue();
+    assertThat(SerdeDetector.isUtf8Text(new byte[] {'a', 0, 'b'})).isFalse();
+    assertThat(SerdeDetector.isUtf8Text(new byte[] {(byte) 0xC3, (byte) 0x28})).isFalse();
+
+    assertThat(SerdeDetector.isProtobufWireData(protobuf(-1))).isTrue();
+    // field number 0
+    assertThat(SerdeDetector.isProtobufWireData(new byte[] {0, 1})).isFalse();
+    // length-delimited field that is longer than data
+    assertThat(SerdeDetector.isProtobufWireData(new byte[] {0x0A, 5, 1})).isFalse();
+    // truncated varint
+    assertThat(SerdeDetector.isProtobufWireData(new byte[] {0x08, (byte) 0x80})).isFalse();
+  }
+
+  private static List<ConsumerRecord<Bytes, Bytes>> sample(IntFunction<byte[]> valueGenerator) {
+    return IntStream.range(0, 10)
+        .mapToObj(i -> new ConsumerRecord<Bytes, Bytes>("topic", 0, i, null, Bytes.wrap(valueGenerator.apply(i))))
+        .toList();
+  }
+
+  @SneakyThrows
+  private static byte[] protobuf(int i) {
+    var out = new ByteArrayOutputStream();
+    var coded = CodedOutputStream.newInstance(out);
+    coded.writeInt64(1, i);
+    coded.writeString(2, "name-" + i);
+    coded.writeFixed64(3, 100L * i);
+    coded.writeFloat(4, i / 2f);
+    coded.flush();
+    return out.toByteArray();
+  }
+
+  @SneakyThrows
+  private static byte[] avroContainer(int i) {
+    Schema schema = new Schema.Parser().parse("""
+        {
+          "type": "record",
+          "name": "TestAvroRecord",
+          "fields": [ { "name": "field1", "type": "int" } ]
+        }
+        """
+    );
+    GenericRecord record = new GenericData.Record(schema);
+    record.put("field1", i);
+    var out = new ByteArrayOutputStream();
+    try (var writer = new DataFileWriter<GenericRecord>(new GenericDatumWriter<>(schema))) {
+      writer.create(schema, out);
+      writer.append(record);
+    }
+    return out.toByteArray();
+  }
+
+  private static ClusterSerdes clusterSerdes() {
+    Map<String, SerdeInstance> serdes = new LinkedHashMap<>();
+    serdes.put(StringSerde.name(), new SerdeInstance(StringSerde.name(), new StringSerde(), null, null, null));
+    serdes.put(AvroEmbeddedSerde.name(),
+        new SerdeInstance(AvroEmbeddedSerde.name(), new AvroEmbeddedSerde(), null, null, null));
+    serdes.put(ProtobufRawSerde.name(),
+        new SerdeInstance(ProtobufRawSerde.name(), new ProtobufRawSerde(), null, null, null));
+    return new ClusterSerdes(serdes, null, null, serdes.get(StringSerde.name()));
+  }
+}
@@ -0,0 +1,116 @@
+package com.provectus.kafka.ui.serdes.builtin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Optional;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.ResourceUtils;
+
+class ProtobufFilesDescriptorsTest {
+
+  private static final List<String> MESSAGES = List.of(
+      "test.Person",
+      "test.Person.PhoneNumber",
+      "test.AnotherPerson",
+      "test.AddressBook",
+      "test.Sensor",
+      "test.LanguageDescription"
+  );
+
+  @TempDir
+  Path tmpDir;
+
+  @Test
+  void descriptorsArePersistedToCacheFileAndLoadedFromIt() throws Exception {
+    String protoDir = protoFilesDir();
+    Path cacheFile = tmpDir.resolve("cache").resolve("descriptors.desc");
+
+    var parsed = ProtobufFilesDescriptors.loadOrParse(
+        new ProtobufFileSerde.ProtoSchemaLoader(protoDir), protoDir, cacheFile);
+    assertThat(cacheFile).exists();
+
+    // loader points to empty dir, so descriptors can only be taken from cache file
+    Path emptyDir = Files.createDirectory(tmpDir.resolve("empty"));
+    var cached = ProtobufFilesDescriptors.loadOrParse(
+        new ProtobufFileSerde.ProtoSchemaLoader(emptyDir.toString()), protoDir, cacheFile);
+
+    for (String message : MESSAGES) {
+      assertThat(cached.find(message).getKey().toProto())
+          .isEqualTo(parsed.find(message).getKey().toProto());
+      assertThat(cached.find(message).getValue())
+          .isEqualTo(parsed.find(message).getValue());
+    }
+    assertThat(parsed.find("test.Person").getValue())
+        .isEqualTo(Path.of(protoDir, "address-book.proto"));
+    assertThat(parsed.find("test.LanguageDescription").getKey().findFieldByName("lang").getEnumType().getFullName())
+        .isEqualTo("test.lang.Language");
+  }
+
+  @Test
+  void brokenCacheFileIsIgnored() throws Exception {
+    String protoDir = protoFilesDir();
+    Path cacheFile = tmpDir.resolve("broken.desc");
+    Files.write(cacheFile, new byte[] {1, 2, 3});
+
+    var descriptors = ProtobufFilesDescriptors.loadOrParse(
+        new ProtobufFileSerde.ProtoSchemaLoader(protoDir), protoDir, cacheFile);
+    for (String message : MESSAGES) {
+      assertThat(descriptors.find(message).getKey().getFullName()).isEqualTo(message);
+    }
+  }
+
+  @Test
+  void cacheFileWritableByOthersIsIgnored() throws Exception {
+    String protoDir = protoFilesDir();
+    Path cacheFile = tmpDir.resolve("shared.desc");
+    ProtobufFilesDescriptors.loadOrParse(new ProtobufFileSerde.ProtoSchemaLoader(protoDir), protoDir, cacheFile);
+    assumeTrue(Files.getFileStore(cacheFile).supportsFileAttributeView(PosixFileAttributeView.class));
+    Files.setPosixFilePermissions(cacheFile, PosixFilePermissions.fromString("rw-rw-rw-"));
+
+    // loader points to empty dir, so descriptors are parsed from it instead of untrusted cache file
+    Path emptyDir = Files.createDirectory(tmpDir.resolve("empty"));
+    var descriptors = ProtobufFilesDescriptors.loadOrParse(
+        new ProtobufFileSerde.ProtoSchemaLoader(emptyDir.toString()), protoDir, cacheFile);
+    assertThatThrownBy(() -> descriptors.find("test.Person")).isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void loadedDescriptorsAreReplacedWhenDirContentChanges() throws Exception {
+    Path protoDir = Files.createDirectory(tmpDir.resolve("protos"));
+    Optional<String> cacheDir = Optional.of(tmpDir.resolve("cache").toString());
+    Files.writeString(protoDir.resolve("a.proto"), "syntax = \"proto3\"; message A { int32 f = 1; }");
+    var first = ProtobufFilesDescriptors.load(protoDir.toString(), cacheDir);
+    assertThat(ProtobufFilesDescriptors.load(protoDir.toString(), cacheDir)).isSameAs(first);
+
+    Files.writeString(protoDir.resolve("a.proto"), "syntax = \"proto3\"; message B { int32 f = 1; }");
+    var second = ProtobufFilesDescriptors.load(protoDir.toString(), cacheDir);
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.find("B").getKey().getFullName()).isEqualTo("B");
+    assertThatThrownBy(() -> second.find("A")).isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void contentHashDependsOnFilesContent() throws Exception {
+    Files.writeString(tmpDir.resolve("a.proto"), "syntax = \"proto3\"; message A { int32 f = 1; }");
+    var loader = new ProtobufFileSerde.ProtoSchemaLoader(tmpDir.toString());
+    String hash = loader.contentHash();
+    assertThat(loader.contentHash()).isEqualTo(hash);
+
+    Files.writeString(tmpDir.resolve("a.proto"), "syntax = \"proto3\"; message A { int64 f = 1; }");
+    assertThat(loader.contentHash()).isNotEqualTo(hash);
+  }
+
+  @SneakyThrows
+  private static String protoFilesDir() {
+    return ResourceUtils.getFile("classpath:protobuf-serde/").getPath();
+  }
+}
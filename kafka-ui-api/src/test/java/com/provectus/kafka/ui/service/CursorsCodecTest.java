@@ -0,0 +1,47 @@
+package com.provectus.kafka.ui.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.provectus.kafka.ui.emitter.Cursor;
+import com.provectus.kafka.ui.exception.ValidationException;
+import com.provectus.kafka.ui.model.MessageFilterTypeDTO;
+import com.provectus.kafka.ui.model.SeekDirectionDTO;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CursorsCodecTest {
+
+  private final CursorsCodec codec = new CursorsCodec("test-key");
+
+  @Test
+  void encodedCursorIsDecoded() {
+    var cursor = cursor("cluster1");
+    assertThat(codec.decode(codec.encode(cursor))).isEqualTo(cursor);
+  }
+
+  @Test
+  void cursorWithReplacedClusterIsRejected() {
+    String token = codec.encode(cursor("cluster1"));
+    int separatorIdx = token.indexOf('.');
+    String payload = new String(Base64.getUrlDecoder().decode(token.substring(0, separatorIdx)),
+        StandardCharsets.UTF_8);
+    assertThat(payload).contains("\"cluster\":\"cluster1\"");
+
+    String tamperedPayload = payload.replace("\"cluster\":\"cluster1\"", "\"cluster\":\"cluster2\"");
+    String tampered = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(tamperedPayload.getBytes(StandardCharsets.UTF_8))
+        + token.substring(separatorIdx);
+
+    assertThatThrownBy(() -> codec.decode(tampered))
+        .isInstanceOf(ValidationException.class)
+        .hasMessageContaining("signature");
+  }
+
+  private static Cursor cursor(String cluster) {
+    return new Cursor(cluster, "topic", SeekDirectionDTO.FORWARD, Map.of(0, 10L), null,
+        MessageFilterTypeDTO.STRING_CONTAINS, null, null, 10, null, null);
+  }
+}
@@ -4,23 +4,32 @@ import static com.provectus.kafka.ui.service.MessagesService.execSmartFilterTest
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.provectus.kafka.ui.AbstractIntegrationTest;
+import com.provectus.kafka.ui.emitter.Cursor;
 import com.provectus.kafka.ui.exception.TopicNotFoundException;
+import com.provectus.kafka.ui.exception.ValidationException;
 import com.provectus.kafka.ui.model.ConsumerPosition;
 import com.provectus.kafka.ui.model.CreateTopicMessageDTO;
 import com.provectus.kafka.ui.model.KafkaCluster;
+import com.provectus.kafka.ui.model.MessageFilterTypeDTO;
+import com.provectus.kafka.ui.model.MessagesRequest;
 import com.provectus.kafka.ui.model.SeekDirectionDTO;
 import com.provectus.kafka.ui.model.SeekTypeDTO;
 import com.provectus.kafka.ui.model.SmartFilterTestExecutionDTO;
 import com.provectus.kafka.ui.model.TopicMessageDTO;
 import com.provectus.kafka.ui.model.TopicMessageEventDTO;
 import com.provectus.kafka.ui.producer.KafkaTestProducer;
+import com.provectus.kafka.ui.serdes.builtin.Int32Serde;
 import com.provectus.kafka.ui.serdes.builtin.StringSerde;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
@@ -60,7 +69,11 @@ class MessagesServiceTest extends AbstractIntegrationTest {
   @Test
   void loadMessagesReturnsExceptionWhenTopicNotFound() {
     StepVerifier.create(messagesService
-            .loadMessages(cluster, NON_EXISTING_TOPIC, null, null, null, 1, null, "String", "String"))
+            .loadMessages(cluster, NON_EXISTING_TOPIC, MessagesRequest.builder()
+                .pageSize(1)
+                .keySerde("String")
+                .valueSerde("String")
+                .build()))
         .expectError(TopicNotFoundException.class)
         .verify();
   }
@@ -76,13 +89,13 @@ class MessagesServiceTest extends AbstractIntegrationTest {
       Flux<TopicMessageDTO> msgsFlux = messagesService.loadMessages(
           cluster,
           testTopic,
-          new ConsumerPosition(SeekTypeDTO.BEGINNING, testTopic, null),
-          null,
-          null,
-          100,
-          SeekDirectionDTO.FORWARD,
-          StringSerde.name(),
-          StringSerde.name()
+          MessagesRequest.builder()
+              .consumerPosition(new ConsumerPosition(SeekTypeDTO.BEGINNING, testTopic, null))
+              .pageSize(100)
+              .seekDirection(SeekDirectionDTO.FORWARD)
+              .keySerde(StringSerde.name())
+              .valueSerde(StringSerde.name())
+              .build()
       ).filter(evt -> evt.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
           .map(TopicMessageEventDTO::getMessage);
 
@@ -96,6 +109,147 @@ class MessagesServiceTest extends AbstractIntegrationTest {
     }
   }
 
+  @ParameterizedTest
+  @EnumSource(value = SeekDirectionDTO.class, names = {"FORWARD", "BACKWARD"})
+  void pagesLoadedWithCursorsDoNotOverlap(SeekDirectionDTO direction) throws Exception {
+    String testTopic = "cursors-test-" + UUID.randomUUID();
+    try (var producer = KafkaTestProducer.forKafka(kafka)) {
+      createTopic(new NewTopic(testTopic, 3, (short) 1));
+      List<String> expectedMatches = new ArrayList<>();
+      for (int i = 0; i < 60; i++) {
+        String value = i + (i % 3 == 0 ? "_good" : "_bad");
+        producer.send(new ProducerRecord<>(testTopic, i % 3, null, value)).get();
+        if (value.endsWith("good")) {
+          expectedMatches.add(value);
+        }
+      }
+
+      List<String> loaded = new ArrayList<>();
+      String cursor = null;
+      int pages = 0;
+      do {
+        var events = messagesService.loadMessages(
+            cluster,
+            testTopic,
+            MessagesRequest.builder()
+                .consumerPosition(new ConsumerPosition(
+                    direction == SeekDirectionDTO.FORWARD ? SeekTypeDTO.BEGINNING : SeekTypeDTO.LATEST,
+                    testTopic, null))
+                .query("good")
+                .filterQueryType(MessageFilterTypeDTO.STRING_CONTAINS)
+                .pageSize(3)
+                .seekDirection(direction)
+                .keySerde(StringSerde.name())
+                .valueSerde(StringSerde.name())
+                .cursor(cursor)
+                .build()
+        ).collectList().block();
+
+        events.stream()
+            .filter(e -> e.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+            .forEach(e -> loaded.add(e.getMessage().getContent()));
+        cursor = events.stream()
+            .filter(e -> e.getType() == TopicMessageEventDTO.TypeEnum.DONE && e.getCursor() != null)
+            .map(e -> e.getCursor().getId())
+            .findFirst()
+            .orElse(null);
+        pages++;
+      } while (cursor != null && pages < 100);
+
+      assertThat(loaded).containsExactlyInAnyOrderElementsOf(expectedMatches);
+    } finally {
+      deleteTopic(testTopic);
+    }
+  }
+
+  @Test
+  void keyLookupReturnsOnlyMessagesWithKey() throws Exception {
+    String testTopic = "key-lookup-test-" + UUID.randomUUID();
+    try (var producer = KafkaTestProducer.forKafka(kafka)) {
+      createTopic(new NewTopic(testTopic, 5, (short) 1));
+      for (int i = 0; i < 50; i++) {
+        producer.send(new ProducerRecord<>(testTopic, "key" + (i % 10), "value" + i)).get();
+      }
+
+      var messages = messagesService.loadMessages(
+              cluster,
+              testTopic,
+              MessagesRequest.builder()
+                  .consumerPosition(new ConsumerPosition(SeekTypeDTO.BEGINNING, testTopic, null))
+                  .filterQueryType(MessageFilterTypeDTO.STRING_CONTAINS)
+                  .pageSize(100)
+                  .seekDirection(SeekDirectionDTO.FORWARD)
+                  .keySerde(StringSerde.name())
+                  .valueSerde(StringSerde.name())
+                  .keyLookup("key3")
+                  .build()
+          )
+          .filter(e -> e.getType() == TopicMessageEventDTO.TypeEnum.MESSAGE)
+          .map(TopicMessageEventDTO::getMessage)
+          .collectList()
+          .block();
+
+      assertThat(messages)
+          .extracting(TopicMessageDTO::getContent)
+          .containsExactly("value3", "value13", "value23", "value33", "value43");
+      assertThat(messages)
+          .extracting(TopicMessageDTO::getPartition)
+          .containsOnly(messages.get(0).getPartition());
+    } finally {
+      deleteTopic(testTopic);
+    }
+  }
+
+  @Test
+  void keyLookupScansAllPartitionsIfKeyCantBeSerializedWithKeySerde() throws Exception {
+    String testTopic = "key-lookup-test-" + UUID.randomUUID();
+    try (var producer = KafkaTestProducer.forKafka(kafka)) {
+      createTopic(new NewTopic(testTopic, 5, (short) 1));
+      for (int i = 0; i < 10; i++) {
+        producer.send(new ProducerRecord<>(testTopic, "key" + i, "value" + i)).get();
+      }
+
+      // "not-a-number" can't be serialized by Int32 serde, so key partition is unknown
+      var events = messagesService.loadMessages(
+              cluster,
+              testTopic,
+              MessagesRequest.builder()
+                  .consumerPosition(new ConsumerPosition(SeekTypeDTO.BEGINNING, testTopic, null))
+                  .filterQueryType(MessageFilterTypeDTO.STRING_CONTAINS)
+                  .pageSize(100)
+                  .seekDirection(SeekDirectionDTO.FORWARD)
+                  .keySerde(Int32Serde.name())
+                  .valueSerde(StringSerde.name())
+                  .keyLookup("not-a-number")
+                  .build()
+          )
+          .collectList()
+          .block();
+
+      assertThat(events)
+          .extracting(TopicMessageEventDTO::getType)
+          .doesNotContain(TopicMessageEventDTO.TypeEnum.MESSAGE)
+          .contains(TopicMessageEventDTO.TypeEnum.DONE);
+    } finally {
+      deleteTopic(testTopic);
+    }
+  }
+
+  @Test
+  void forgedCursorIsRejected() {
+    var codec = new CursorsCodec("some-other-key");
+    String forged = codec.encode(
+        new Cursor(LOCAL, "topic", SeekDirectionDTO.FORWARD, Map.of(0, 0L), null,
+            MessageFilterTypeDTO.STRING_CONTAINS, null, null, 10, null, null));
+
+    // error is reported on subscription, not on method call
+    var messages = messagesService.loadMessages(
+        cluster, "topic", MessagesRequest.builder().pageSize(10).cursor(forged).build());
+    StepVerifier.create(messages)
+        .expectError(ValidationException.class)
+        .verify();
+  }
+
   @Test
   void execSmartFilterTestReturnsExecutionResult() {
     var params = new SmartFilterTestExecutionDTO()
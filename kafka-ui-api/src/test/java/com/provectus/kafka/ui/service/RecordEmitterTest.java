@@ -12,6 +12,7 @@ import com.provectus.kafka.ui.emitter.EnhancedConsumer;
 import com.provectus.kafka.ui.emitter.ForwardEmitter;
 import com.provectus.kafka.ui.emitter.PollingSettings;
 import com.provectus.kafka.ui.emitter.PollingThrottler;
+import com.provectus.kafka.ui.emitter.RangePollingOptions;
 import com.provectus.kafka.ui.model.ConsumerPosition;
 import com.provectus.kafka.ui.model.TopicMessageDTO;
 import com.provectus.kafka.ui.model.TopicMessageEventDTO;
@@ -119,7 +120,8 @@ class RecordEmitterTest extends AbstractIntegrationTest {
         100,
         RECORD_DESERIALIZER,
         NOOP_FILTER,
-        PollingSettings.createDefault()
+        PollingSettings.createDefault(),
+        RangePollingOptions.defaults()
     );
 
     var backwardEmitter = new BackwardEmitter(
@@ -128,7 +130,8 @@ class RecordEmitterTest extends AbstractIntegrationTest {
         100,
         RECORD_DESERIALIZER,
         NOOP_FILTER,
-        PollingSettings.createDefault()
+        PollingSettings.createDefault(),
+        RangePollingOptions.defaults()
     );
 
     StepVerifier.create(Flux.create(forwardEmitter))
@@ -152,7 +155,8 @@ class RecordEmitterTest extends AbstractIntegrationTest {
         PARTITIONS * MSGS_PER_PARTITION,
         RECORD_DESERIALIZER,
         NOOP_FILTER,
-        PollingSettings.createDefault()
+        PollingSettings.createDefault(),
+        RangePollingOptions.defaults()
     );
 
     var backwardEmitter = new BackwardEmitter(
@@ -161,7 +165,36 @@ class RecordEmitterTest extends AbstractIntegrationTest {
         PARTITIONS * MSGS_PER_PARTITION,
         RECORD_DESERIALIZER,
         NOOP_FILTER,
-        PollingSettings.createDefault()
+        PollingSettings.createDefault(),
+        RangePollingOptions.defaults()
+    );
+
+    List<String> expectedValues = SENT_RECORDS.stream().map(Record::getValue).collect(Collectors.toList());
+
+    expectEmitter(forwardEmitter, expectedValues);
+    expectEmitter(backwardEmitter, expectedValues);
+  }
+
+  @Test
+  void pollFullTopicWithParallelConsumers() {
+    var forwardEmitter = new ForwardEmitter(
+        this::createConsumer,
+        new ConsumerPosition(BEGINNING, TOPIC, null),
+        PARTITIONS * MSGS_PER_PARTITION,
+        RECORD_DESERIALIZER,
+        NOOP_FILTER,
+        PollingSettings.createDefault(),
+        RangePollingOptions.builder().pollingConsumers(3).build()
+    );
+
+    var backwardEmitter = new BackwardEmitter(
+        this::createConsumer,
+        new ConsumerPosition(LATEST, TOPIC, null),
+        PARTITIONS * MSGS_PER_PARTITION,
+        RECORD_DESERIALIZER,
+        NOOP_FILTER,
+        PollingSettings.createDefault(),
+        RangePollingOptions.builder().pollingConsumers(3).build()
     );
 
     List<String> expectedValues = SENT_RECORDS.stream().map(Record::getValue).collect(Collectors.toList());
@@ -184,7 +217,8 @@ class RecordEmitterTest extends AbstractIntegrationTest {
         PARTITIONS * MSGS_PER_PARTITION,
         RECORD_DESERIALIZER,
         NOOP_FILTER,
-        PollingSettings.createDefault()
+        PollingSettings.createDefault(),
+        RangePollingOptions.defaults()
     );
 
     var backwardEmitter = new BackwardEmitter(
@@ -193,7 +227,8 @@ class RecordEmitterTest extends AbstractIntegrationTest {
         PARTITIONS * MSGS_PER_PARTITION,
         RECORD_DESERIALIZER,
         NOOP_FILTER,
-        PollingSettings.createDefault()
+        PollingSettings.createDefault(),
+        RangePollingOptions.defaults()
     );
 
     var expectedValues = SENT_RECORDS.stream()
@@ -232,7 +267,8 @@ class RecordEmitterTest extends AbstractIntegrationTest {
         PARTITIONS * MSGS_PER_PARTITION,
         RECORD_DESERIALIZER,
         NOOP_FILTER,
-        PollingSettings.createDefault()
+        PollingSettings.createDefault(),
+        RangePollingOptions.defaults()
     );
 
     var backwardEmitter = new BackwardEmitter(
@@ -241,7 +277,8 @@ class RecordEmitterTest extends AbstractIntegrationTest {
         PARTITIONS * MSGS_PER_PARTITION,
         RECORD_DESERIALIZER,
         NOOP_FILTER,
-        PollingSettings.createDefault()
+        PollingSettings.createDefault(),
+        RangePollingOptions.defaults()
     );
 
     var expectedValues = SENT_RECORDS.stream()
@@ -273,7 +310,8 @@ class RecordEmitterTest extends AbstractIntegrationTest {
         numMessages,
         RECORD_DESERIALIZER,
         NOOP_FILTER,
-        PollingSettings.createDefault()
+        PollingSettings.createDefault(),
+        RangePollingOptions.defaults()
     );
 
     var expectedValues = SENT_RECORDS.stream()
@@ -300,7 +338,8 @@ class RecordEmitterTest extends AbstractIntegrationTest {
         100,
         RECORD_DESERIALIZER,
         NOOP_FILTER,
-        PollingSettings.createDefault()
+        PollingSettings.createDefault(),
+        RangePollingOptions.defaults()
     );
 
     expectEmitter(backwardEmitter,
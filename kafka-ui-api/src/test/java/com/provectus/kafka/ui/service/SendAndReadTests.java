@@ -7,6 +7,7 @@ import com.provectus.kafka.ui.AbstractIntegrationTest;
 import com.provectus.kafka.ui.model.ConsumerPosition;
 import com.provectus.kafka.ui.model.CreateTopicMessageDTO;
 import com.provectus.kafka.ui.model.KafkaCluster;
+import com.provectus.kafka.ui.model.MessagesRequest;
 import com.provectus.kafka.ui.model.SeekDirectionDTO;
 import com.provectus.kafka.ui.model.SeekTypeDTO;
 import com.provectus.kafka.ui.model.TopicMessageDTO;
@@ -500,17 +501,17 @@ public class SendAndReadTests extends AbstractIntegrationTest {
         TopicMessageDTO polled = messagesService.loadMessages(
                 targetCluster,
                 topic,
-                new ConsumerPosition(
-                    SeekTypeDTO.BEGINNING,
-                    topic,
-                    Map.of(new TopicPartition(topic, 0), 0L)
-                ),
-                null,
-                null,
-                1,
-                SeekDirectionDTO.FORWARD,
-                msgToSend.getKeySerde().get(),
-                msgToSend.getValueSerde().get()
+                MessagesRequest.builder()
+                    .consumerPosition(new ConsumerPosition(
+                        SeekTypeDTO.BEGINNING,
+                        topic,
+                        Map.of(new TopicPartition(topic, 0), 0L)
+                    ))
+                    .pageSize(1)
+                    .seekDirection(SeekDirectionDTO.FORWARD)
+                    .keySerde(msgToSend.getKeySerde().get())
+                    .valueSerde(msgToSend.getValueSerde().get())
+                    .build()
             ).filter(e -> e.getType().equals(TopicMessageEventDTO.TypeEnum.MESSAGE))
             .map(TopicMessageEventDTO::getMessage)
             .blockLast(Duration.ofSeconds(5000));
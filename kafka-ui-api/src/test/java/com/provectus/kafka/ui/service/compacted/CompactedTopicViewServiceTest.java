@@ -0,0 +1,133 @@
+package com.provectus.kafka.ui.service.compacted;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.provectus.kafka.ui.AbstractIntegrationTest;
+import com.provectus.kafka.ui.exception.ValidationException;
+import com.provectus.kafka.ui.model.KafkaCluster;
+import com.provectus.kafka.ui.model.TopicLatestValuesDTO;
+import com.provectus.kafka.ui.model.TopicMessageDTO;
+import com.provectus.kafka.ui.producer.KafkaTestProducer;
+import com.provectus.kafka.ui.serdes.builtin.StringSerde;
+import com.provectus.kafka.ui.service.ClustersStorage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.test.StepVerifier;
+
+class CompactedTopicViewServiceTest extends AbstractIntegrationTest {
+
+  private static final int PAGE_SIZE = 4;
+
+  @Autowired
+  CompactedTopicViewService compactedTopicViewService;
+
+  KafkaCluster cluster;
+  String topic;
+
+  @BeforeEach
+  void init() throws Exception {
+    cluster = applicationContext
+        .getBean(ClustersStorage.class)
+        .getClusterByName(LOCAL)
+        .get();
+    topic = "CompactedTopicViewServiceTest_" + UUID.randomUUID();
+    createTopic(new NewTopic(topic, 3, (short) 1).configs(Map.of("cleanup.policy", "compact")));
+    try (var producer = KafkaTestProducer.forKafka(kafka)) {
+      for (int i = 0; i < 20; i++) {
+        producer.send(new ProducerRecord<>(topic, "key_" + i, "old_" + i)).get();
+      }
+      // overwrites
+      for (int i = 0; i < 10; i++) {
+        producer.send(new ProducerRecord<>(topic, "key_" + i, "new_" + i)).get();
+      }
+      // tombstones
+      for (int i = 10; i < 15; i++) {
+        producer.send(new ProducerRecord<String, String>(topic, "key_" + i, null)).get();
+      }
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    deleteTopic(topic);
+  }
+
+  @Test
+  void latestValuesArePagedByPositions() {
+    var expected = new HashMap<String, String>();
+    for (int i = 0; i < 10; i++) {
+      expected.put("key_" + i, "new_" + i);
+    }
+    for (int i = 15; i < 20; i++) {
+      expected.put("key_" + i, "old_" + i);
+    }
+
+    assertThat(loadAll(false)).isEqualTo(expected);
+  }
+
+  @Test
+  void refreshedViewContainsValuesProducedAfterPreviousScan() throws Exception {
+    loadAll(false);
+    try (var producer = KafkaTestProducer.forKafka(kafka)) {
+      producer.send(new ProducerRecord<>(topic, "key_0", "newest_0")).get();
+      producer.send(new ProducerRecord<String, String>(topic, "key_1", null)).get();
+      producer.send(new ProducerRecord<>(topic, "key_100", "new_100")).get();
+    }
+
+    // not refreshed view keeps previous state
+    assertThat(loadAll(false)).containsEntry("key_0", "new_0").doesNotContainKey("key_100");
+
+    var refreshed = loadAll(true);
+    assertThat(refreshed)
+        .hasSize(15)
+        .containsEntry("key_0", "newest_0")
+        .containsEntry("key_100", "new_100")
+        .doesNotContainKey("key_1");
+  }
+
+  @Test
+  void viewIsNotAvailableForNonCompactedTopics() {
+    String deleteTopic = "CompactedTopicViewServiceTest_" + UUID.randomUUID();
+    createTopic(new NewTopic(deleteTopic, 1, (short) 1));
+    try {
+      StepVerifier.create(
+              compactedTopicViewService.getLatestValues(cluster, deleteTopic, 0, PAGE_SIZE, null, null,
+                  StringSerde.name(), StringSerde.name(), false))
+          .expectError(ValidationException.class)
+          .verify();
+    } finally {
+      deleteTopic(deleteTopic);
+    }
+  }
+
+  private Map<String, String> loadAll(boolean refresh) {
+    Map<String, String> values = new HashMap<>();
+    Integer position = 0;
+    boolean firstPage = true;
+    while (position != null) {
+      TopicLatestValuesDTO page = compactedTopicViewService
+          .getLatestValues(cluster, topic, position, PAGE_SIZE, null, null,
+              StringSerde.name(), StringSerde.name(), refresh && firstPage)
+          .block();
+      assertThat(page).isNotNull();
+      assertThat(page.getMessages()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+      for (TopicMessageDTO msg : page.getMessages()) {
+        assertThat(values.put(msg.getKey(), msg.getContent()))
+            .as("key %s returned twice", msg.getKey())
+            .isNull();
+      }
+      position = page.getNextPosition();
+      // without filter each position before next page's position is returned
+      assertThat(values).hasSize(position != null ? position : page.getKeysCount().intValue());
+      firstPage = false;
+    }
+    return values;
+  }
+}
@@ -0,0 +1,63 @@
+package com.provectus.kafka.ui.service.compacted;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LatestOffsetsTableTest {
+
+  @Test
+  void keepsLatestPositionPerKeyAndDropsRemovedKeys() {
+    var table = new LatestOffsetsTable(16);
+    // model: hash -> {partition, offset}
+    Map<Long, long[]> expected = new HashMap<>();
+    var random = new Random(42);
+    for (long offset = 0; offset < 50_000; offset++) {
+      // small keys space to get many overwrites, removals & probe chains
+      long hash = random.nextInt(5_000) + 2; // 0 is not a valid hash, it is replaced with 1
+      int partition = (int) (hash % 3);
+      if (random.nextInt(10) == 0) {
+        table.remove(hash);
+        expected.remove(hash);
+      } else {
+        table.put(hash, partition, offset);
+        expected.put(hash, new long[] {partition, offset});
+      }
+    }
+
+    assertThat(table.size()).isEqualTo(expected.size());
+
+    var positions = table.sortedPositions();
+    List<String> actual = new ArrayList<>();
+    IntStream.range(0, positions.size())
+        .forEach(i -> actual.add(positions.partitionAt(i) + "-" + positions.offsetAt(i)));
+    assertThat(actual).containsExactlyElementsOf(
+        expected.values().stream()
+            .sorted((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]))
+            .map(p -> p[0] + "-" + p[1])
+            .toList()
+    );
+  }
+
+  @Test
+  void positionsSkipEmptyPartitions() {
+    var table = new LatestOffsetsTable();
+    table.put(1, 0, 10);
+    table.put(2, 3, 5);
+    table.put(3, 3, 1);
+
+    var positions = table.sortedPositions();
+    assertThat(positions.size()).isEqualTo(3);
+    assertThat(positions.partitionAt(0)).isZero();
+    assertThat(positions.offsetAt(0)).isEqualTo(10);
+    assertThat(positions.partitionAt(1)).isEqualTo(3);
+    assertThat(positions.offsetAt(1)).isEqualTo(1);
+    assertThat(positions.offsetAt(2)).isEqualTo(5);
+  }
+}
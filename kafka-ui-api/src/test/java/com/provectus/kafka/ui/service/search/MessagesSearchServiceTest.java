@@ -0,0 +1,64 @@
+package com.provectus.kafka.ui.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.provectus.kafka.ui.AbstractIntegrationTest;
+import com.provectus.kafka.ui.model.MessagesSearchMatchDTO;
+import com.provectus.kafka.ui.model.MessagesSearchRequestDTO;
+import com.provectus.kafka.ui.producer.KafkaTestProducer;
+import com.provectus.kafka.ui.service.ClustersStorage;
+import java.time.Duration;
+import java.util.UUID;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.testcontainers.shaded.org.awaitility.Awaitility;
+
+class MessagesSearchServiceTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private ClustersStorage clustersStorage;
+
+  @Autowired
+  private MessagesSearchService messagesSearchService;
+
+  @Test
+  void matchesCanBePagedWhenSearchIsCompleted() {
+    String topic = "search_test_" + UUID.randomUUID();
+    createTopic(new NewTopic(topic, 2, (short) 1));
+    try (var producer = KafkaTestProducer.forKafka(kafka)) {
+      for (int i = 0; i < 1_000; i++) {
+        producer.send(new ProducerRecord<>(topic, "key" + i, i % 100 == 0 ? "needle" + i : "value" + i));
+      }
+    }
+
+    var cluster = clustersStorage.getClusterByName(LOCAL).get();
+    var started = messagesSearchService.startSearch(cluster, topic, new MessagesSearchRequestDTO().q("needle"))
+        .block();
+    assertThat(started.getId()).isNotNull();
+
+    Awaitility.await()
+        .atMost(Duration.ofSeconds(20))
+        .untilAsserted(() ->
+            assertThat(messagesSearchService.getSearch(cluster, topic, started.getId(), 1, 100))
+                .hasValueSatisfying(state -> {
+                  assertThat(state.getProgress()).isNull();
+                  assertThat(state.getResult()).isNotNull();
+                  assertThat(state.getResult().getMsgsScanned()).isEqualTo(1_000);
+                  assertThat(state.getResult().getMatchesFound()).isEqualTo(10);
+                  assertThat(state.getMatches())
+                      .hasSize(10)
+                      .map(MessagesSearchMatchDTO::getContentPreview)
+                      .allMatch(v -> v.startsWith("needle"));
+                }));
+
+    assertThat(messagesSearchService.getSearch(cluster, topic, started.getId(), 2, 4))
+        .hasValueSatisfying(state -> assertThat(state.getMatches()).hasSize(4));
+    assertThat(messagesSearchService.getSearch(cluster, topic, started.getId(), 3, 4))
+        .hasValueSatisfying(state -> assertThat(state.getMatches()).hasSize(2));
+    assertThat(messagesSearchService.getSearch(cluster, "other_topic", started.getId(), 1, 4))
+        .isEmpty();
+  }
+
+}
@@ -0,0 +1,120 @@
+package com.provectus.kafka.ui.util.jsonschema;
+
+import static com.provectus.kafka.ui.util.jsonschema.JsonAvroConversion.convertAvroToJson;
+import static com.provectus.kafka.ui.util.jsonschema.JsonAvroConversion.convertJsonToAvro;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.confluent.kafka.serializers.AvroData;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Manual throughput comparison of streaming decoding against GenericRecord + JSON tree conversion,
+ * which is used by schema registry serde when streaming decoder is not applicable.
+ * Disabled since timings are not stable on CI, run it locally from IDE.
+ */
+@Slf4j
+@Disabled("manual benchmark")
+class AvroToJsonStreamingDecoderBenchmarkTest {
+
+  private static final int WARMUP_ITERATIONS = 200_000;
+  private static final int MEASURED_ITERATIONS = 1_000_000;
+
+  private static final Schema SCHEMA = new Schema.Parser().parse(
+      """
+          {
+            "type": "record",
+            "name": "Order",
+            "namespace": "com.test",
+            "fields": [
+              { "name": "id", "type": { "type": "string", "logicalType": "uuid" } },
+              { "name": "customer", "type": "string" },
+              { "name": "created", "type": { "type": "long", "logicalType": "timestamp-millis" } },
+              { "name": "status", "type": { "type": "enum", "name": "Status", "symbols": ["NEW", "PAID"] } },
+              { "name": "total", "type": "double" },
+              { "name": "comment", "type": ["null", "string"] },
+              { "name": "items", "type": { "type": "array", "items": {
+                  "type": "record",
+                  "name": "Item",
+                  "fields": [
+                    { "name": "sku", "type": "string" },
+                    { "name": "qty", "type": "int" },
+                    { "name": "price", "type": "double" }
+                  ]
+                }}
+              },
+              { "name": "attributes", "type": { "type": "map", "values": "string" } }
+            ]
+          }"""
+  );
+
+  private static final String JSON = """
+      {
+        "id": "a0b1c2d3-e4f5-4a6b-8c7d-9e0f1a2b3c4d",
+        "customer": "customer-12345",
+        "created": "2023-01-15T10:15:30.123Z",
+        "status": "PAID",
+        "total": 1234.56,
+        "comment": { "string": "leave at the door" },
+        "items": [
+          { "sku": "sku-1", "qty": 1, "price": 10.5 },
+          { "sku": "sku-2", "qty": 3, "price": 99.99 },
+          { "sku": "sku-3", "qty": 10, "price": 0.5 }
+        ],
+        "attributes": { "channel": "web", "region": "eu-west", "promo": "none" }
+      }
+      """;
+
+  @Test
+  void compareWithGenericRecordConversion() throws Exception {
+    byte[] bytes = encode();
+    var decoder = AvroToJsonStreamingDecoder.forSchema(SCHEMA).orElseThrow();
+    var reader = new GenericDatumReader<>(SCHEMA, SCHEMA, AvroData.getGenericData());
+    assertThat(decoder.decode(bytes, 0, bytes.length))
+        .isEqualTo(convertAvroToJson(reader.read(null, DecoderFactory.get().binaryDecoder(bytes, null)), SCHEMA)
+            .toString());
+
+    long streamingNanos = measure(() -> decoder.decode(bytes, 0, bytes.length));
+    long genericNanos = measure(() ->
+        convertAvroToJson(reader.read(null, DecoderFactory.get().binaryDecoder(bytes, null)), SCHEMA).toString());
+
+    log.info("Streaming decoder: {} ns/op, GenericRecord + convertAvroToJson: {} ns/op",
+        streamingNanos / MEASURED_ITERATIONS, genericNanos / MEASURED_ITERATIONS);
+  }
+
+  private static long measure(DecodeCall call) throws Exception {
+    // result length is accumulated, so decoding can't be eliminated by JIT
+    long checksum = 0;
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      checksum += call.decode().length();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+      checksum += call.decode().length();
+    }
+    long elapsed = System.nanoTime() - start;
+    log.debug("Checksum {}, took {} ms", checksum, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    return elapsed;
+  }
+
+  private static byte[] encode() throws Exception {
+    var out = new ByteArrayOutputStream();
+    var encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<>(SCHEMA, AvroData.getGenericData()).write(convertJsonToAvro(JSON, SCHEMA), encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  @FunctionalInterface
+  private interface DecodeCall {
+    String decode() throws Exception;
+  }
+}
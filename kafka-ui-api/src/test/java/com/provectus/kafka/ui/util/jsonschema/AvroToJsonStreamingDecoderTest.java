@@ -0,0 +1,154 @@
+package com.provectus.kafka.ui.util.jsonschema;
+
+import static com.provectus.kafka.ui.util.jsonschema.JsonAvroConversion.convertAvroToJson;
+import static com.provectus.kafka.ui.util.jsonschema.JsonAvroConversion.convertJsonToAvro;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.confluent.kafka.serializers.AvroData;
+import java.io.ByteArrayOutputStream;
+import lombok.SneakyThrows;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+class AvroToJsonStreamingDecoderTest {
+
+  private static final Schema SCHEMA = new Schema.Parser().parse(
+      """
+          {
+            "type": "record",
+            "name": "TestRecord",
+            "namespace": "com.test",
+            "fields": [
+              { "name": "f_int", "type": "int" },
+              { "name": "f_long", "type": "long" },
+              { "name": "f_float", "type": "float" },
+              { "name": "f_double", "type": "double" },
+              { "name": "f_boolean", "type": "boolean" },
+              { "name": "f_string", "type": "string" },
+              { "name": "f_bytes", "type": "bytes" },
+              { "name": "f_fixed", "type": { "type": "fixed", "name": "Fixed4", "size": 4 } },
+              { "name": "f_enum", "type": { "type": "enum", "name": "Suit", "symbols": ["SPADES", "HEARTS"] } },
+              { "name": "f_null", "type": "null" },
+              { "name": "f_nullable_set", "type": ["null", "string"] },
+              { "name": "f_nullable_unset", "type": ["null", "int"] },
+              { "name": "f_union", "type": ["null", "int", "string", {
+                  "type": "record",
+                  "name": "Node",
+                  "fields": [
+                    { "name": "name", "type": "string" },
+                    { "name": "child", "type": ["null", "Node"] }
+                  ]
+                }]
+              },
+              { "name": "f_union_names_clash", "type": [
+                  { "type": "record", "name": "Inner", "namespace": "com.test.a", "fields": [] },
+                  { "type": "record", "name": "Inner", "namespace": "com.test.b", "fields": [] }
+                ]
+              },
+              { "name": "f_array", "type": { "type": "array", "items": ["null", "long"] } },
+              { "name": "f_map", "type": { "type": "map", "values": ["null", "string"] } },
+              { "name": "f_recursive", "type": "Node" },
+              { "name": "f_uuid", "type": { "type": "string", "logicalType": "uuid" } },
+              { "name": "f_decimal",
+                "type": { "type": "bytes", "logicalType": "decimal", "precision": 10, "scale": 2 } },
+              { "name": "f_date", "type": { "type": "int", "logicalType": "date" } },
+              { "name": "f_time_millis", "type": { "type": "int", "logicalType": "time-millis" } },
+              { "name": "f_time_micros", "type": { "type": "long", "logicalType": "time-micros" } },
+              { "name": "f_ts_millis", "type": { "type": "long", "logicalType": "timestamp-millis" } },
+              { "name": "f_ts_micros", "type": { "type": "long", "logicalType": "timestamp-micros" } },
+              { "name": "f_local_ts_millis", "type": { "type": "long", "logicalType": "local-timestamp-millis" } },
+              { "name": "f_logical_union", "type": ["null",
+                  { "type": "int", "logicalType": "time-millis" },
+                  { "type": "long", "logicalType": "time-micros" }
+                ]
+              }
+            ]
+          }"""
+  );
+
+  @Test
+  void producesSameJsonAsGenericRecordConversion() {
+    String json = """
+        {
+          "f_int": -123,
+          "f_long": 9223372036854775807,
+          "f_float": 1.5,
+          "f_double": 12345.6789,
+          "f_boolean": true,
+          "f_string": "text with \\"quotes\\", unicode ☺ and \\n new line",
+          "f_bytes": "\\u0000\\u00ff bytes",
+          "f_fixed": "abcd",
+          "f_enum": "HEARTS",
+          "f_nullable_set": { "string": "set" },
+          "f_union": { "Node": { "name": "n1", "child": { "Node": { "name": "n2" } } } },
+          "f_union_names_clash": { "com.test.b.Inner": { } },
+          "f_array": [ { "long": 1 }, null, { "long": -1 } ],
+          "f_map": {
+            "k1": { "string": "v1" }, "k2": null, "ключ": { "string": "v3" }, "k4": { "string": "v4" },
+            "k5": { "string": "v5" }, "k6": { "string": "v6" }, "k7": { "string": "v7" }
+          },
+          "f_recursive": { "name": "root", "child": { "Node": { "name": "leaf" } } },
+          "f_uuid": "a0b1c2d3-e4f5-4a6b-8c7d-9e0f1a2b3c4d",
+          "f_decimal": 12345.67,
+          "f_date": "2023-01-15",
+          "f_time_millis": "10:15:30.123",
+          "f_time_micros": "10:15:30.123456",
+          "f_ts_millis": "2023-01-15T10:15:30.123Z",
+          "f_ts_micros": "2023-01-15T10:15:30.123456Z",
+          "f_local_ts_millis": "2023-01-15T10:15:30.123",
+          "f_logical_union": { "long": "10:15:30.123456" }
+        }
+        """;
+    assertDecodedSameWay(json);
+  }
+
+  @Test
+  void nullableFieldsAreSkippedSameWayAsInGenericRecordConversion() {
+    String json = """
+        {
+          "f_int": 0, "f_long": 0, "f_float": 0.0, "f_double": 0.0, "f_boolean": false,
+          "f_string": "", "f_bytes": "", "f_fixed": "0000", "f_enum": "SPADES",
+          "f_union": { "int": 1 },
+          "f_union_names_clash": { "com.test.a.Inner": { } },
+          "f_array": [], "f_map": { },
+          "f_recursive": { "name": "root" },
+          "f_uuid": "a0b1c2d3-e4f5-4a6b-8c7d-9e0f1a2b3c4d",
+          "f_decimal": 0.01,
+          "f_date": 0, "f_time_millis": 0, "f_time_micros": 0,
+          "f_ts_millis": 0, "f_ts_micros": 0, "f_local_ts_millis": 0
+        }
+        """;
+    assertDecodedSameWay(json);
+  }
+
+  @Test
+  void nonRecordSchemasAreNotSupported() {
+    assertThat(AvroToJsonStreamingDecoder.forSchema(Schema.create(Schema.Type.STRING))).isEmpty();
+    assertThat(AvroToJsonStreamingDecoder.forSchema(SCHEMA.getField("f_union").schema())).isEmpty();
+    assertThat(AvroToJsonStreamingDecoder.forSchema(SCHEMA)).isPresent();
+  }
+
+  @SneakyThrows
+  private void assertDecodedSameWay(String json) {
+    var out = new ByteArrayOutputStream();
+    var encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<>(SCHEMA, AvroData.getGenericData()).write(convertJsonToAvro(json, SCHEMA), encoder);
+    encoder.flush();
+    byte[] bytes = out.toByteArray();
+
+    Object record = new GenericDatumReader<>(SCHEMA, SCHEMA, AvroData.getGenericData())
+        .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    String expected = convertAvroToJson(record, SCHEMA).toString();
+
+    // data is placed in the middle of array, like in schema registry payloads
+    byte[] padded = new byte[bytes.length + 7];
+    System.arraycopy(bytes, 0, padded, 5, bytes.length);
+    String actual = AvroToJsonStreamingDecoder.forSchema(SCHEMA).orElseThrow().decode(padded, 5, bytes.length);
+
+    assertThat(actual).isEqualTo(expected);
+  }
+}
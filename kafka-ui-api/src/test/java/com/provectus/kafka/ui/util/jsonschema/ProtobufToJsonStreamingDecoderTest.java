@@ -0,0 +1,199 @@
+package com.provectus.kafka.ui.util.jsonschema;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.JsonFormat;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import java.io.ByteArrayOutputStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class ProtobufToJsonStreamingDecoderTest {
+
+  private static final ProtobufSchema SCHEMA = new ProtobufSchema(
+      """
+          syntax = "proto3";
+          package test;
+
+          import "google/protobuf/timestamp.proto";
+          import "google/protobuf/struct.proto";
+          import "google/protobuf/wrappers.proto";
+
+          enum Color {
+            RED = 0;
+            GREEN = 1;
+          }
+
+          message TestMsg {
+            int32 f_int32 = 1;
+            int64 f_int64 = 2;
+            uint32 f_uint32 = 3;
+            uint64 f_uint64 = 4;
+            sint32 f_sint32 = 5;
+            sint64 f_sint64 = 6;
+            fixed32 f_fixed32 = 7;
+            fixed64 f_fixed64 = 8;
+            sfixed32 f_sfixed32 = 9;
+            sfixed64 f_sfixed64 = 10;
+            float f_float = 11;
+            double f_double = 12;
+            bool f_bool = 13;
+            string f_string = 14;
+            bytes f_bytes = 15;
+            Color f_enum = 16;
+            Nested f_nested = 17;
+            repeated int32 f_packed = 18;
+            repeated string f_strings = 19;
+            repeated Nested f_nested_list = 20;
+            map<string, int64> f_map = 21;
+            map<int32, Nested> f_message_map = 22;
+            map<bool, Color> f_bool_map = 23;
+            oneof f_oneof {
+              string oneof_string = 24;
+              Nested oneof_nested = 25;
+            }
+            optional int32 f_optional = 26;
+            google.protobuf.Timestamp f_timestamp = 27;
+            google.protobuf.Int32Value f_wrapper = 28;
+            google.protobuf.Struct f_struct = 29;
+            google.protobuf.NullValue f_null = 30;
+            repeated double f_doubles = 31;
+            TestMsg f_recursive = 100;
+            uint32 f_sparse = 100000;
+
+            message Nested {
+              string name = 1;
+              repeated Color colors = 2;
+            }
+          }
+          """
+  );
+
+  private static final Descriptor DESCRIPTOR = SCHEMA.toDescriptor("test.TestMsg");
+
+  @Test
+  void producesSameJsonAsJsonFormatPrinter() {
+    assertDecodedSameWay("""
+        {
+          "f_int32": -123,
+          "f_int64": "-9223372036854775808",
+          "f_uint32": 4294967295,
+          "f_uint64": "18446744073709551615",
+          "f_sint32": -5,
+          "f_sint64": "-6",
+          "f_fixed32": 4000000000,
+          "f_fixed64": "7",
+          "f_sfixed32": -8,
+          "f_sfixed64": "-9",
+          "f_float": 1.5E10,
+          "f_double": "NaN",
+          "f_bool": true,
+          "f_string": "<tag attr='1'> & \\"quotes\\", unicode ☺, \\u2028, \\u0001 and \\n new line",
+          "f_bytes": "AAECAwT/",
+          "f_enum": "GREEN",
+          "f_nested": { "name": "n1", "colors": ["GREEN", "RED"] },
+          "f_packed": [1, -2, 3],
+          "f_strings": ["a", "", "c"],
+          "f_nested_list": [{ "name": "l1" }, {}],
+          "f_map": { "k1": "1", "": "2" },
+          "f_message_map": { "1": { "name": "m1" }, "-2": {} },
+          "f_bool_map": { "true": "GREEN", "false": "RED" },
+          "oneof_nested": { "colors": ["GREEN"] },
+          "f_optional": 0,
+          "f_timestamp": "2023-01-15T10:15:30.123Z",
+          "f_wrapper": 0,
+          "f_struct": { "a": [1, "b", null, { "c": true }] },
+          "f_null": null,
+          "f_doubles": [0.1, "Infinity", -1.0E-10],
+          "f_recursive": { "f_string": "inner", "f_recursive": { "oneof_string": "deep" } },
+          "f_sparse": 1
+        }
+        """);
+  }
+
+  @Test
+  void writesDefaultValuesSameWayAsJsonFormatPrinter() {
+    assertDecodedSameWay("{}");
+    assertDecodedSameWay("{ \"f_message_map\": { \"0\": {} }, \"oneof_string\": \"\" }");
+  }
+
+  @Test
+  @SneakyThrows
+  void mapEntriesWithoutKeyOrValueAreDecodedSameWayAsInDynamicMessage() {
+    var out = new ByteArrayOutputStream();
+    var coded = CodedOutputStream.newInstance(out);
+    // f_map entry without key
+    coded.writeTag(21, 2);
+    coded.writeUInt32NoTag(2);
+    coded.writeInt64(2, 5);
+    // f_message_map entry without value
+    coded.writeTag(22, 2);
+    coded.writeUInt32NoTag(2);
+    coded.writeInt32(1, 3);
+    coded.flush();
+    assertDecodedSameWay(out.toByteArray());
+  }
+
+  @Test
+  @SneakyThrows
+  void nonCanonicalEncodingIsRejected() {
+    var outOfOrder = new ByteArrayOutputStream();
+    var coded = CodedOutputStream.newInstance(outOfOrder);
+    coded.writeInt32(2, 1);
+    coded.writeInt32(1, 1);
+    coded.flush();
+    var decoder = ProtobufToJsonStreamingDecoder.forDescriptor(DESCRIPTOR).orElseThrow();
+    assertThatThrownBy(() -> decoder.decode(outOfOrder.toByteArray(), 0, outOfOrder.size()))
+        .isInstanceOf(IllegalStateException.class);
+
+    var unknownEnum = new ByteArrayOutputStream();
+    coded = CodedOutputStream.newInstance(unknownEnum);
+    coded.writeEnum(16, 100);
+    coded.flush();
+    assertThatThrownBy(() -> decoder.decode(unknownEnum.toByteArray(), 0, unknownEnum.size()))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void wellKnownTypesAndRequiredFieldsAreNotSupported() {
+    var proto2Schema = new ProtobufSchema(
+        """
+            syntax = "proto2";
+            message WithRequired {
+              required int32 f = 1;
+            }
+            """
+    );
+    assertThat(ProtobufToJsonStreamingDecoder.forDescriptor(proto2Schema.toDescriptor())).isEmpty();
+    assertThat(ProtobufToJsonStreamingDecoder.forDescriptor(Timestamp.getDescriptor())).isEmpty();
+  }
+
+  @SneakyThrows
+  private void assertDecodedSameWay(String json) {
+    DynamicMessage.Builder builder = DynamicMessage.newBuilder(DESCRIPTOR);
+    JsonFormat.parser().merge(json, builder);
+    assertDecodedSameWay(builder.build().toByteArray());
+  }
+
+  @SneakyThrows
+  private void assertDecodedSameWay(byte[] bytes) {
+    String expected = JsonFormat.printer()
+        .includingDefaultValueFields()
+        .omittingInsignificantWhitespace()
+        .preservingProtoFieldNames()
+        .print(DynamicMessage.parseFrom(DESCRIPTOR, bytes));
+
+    // data is placed in the middle of array, like in schema registry payloads
+    byte[] padded = new byte[bytes.length + 7];
+    System.arraycopy(bytes, 0, padded, 5, bytes.length);
+    String actual = ProtobufToJsonStreamingDecoder.forDescriptor(DESCRIPTOR).orElseThrow()
+        .decode(padded, 5, bytes.length);
+
+    assertThat(actual).isEqualTo(expected);
+  }
+}
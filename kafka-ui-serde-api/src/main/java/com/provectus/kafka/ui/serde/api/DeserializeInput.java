@@ -0,0 +1,45 @@
+package com.provectus.kafka.ui.serde.api;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Single record's key/value passed to {@code Deserializer.deserializeBatch(...)}.
+ */
+public final class DeserializeInput {
+
+  private final RecordHeaders headers;
+  private final ByteBuffer data;
+
+  /**
+   * @param headers record's headers (empty for keys)
+   * @param data    key/value bytes between buffer's position and limit
+   */
+  public DeserializeInput(RecordHeaders headers, ByteBuffer data) {
+    this.headers = Objects.requireNonNull(headers);
+    this.data = Objects.requireNonNull(data);
+  }
+
+  /**
+   * @return record's headers
+   */
+  public RecordHeaders getHeaders() {
+    return headers;
+  }
+
+  /**
+   * @return key/value data. Buffer can be a view on a bigger array, so data should be read between
+   * buffer's position and limit, without modifying buffer's state.
+   */
+  public ByteBuffer getData() {
+    return data;
+  }
+
+  @Override
+  public String toString() {
+    return "DeserializeInput{"
+        + "headers=" + headers
+        + ", dataSize=" + data.remaining()
+        + '}';
+  }
+}
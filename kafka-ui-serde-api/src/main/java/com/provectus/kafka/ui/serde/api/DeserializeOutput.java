@@ -0,0 +1,63 @@
+package com.provectus.kafka.ui.serde.api;
+
+import java.util.Objects;
+
+/**
+ * Single record's key/value result returned by {@code Deserializer.deserializeBatch(...)}:
+ * either deserialization result or error that happened during this record's deserialization.
+ */
+public final class DeserializeOutput {
+
+  // exactly one of fields is set
+  private final DeserializeResult result;
+  private final Exception error;
+
+  private DeserializeOutput(DeserializeResult result, Exception error) {
+    this.result = result;
+    this.error = error;
+  }
+
+  /**
+   * @param result record's deserialization result
+   * @return successful output
+   */
+  public static DeserializeOutput success(DeserializeResult result) {
+    return new DeserializeOutput(Objects.requireNonNull(result), null);
+  }
+
+  /**
+   * @param error error that happened during record's deserialization
+   * @return failed output, kafka-ui will deserialize this record with fallback serde
+   */
+  public static DeserializeOutput failure(Exception error) {
+    return new DeserializeOutput(null, Objects.requireNonNull(error));
+  }
+
+  /**
+   * @return deserialization result, null if deserialization failed
+   */
+  public DeserializeResult getResult() {
+    return result;
+  }
+
+  /**
+   * @return deserialization error, null if deserialization succeeded
+   */
+  public Exception getError() {
+    return error;
+  }
+
+  /**
+   * @return true if deserialization failed
+   */
+  public boolean isFailure() {
+    return error != null;
+  }
+
+  @Override
+  public String toString() {
+    return "DeserializeOutput{"
+        + (error != null ? "error=" + error : "result=" + result)
+        + '}';
+  }
+}
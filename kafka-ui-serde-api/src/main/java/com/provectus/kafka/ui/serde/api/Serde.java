@@ -1,6 +1,9 @@
 package com.provectus.kafka.ui.serde.api;
 
 import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -103,6 +106,45 @@ public interface Serde extends Closeable {
    */
   interface Deserializer {
     DeserializeResult deserialize(RecordHeaders headers, byte[] data);
+
+    /**
+     * Deserializes remaining bytes of the buffer. Buffer can be a view on a bigger array, so implementations
+     * should read data between buffer's position and limit and should not modify buffer's state.
+     * Default implementation calls {@code deserialize(headers, byte[])} with buffer's backing array if buffer
+     * wraps whole array, otherwise remaining bytes are copied to new array. Implementations that can decode data
+     * directly from buffer should override it to avoid that copy.
+     */
+    default DeserializeResult deserialize(RecordHeaders headers, ByteBuffer data) {
+      if (data.hasArray()
+          && data.arrayOffset() == 0
+          && data.position() == 0
+          && data.remaining() == data.array().length) {
+        return deserialize(headers, data.array());
+      }
+      byte[] bytes = new byte[data.remaining()];
+      data.duplicate().get(bytes);
+      return deserialize(headers, bytes);
+    }
+
+    /**
+     * Deserializes batch of polled records' keys/values. Returned list should have the same size and order as input,
+     * with result or error for each input, so error in one record does not affect other batch's records.
+     * Records with errors are deserialized by kafka-ui with fallback serde. If this method throws an exception,
+     * kafka-ui deserializes batch's records one by one.
+     * Default implementation calls {@code deserialize(headers, ByteBuffer)} for each input,
+     * implementations can override it to amortize per-record setup or reuse buffers within the batch.
+     */
+    default List<DeserializeOutput> deserializeBatch(List<DeserializeInput> batch) {
+      List<DeserializeOutput> outputs = new ArrayList<>(batch.size());
+      for (DeserializeInput input : batch) {
+        try {
+          outputs.add(DeserializeOutput.success(deserialize(input.getHeaders(), input.getData())));
+        } catch (Exception e) {
+          outputs.add(DeserializeOutput.failure(e));
+        }
+      }
+      return outputs;
+    }
   }
 
 }